@@ -0,0 +1,85 @@
+#!/usr/bin/env bash
+# Compares startup of the fat jar with the fast-start (Spring AOT + CDS) build.
+#
+# For each variant and run it reports the time from launch until /actuator/health/liveness answers,
+# the JVM uptime Spring logs at "Started ...", and the latency of the first and second request to
+# FIRST_PATH. The service runs with an in-memory database and without the warm sync, so no
+# Bundesbank call is involved.
+#
+#   ./mvnw -DskipTests package && ./mvnw -DskipTests -Pfast-start package
+#   scripts/measure-startup.sh [runs]
+#
+# With IMAGES="fx:fat fx:fast-start" the given Docker images are compared instead of local builds:
+#   docker build -t fx:fat . && docker build --target fast-start -t fx:fast-start .
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+RUNS=${1:-5}
+PORT=${PORT:-18080}
+FIRST_PATH=${FIRST_PATH:-/api/conversions/to-eur?date=2026-01-02&currency=EUR&amount=100}
+JAVA=${JAVA_HOME:+$JAVA_HOME/bin/}java
+APP_ARGS=(--spring.datasource.url=jdbc:h2:mem:startup --fx.sync.warm.enabled=false --spring.main.banner-mode=off)
+
+now_ms() { date +%s%3N; }
+
+launch() {
+  local variant=$1 log=$2
+  case $variant in
+    fat)
+      "$JAVA" -jar target/eur-fx-service.jar --server.port="$PORT" "${APP_ARGS[@]}" >"$log" 2>&1 &
+      ;;
+    fast-start)
+      (cd target/fast-start && exec "$JAVA" -XX:SharedArchiveFile=eur-fx-service.jsa -Dspring.aot.enabled=true \
+        -jar eur-fx-service.jar --server.port="$PORT" "${APP_ARGS[@]}") >"$log" 2>&1 &
+      ;;
+    *)
+      docker run --rm --name fx-startup -p "$PORT:8080" "$variant" "${APP_ARGS[@]}" >"$log" 2>&1 &
+      ;;
+  esac
+  PID=$!
+}
+
+stop() {
+  local variant=$1
+  case $variant in
+    fat | fast-start) kill "$PID" 2>/dev/null || true ;;
+    *) docker stop fx-startup >/dev/null 2>&1 || true ;;
+  esac
+  wait "$PID" 2>/dev/null || true
+}
+
+request_ms() {
+  curl -s -o /dev/null -w '%{time_total}' "http://127.0.0.1:$PORT$1" | awk '{ printf "%.1f", $1 * 1000 }'
+}
+
+if [[ -n ${IMAGES:-} ]]; then
+  read -r -a VARIANTS <<<"$IMAGES"
+else
+  VARIANTS=(fat fast-start)
+  [[ -f target/eur-fx-service.jar ]] || { echo "target/eur-fx-service.jar missing, run ./mvnw -DskipTests package" >&2; exit 1; }
+  [[ -f target/fast-start/eur-fx-service.jsa ]] || { echo "fast-start build missing, run ./mvnw -DskipTests -Pfast-start package" >&2; exit 1; }
+fi
+
+printf '%-24s %4s %10s %10s %10s %10s\n' variant run ready_ms started_s first_ms second_ms
+for variant in "${VARIANTS[@]}"; do
+  for run in $(seq 1 "$RUNS"); do
+    log=$(mktemp)
+    start=$(now_ms)
+    launch "$variant" "$log"
+    until curl -sf -o /dev/null "http://127.0.0.1:$PORT/actuator/health/liveness"; do
+      if ! kill -0 "$PID" 2>/dev/null; then
+        echo "$variant exited during startup:" >&2
+        tail -20 "$log" >&2
+        exit 1
+      fi
+      sleep 0.02
+    done
+    ready=$(($(now_ms) - start))
+    first=$(request_ms "$FIRST_PATH")
+    second=$(request_ms "$FIRST_PATH")
+    started=$(sed -n 's/.*Started .* (process running for \([0-9.]*\)).*/\1/p' "$log" | head -1)
+    printf '%-24s %4d %10d %10s %10s %10s\n' "$variant" "$run" "$ready" "${started:--}" "$first" "$second"
+    stop "$variant"
+    rm -f "$log"
+  done
+done
@@ -0,0 +1,159 @@
+package com.crewmeister.cmcodingchallenge.bank;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.Http2SslContextSpec;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+
+import javax.net.ssl.KeyManagerFactory;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Fetches a 90-day single-currency payload from a local HTTPS stub that offers HTTP/2 and
+ * HTTP/1.1, like Bundesbank. The service's client is built by {@link RestClientConfig} from the
+ * default {@code fx.bank.*} settings, with HTTP/2 offered or not, and compared with the JDK client
+ * and {@code HttpURLConnection}; several callers run at once so connection reuse and multiplexing
+ * matter. The stub's certificate is self-signed and trusted through the JVM's default trust store,
+ * so every client keeps its stock TLS setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class BankHttpClientBenchmark {
+
+    private static final String PATH = "/rest/data/BBEX3/D.XAA.EUR.BB.AC.000";
+    private static final String PASSWORD = "benchmark";
+    private static final Duration READ_TIMEOUT = Duration.ofSeconds(10);
+
+    @Param({"config-h2", "config-http11", "jdk", "url-connection"})
+    public String client;
+
+    private Path keyStore;
+    private DisposableServer server;
+    private ConnectionProvider connectionProvider;
+    private RestClient restClient;
+    private final AtomicReference<String> lastProtocol = new AtomicReference<>();
+
+    @Setup
+    public void setUp() throws IOException, InterruptedException, GeneralSecurityException {
+        this.keyStore = selfSignedKeyStore();
+        // read when the clients first build their TLS context, so it is set before any of them exists
+        System.setProperty("javax.net.ssl.trustStore", this.keyStore.toString());
+        System.setProperty("javax.net.ssl.trustStorePassword", PASSWORD);
+        System.setProperty("javax.net.ssl.trustStoreType", "PKCS12");
+
+        KeyManagerFactory keyManagers = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        keyManagers.init(KeyStore.getInstance(this.keyStore.toFile(), PASSWORD.toCharArray()), PASSWORD.toCharArray());
+        byte[] body = SdmxPayloads.generate(1, 90).toString().getBytes(StandardCharsets.UTF_8);
+        this.server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .protocol(HttpProtocol.H2, HttpProtocol.HTTP11)
+                .secure(spec -> spec.sslContext(Http2SslContextSpec.forServer(keyManagers)))
+                .handle((request, response) -> {
+                    this.lastProtocol.set(request.version().text());
+                    return response.header("Content-Type", "application/json").sendByteArray(Mono.just(body));
+                })
+                .bindNow();
+
+        String baseUrl = "https://127.0.0.1:" + this.server.port();
+        this.restClient = switch (this.client) {
+            case "config-h2", "config-http11" -> {
+                BankClientProperties properties = new Binder(new MapConfigurationPropertySource(Map.of(
+                        "fx.bank.base-url", baseUrl,
+                        "fx.bank.pool.http2", Boolean.toString(this.client.equals("config-h2")))))
+                        .bindOrCreate("fx.bank", BankClientProperties.class);
+                RestClientConfig config = new RestClientConfig();
+                this.connectionProvider = config.bankConnectionProvider(properties);
+                yield config.restClient(properties, this.connectionProvider);
+            }
+            case "jdk" -> {
+                JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory();
+                factory.setReadTimeout(READ_TIMEOUT);
+                yield RestClient.builder().baseUrl(baseUrl).requestFactory(factory).build();
+            }
+            case "url-connection" -> {
+                SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
+                factory.setReadTimeout(READ_TIMEOUT);
+                yield RestClient.builder().baseUrl(baseUrl).requestFactory(factory).build();
+            }
+            default -> throw new IllegalArgumentException("unknown client " + this.client);
+        };
+
+        // a silent fallback to HTTP/1.1 would measure the wrong thing
+        fetch();
+        if (this.client.equals("config-h2") && !this.lastProtocol.get().startsWith("HTTP/2")) {
+            throw new IllegalStateException("HTTP/2 was not negotiated: " + this.lastProtocol.get());
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        if (this.connectionProvider != null) {
+            this.connectionProvider.dispose();
+        }
+        this.server.disposeNow();
+        Files.deleteIfExists(this.keyStore);
+    }
+
+    @Benchmark
+    public JsonNode fetch() {
+        return this.restClient.get().uri(PATH).retrieve().body(JsonNode.class);
+    }
+
+    /**
+     * Generates a key store holding a self-signed certificate for the loopback address with the
+     * JDK's {@code keytool}.
+     */
+    private static Path selfSignedKeyStore() throws IOException, InterruptedException {
+        Path file = Files.createTempFile("bank-stub", ".p12");
+        // keytool refuses to add to an existing empty file
+        Files.delete(file);
+        Process keytool = new ProcessBuilder(
+                Path.of(System.getProperty("java.home"), "bin", "keytool").toString(),
+                "-genkeypair", "-alias", "stub", "-keyalg", "RSA", "-keysize", "2048", "-validity", "1",
+                "-dname", "CN=localhost", "-ext", "SAN=ip:127.0.0.1,dns:localhost",
+                "-storetype", "PKCS12", "-keystore", file.toString(), "-storepass", PASSWORD)
+                .redirectErrorStream(true)
+                .start();
+        String output = new String(keytool.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        if (keytool.waitFor() != 0) {
+            throw new IllegalStateException("keytool failed: " + output);
+        }
+        return file;
+    }
+}
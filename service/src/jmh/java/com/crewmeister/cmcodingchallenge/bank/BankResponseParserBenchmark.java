@@ -0,0 +1,54 @@
+package com.crewmeister.cmcodingchallenge.bank;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses synthetic payloads of one day, one sync window (90 days), one year and ten years across
+ * all currencies, through the list API and the streaming API the sync pipeline uses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BankResponseParserBenchmark {
+
+    @Param({"1", "90", "365", "3650"})
+    public int days;
+
+    private JsonNode payload;
+    private BankResponseParser parser;
+
+    @Setup
+    public void setUp() {
+        this.payload = SdmxPayloads.generate(SdmxPayloads.CURRENCIES, this.days);
+        this.parser = new BankResponseParser(new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public List<ExchangeRateRow> parseList() {
+        return this.parser.parseRates(this.payload);
+    }
+
+    @Benchmark
+    public int parseStreaming(Blackhole blackhole) {
+        return this.parser.parseRates(this.payload, blackhole::consume);
+    }
+}
@@ -0,0 +1,74 @@
+package com.crewmeister.cmcodingchallenge.bank;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Synthetic Bundesbank SDMX-JSON payloads shaped like the BBEX3 daily series.
+ */
+public final class SdmxPayloads {
+
+    /** Number of daily EUR reference series the Bundesbank publishes, roughly. */
+    public static final int CURRENCIES = 40;
+
+    public static final LocalDate FIRST_DATE = LocalDate.of(2016, 1, 1);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private SdmxPayloads() {
+    }
+
+    /**
+     * Builds a payload with {@code currencies} series of {@code days} observations each, starting at
+     * {@link #FIRST_DATE}.
+     *
+     * @param currencies number of series
+     * @param days       number of observations per series
+     * @return payload tree as returned by the Bundesbank API
+     */
+    public static ObjectNode generate(int currencies, int days) {
+        ObjectNode root = MAPPER.createObjectNode();
+        ObjectNode data = root.putObject("data");
+        ObjectNode dims = data.putObject("structure").putObject("dimensions");
+
+        ArrayNode currencyValues = MAPPER.createArrayNode();
+        for (int c = 0; c < currencies; c++) {
+            currencyValues.addObject().put("id", currency(c));
+        }
+        ArrayNode seriesDims = dims.putArray("series");
+        seriesDims.addObject().put("id", "BBK_STD_FREQ");
+        seriesDims.addObject().put("id", "BBK_STD_CURRENCY").set("values", currencyValues);
+
+        ArrayNode dateValues = dims.putArray("observation").addObject().put("id", "TIME_PERIOD").putArray("values");
+        for (int d = 0; d < days; d++) {
+            dateValues.addObject().put("id", FIRST_DATE.plusDays(d).toString());
+        }
+
+        ObjectNode series = data.putArray("dataSets").addObject().putObject("series");
+        for (int c = 0; c < currencies; c++) {
+            ObjectNode observations = series.putObject("0:" + c + ":0:0:0").putObject("observations");
+            for (int d = 0; d < days; d++) {
+                observations.putArray(Integer.toString(d)).add(rate(c, d));
+            }
+        }
+        return root;
+    }
+
+    /**
+     * Returns the synthetic currency code of series {@code index}.
+     *
+     * @param index series index
+     * @return three-letter code
+     */
+    public static String currency(int index) {
+        return "X" + (char) ('A' + index / 26) + (char) ('A' + index % 26);
+    }
+
+    private static BigDecimal rate(int currency, int day) {
+        return BigDecimal.valueOf(10_000 + currency * 1_375L + (day * 37L) % 500, 4);
+    }
+}
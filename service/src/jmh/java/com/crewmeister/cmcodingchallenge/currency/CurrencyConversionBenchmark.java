@@ -0,0 +1,91 @@
+package com.crewmeister.cmcodingchallenge.currency;
+
+import com.crewmeister.cmcodingchallenge.dto.ConversionResponse;
+import com.crewmeister.cmcodingchallenge.model.ExchangeRateEntity;
+import com.crewmeister.cmcodingchallenge.model.ExchangeRateRepository;
+import com.crewmeister.cmcodingchallenge.model.SyncCoverageRepository;
+import com.crewmeister.cmcodingchallenge.sync.SyncProperties;
+import com.crewmeister.cmcodingchallenge.sync.SyncService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the EUR conversion arithmetic on its own and {@code convertToEur} end to end with the
+ * rate lookup and coverage check answered in memory, so validation and response building show up
+ * as the difference between the two.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CurrencyConversionBenchmark {
+
+    private static final LocalDate DATE = LocalDate.of(2026, 2, 18);
+
+    /** A USD-like rate with 4 decimals and a JPY-like rate with 2 decimals and 3 integer digits. */
+    @Param({"1.0825", "161.93"})
+    public String rate;
+
+    @Param({"125.50", "98765432.123456"})
+    public String amount;
+
+    private BigDecimal rateValue;
+    private BigDecimal amountValue;
+    private CurrencyConversionService service;
+
+    @Setup
+    public void setUp() {
+        this.rateValue = new BigDecimal(this.rate);
+        this.amountValue = new BigDecimal(this.amount);
+
+        ExchangeRateEntity stored = new ExchangeRateEntity(DATE, "USD", this.rateValue);
+        ExchangeRateRepository repo = stub(ExchangeRateRepository.class, "findByIdDateAndIdCurrency", Optional.of(stored));
+        SyncCoverageRepository coverageRepo = stub(SyncCoverageRepository.class, "countCoveredDates", 1L);
+        // every lookup is covered, so neither the pipeline nor the lease is reached
+        SyncService syncService = new SyncService(coverageRepo, null, null,
+                new SyncProperties(Duration.ofSeconds(20), 500, 1000, 60), new SimpleMeterRegistry());
+        this.service = new CurrencyConversionService(syncService, repo);
+    }
+
+    @Benchmark
+    public BigDecimal toEur() {
+        return CurrencyConversionService.toEur(this.amountValue, this.rateValue);
+    }
+
+    @Benchmark
+    public ConversionResponse convertToEur() {
+        return this.service.convertToEur(DATE, "usd", this.amountValue);
+    }
+
+    /**
+     * Implements a repository interface with a single answered method, without a mocking framework
+     * whose bookkeeping would dominate the measurement.
+     */
+    private static <T> T stub(Class<T> type, String method, Object result) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, m, args) -> {
+            if (m.getName().equals(method)) {
+                return result;
+            }
+            throw new UnsupportedOperationException(m.getName());
+        }));
+    }
+}
@@ -0,0 +1,93 @@
+package com.crewmeister.cmcodingchallenge.model;
+
+import com.crewmeister.cmcodingchallenge.bank.SdmxPayloads;
+import com.crewmeister.cmcodingchallenge.dto.RateItem;
+import com.crewmeister.cmcodingchallenge.sync.BenchmarkDatabase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs {@code findRates} against an H2 database holding ten years of rates for every currency,
+ * for the query shapes of {@code /api/rates}: one day, the default 30-day window and the 90-day
+ * maximum, across all currencies or one, at a small page and the API's default page size.
+ * {@code findRatesAsItems} is the API's former path, loading entities and copying them into
+ * response items; {@code findRateItems} projects the same page straight into items.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FindRatesBenchmark {
+
+    private static final int STORED_DAYS = 3650;
+
+    @Param({"1", "30", "90"})
+    public int days;
+
+    @Param({"all", "XAB"})
+    public String currency;
+
+    @Param({"100", "1000"})
+    public int limit;
+
+    private BenchmarkDatabase database;
+    private ExchangeRateRepository repo;
+    private LocalDate start;
+    private LocalDate end;
+    private String currencyFilter;
+
+    @Setup
+    public void setUp() {
+        this.database = BenchmarkDatabase.populated(STORED_DAYS);
+        this.repo = this.database.repository();
+        // the most recent window, where the API's default range lands
+        this.end = SdmxPayloads.FIRST_DATE.plusDays(STORED_DAYS - 1);
+        this.start = this.end.minusDays(this.days - 1);
+        this.currencyFilter = this.currency.equals("all") ? null : this.currency;
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.database.close();
+    }
+
+    @Benchmark
+    public List<ExchangeRateEntity> findRates() {
+        return this.repo.findRates(this.start, this.end, this.currencyFilter, this.limit, 0);
+    }
+
+    @Benchmark
+    public List<RateItem> findRatesAsItems() {
+        return this.repo.findRates(this.start, this.end, this.currencyFilter, this.limit, 0).stream()
+                .map(e -> new RateItem(e.getDate(), e.getCurrency(), e.getRate()))
+                .toList();
+    }
+
+    @Benchmark
+    public List<RateItem> findRateItems() {
+        return this.repo.findRateItems(this.start, this.end, this.currencyFilter, this.limit, 0);
+    }
+
+    @Benchmark
+    public List<ExchangeRateEntity> findRatesLastPage() {
+        int rows = this.days * (this.currencyFilter == null ? SdmxPayloads.CURRENCIES : 1);
+        int offset = Math.max(0, rows - this.limit);
+        return this.repo.findRates(this.start, this.end, this.currencyFilter, this.limit, offset);
+    }
+}
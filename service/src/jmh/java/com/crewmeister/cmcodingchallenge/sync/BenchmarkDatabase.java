@@ -0,0 +1,134 @@
+package com.crewmeister.cmcodingchallenge.sync;
+
+import com.crewmeister.cmcodingchallenge.bank.Deadline;
+import com.crewmeister.cmcodingchallenge.bank.ExchangeRateRow;
+import com.crewmeister.cmcodingchallenge.bank.SdmxPayloads;
+import com.crewmeister.cmcodingchallenge.config.ReplicaDataSourceConfig;
+import com.crewmeister.cmcodingchallenge.config.ReplicaProperties;
+import com.crewmeister.cmcodingchallenge.model.ExchangeRateRepository;
+import com.crewmeister.cmcodingchallenge.model.SyncCoverageId;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * In-memory H2 database with the service's JPA model and {@link DbWriter}, pre-populated with
+ * {@link SdmxPayloads#CURRENCIES} currencies over a number of days through the regular write path,
+ * holding the sync lease. Optionally, read-only transactions go to a second in-memory H2 replica
+ * that is refreshed after every commit.
+ * No Bundesbank client, web layer or startup sync is started.
+ */
+public final class BenchmarkDatabase implements AutoCloseable {
+
+    /** Days written per transaction while populating, a multiple of whole days as the pipeline cuts them. */
+    private static final int DAYS_PER_BATCH = 50;
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EntityScan(basePackageClasses = SyncCoverageId.class)
+    @EnableJpaRepositories(basePackageClasses = ExchangeRateRepository.class)
+    @EnableConfigurationProperties({SyncLeaseProperties.class, DataVersionProperties.class, ReplicaProperties.class})
+    @Import({DbWriter.class, SyncLease.class, ReplicaDataSourceConfig.class})
+    static class Config {
+    }
+
+    private final ConfigurableApplicationContext context;
+    private final int days;
+
+    private BenchmarkDatabase(ConfigurableApplicationContext context, int days) {
+        this.context = context;
+        this.days = days;
+    }
+
+    /**
+     * Starts a fresh database and writes {@code days} days of rates starting at
+     * {@link SdmxPayloads#FIRST_DATE}.
+     *
+     * @param days number of days to populate
+     * @return started database
+     */
+    public static BenchmarkDatabase populated(int days) {
+        return populated(days, false);
+    }
+
+    /**
+     * Starts a fresh database, with or without a read replica, and writes {@code days} days of
+     * rates starting at {@link SdmxPayloads#FIRST_DATE}.
+     *
+     * @param days    number of days to populate
+     * @param replica whether read-only transactions read from a replica
+     * @return started database
+     */
+    public static BenchmarkDatabase populated(int days, boolean replica) {
+        String id = UUID.randomUUID().toString();
+        // command-line arguments, so they take precedence over application.properties
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(Config.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:fx-" + id + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                        "--fx.db.replica.enabled=" + replica,
+                        "--fx.db.replica.url=jdbc:h2:mem:fx-replica-" + id + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.hibernate.ddl-auto=create",
+                        "--spring.jpa.properties.hibernate.format_sql=false",
+                        "--spring.main.banner-mode=off",
+                        // the readiness group names indicators of the full application
+                        "--management.endpoint.health.validate-group-membership=false",
+                        "--logging.level.root=WARN");
+        // writes are fenced by the sync lease, held for the lifetime of the database as by a running sync
+        context.getBean(SyncLease.class).acquire(Deadline.NONE);
+        BenchmarkDatabase database = new BenchmarkDatabase(context, days);
+        for (int from = 0; from < days; from += DAYS_PER_BATCH) {
+            database.writer().saveBatch(rows(from, Math.min(days, from + DAYS_PER_BATCH), 0), SyncCoverageId.ALL_CURRENCIES);
+        }
+        return database;
+    }
+
+    public ExchangeRateRepository repository() {
+        return this.context.getBean(ExchangeRateRepository.class);
+    }
+
+    public DbWriter writer() {
+        return this.context.getBean(DbWriter.class);
+    }
+
+    public int days() {
+        return this.days;
+    }
+
+    /**
+     * Builds every currency's rows for the days {@code [fromDay, toDay)}, ordered date by date.
+     *
+     * @param fromDay  first day offset from {@link SdmxPayloads#FIRST_DATE} (inclusive)
+     * @param toDay    last day offset (exclusive)
+     * @param revision added to every rate in units of the last decimal, so a new revision changes every row
+     * @return rows as the streaming parser emits them
+     */
+    public static List<ExchangeRateRow> rows(int fromDay, int toDay, int revision) {
+        List<ExchangeRateRow> rows = new ArrayList<>((toDay - fromDay) * SdmxPayloads.CURRENCIES);
+        for (int d = fromDay; d < toDay; d++) {
+            LocalDate date = SdmxPayloads.FIRST_DATE.plusDays(d);
+            for (int c = 0; c < SdmxPayloads.CURRENCIES; c++) {
+                long unscaled = 10_000 + c * 1_375L + (d * 37L) % 500 + revision;
+                rows.add(new ExchangeRateRow(date, SdmxPayloads.currency(c), BigDecimal.valueOf(unscaled, 4)));
+            }
+        }
+        return rows;
+    }
+
+    @Override
+    public void close() {
+        this.context.close();
+    }
+}
@@ -0,0 +1,65 @@
+package com.crewmeister.cmcodingchallenge.sync;
+
+import com.crewmeister.cmcodingchallenge.bank.ExchangeRateRow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes and reads {@link RateSnapshot}s of one year and ten years across all currencies. Reading
+ * maps the file and decodes it, which is what a new node does at startup before its database load.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RateSnapshotBenchmark {
+
+    @Param({"365", "3650"})
+    public int days;
+
+    private List<ExchangeRateRow> rows;
+    private List<LocalDate> covered;
+    private Path path;
+
+    @Setup
+    public void setUp() throws IOException {
+        this.rows = BenchmarkDatabase.rows(0, this.days, 0);
+        this.covered = this.rows.stream().map(ExchangeRateRow::date).distinct().toList();
+        this.path = Files.createTempFile("rates", ".snapshot");
+        RateSnapshot.write(this.path, this.rows, this.covered);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(this.path);
+    }
+
+    @Benchmark
+    public long write() throws IOException {
+        return RateSnapshot.write(this.path, this.rows, this.covered);
+    }
+
+    @Benchmark
+    public RateSnapshot.Contents read() throws IOException {
+        return RateSnapshot.read(this.path);
+    }
+}
@@ -0,0 +1,107 @@
+package com.crewmeister.cmcodingchallenge.sync;
+
+import com.crewmeister.cmcodingchallenge.bank.ExchangeRateRow;
+import com.crewmeister.cmcodingchallenge.bank.SdmxPayloads;
+import com.crewmeister.cmcodingchallenge.model.ExchangeRateEntity;
+import com.crewmeister.cmcodingchallenge.model.ExchangeRateRepository;
+import com.crewmeister.cmcodingchallenge.model.SyncCoverageId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read latency of {@code /api/rates}-shaped queries while a 90-day full re-sync that changes every
+ * row runs next to them, once written in direct batches and once staged and published with a single
+ * merge. Compare the {@code read} percentiles of both modes; the {@code sync} row is the writer's
+ * own time per re-sync. With {@code reads=replica}, reads run on a replica with its own connection
+ * pool, and the re-sync also pays for copying the changed days into it after each commit.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ReadDuringSyncBenchmark {
+
+    private static final int STORED_DAYS = 365;
+    private static final int SYNC_DAYS = 90;
+    private static final int BATCH_DAYS = 50;
+
+    @Param({"direct", "staged"})
+    public String write;
+
+    @Param({"primary", "replica"})
+    public String reads;
+
+    private BenchmarkDatabase database;
+    private ExchangeRateRepository repo;
+    private DbWriter writer;
+    private LocalDate readStart;
+    private LocalDate readEnd;
+    private int revision;
+
+    @Setup
+    public void setUp() {
+        this.database = BenchmarkDatabase.populated(STORED_DAYS, this.reads.equals("replica"));
+        this.repo = this.database.repository();
+        this.writer = this.database.writer();
+        this.readEnd = SdmxPayloads.FIRST_DATE.plusDays(STORED_DAYS - 1);
+        this.readStart = this.readEnd.minusDays(29);
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.database.close();
+    }
+
+    @Benchmark
+    @Group("readDuringSync")
+    @GroupThreads(3)
+    public List<ExchangeRateEntity> read() {
+        return this.repo.findRates(this.readStart, this.readEnd, null, 1000, 0);
+    }
+
+    @Benchmark
+    @Group("readDuringSync")
+    @GroupThreads(1)
+    public WriteResult sync() {
+        // a new revision changes every rate, so no day is skipped by its digest
+        int rev = ++this.revision;
+        int from = STORED_DAYS - SYNC_DAYS;
+        if (this.write.equals("direct")) {
+            WriteResult result = WriteResult.NONE;
+            for (int day = from; day < STORED_DAYS; day += BATCH_DAYS) {
+                List<ExchangeRateRow> batch = BenchmarkDatabase.rows(day, Math.min(STORED_DAYS, day + BATCH_DAYS), rev);
+                result = result.plus(this.writer.saveBatch(batch, SyncCoverageId.ALL_CURRENCIES));
+            }
+            return result;
+        }
+        String syncId = UUID.randomUUID().toString();
+        Set<LocalDate> dates = new HashSet<>();
+        for (int day = from; day < STORED_DAYS; day += BATCH_DAYS) {
+            List<ExchangeRateRow> batch = BenchmarkDatabase.rows(day, Math.min(STORED_DAYS, day + BATCH_DAYS), rev);
+            this.writer.stageBatch(syncId, batch);
+            batch.forEach(row -> dates.add(row.date()));
+        }
+        return this.writer.publishStaged(syncId, dates, SyncCoverageId.ALL_CURRENCIES);
+    }
+}
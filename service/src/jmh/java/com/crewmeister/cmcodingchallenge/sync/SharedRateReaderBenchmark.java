@@ -0,0 +1,106 @@
+package com.crewmeister.cmcodingchallenge.sync;
+
+import com.crewmeister.cmcodingchallenge.bank.SdmxPayloads;
+import com.crewmeister.cmcodingchallenge.model.ExchangeRateEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-rate lookups through a {@link SharedRateReader} over ten years of 40 currencies on three
+ * threads, alone and while a writer keeps rewriting days, which makes readers retry their seqlock
+ * sections. The {@code update} row of the group is the writer's time per rewritten day.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SharedRateReaderBenchmark {
+
+    private static final int STORED_DAYS = 3650;
+
+    private BenchmarkDatabase database;
+    private Path path;
+    private SharedRateFile file;
+    private SharedRateReader reader;
+    private String[] currencies;
+    private long firstEpochDay;
+    private int updates;
+
+    /** Per-thread position, so lookup threads do not contend on a shared counter. */
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        this.database = BenchmarkDatabase.populated(STORED_DAYS);
+        this.path = Files.createTempFile("rates", ".shm");
+        Files.delete(this.path);
+        this.file = new SharedRateFile(this.database.repository(),
+                new SharedRateProperties(true, this.path, SdmxPayloads.FIRST_DATE, STORED_DAYS, SdmxPayloads.CURRENCIES));
+        this.reader = SharedRateReader.open(this.path);
+        this.currencies = new String[SdmxPayloads.CURRENCIES];
+        for (int c = 0; c < this.currencies.length; c++) {
+            this.currencies[c] = SdmxPayloads.currency(c);
+        }
+        this.firstEpochDay = SdmxPayloads.FIRST_DATE.toEpochDay();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        this.database.close();
+        Files.deleteIfExists(this.path);
+    }
+
+    @Benchmark
+    @Group("lookups")
+    @GroupThreads(3)
+    public long lookup(Cursor cursor) {
+        return next(cursor);
+    }
+
+    @Benchmark
+    @Group("lookupDuringUpdates")
+    @GroupThreads(3)
+    public long lookupDuringUpdate(Cursor cursor) {
+        return next(cursor);
+    }
+
+    @Benchmark
+    @Group("lookupDuringUpdates")
+    @GroupThreads(1)
+    public int update() {
+        LocalDate date = SdmxPayloads.FIRST_DATE.plusDays(this.updates++ % STORED_DAYS);
+        List<ExchangeRateEntity> day = BenchmarkDatabase.rows((int) (date.toEpochDay() - this.firstEpochDay),
+                        (int) (date.toEpochDay() - this.firstEpochDay) + 1, 1).stream()
+                .map(row -> new ExchangeRateEntity(row.date(), row.currency(), row.rate()))
+                .toList();
+        return this.file.replace(List.of(date), day);
+    }
+
+    private long next(Cursor cursor) {
+        int i = cursor.next++;
+        return this.reader.rate(this.firstEpochDay + (i * 7L) % STORED_DAYS, this.currencies[i % this.currencies.length]);
+    }
+}
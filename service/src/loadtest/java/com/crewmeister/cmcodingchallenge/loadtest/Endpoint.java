@@ -0,0 +1,96 @@
+package com.crewmeister.cmcodingchallenge.loadtest;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * API endpoints driven by the load test, each with a default arrival rate and a generator of
+ * request paths spread over the synced date window.
+ */
+enum Endpoint {
+
+    RATES("rates", 20) {
+        @Override
+        String path(Random random, LocalDate windowEnd, int windowDays, List<String> currencies) {
+            // 7 to 30 days, all currencies or one, within the window
+            int days = 7 + random.nextInt(24);
+            LocalDate end = windowEnd.minusDays(random.nextInt(Math.max(1, windowDays - days)));
+            LocalDate start = end.minusDays(days - 1);
+            String query = "start=" + start + "&end=" + end;
+            if (random.nextBoolean()) {
+                query += "&currency=" + pick(random, currencies);
+            }
+            return "/api/rates?" + query;
+        }
+    },
+
+    RATES_BY_DATE("rates-by-date", 50) {
+        @Override
+        String path(Random random, LocalDate windowEnd, int windowDays, List<String> currencies) {
+            return "/api/rates/" + windowEnd.minusDays(random.nextInt(windowDays));
+        }
+    },
+
+    CONVERSION("conversion", 100) {
+        @Override
+        String path(Random random, LocalDate windowEnd, int windowDays, List<String> currencies) {
+            String amount = (1 + random.nextInt(100_000)) + "." + (10 + random.nextInt(90));
+            return "/api/conversions/to-eur?date=" + windowEnd.minusDays(random.nextInt(windowDays))
+                    + "&currency=" + pick(random, currencies) + "&amount=" + amount;
+        }
+    },
+
+    HISTORY("history", 0) {
+        @Override
+        String path(Random random, LocalDate windowEnd, int windowDays, List<String> currencies) {
+            // one currency on a day up to ten years before the window, so nearly every request syncs
+            LocalDate date = windowEnd.minusDays(windowDays + random.nextInt(3650));
+            return "/api/rates/" + date + "?currency=" + pick(random, currencies);
+        }
+    },
+
+    CURRENCIES("currencies", 10) {
+        @Override
+        String path(Random random, LocalDate windowEnd, int windowDays, List<String> currencies) {
+            return "/api/currencies";
+        }
+    };
+
+    private final String key;
+    private final int defaultRate;
+
+    Endpoint(String key, int defaultRate) {
+        this.key = key;
+        this.defaultRate = defaultRate;
+    }
+
+    /**
+     * Name used in arguments and report file names.
+     */
+    String key() {
+        return this.key;
+    }
+
+    /**
+     * Requests per second when no rate is configured.
+     */
+    int defaultRate() {
+        return this.defaultRate;
+    }
+
+    /**
+     * Builds the path and query of the next request.
+     *
+     * @param random     random source of the calling thread
+     * @param windowEnd  last date with rates
+     * @param windowDays number of days with rates, ending at {@code windowEnd}
+     * @param currencies currency codes with rates
+     * @return request path including query string
+     */
+    abstract String path(Random random, LocalDate windowEnd, int windowDays, List<String> currencies);
+
+    private static String pick(Random random, List<String> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+}
@@ -0,0 +1,138 @@
+package com.crewmeister.cmcodingchallenge.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends requests to one endpoint at a fixed arrival rate, each on its own virtual thread, and
+ * records latencies in microseconds. Latency is measured from the time a request was scheduled to
+ * be sent, not from when it was sent, so a stalled service is not hidden by the generator slowing
+ * down with it (coordinated omission).
+ */
+final class EndpointLoad {
+
+    /** Status recorded for requests that failed without an HTTP response. */
+    static final int NO_RESPONSE = 0;
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final long MAX_TRACKED_MICROS = TimeUnit.SECONDS.toMicros(60);
+
+    private final Endpoint endpoint;
+    private final int ratePerSecond;
+    private final String baseUrl;
+    private final LocalDate windowEnd;
+    private final int windowDays;
+    private final List<String> currencies;
+    private final HttpClient client;
+    private final ExecutorService senders;
+
+    private final Recorder recorder = new Recorder(MAX_TRACKED_MICROS, 3);
+    private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+    private volatile boolean measuring;
+
+    EndpointLoad(Endpoint endpoint, int ratePerSecond, String baseUrl, LocalDate windowEnd, int windowDays,
+                 List<String> currencies, HttpClient client, ExecutorService senders) {
+        this.endpoint = endpoint;
+        this.ratePerSecond = ratePerSecond;
+        this.baseUrl = baseUrl;
+        this.windowEnd = windowEnd;
+        this.windowDays = windowDays;
+        this.currencies = currencies;
+        this.client = client;
+        this.senders = senders;
+    }
+
+    Endpoint endpoint() {
+        return this.endpoint;
+    }
+
+    int ratePerSecond() {
+        return this.ratePerSecond;
+    }
+
+    /**
+     * Schedules requests until {@code untilNanos}; requests still in flight complete on the senders.
+     *
+     * @param untilNanos {@link System#nanoTime()} at which to stop scheduling
+     */
+    void run(long untilNanos) {
+        long interval = TimeUnit.SECONDS.toNanos(1) / this.ratePerSecond;
+        long next = System.nanoTime();
+        while (next < untilNanos) {
+            long wait;
+            while ((wait = next - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            long intended = next;
+            this.senders.execute(() -> send(intended));
+            next += interval;
+        }
+    }
+
+    /**
+     * Drops what was recorded so far, so warm-up requests do not count.
+     */
+    void startMeasuring() {
+        this.recorder.reset();
+        this.statuses.clear();
+        this.measuring = true;
+    }
+
+    /**
+     * Returns latencies recorded since {@link #startMeasuring()}.
+     */
+    Histogram histogram() {
+        return this.recorder.getIntervalHistogram();
+    }
+
+    /**
+     * Returns request counts by HTTP status since {@link #startMeasuring()}, {@link #NO_RESPONSE}
+     * counting failures without a response.
+     */
+    SortedMap<Integer, Long> statuses() {
+        SortedMap<Integer, Long> counts = new TreeMap<>();
+        this.statuses.forEach((status, count) -> counts.put(status, count.sum()));
+        return counts;
+    }
+
+    private void send(long intendedNanos) {
+        Random random = ThreadLocalRandom.current();
+        HttpRequest request = HttpRequest.newBuilder(
+                        URI.create(this.baseUrl + this.endpoint.path(random, this.windowEnd, this.windowDays, this.currencies)))
+                .timeout(REQUEST_TIMEOUT)
+                .GET()
+                .build();
+        int status;
+        try {
+            status = this.client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (Exception e) {
+            status = NO_RESPONSE;
+        }
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedNanos);
+        this.recorder.recordValue(Math.min(micros, MAX_TRACKED_MICROS));
+        if (this.measuring) {
+            this.statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+        }
+    }
+}
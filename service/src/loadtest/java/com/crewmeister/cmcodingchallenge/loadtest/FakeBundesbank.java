@@ -0,0 +1,150 @@
+package com.crewmeister.cmcodingchallenge.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local Bundesbank stand-in that answers SDMX requests for any date range and series key with
+ * generated daily rates, so the service syncs exactly what it asks for. Each response can be
+ * delayed to stand in for the real API's latency.
+ */
+final class FakeBundesbank implements AutoCloseable {
+
+    /** A realistic set of EUR reference currencies. */
+    static final List<String> CURRENCIES = List.of(
+            "AUD", "BGN", "BRL", "CAD", "CHF", "CNY", "CZK", "DKK", "GBP", "HKD",
+            "HUF", "IDR", "ILS", "INR", "ISK", "JPY", "KRW", "MXN", "MYR", "NOK",
+            "NZD", "PHP", "PLN", "RON", "SEK", "SGD", "THB", "TRY", "USD", "ZAR");
+
+    private static final String SERIES_PREFIX = "/rest/data/BBEX3/D.";
+
+    private final HttpServer server;
+    private final AtomicLong requests = new AtomicLong();
+    private final Duration latency;
+
+    FakeBundesbank(Duration latency) {
+        this.latency = latency;
+        try {
+            this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.server.createContext("/", this::handle);
+        this.server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        this.server.start();
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + this.server.getAddress().getPort();
+    }
+
+    long requestCount() {
+        return this.requests.get();
+    }
+
+    @Override
+    public void close() {
+        this.server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        this.requests.incrementAndGet();
+        if (this.latency.isPositive()) {
+            try {
+                Thread.sleep(this.latency);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                exchange.close();
+                return;
+            }
+        }
+        String path = exchange.getRequestURI().getPath();
+        Map<String, String> query = query(exchange.getRequestURI().getRawQuery());
+        byte[] body;
+        int status;
+        if (!path.startsWith(SERIES_PREFIX) || !query.containsKey("startPeriod") || !query.containsKey("endPeriod")) {
+            status = 404;
+            body = "{\"error\":\"unknown series\"}".getBytes(StandardCharsets.UTF_8);
+        } else {
+            // D.<CUR>.EUR.BB.AC.000, where an empty currency slot selects every series
+            String currency = path.substring(SERIES_PREFIX.length()).split("\\.", -1)[0];
+            List<String> currencies = currency.isEmpty() ? CURRENCIES : List.of(currency);
+            status = 200;
+            body = payload(currencies, LocalDate.parse(query.get("startPeriod")), LocalDate.parse(query.get("endPeriod")))
+                    .getBytes(StandardCharsets.UTF_8);
+        }
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static String payload(List<String> currencies, LocalDate start, LocalDate end) {
+        int days = (int) ChronoUnit.DAYS.between(start, end) + 1;
+        StringBuilder json = new StringBuilder(256 + currencies.size() * days * 24);
+        json.append("{\"data\":{\"dataSets\":[{\"series\":{");
+        for (int c = 0; c < currencies.size(); c++) {
+            if (c > 0) {
+                json.append(',');
+            }
+            json.append("\"0:").append(c).append(":0:0:0\":{\"observations\":{");
+            for (int d = 0; d < days; d++) {
+                if (d > 0) {
+                    json.append(',');
+                }
+                json.append('"').append(d).append("\":[").append(rate(currencies.get(c), start.plusDays(d))).append(']');
+            }
+            json.append("}}");
+        }
+        json.append("}}],\"structure\":{\"dimensions\":{\"series\":[{\"id\":\"BBK_STD_FREQ\"},")
+                .append("{\"id\":\"BBK_STD_CURRENCY\",\"values\":[");
+        for (int c = 0; c < currencies.size(); c++) {
+            json.append(c > 0 ? "," : "").append("{\"id\":\"").append(currencies.get(c)).append("\"}");
+        }
+        json.append("]}],\"observation\":[{\"id\":\"TIME_PERIOD\",\"values\":[");
+        for (int d = 0; d < days; d++) {
+            json.append(d > 0 ? "," : "").append("{\"id\":\"").append(start.plusDays(d)).append("\"}");
+        }
+        return json.append("]}]}}}}").toString();
+    }
+
+    /**
+     * Stable per currency and date, so a re-sync of the same day finds nothing changed.
+     */
+    private static String rate(String currency, LocalDate date) {
+        long base = 10_000 + Math.floorMod(currency.hashCode(), 1_500_000);
+        long unscaled = base + Math.floorMod(date.toEpochDay() * 37, 500);
+        return BigDecimal.valueOf(unscaled, 4).toPlainString();
+    }
+
+    private static Map<String, String> query(String raw) {
+        Map<String, String> params = new HashMap<>();
+        if (raw == null) {
+            return params;
+        }
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                params.put(pair.substring(0, eq), URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+}
@@ -0,0 +1,96 @@
+package com.crewmeister.cmcodingchallenge.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.SortedMap;
+
+/**
+ * Writes the load test results: {@code report.txt} with throughput and latency percentiles per
+ * endpoint, and one HdrHistogram percentile distribution ({@code <endpoint>.hgrm}, in milliseconds)
+ * per endpoint for plotting.
+ */
+final class LoadReport {
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    /**
+     * Result of one endpoint over the measured period.
+     *
+     * @param endpoint      driven endpoint
+     * @param ratePerSecond configured arrival rate
+     * @param histogram     latencies in microseconds
+     * @param statuses      request counts by HTTP status
+     */
+    record EndpointResult(Endpoint endpoint, int ratePerSecond, Histogram histogram, SortedMap<Integer, Long> statuses) {
+    }
+
+    private LoadReport() {
+    }
+
+    /**
+     * Writes the report files and returns the summary that was written.
+     *
+     * @param config    run settings
+     * @param target    base URL that was driven
+     * @param bankCalls Bundesbank requests made by the service during the run, or -1 if not known
+     * @param results   per-endpoint results
+     * @return summary text
+     * @throws IOException if the report cannot be written
+     */
+    static String write(LoadTestConfig config, String target, long bankCalls, List<EndpointResult> results)
+            throws IOException {
+        Files.createDirectories(config.reportDir());
+        double seconds = config.duration().toMillis() / 1000.0;
+
+        StringBuilder summary = new StringBuilder();
+        summary.append("# Load test ").append(OffsetDateTime.now()).append('\n')
+                .append("target: ").append(target).append('\n')
+                .append("warmup: ").append(format(config.warmup()))
+                .append(", measured: ").append(format(config.duration()))
+                .append(", window: ").append(config.windowDays()).append(" days\n")
+                .append("java: ").append(Runtime.version())
+                .append(", cpus: ").append(Runtime.getRuntime().availableProcessors()).append('\n');
+        if (!config.service().isEmpty()) {
+            summary.append("service: ").append(config.service()).append('\n');
+        }
+        if (bankCalls >= 0) {
+            summary.append("bundesbank requests: ").append(bankCalls)
+                    .append(", latency: ").append(config.bankLatency().toMillis()).append("ms\n");
+        }
+        summary.append('\n').append(String.format(Locale.ROOT, "%-14s %8s %9s %9s %9s %9s %9s %9s %9s  %s%n",
+                "endpoint", "rate/s", "requests", "thru/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "statuses"));
+
+        for (EndpointResult result : results) {
+            Histogram histogram = result.histogram();
+            summary.append(String.format(Locale.ROOT, "%-14s %8d %9d %9.1f", result.endpoint().key(),
+                    result.ratePerSecond(), histogram.getTotalCount(), histogram.getTotalCount() / seconds));
+            for (double percentile : PERCENTILES) {
+                summary.append(String.format(Locale.ROOT, " %9.2f", histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI));
+            }
+            summary.append(String.format(Locale.ROOT, " %9.2f  %s%n", histogram.getMaxValue() / MICROS_PER_MILLI,
+                    result.statuses()));
+
+            Path hgrm = config.reportDir().resolve(result.endpoint().key() + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(hgrm), false, StandardCharsets.UTF_8)) {
+                histogram.outputPercentileDistribution(out, MICROS_PER_MILLI);
+            }
+        }
+        summary.append("\nLatency is measured from each request's scheduled send time. Status 0 means no response.\n");
+        Files.writeString(config.reportDir().resolve("report.txt"), summary, StandardCharsets.UTF_8);
+        return summary.toString();
+    }
+
+    private static String format(Duration duration) {
+        return duration.toSeconds() + "s";
+    }
+}
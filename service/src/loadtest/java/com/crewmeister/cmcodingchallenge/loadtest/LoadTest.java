@@ -0,0 +1,159 @@
+package com.crewmeister.cmcodingchallenge.loadtest;
+
+import com.crewmeister.cmcodingchallenge.CmCodingChallengeApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives mixed open-model traffic against the rates, rate-by-date, conversion and currencies
+ * endpoints and writes per-endpoint throughput and latency percentiles. Without a {@code target}
+ * the service is booted in this JVM on a random port, with an in-memory database, against a local
+ * fake Bundesbank. Traffic starts once the service reports ready, after its window of rates has
+ * been synced once.
+ */
+public final class LoadTest {
+
+    private static final int PRIME_ATTEMPTS = 20;
+    private static final Duration READY_TIMEOUT = Duration.ofMinutes(5);
+
+    private LoadTest() {
+    }
+
+    /**
+     * Runs the load test.
+     *
+     * @param args {@code key=value} settings, see {@link LoadTestConfig#parse(String[])}
+     * @throws Exception if the service cannot be started or the report cannot be written
+     */
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        LocalDate windowEnd = LocalDate.now();
+
+        FakeBundesbank bank = null;
+        ConfigurableApplicationContext service = null;
+        String target = config.target();
+        try {
+            if (target == null) {
+                bank = new FakeBundesbank(config.bankLatency());
+                service = boot(bank, config.service());
+                target = "http://127.0.0.1:" + ((WebServerApplicationContext) service).getWebServer().getPort();
+            }
+            ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .executor(senders)
+                    .build();
+            awaitReady(client, target);
+            prime(client, target, windowEnd, config.windowDays());
+
+            String baseUrl = target;
+            List<EndpointLoad> loads = new ArrayList<>();
+            config.rates().forEach((endpoint, rate) -> {
+                if (rate > 0) {
+                    loads.add(new EndpointLoad(endpoint, rate, baseUrl, windowEnd, config.windowDays(),
+                            FakeBundesbank.CURRENCIES, client, senders));
+                }
+            });
+
+            long bankCallsBefore = bank == null ? 0 : bank.requestCount();
+            long warmupEnd = System.nanoTime() + config.warmup().toNanos();
+            long end = warmupEnd + config.duration().toNanos();
+            try (ExecutorService schedulers = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (EndpointLoad load : loads) {
+                    schedulers.execute(() -> load.run(end));
+                }
+                TimeUnit.NANOSECONDS.sleep(Math.max(0, warmupEnd - System.nanoTime()));
+                loads.forEach(EndpointLoad::startMeasuring);
+            }
+            senders.close();
+
+            List<LoadReport.EndpointResult> results = loads.stream()
+                    .map(load -> new LoadReport.EndpointResult(load.endpoint(), load.ratePerSecond(),
+                            load.histogram(), load.statuses()))
+                    .toList();
+            long bankCalls = bank == null ? -1 : bank.requestCount() - bankCallsBefore;
+            System.out.print(LoadReport.write(config, target, bankCalls, results));
+            System.out.println("Report written to " + config.reportDir().toAbsolutePath());
+        } finally {
+            if (service != null) {
+                service.close();
+            }
+            if (bank != null) {
+                bank.close();
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext boot(FakeBundesbank bank, Map<String, String> properties) {
+        // devtools would restart the context in its own class loader
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        // command-line arguments, so they take precedence over application.properties
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--fx.bank.base-url=" + bank.baseUrl(),
+                "--spring.datasource.url=jdbc:h2:mem:loadtest;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--spring.jpa.properties.hibernate.format_sql=false",
+                "--spring.h2.console.enabled=false",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN"));
+        properties.forEach((key, value) -> args.add("--" + key + "=" + value));
+        return new SpringApplicationBuilder(CmCodingChallengeApplication.class).run(args.toArray(String[]::new));
+    }
+
+    /**
+     * Waits for the readiness probe, as a load balancer would before routing traffic to a new replica.
+     */
+    private static void awaitReady(HttpClient client, String target) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(target + "/actuator/health/readiness"))
+                .timeout(Duration.ofSeconds(5))
+                .GET()
+                .build();
+        long start = System.nanoTime();
+        long deadline = start + READY_TIMEOUT.toNanos();
+        while (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("service not ready after " + READY_TIMEOUT);
+            }
+            TimeUnit.MILLISECONDS.sleep(100);
+        }
+        System.out.println("Ready after " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+    }
+
+    /**
+     * Syncs the traffic window once, so the measured requests are served from the database. The
+     * booted service runs its own startup sync, so a busy answer is retried.
+     */
+    private static void prime(HttpClient client, String target, LocalDate windowEnd, int windowDays) throws Exception {
+        URI uri = URI.create(target + "/api/update?start=" + windowEnd.minusDays(windowDays - 1) + "&end=" + windowEnd);
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .timeout(Duration.ofSeconds(60))
+                .build();
+        for (int attempt = 1; ; attempt++) {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() / 100 == 2) {
+                return;
+            }
+            if (response.statusCode() != 503 || attempt == PRIME_ATTEMPTS) {
+                throw new IllegalStateException("priming sync failed with " + response.statusCode() + ": " + response.body());
+            }
+            TimeUnit.MILLISECONDS.sleep(500);
+        }
+    }
+}
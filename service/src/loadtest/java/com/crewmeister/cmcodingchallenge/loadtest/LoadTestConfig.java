@@ -0,0 +1,104 @@
+package com.crewmeister.cmcodingchallenge.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Load test settings, parsed from {@code key=value} arguments.
+ *
+ * @param duration    measured run time
+ * @param warmup      run time before measuring, at the same rates
+ * @param rates       requests per second per endpoint, 0 leaves an endpoint out
+ * @param windowDays  days of rates the traffic is spread over, ending today
+ * @param bankLatency delay of every fake Bundesbank response
+ * @param target      base URL of an already running service, or null to boot one against the fake Bundesbank
+ * @param reportDir   directory for the summary and the per-endpoint histograms
+ * @param service     properties passed to the booted service, such as {@code fx.warm-up.enabled}
+ */
+record LoadTestConfig(
+        Duration duration,
+        Duration warmup,
+        Map<Endpoint, Integer> rates,
+        int windowDays,
+        Duration bankLatency,
+        String target,
+        Path reportDir,
+        Map<String, String> service
+) {
+
+    private static final String SERVICE_PREFIX = "service.";
+
+    /**
+     * Parses arguments such as {@code duration=60s warmup=10s rate.conversion=200 window-days=90
+     * bank-latency=200ms target=http://localhost:8080 report-dir=target/loadtest
+     * service.fx.warm-up.enabled=true}.
+     *
+     * @param args command-line arguments
+     * @return parsed settings, with defaults for anything not given
+     * @throws IllegalArgumentException if an argument is unknown or malformed
+     */
+    static LoadTestConfig parse(String[] args) {
+        Duration duration = Duration.ofSeconds(30);
+        Duration warmup = Duration.ofSeconds(10);
+        Map<Endpoint, Integer> rates = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : Endpoint.values()) {
+            rates.put(endpoint, endpoint.defaultRate());
+        }
+        int windowDays = 90;
+        Duration bankLatency = Duration.ZERO;
+        String target = null;
+        Path reportDir = Path.of("target", "loadtest");
+        Map<String, String> service = new LinkedHashMap<>();
+
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("expected key=value but got '" + arg + "'");
+            }
+            String key = arg.substring(0, eq);
+            String value = arg.substring(eq + 1);
+            switch (key) {
+                case "duration" -> duration = seconds(value);
+                case "warmup" -> warmup = seconds(value);
+                case "window-days" -> windowDays = Integer.parseInt(value);
+                case "bank-latency" -> bankLatency = millis(value);
+                case "target" -> target = value.isBlank() ? null : value;
+                case "report-dir" -> reportDir = Path.of(value);
+                default -> {
+                    if (key.startsWith(SERVICE_PREFIX)) {
+                        service.put(key.substring(SERVICE_PREFIX.length()), value);
+                    } else {
+                        rates.put(endpointOf(key), Integer.parseInt(value));
+                    }
+                }
+            }
+        }
+        if (windowDays < 1 || windowDays > 90) {
+            throw new IllegalArgumentException("window-days must be between 1 and 90");
+        }
+        if (target != null && !service.isEmpty()) {
+            throw new IllegalArgumentException("service.* settings only apply to a booted service, not a target");
+        }
+        return new LoadTestConfig(duration, warmup, rates, windowDays, bankLatency, target, reportDir, service);
+    }
+
+    private static Endpoint endpointOf(String key) {
+        for (Endpoint endpoint : Endpoint.values()) {
+            if (key.equals("rate." + endpoint.key())) {
+                return endpoint;
+            }
+        }
+        throw new IllegalArgumentException("unknown argument '" + key + "'");
+    }
+
+    private static Duration millis(String value) {
+        return Duration.ofMillis(Long.parseLong(value.endsWith("ms") ? value.substring(0, value.length() - 2) : value));
+    }
+
+    private static Duration seconds(String value) {
+        return Duration.ofSeconds(Long.parseLong(value.endsWith("s") ? value.substring(0, value.length() - 1) : value));
+    }
+}
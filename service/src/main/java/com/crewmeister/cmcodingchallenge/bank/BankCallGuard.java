@@ -0,0 +1,266 @@
+package com.crewmeister.cmcodingchallenge.bank;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Wraps Bundesbank calls with jittered exponential retry, a global retry budget,
+ * a circuit breaker and optional hedged requests.
+ */
+@Component
+public class BankCallGuard {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BankCallGuard.class);
+
+    private final BankClientProperties.Retry retry;
+    private final BankClientProperties.Hedge hedge;
+    private final RetryBudget budget;
+    private final CircuitBreaker breaker;
+    private final ExecutorService hedgeExecutor;
+
+    private final MeterRegistry registry;
+    private final Counter retries;
+    private final Counter budgetExhausted;
+    private final Counter hedges;
+    private final Counter rejected;
+
+    /**
+     * Creates the call guard.
+     *
+     * @param properties Bundesbank client settings
+     * @param registry   meter registry for retry, hedge and circuit metrics
+     */
+    public BankCallGuard(BankClientProperties properties, MeterRegistry registry) {
+        this.retry = properties.retry();
+        this.hedge = properties.hedge();
+        this.budget = new RetryBudget(this.retry.budgetRatio(), this.retry.budgetMax());
+        this.breaker = new CircuitBreaker(
+                properties.circuitBreaker().failureThreshold(),
+                properties.circuitBreaker().openDuration(),
+                Clock.systemUTC(),
+                this::onTransition);
+        this.hedgeExecutor = this.hedge.enabled() ? Executors.newVirtualThreadPerTaskExecutor() : null;
+
+        this.registry = registry;
+        this.retries = registry.counter("bank.retries");
+        this.budgetExhausted = registry.counter("bank.retry.budget.exhausted");
+        this.hedges = registry.counter("bank.hedges");
+        this.rejected = registry.counter("bank.circuit.rejected");
+        Gauge.builder("bank.circuit.state", this.breaker, b -> b.state().ordinal())
+                .description("Bundesbank circuit state: 0=closed, 1=open, 2=half-open")
+                .register(registry);
+        Gauge.builder("bank.retry.budget.available", this.budget, RetryBudget::available)
+                .register(registry);
+    }
+
+    /**
+     * Executes a Bundesbank call under the retry, circuit breaker and hedging policies.
+     * No attempt, backoff or hedge is started once the caller's deadline has passed.
+     *
+     * @param deadline caller deadline for the whole call including retries
+     * @param call     the HTTP call to run
+     * @param <T>      result type
+     * @return call result
+     * @throws BundesbankUnavailableException if the circuit is open or the deadline has passed
+     */
+    public <T> T execute(Deadline deadline, Supplier<T> call) {
+        this.budget.recordCall();
+        int attempt = 1;
+        // failure of the previous attempt, kept as the cause when a retry is given up on
+        RuntimeException lastFailure = null;
+        while (true) {
+            if (deadline.isExpired()) {
+                throw new BundesbankUnavailableException("Bundesbank call deadline exceeded", lastFailure);
+            }
+            if (!this.breaker.tryAcquirePermission()) {
+                this.rejected.increment();
+                throw new BundesbankUnavailableException("Bundesbank unavailable, circuit open", lastFailure);
+            }
+            try {
+                T result = attempt(deadline, call);
+                this.breaker.onSuccess();
+                return result;
+            } catch (BundesbankUnavailableException e) {
+                // the wait was interrupted and nothing answered: neither a success nor a failure
+                this.breaker.releasePermission();
+                throw e;
+            } catch (RuntimeException e) {
+                if (!isRetryable(e)) {
+                    // Upstream answered, so it is healthy from the breaker's point of view
+                    this.breaker.onSuccess();
+                    throw e;
+                }
+                this.breaker.onFailure();
+                if (attempt >= this.retry.maxAttempts()) {
+                    throw e;
+                }
+                Duration backoff = backoff(attempt);
+                if (deadline.remaining().compareTo(backoff) <= 0) {
+                    throw e;
+                }
+                if (!this.budget.tryAcquireRetry()) {
+                    this.budgetExhausted.increment();
+                    throw e;
+                }
+                this.retries.increment();
+                LOG.debug("Bundesbank call failed on attempt {}, retrying: {}", attempt, e.getMessage());
+                sleep(backoff, e);
+                lastFailure = e;
+                attempt++;
+            }
+        }
+    }
+
+    /**
+     * Returns the current circuit state.
+     *
+     * @return circuit breaker state
+     */
+    public CircuitBreaker.State circuitState() {
+        return this.breaker.state();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (this.hedgeExecutor != null) {
+            this.hedgeExecutor.shutdownNow();
+        }
+    }
+
+    private <T> T attempt(Deadline deadline, Supplier<T> call) {
+        if (this.hedgeExecutor == null || deadline.remaining().compareTo(this.hedge.delay()) <= 0) {
+            return call.get();
+        }
+        Hedged<T> primary = start(call);
+        try {
+            return primary.result().get(this.hedge.delay().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // primary is slow, fall through to hedging
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            primary.cancellation().cancel();
+            throw new BundesbankUnavailableException("interrupted while waiting for Bundesbank");
+        }
+        if (!this.budget.tryAcquireRetry()) {
+            this.budgetExhausted.increment();
+            return await(primary.result(), primary);
+        }
+        this.hedges.increment();
+        Hedged<T> backup = start(call);
+        return await(firstSuccessful(primary, backup), primary, backup);
+    }
+
+    /**
+     * A call running on the hedge executor, with the handle that aborts its request.
+     */
+    private record Hedged<T>(CompletableFuture<T> result, CallCancellation cancellation) {
+    }
+
+    private <T> Hedged<T> start(Supplier<T> call) {
+        CallCancellation cancellation = new CallCancellation();
+        return new Hedged<>(CompletableFuture.supplyAsync(() -> cancellation.run(call), this.hedgeExecutor),
+                cancellation);
+    }
+
+    /**
+     * Completes with the first successful result and aborts the other request, which would
+     * otherwise hold its pooled connection until its response arrives.
+     */
+    private static <T> CompletableFuture<T> firstSuccessful(Hedged<T> first, Hedged<T> second) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        first.result().whenComplete(onDone(result, failures, second));
+        second.result().whenComplete(onDone(result, failures, first));
+        return result;
+    }
+
+    private static <T> BiConsumer<T, Throwable> onDone(CompletableFuture<T> result, AtomicInteger failures,
+                                                       Hedged<T> other) {
+        return (value, error) -> {
+            if (error == null) {
+                if (result.complete(value)) {
+                    other.cancellation().cancel();
+                }
+            } else if (failures.incrementAndGet() == 2) {
+                result.completeExceptionally(error);
+            }
+        };
+    }
+
+    /**
+     * Waits for a result; if the wait is interrupted, the running requests are aborted.
+     */
+    @SafeVarargs
+    private static <T> T await(CompletableFuture<T> result, Hedged<T>... running) {
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            for (Hedged<T> call : running) {
+                call.cancellation().cancel();
+            }
+            throw new BundesbankUnavailableException("interrupted while waiting for Bundesbank");
+        }
+    }
+
+    private static RuntimeException unwrap(Throwable t) {
+        Throwable cause = t;
+        while ((cause instanceof ExecutionException || cause instanceof CompletionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        return new IllegalStateException(cause);
+    }
+
+    private static boolean isRetryable(RuntimeException e) {
+        return e instanceof BundesbankServerException || e instanceof ResourceAccessException;
+    }
+
+    private Duration backoff(int attempt) {
+        long capMillis = Math.min(
+                this.retry.maxBackoff().toMillis(),
+                this.retry.initialBackoff().toMillis() << Math.min(attempt - 1, 20));
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(capMillis + 1));
+    }
+
+    private static void sleep(Duration backoff, RuntimeException lastFailure) {
+        try {
+            Thread.sleep(backoff);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw lastFailure;
+        }
+    }
+
+    private void onTransition(CircuitBreaker.State from, CircuitBreaker.State to) {
+        LOG.warn("Bundesbank circuit transitioned {} -> {}", from, to);
+        this.registry.counter("bank.circuit.transitions", "from", from.name(), "to", to.name()).increment();
+    }
+}
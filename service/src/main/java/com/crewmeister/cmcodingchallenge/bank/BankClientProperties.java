@@ -0,0 +1,87 @@
+package com.crewmeister.cmcodingchallenge.bank;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings for the Bundesbank HTTP client and its resilience policies.
+ *
+ * @param baseUrl        Bundesbank API base URL
+ * @param connectTimeout TCP connect timeout
+ * @param readTimeout    response read timeout
+ * @param pool           connection pool for the shared HTTP client
+ * @param retry          retry policy for failed calls
+ * @param circuitBreaker circuit breaker policy for a failing upstream
+ * @param hedge          hedged request policy for slow calls
+ */
+@ConfigurationProperties(prefix = "fx.bank")
+public record BankClientProperties(
+        @DefaultValue("https://api.statistiken.bundesbank.de") String baseUrl,
+        @DefaultValue("5s") Duration connectTimeout,
+        @DefaultValue("10s") Duration readTimeout,
+        @DefaultValue Pool pool,
+        @DefaultValue Retry retry,
+        @DefaultValue CircuitBreaker circuitBreaker,
+        @DefaultValue Hedge hedge
+) {
+
+    /**
+     * Connection pool settings, so repeated calls reuse TLS connections.
+     *
+     * @param maxConnections   maximum pooled connections to Bundesbank
+     * @param maxIdleTime      idle time after which a pooled connection is closed
+     * @param evictionInterval how often idle connections are evicted in the background
+     * @param http2            whether HTTP/2 is offered via ALPN, with HTTP/1.1 fallback
+     */
+    public record Pool(
+            @DefaultValue("16") int maxConnections,
+            @DefaultValue("30s") Duration maxIdleTime,
+            @DefaultValue("10s") Duration evictionInterval,
+            @DefaultValue("true") boolean http2
+    ) {
+    }
+
+    /**
+     * Jittered exponential retry settings.
+     *
+     * @param maxAttempts    total attempts per call, including the first one
+     * @param initialBackoff backoff cap before the first retry
+     * @param maxBackoff     upper bound for any single backoff
+     * @param budgetRatio    retries earned per successful-or-failed call
+     * @param budgetMax      maximum number of retries that can be banked
+     */
+    public record Retry(
+            @DefaultValue("3") int maxAttempts,
+            @DefaultValue("200ms") Duration initialBackoff,
+            @DefaultValue("2s") Duration maxBackoff,
+            @DefaultValue("0.2") double budgetRatio,
+            @DefaultValue("10") int budgetMax
+    ) {
+    }
+
+    /**
+     * Circuit breaker settings.
+     *
+     * @param failureThreshold consecutive failures that open the circuit
+     * @param openDuration     time the circuit stays open before a trial call
+     */
+    public record CircuitBreaker(
+            @DefaultValue("5") int failureThreshold,
+            @DefaultValue("30s") Duration openDuration
+    ) {
+    }
+
+    /**
+     * Hedged request settings.
+     *
+     * @param enabled whether a second request is sent when the first one is slow
+     * @param delay   time to wait for the first request before hedging
+     */
+    public record Hedge(
+            @DefaultValue("false") boolean enabled,
+            @DefaultValue("2s") Duration delay
+    ) {
+    }
+}
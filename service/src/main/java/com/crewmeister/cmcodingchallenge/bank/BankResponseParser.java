@@ -1,6 +1,10 @@
 package com.crewmeister.cmcodingchallenge.bank;
 
+import com.crewmeister.cmcodingchallenge.jfr.ParseEvent;
 import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -12,6 +16,8 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 @Component
 public class BankResponseParser {
@@ -20,6 +26,32 @@ public class BankResponseParser {
     private static final String DIM_TIME_PERIOD = "TIME_PERIOD";
     private static final double WARN_SKIP_RATIO = 0.50;
 
+    private final Timer sequentialTimer;
+    private final Timer streamingTimer;
+    private final Counter parsedRows;
+    private final Counter skippedSeries;
+    private final Counter skippedObservations;
+
+    /**
+     * Creates the parser.
+     *
+     * @param registry meter registry for parse time and row counts
+     */
+    public BankResponseParser(MeterRegistry registry) {
+        this.sequentialTimer = parseTimer(registry, "sequential");
+        this.streamingTimer = parseTimer(registry, "streaming");
+        this.parsedRows = registry.counter("bank.parse.rows");
+        this.skippedSeries = registry.counter("bank.parse.skipped", "kind", "series");
+        this.skippedObservations = registry.counter("bank.parse.skipped", "kind", "observation");
+    }
+
+    private static Timer parseTimer(MeterRegistry registry, String mode) {
+        return Timer.builder("bank.parse")
+                .description("Time to turn an SDMX payload into rows")
+                .tag("mode", mode)
+                .register(registry);
+    }
+
     /**
      * Parses a Bundesbank SDMX payload into exchange rate rows.
      *
@@ -27,74 +59,157 @@ public class BankResponseParser {
      * @return parsed rows, or an empty list for unsupported or partial payloads
      */
     public List<ExchangeRateRow> parseRates(JsonNode root) {
+        ParseEvent event = new ParseEvent();
+        event.begin();
+        long startNanos = System.nanoTime();
+        List<ExchangeRateRow> out = List.of();
+        int skippedSeries = 0;
+        int skippedObservations = 0;
+        try {
+            Payload payload = readPayload(root);
+            if (payload == null) {
+                return out;
+            }
+            out = new ArrayList<>(payload.observationCount());
+            for (Map.Entry<String, JsonNode> entry : payload.series()) {
+                int skipped = parseSeries(entry, payload, out::add);
+                if (skipped < 0) {
+                    skippedSeries++;
+                } else {
+                    skippedObservations += skipped;
+                }
+            }
+
+            this.sequentialTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            logOutcome(out.size(), skippedSeries, skippedObservations);
+            return out;
+        } finally {
+            // also for unsupported payloads and failures, so no event is left open
+            event.finish("sequential", out.size(), skippedSeries, skippedObservations);
+        }
+    }
+
+    /**
+     * Parses a Bundesbank SDMX payload on the calling thread, handing each row to {@code sink}
+     * as soon as it is parsed instead of collecting them. Rows are emitted date by date, so all
+     * rows of one date reach the sink before any row of the next date.
+     *
+     * @param root raw SDMX JSON root node
+     * @param sink receiver for parsed rows, called in date order of the payload
+     * @return number of rows handed to the sink
+     */
+    public int parseRates(JsonNode root, Consumer<ExchangeRateRow> sink) {
+        ParseEvent event = new ParseEvent();
+        event.begin();
+        long startNanos = System.nanoTime();
+        int parsedRows = 0;
+        int skippedSeries = 0;
+        int skippedObservations = 0;
+        try {
+            Payload payload = readPayload(root);
+            if (payload == null) {
+                return 0;
+            }
+
+            List<String> seriesCurrencies = new ArrayList<>(payload.series().size());
+            List<JsonNode[]> seriesByTime = new ArrayList<>(payload.series().size());
+            for (Map.Entry<String, JsonNode> entry : payload.series()) {
+                Integer currencyIndex = parseCurrencyIndex(entry.getKey());
+                JsonNode observations = entry.getValue().path("observations");
+                if (currencyIndex == null || currencyIndex < 0 || currencyIndex >= payload.currencies().size()
+                        || !observations.isObject()) {
+                    skippedSeries++;
+                    continue;
+                }
+                // Index observations by time period once, so rows can be emitted date-major
+                JsonNode[] byTime = new JsonNode[payload.dates().size()];
+                Iterator<Map.Entry<String, JsonNode>> obsIt = observations.fields();
+                while (obsIt.hasNext()) {
+                    var obsEntry = obsIt.next();
+                    Integer timeIdx = tryParseInt(obsEntry.getKey());
+                    if (timeIdx == null || timeIdx < 0 || timeIdx >= byTime.length
+                            || payload.dates().get(timeIdx) == null || byTime[timeIdx] != null) {
+                        skippedObservations++;
+                        continue;
+                    }
+                    byTime[timeIdx] = obsEntry.getValue();
+                }
+                seriesCurrencies.add(payload.currencies().get(currencyIndex));
+                seriesByTime.add(byTime);
+            }
+
+            for (int t = 0; t < payload.dates().size(); t++) {
+                LocalDate date = payload.dates().get(t);
+                for (int i = 0; i < seriesByTime.size(); i++) {
+                    JsonNode obsArray = seriesByTime.get(i)[t];
+                    if (obsArray == null) {
+                        continue;
+                    }
+                    BigDecimal rate = extractRate(obsArray);
+                    if (rate == null) {
+                        skippedObservations++;
+                        continue;
+                    }
+                    sink.accept(new ExchangeRateRow(date, seriesCurrencies.get(i), rate));
+                    parsedRows++;
+                }
+            }
+
+            // Includes time the sink blocked on a full writer queue
+            this.streamingTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            logOutcome(parsedRows, skippedSeries, skippedObservations);
+            return parsedRows;
+        } finally {
+            // also for unsupported payloads and failures, e.g. an interrupted sink, so no event is left open
+            event.finish("streaming", parsedRows, skippedSeries, skippedObservations);
+        }
+    }
+
+    /**
+     * Dimensions and series of a structurally valid payload.
+     */
+    private record Payload(List<LocalDate> dates, List<String> currencies,
+                           List<Map.Entry<String, JsonNode>> series, int observationCount) {
+    }
+
+    private static Payload readPayload(JsonNode root) {
         if (!isObjectNode(root)) {
-            return List.of();
+            return null;
         }
 
         JsonNode data = safePathObject(root, "data");
         JsonNode structure = safePathObject(data, "structure");
         JsonNode dims = safePathObject(structure, "dimensions");
         if (!isObjectNode(data) || !isObjectNode(structure) || !isObjectNode(dims)) {
-            return List.of();
+            return null;
         }
 
         List<LocalDate> dates = extractDates(dims);
         List<String> currencies = extractCurrencies(dims);
         if (dates.isEmpty() || currencies.isEmpty()) {
-            return List.of();
+            return null;
         }
 
         JsonNode seriesNode = data.path("dataSets").path(0).path("series");
         if (seriesNode.isMissingNode() || !seriesNode.isObject()) {
-            return List.of();
+            return null;
         }
 
-        List<ExchangeRateRow> out = new ArrayList<>();
-        int skippedSeries = 0;
-        int skippedObservations = 0;
-
+        List<Map.Entry<String, JsonNode>> seriesEntries = new ArrayList<>(seriesNode.size());
+        int observationCount = 0;
         Iterator<Map.Entry<String, JsonNode>> seriesIt = seriesNode.fields();
         while (seriesIt.hasNext()) {
             var entry = seriesIt.next();
-            String seriesKey = entry.getKey();
-            JsonNode series = entry.getValue();
-
-            Integer currencyIndex = parseCurrencyIndex(seriesKey);
-            if (currencyIndex == null || currencyIndex < 0 || currencyIndex >= currencies.size()) {
-                skippedSeries++;
-                continue;
-            }
-            String currency = currencies.get(currencyIndex);
-
-            JsonNode observations = series.path("observations");
-            if (!observations.isObject()) {
-                skippedSeries++;
-                continue;
-            }
-            Iterator<Map.Entry<String, JsonNode>> obsIt = observations.fields();
-            while (obsIt.hasNext()) {
-                var obsEntry = obsIt.next();
-                Integer timeIdx = tryParseInt(obsEntry.getKey());
-                if (timeIdx == null || timeIdx < 0 || timeIdx >= dates.size()) {
-                    skippedObservations++;
-                    continue;
-                }
-                LocalDate date = dates.get(timeIdx);
-                if (date == null) {
-                    skippedObservations++;
-                    continue;
-                }
-                JsonNode obsArray = obsEntry.getValue();
-                BigDecimal rate = extractRate(obsArray);
-                if (rate == null) {
-                    skippedObservations++;
-                    continue;
-                }
-                out.add(new ExchangeRateRow(date, currency, rate));
-            }
+            seriesEntries.add(entry);
+            observationCount += entry.getValue().path("observations").size();
         }
+        return new Payload(dates, currencies, seriesEntries, observationCount);
+    }
 
-        int parsedRows = out.size();
+    private void logOutcome(int parsedRows, int skippedSeries, int skippedObservations) {
+        this.parsedRows.increment(parsedRows);
+        this.skippedSeries.increment(skippedSeries);
+        this.skippedObservations.increment(skippedObservations);
         int skippedTotal = skippedSeries + skippedObservations;
         int totalProcessed = parsedRows + skippedTotal;
 
@@ -108,8 +223,50 @@ public class BankResponseParser {
                         parsedRows, skippedSeries, skippedObservations);
             }
         }
+    }
 
-        return out;
+    /**
+     * Parses one series, handing its rows to {@code out}.
+     *
+     * @return number of skipped observations, or -1 if the whole series was skipped
+     */
+    private static int parseSeries(Map.Entry<String, JsonNode> entry, Payload payload,
+                                   Consumer<ExchangeRateRow> out) {
+        List<String> currencies = payload.currencies();
+        List<LocalDate> dates = payload.dates();
+        Integer currencyIndex = parseCurrencyIndex(entry.getKey());
+        if (currencyIndex == null || currencyIndex < 0 || currencyIndex >= currencies.size()) {
+            return -1;
+        }
+        String currency = currencies.get(currencyIndex);
+
+        JsonNode observations = entry.getValue().path("observations");
+        if (!observations.isObject()) {
+            return -1;
+        }
+        int skippedObservations = 0;
+        Iterator<Map.Entry<String, JsonNode>> obsIt = observations.fields();
+        while (obsIt.hasNext()) {
+            var obsEntry = obsIt.next();
+            Integer timeIdx = tryParseInt(obsEntry.getKey());
+            if (timeIdx == null || timeIdx < 0 || timeIdx >= dates.size()) {
+                skippedObservations++;
+                continue;
+            }
+            LocalDate date = dates.get(timeIdx);
+            if (date == null) {
+                skippedObservations++;
+                continue;
+            }
+            JsonNode obsArray = obsEntry.getValue();
+            BigDecimal rate = extractRate(obsArray);
+            if (rate == null) {
+                skippedObservations++;
+                continue;
+            }
+            out.accept(new ExchangeRateRow(date, currency, rate));
+        }
+        return skippedObservations;
     }
 
     private static Integer tryParseInt(String s) {
@@ -1,6 +1,9 @@
 package com.crewmeister.cmcodingchallenge.bank;
 
+import com.crewmeister.cmcodingchallenge.jfr.BankFetchEvent;
 import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.stereotype.Component;
@@ -14,18 +17,25 @@ import java.util.Objects;
 @Component
 public class BankRestClient {
 
-    private static final String REQUEST_PATH = "/rest/data/BBEX3/D..EUR.BB.AC.000";
-    private static final String RESPONSE_FORMAT = "sdmx_json";
+    private static final String REQUEST_PATH_PREFIX = "/rest/data/BBEX3/D.";
+    private static final String REQUEST_PATH_SUFFIX = ".EUR.BB.AC.000";
+    static final String RESPONSE_FORMAT = "sdmx_json";
 
     private final RestClient restClient;
+    private final BankCallGuard guard;
+    private final MeterRegistry registry;
 
     /**
      * Creates a Bundesbank REST client wrapper.
      *
      * @param restClient configured Spring REST client
+     * @param guard      retry, circuit breaker and hedging policy for each call
+     * @param registry   meter registry for Bundesbank call latency
      */
-    public BankRestClient(RestClient restClient) {
+    public BankRestClient(RestClient restClient, BankCallGuard guard, MeterRegistry registry) {
         this.restClient = restClient;
+        this.guard = guard;
+        this.registry = registry;
     }
 
     /**
@@ -36,14 +46,64 @@ public class BankRestClient {
      * @return raw Bundesbank JSON response
      * @throws IllegalArgumentException if end is before start
      * @throws NullPointerException     if start or end is null
+     * @throws BundesbankUnavailableException if the circuit to Bundesbank is open
      */
     public JsonNode fetchRates(LocalDate start, LocalDate end) {
+        return fetchRates(start, end, null, Deadline.NONE);
+    }
+
+    /**
+     * Fetches EUR-based exchange rates within the caller's remaining time budget.
+     * A currency narrows the SDMX series key (e.g. {@code D.USD.EUR.BB.AC.000}) so only that series is sent.
+     *
+     * @param start    start date (inclusive)
+     * @param end      end date (inclusive)
+     * @param currency optional upper-case 3-letter currency code; null fetches all currencies
+     * @param deadline caller deadline applied to every attempt and retry
+     * @return raw Bundesbank JSON response
+     * @throws IllegalArgumentException       if end is before start or the currency is malformed
+     * @throws NullPointerException           if start or end is null
+     * @throws BundesbankUnavailableException if the circuit is open or the deadline has passed
+     */
+    public JsonNode fetchRates(LocalDate start, LocalDate end, String currency, Deadline deadline) {
         validateRange(start, end);
+        String path = requestPath(currency);
+        BankFetchEvent event = new BankFetchEvent();
+        event.begin();
+        Timer.Sample sample = Timer.start(this.registry);
+        String exception = "none";
+        try {
+            return this.guard.execute(deadline,
+                    () -> DeadlineAwareRequestFactory.callWithin(deadline, () -> doFetch(path, start, end)));
+        } catch (RuntimeException e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            event.finish(start, end, currency, exception);
+            // Covers the whole guarded call, i.e. what the sync waits for including retries and hedges
+            sample.stop(Timer.builder("bank.fetch")
+                    .description("Bundesbank fetch latency including retries")
+                    .tag("scope", currency == null ? "all" : "single")
+                    .tag("exception", exception)
+                    .register(this.registry));
+        }
+    }
+
+    static String requestPath(String currency) {
+        if (currency == null) {
+            return REQUEST_PATH_PREFIX + REQUEST_PATH_SUFFIX;
+        }
+        if (!currency.matches("^[A-Z]{3}$")) {
+            throw new IllegalArgumentException("currency must be an upper-case 3-letter ISO code");
+        }
+        return REQUEST_PATH_PREFIX + currency + REQUEST_PATH_SUFFIX;
+    }
 
+    private JsonNode doFetch(String path, LocalDate start, LocalDate end) {
         return this.restClient
                 .get()
                 .uri(uriBuilder -> uriBuilder
-                        .path(REQUEST_PATH)
+                        .path(path)
                         .queryParam("format", RESPONSE_FORMAT)
                         .queryParam("startPeriod", start)
                         .queryParam("endPeriod", end)
@@ -60,7 +120,7 @@ public class BankRestClient {
                 .body(JsonNode.class);
     }
 
-    private static void validateRange(LocalDate start, LocalDate end) {
+    static void validateRange(LocalDate start, LocalDate end) {
         Objects.requireNonNull(start, "start date must not be null");
         Objects.requireNonNull(end, "end date must not be null");
         if (end.isBefore(start)) {
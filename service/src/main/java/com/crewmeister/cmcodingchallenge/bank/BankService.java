@@ -5,6 +5,7 @@ import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
 @Service
 public class BankService {
@@ -31,7 +32,38 @@ public class BankService {
      * @return parsed exchange rate rows
      */
     public List<ExchangeRateRow> retrieveRates(LocalDate startDate, LocalDate endDate) {
-        JsonNode jsonNode = this.restClient.fetchRates(startDate, endDate);
+        return retrieveRates(startDate, endDate, null, Deadline.NONE);
+    }
+
+    /**
+     * Retrieves EUR-based exchange rates within the caller's remaining time budget.
+     *
+     * @param startDate start date (inclusive)
+     * @param endDate   end date (inclusive)
+     * @param currency  optional currency code to fetch only that series; null fetches all
+     * @param deadline  caller deadline for the Bundesbank call
+     * @return parsed exchange rate rows
+     */
+    public List<ExchangeRateRow> retrieveRates(LocalDate startDate, LocalDate endDate, String currency,
+                                               Deadline deadline) {
+        JsonNode jsonNode = this.restClient.fetchRates(startDate, endDate, currency, deadline);
         return this.parser.parseRates(jsonNode);
     }
+
+    /**
+     * Retrieves EUR-based exchange rates and hands each parsed row to {@code sink} as it is parsed,
+     * so callers can start consuming before the whole payload has been turned into rows.
+     *
+     * @param startDate start date (inclusive)
+     * @param endDate   end date (inclusive)
+     * @param currency  optional currency code to fetch only that series; null fetches all
+     * @param deadline  caller deadline for the Bundesbank call
+     * @param sink      receiver for parsed rows, called on the calling thread
+     * @return number of rows handed to the sink
+     */
+    public int streamRates(LocalDate startDate, LocalDate endDate, String currency, Deadline deadline,
+                           Consumer<ExchangeRateRow> sink) {
+        JsonNode jsonNode = this.restClient.fetchRates(startDate, endDate, currency, deadline);
+        return this.parser.parseRates(jsonNode, sink);
+    }
 }
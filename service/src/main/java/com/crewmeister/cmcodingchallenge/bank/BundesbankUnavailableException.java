@@ -0,0 +1,23 @@
+package com.crewmeister.cmcodingchallenge.bank;
+
+public final class BundesbankUnavailableException extends RuntimeException {
+    /**
+     * Creates an exception for calls rejected because the Bundesbank circuit is open.
+     *
+     * @param message error message
+     */
+    public BundesbankUnavailableException(String message) {
+        super(message);
+    }
+
+    /**
+     * Creates an exception for a call given up on after a failure, e.g. a retry rejected because
+     * that failure opened the circuit.
+     *
+     * @param message error message
+     * @param cause   failure of the last attempt
+     */
+    public BundesbankUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,94 @@
+package com.crewmeister.cmcodingchallenge.bank;
+
+import reactor.netty.Connection;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Lets one thread abort the Bundesbank request another thread is blocked on, e.g. the losing
+ * request of a hedged call. The call is run with {@link #run}; {@link DeadlineAwareRequestFactory}
+ * then binds the connection of each request it sends, until the response is complete.
+ * {@link #cancel} closes a bound connection, so the blocked call fails at once and the connection
+ * leaves the pool instead of being held until the slow response arrives.
+ */
+final class CallCancellation {
+
+    private static final ThreadLocal<CallCancellation> CURRENT = new ThreadLocal<>();
+
+    // a connection is only closed while it still serves this call, never once it is back in the pool
+    private final ReentrantLock lock = new ReentrantLock();
+    private Connection connection;
+    private boolean cancelled;
+
+    /**
+     * Runs a call with this cancellation bound to the current thread.
+     *
+     * @param call call that sends requests through {@link DeadlineAwareRequestFactory}
+     * @param <T>  result type
+     * @return call result
+     */
+    <T> T run(Supplier<T> call) {
+        CURRENT.set(this);
+        try {
+            return call.get();
+        } finally {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * Returns the cancellation bound to the current thread.
+     *
+     * @return bound cancellation, or null if the call cannot be cancelled
+     */
+    static CallCancellation current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Closes the connection of the request in flight, and of any request sent afterwards.
+     */
+    void cancel() {
+        this.lock.lock();
+        try {
+            this.cancelled = true;
+            if (this.connection != null) {
+                this.connection.dispose();
+                this.connection = null;
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Binds the connection a request was just sent on.
+     *
+     * @param connection connection of the request
+     */
+    void bind(Connection connection) {
+        this.lock.lock();
+        try {
+            if (this.cancelled) {
+                connection.dispose();
+            } else {
+                this.connection = connection;
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Unbinds the connection once its response is complete, before it is released to the pool.
+     */
+    void release() {
+        this.lock.lock();
+        try {
+            this.connection = null;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+}
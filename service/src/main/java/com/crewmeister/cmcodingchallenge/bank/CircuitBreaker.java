@@ -0,0 +1,121 @@
+package com.crewmeister.cmcodingchallenge.bank;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+
+/**
+ * Consecutive-failure circuit breaker for Bundesbank calls.
+ * While open, calls fail fast; after the open duration a single trial call is let through.
+ */
+public class CircuitBreaker {
+
+    /**
+     * Circuit breaker states.
+     */
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openMillis;
+    private final Clock clock;
+    private final BiConsumer<State, State> transitionListener;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicLong openedAt = new AtomicLong();
+
+    /**
+     * Creates a circuit breaker.
+     *
+     * @param failureThreshold   consecutive failures that open the circuit
+     * @param openDuration       time the circuit stays open before a trial call
+     * @param clock              clock used for open-duration checks
+     * @param transitionListener callback invoked with (from, to) on every state change
+     */
+    public CircuitBreaker(int failureThreshold, Duration openDuration, Clock clock,
+                          BiConsumer<State, State> transitionListener) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("failure threshold must be >= 1");
+        }
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openDuration.toMillis();
+        this.clock = clock;
+        this.transitionListener = transitionListener;
+    }
+
+    /**
+     * Checks whether a call may be sent now.
+     * Moves an expired open circuit to half-open and admits exactly one trial call.
+     *
+     * @return true when the call is permitted
+     */
+    public boolean tryAcquirePermission() {
+        State current = this.state.get();
+        if (current == State.CLOSED) {
+            return true;
+        }
+        if (current == State.OPEN && this.clock.millis() - this.openedAt.get() >= this.openMillis) {
+            return transition(State.OPEN, State.HALF_OPEN);
+        }
+        return false;
+    }
+
+    /**
+     * Records a successful call and closes the circuit.
+     */
+    public void onSuccess() {
+        this.consecutiveFailures.set(0);
+        transition(State.HALF_OPEN, State.CLOSED);
+    }
+
+    /**
+     * Records a failed call; opens the circuit on threshold or when the trial call fails.
+     */
+    public void onFailure() {
+        if (this.state.get() == State.HALF_OPEN) {
+            open(State.HALF_OPEN);
+            return;
+        }
+        if (this.consecutiveFailures.incrementAndGet() >= this.failureThreshold) {
+            open(State.CLOSED);
+        }
+    }
+
+    /**
+     * Gives back a permission whose call ended without an outcome, e.g. because the caller was
+     * interrupted. The failure count is kept; a trial call's slot is returned so the next caller
+     * may send the trial instead of the circuit staying half-open.
+     */
+    public void releasePermission() {
+        transition(State.HALF_OPEN, State.OPEN);
+    }
+
+    /**
+     * Returns the current state.
+     *
+     * @return circuit state
+     */
+    public State state() {
+        return this.state.get();
+    }
+
+    private void open(State from) {
+        this.openedAt.set(this.clock.millis());
+        if (transition(from, State.OPEN)) {
+            this.consecutiveFailures.set(0);
+        }
+    }
+
+    private boolean transition(State from, State to) {
+        if (!this.state.compareAndSet(from, to)) {
+            return false;
+        }
+        this.transitionListener.accept(from, to);
+        return true;
+    }
+}
@@ -0,0 +1,63 @@
+package com.crewmeister.cmcodingchallenge.bank;
+
+import java.time.Duration;
+
+/**
+ * Point in time by which a caller needs a Bundesbank call to have finished.
+ * Created once by the caller and handed down, so retries and timeouts use the remaining budget.
+ */
+public final class Deadline {
+
+    /**
+     * Deadline that never expires; calls fall back to the configured client timeouts.
+     */
+    public static final Deadline NONE = new Deadline(Long.MAX_VALUE);
+
+    private final long deadlineNanos;
+
+    private Deadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * Creates a deadline that expires after the given budget.
+     *
+     * @param budget time budget from now
+     * @return deadline
+     */
+    public static Deadline after(Duration budget) {
+        return new Deadline(System.nanoTime() + budget.toNanos());
+    }
+
+    /**
+     * Returns the remaining time budget, never negative.
+     *
+     * @return remaining time, or a very large duration for {@link #NONE}
+     */
+    public Duration remaining() {
+        if (this == NONE) {
+            return Duration.ofNanos(Long.MAX_VALUE);
+        }
+        return Duration.ofNanos(Math.max(0, this.deadlineNanos - System.nanoTime()));
+    }
+
+    /**
+     * Checks whether the budget is used up.
+     *
+     * @return true when no time is left
+     */
+    public boolean isExpired() {
+        return this != NONE && this.deadlineNanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * Returns the smaller of the remaining budget and the given timeout.
+     *
+     * @param timeout configured timeout
+     * @return effective timeout for the next wait
+     */
+    public Duration capped(Duration timeout) {
+        Duration remaining = remaining();
+        return remaining.compareTo(timeout) < 0 ? remaining : timeout;
+    }
+}
@@ -0,0 +1,79 @@
+package com.crewmeister.cmcodingchallenge.bank;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ReactorClientHttpRequestFactory;
+import reactor.netty.http.client.HttpClient;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Request factory over a shared, pooled Reactor Netty client that applies the
+ * current caller's deadline as the response timeout of each request, and lets a
+ * {@link CallCancellation} bound to the caller abort the request.
+ */
+public class DeadlineAwareRequestFactory implements ClientHttpRequestFactory {
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+    private static final Duration MIN_TIMEOUT = Duration.ofMillis(1);
+
+    private final HttpClient httpClient;
+    private final Duration readTimeout;
+
+    /**
+     * Creates the factory.
+     *
+     * @param httpClient  shared HTTP client backed by the connection pool
+     * @param readTimeout response timeout used when the deadline leaves more time
+     */
+    public DeadlineAwareRequestFactory(HttpClient httpClient, Duration readTimeout) {
+        this.httpClient = httpClient;
+        this.readTimeout = readTimeout;
+    }
+
+    /**
+     * Runs a call with the given deadline bound to the current thread.
+     *
+     * @param deadline caller deadline
+     * @param call     call that creates requests through this factory
+     * @param <T>      result type
+     * @return call result
+     */
+    public static <T> T callWithin(Deadline deadline, Supplier<T> call) {
+        Deadline previous = CURRENT.get();
+        CURRENT.set(deadline);
+        try {
+            return call.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    @Override
+    public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+        Deadline deadline = CURRENT.get();
+        Duration timeout = deadline == null ? this.readTimeout : deadline.capped(this.readTimeout);
+        if (timeout.compareTo(MIN_TIMEOUT) < 0) {
+            timeout = MIN_TIMEOUT;
+        }
+        HttpClient client = this.httpClient;
+        CallCancellation cancellation = CallCancellation.current();
+        if (cancellation != null) {
+            client = client.doOnRequest((request, connection) -> cancellation.bind(connection))
+                    .doAfterResponseSuccess((response, connection) -> cancellation.release())
+                    .doOnResponseError((response, error) -> cancellation.release());
+        }
+        // Per-call factory is a thin view over the shared client, so the pool is still shared
+        ReactorClientHttpRequestFactory factory = new ReactorClientHttpRequestFactory(client);
+        factory.setReadTimeout(timeout);
+        return factory.createRequest(uri, httpMethod);
+    }
+}
@@ -0,0 +1,108 @@
+package com.crewmeister.cmcodingchallenge.bank;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiFunction;
+
+/**
+ * Non-blocking Bundesbank client for the reactive API. Requests, retries and backoff run on the
+ * Netty event loop without holding a thread; only parsing moves to the parallel scheduler. Retries
+ * follow {@code fx.bank.retry} with Reactor's jittered backoff. The circuit breaker, retry budget and
+ * hedging of {@link BankCallGuard} are blocking and apply to the servlet stack only.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveBankClient {
+
+    private final WebClient webClient;
+    private final BankResponseParser parser;
+    private final BankClientProperties.Retry retry;
+    private final MeterRegistry registry;
+
+    /**
+     * Creates the reactive Bundesbank client.
+     *
+     * @param bankWebClient configured WebClient on the shared Bundesbank connection pool
+     * @param parser        parser for SDMX JSON payloads
+     * @param properties    Bundesbank client settings
+     * @param registry      meter registry for Bundesbank call latency
+     */
+    public ReactiveBankClient(WebClient bankWebClient, BankResponseParser parser, BankClientProperties properties,
+                              MeterRegistry registry) {
+        this.webClient = bankWebClient;
+        this.parser = parser;
+        this.retry = properties.retry();
+        this.registry = registry;
+    }
+
+    /**
+     * Fetches and parses EUR-based exchange rates for an inclusive date range.
+     *
+     * @param start    start date (inclusive)
+     * @param end      end date (inclusive)
+     * @param currency optional upper-case 3-letter currency code; null fetches all currencies
+     * @return parsed rows, or an error with {@link BundesbankClientException} or
+     * {@link BundesbankServerException} once retries are used up
+     * @throws IllegalArgumentException if end is before start or the currency is malformed
+     */
+    public Mono<List<ExchangeRateRow>> fetchRates(LocalDate start, LocalDate end, String currency) {
+        BankRestClient.validateRange(start, end);
+        String path = BankRestClient.requestPath(currency);
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(this.registry);
+            return this.webClient
+                    .get()
+                    .uri(uriBuilder -> uriBuilder
+                            .path(path)
+                            .queryParam("format", BankRestClient.RESPONSE_FORMAT)
+                            .queryParam("startPeriod", start)
+                            .queryParam("endPeriod", end)
+                            .build())
+                    .retrieve()
+                    .onStatus(HttpStatusCode::is4xxClientError, response -> error(response, BundesbankClientException::new))
+                    .onStatus(HttpStatusCode::is5xxServerError, response -> error(response, BundesbankServerException::new))
+                    .bodyToMono(JsonNode.class)
+                    .retryWhen(Retry.backoff(this.retry.maxAttempts() - 1L, this.retry.initialBackoff())
+                            .maxBackoff(this.retry.maxBackoff())
+                            .filter(ReactiveBankClient::isRetryable)
+                            .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+                    .doOnSuccess(json -> stop(sample, currency, "none"))
+                    .doOnError(e -> stop(sample, currency, e.getClass().getSimpleName()));
+        }).publishOn(Schedulers.parallel()).map(this.parser::parseRates);
+    }
+
+    private static Mono<? extends Throwable> error(ClientResponse response,
+                                                   BiFunction<Integer, String, RuntimeException> exception) {
+        return response.bodyToMono(String.class)
+                .defaultIfEmpty("")
+                .map(body -> exception.apply(response.statusCode().value(), body));
+    }
+
+    private static boolean isRetryable(Throwable e) {
+        return e instanceof BundesbankServerException
+                || e instanceof WebClientRequestException
+                || e instanceof TimeoutException;
+    }
+
+    private void stop(Timer.Sample sample, String currency, String exception) {
+        sample.stop(Timer.builder("bank.fetch")
+                .description("Bundesbank fetch latency including retries")
+                .tag("scope", currency == null ? "all" : "single")
+                .tag("exception", exception)
+                .register(this.registry));
+    }
+}
@@ -1,34 +1,81 @@
 package com.crewmeister.cmcodingchallenge.bank;
 
-import org.springframework.boot.http.client.ClientHttpRequestFactoryBuilder;
-import org.springframework.boot.http.client.ClientHttpRequestFactorySettings;
+import io.netty.channel.ChannelOption;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.client.RestClient;
-
-import java.time.Duration;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 @Configuration
 public class RestClientConfig {
 
-    private static final String BASE_URL = "https://api.statistiken.bundesbank.de";
-    private static final int CONNECT_TIMEOUT = 5;
-    private static final int READ_TIMEOUT = 10;
+    private static final String POOL_NAME = "bundesbank";
+    /** Upper bound for a buffered payload; the WebClient default of 256 KB is too small for longer all-currency ranges. */
+    private static final int MAX_PAYLOAD_BYTES = 16 * 1024 * 1024;
+
+    /**
+     * Builds the connection pool shared by all Bundesbank requests.
+     *
+     * @param properties Bundesbank client settings
+     * @return pooled connection provider with background idle eviction
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider bankConnectionProvider(BankClientProperties properties) {
+        BankClientProperties.Pool pool = properties.pool();
+        return ConnectionProvider.builder(POOL_NAME)
+                .maxConnections(pool.maxConnections())
+                .maxIdleTime(pool.maxIdleTime())
+                .evictInBackground(pool.evictionInterval())
+                .build();
+    }
 
     /**
      * Builds the shared RestClient for Bundesbank API requests.
      *
+     * @param properties         Bundesbank client settings
+     * @param connectionProvider pooled connection provider
      * @return configured RestClient instance
      */
     @Bean
-    public RestClient restClient() {
-        ClientHttpRequestFactorySettings settings = ClientHttpRequestFactorySettings
-                .defaults()
-                .withConnectTimeout(Duration.ofSeconds(CONNECT_TIMEOUT))
-                .withReadTimeout(Duration.ofSeconds(READ_TIMEOUT));
-        ClientHttpRequestFactory requestFactory =
-                ClientHttpRequestFactoryBuilder.detect().build(settings);
-        return RestClient.builder().baseUrl(BASE_URL).requestFactory(requestFactory).build();
+    public RestClient restClient(BankClientProperties properties, ConnectionProvider connectionProvider) {
+        return RestClient.builder()
+                .baseUrl(properties.baseUrl())
+                .requestFactory(new DeadlineAwareRequestFactory(httpClient(properties, connectionProvider),
+                        properties.readTimeout()))
+                .build();
+    }
+
+    /**
+     * Builds the non-blocking client for Bundesbank requests of the reactive API, on the same
+     * connection pool as the blocking client.
+     *
+     * @param properties         Bundesbank client settings
+     * @param connectionProvider pooled connection provider
+     * @return configured WebClient instance
+     */
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    public WebClient bankWebClient(BankClientProperties properties, ConnectionProvider connectionProvider) {
+        HttpClient httpClient = httpClient(properties, connectionProvider).responseTimeout(properties.readTimeout());
+        return WebClient.builder()
+                .baseUrl(properties.baseUrl())
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(MAX_PAYLOAD_BYTES))
+                .build();
+    }
+
+    private static HttpClient httpClient(BankClientProperties properties, ConnectionProvider connectionProvider) {
+        HttpProtocol[] protocols = properties.pool().http2()
+                ? new HttpProtocol[]{HttpProtocol.H2, HttpProtocol.HTTP11}
+                : new HttpProtocol[]{HttpProtocol.HTTP11};
+        return HttpClient.create(connectionProvider)
+                .protocol(protocols)
+                .keepAlive(true)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.connectTimeout().toMillis());
     }
 }
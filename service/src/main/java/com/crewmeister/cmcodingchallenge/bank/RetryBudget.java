@@ -0,0 +1,66 @@
+package com.crewmeister.cmcodingchallenge.bank;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Global token bucket that caps retries to a fraction of overall Bundesbank calls.
+ * Every call deposits a fraction of a token, every retry or hedge withdraws a full token.
+ */
+public class RetryBudget {
+
+    private static final long SCALE = 1000;
+
+    private final long depositPerCall;
+    private final long capacity;
+    private final AtomicLong balance;
+
+    /**
+     * Creates a retry budget that starts full.
+     *
+     * @param ratio      retries earned per call
+     * @param maxRetries maximum number of retries that can be banked
+     */
+    public RetryBudget(double ratio, int maxRetries) {
+        if (ratio < 0) {
+            throw new IllegalArgumentException("retry budget ratio must be >= 0");
+        }
+        if (maxRetries < 0) {
+            throw new IllegalArgumentException("retry budget max must be >= 0");
+        }
+        this.depositPerCall = Math.round(ratio * SCALE);
+        this.capacity = maxRetries * SCALE;
+        this.balance = new AtomicLong(this.capacity);
+    }
+
+    /**
+     * Records a first attempt and earns a fraction of a retry.
+     */
+    public void recordCall() {
+        this.balance.getAndUpdate(b -> Math.min(this.capacity, b + this.depositPerCall));
+    }
+
+    /**
+     * Withdraws one retry from the budget if available.
+     *
+     * @return true when a retry may be sent
+     */
+    public boolean tryAcquireRetry() {
+        long current;
+        do {
+            current = this.balance.get();
+            if (current < SCALE) {
+                return false;
+            }
+        } while (!this.balance.compareAndSet(current, current - SCALE));
+        return true;
+    }
+
+    /**
+     * Returns the number of whole retries currently available.
+     *
+     * @return available retries
+     */
+    public long available() {
+        return this.balance.get() / SCALE;
+    }
+}
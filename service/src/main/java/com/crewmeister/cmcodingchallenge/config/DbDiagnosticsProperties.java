@@ -0,0 +1,19 @@
+package com.crewmeister.cmcodingchallenge.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings for database diagnostics.
+ *
+ * @param statisticsEnabled  whether Hibernate collects per-query, entity and flush statistics
+ * @param slowQueryThreshold queries running at least this long are logged by {@code org.hibernate.SQL_SLOW}, 0 disables
+ */
+@ConfigurationProperties(prefix = "fx.db")
+public record DbDiagnosticsProperties(
+        @DefaultValue("false") boolean statisticsEnabled,
+        @DefaultValue("250ms") Duration slowQueryThreshold
+) {
+}
@@ -0,0 +1,24 @@
+package com.crewmeister.cmcodingchallenge.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class HibernateStatisticsConfig {
+
+    /**
+     * Applies the statistics flag and slow-query threshold to the Hibernate session factory.
+     *
+     * @param properties database diagnostics settings
+     * @return customizer of the Hibernate properties
+     */
+    @Bean
+    HibernatePropertiesCustomizer dbDiagnosticsCustomizer(DbDiagnosticsProperties properties) {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.GENERATE_STATISTICS, properties.statisticsEnabled());
+            hibernateProperties.put(AvailableSettings.LOG_SLOW_QUERY, properties.slowQueryThreshold().toMillis());
+        };
+    }
+}
@@ -0,0 +1,143 @@
+package com.crewmeister.cmcodingchallenge.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Actuator endpoint {@code /actuator/hibernate} exposing Hibernate statistics: statement, flush and
+ * entity load counts, per-query execution counts with mean and max time, and per-entity counts.
+ * Statistics are collected only while enabled, by {@code fx.db.statistics-enabled} or at runtime.
+ */
+@Component
+@Endpoint(id = "hibernate")
+public class HibernateStatisticsEndpoint {
+
+    /**
+     * Statistics of one HQL or native query.
+     *
+     * @param query       query string
+     * @param executions  number of executions
+     * @param rows        total rows returned
+     * @param meanMillis  mean execution time
+     * @param maxMillis   longest execution time
+     * @param totalMillis estimated total time, executions times mean
+     * @param cacheHits   query cache hits
+     * @param cacheMisses query cache misses
+     */
+    public record QueryStats(String query, long executions, long rows, long meanMillis, long maxMillis,
+                             long totalMillis, long cacheHits, long cacheMisses) {
+    }
+
+    /**
+     * Statistics of one entity type.
+     *
+     * @param entity  entity name
+     * @param loads   instances loaded from the database
+     * @param fetches instances fetched lazily or by id
+     * @param inserts instances inserted
+     * @param updates instances updated
+     * @param deletes instances deleted
+     */
+    public record EntityStats(String entity, long loads, long fetches, long inserts, long updates, long deletes) {
+    }
+
+    /**
+     * Session factory wide statistics.
+     *
+     * @param enabled                whether statistics are being collected
+     * @param since                  start of collection, or of the last reset
+     * @param sessions               sessions opened
+     * @param transactions           transactions completed
+     * @param statements             JDBC statements prepared
+     * @param flushes                session flushes
+     * @param entityLoads            entity instances loaded
+     * @param entityFetches          entity instances fetched
+     * @param queryExecutions        queries executed
+     * @param slowestQueryMillis     longest query execution time
+     * @param slowestQuery           query with the longest execution time
+     * @param secondLevelCacheHits   second-level cache hits
+     * @param secondLevelCacheMisses second-level cache misses
+     * @param queries                per-query statistics, by descending total time
+     * @param entities               per-entity statistics
+     */
+    public record Report(boolean enabled, Instant since, long sessions, long transactions, long statements,
+                         long flushes, long entityLoads, long entityFetches, long queryExecutions,
+                         long slowestQueryMillis, String slowestQuery, long secondLevelCacheHits,
+                         long secondLevelCacheMisses, List<QueryStats> queries, List<EntityStats> entities) {
+    }
+
+    private final Statistics statistics;
+
+    /**
+     * Creates the endpoint.
+     *
+     * @param entityManagerFactory JPA entity manager factory backed by Hibernate
+     */
+    public HibernateStatisticsEndpoint(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * Returns the statistics collected so far.
+     *
+     * @return statistics report
+     */
+    @ReadOperation
+    public Report report() {
+        Statistics s = this.statistics;
+        List<QueryStats> queries = Arrays.stream(s.getQueries())
+                .map(query -> queryStats(query, s.getQueryStatistics(query)))
+                .sorted(Comparator.comparingLong(QueryStats::totalMillis).reversed())
+                .toList();
+        List<EntityStats> entities = Arrays.stream(s.getEntityNames())
+                .map(entity -> entityStats(entity, s.getEntityStatistics(entity)))
+                .toList();
+        return new Report(s.isStatisticsEnabled(), s.getStart(), s.getSessionOpenCount(),
+                s.getTransactionCount(), s.getPrepareStatementCount(), s.getFlushCount(), s.getEntityLoadCount(),
+                s.getEntityFetchCount(), s.getQueryExecutionCount(), s.getQueryExecutionMaxTime(),
+                s.getQueryExecutionMaxTimeQueryString(), s.getSecondLevelCacheHitCount(),
+                s.getSecondLevelCacheMissCount(), queries, entities);
+    }
+
+    /**
+     * Switches statistics collection on or off without a restart.
+     *
+     * @param enabled whether to collect statistics
+     */
+    @WriteOperation
+    public void enable(boolean enabled) {
+        this.statistics.setStatisticsEnabled(enabled);
+    }
+
+    /**
+     * Clears all statistics and restarts collection from now.
+     */
+    @DeleteOperation
+    public void reset() {
+        this.statistics.clear();
+    }
+
+    private static QueryStats queryStats(String query, QueryStatistics q) {
+        return new QueryStats(query, q.getExecutionCount(), q.getExecutionRowCount(), q.getExecutionAvgTime(),
+                q.getExecutionMaxTime(), q.getExecutionCount() * q.getExecutionAvgTime(),
+                q.getCacheHitCount(), q.getCacheMissCount());
+    }
+
+    private static EntityStats entityStats(String entity, EntityStatistics e) {
+        return new EntityStats(entity, e.getLoadCount(), e.getFetchCount(), e.getInsertCount(),
+                e.getUpdateCount(), e.getDeleteCount());
+    }
+}
@@ -0,0 +1,93 @@
+package com.crewmeister.cmcodingchallenge.config;
+
+import com.crewmeister.cmcodingchallenge.model.ExchangeRateEntity;
+import com.crewmeister.cmcodingchallenge.model.ExchangeRateRepository;
+import com.crewmeister.cmcodingchallenge.model.SyncCoverageRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ConfigurationBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.UUID;
+
+/**
+ * Caches rates in Hibernate's second-level cache, backed by Ehcache through JCache: rates by key,
+ * which serves conversions without a query, and the results of the queries requests run: rate
+ * pages and counts, the rates of a day and the coverage check. Every region is created here with a
+ * bounded heap; Hibernate fails at startup if it needs a region that is not. Active unless
+ * {@code fx.db.cache.enabled=false}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "fx.db.cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RateCacheConfig {
+
+    // one entry per table, which must not be evicted while its query results are cached
+    private static final long TIMESTAMP_ENTRIES = 100;
+
+    /**
+     * Creates the cache manager holding the rate regions.
+     *
+     * @param properties cache sizes
+     * @return cache manager, closed with the context
+     */
+    @Bean(destroyMethod = "close")
+    CacheManager rateCacheManager(RateCacheProperties properties) {
+        ConfigurationBuilder config = ConfigurationBuilder.newConfigurationBuilder()
+                .withCache(ExchangeRateEntity.CACHE_REGION, heap(properties.rateEntries()))
+                .withCache(ExchangeRateRepository.RATE_QUERIES_CACHE_REGION, heap(properties.queryEntries()))
+                .withCache(ExchangeRateRepository.RATE_PAGES_CACHE_REGION, heap(properties.pageEntries()))
+                .withCache(SyncCoverageRepository.COVERED_DATES_CACHE_REGION, heap(properties.queryEntries()))
+                .withCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, heap(properties.queryEntries()))
+                .withCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, heap(TIMESTAMP_ENTRIES));
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(
+                EhcacheCachingProvider.class.getName());
+        // a URI of its own, so contexts sharing the JVM do not share regions
+        return provider.getCacheManager(URI.create("urn:fx-rates:" + UUID.randomUUID()), config.build());
+    }
+
+    /**
+     * Hands the cache manager to Hibernate and switches the second-level and query cache on.
+     *
+     * @param rateCacheManager cache manager holding the rate regions
+     * @return customizer of the Hibernate properties
+     */
+    @Bean
+    HibernatePropertiesCustomizer rateCacheCustomizer(CacheManager rateCacheManager) {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, ConfigSettings.SIMPLE_FACTORY_NAME);
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, rateCacheManager);
+            hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    /**
+     * Evicts cached rates after writes Hibernate does not see.
+     *
+     * @param entityManagerFactory JPA entity manager factory backed by Hibernate
+     * @param registry             meter registry for eviction counts
+     * @return rate cache evictor
+     */
+    @Bean
+    RateCacheEvictor rateCacheEvictor(EntityManagerFactory entityManagerFactory, MeterRegistry registry) {
+        return new RateCacheEvictor(entityManagerFactory, registry);
+    }
+
+    private static CacheConfigurationBuilder<Object, Object> heap(long entries) {
+        return CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class,
+                ResourcePoolsBuilder.heap(entries));
+    }
+}
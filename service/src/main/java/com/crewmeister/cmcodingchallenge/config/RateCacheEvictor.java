@@ -0,0 +1,73 @@
+package com.crewmeister.cmcodingchallenge.config;
+
+import com.crewmeister.cmcodingchallenge.model.ExchangeRateEntity;
+import com.crewmeister.cmcodingchallenge.model.ExchangeRateRepository;
+import com.crewmeister.cmcodingchallenge.model.SyncCoverageRepository;
+import com.crewmeister.cmcodingchallenge.sync.RatesWrittenEvent;
+import com.crewmeister.cmcodingchallenge.sync.RemoteRatesWrittenEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Empties the rate regions of the second-level cache after every committed sync and every change
+ * of another node. Hibernate keeps the cache in step with the entity updates it flushes itself, but
+ * not with snapshot imports written over JDBC, the staged {@code MERGE}, or rows another node
+ * commits to a shared database. Syncs are rare next to reads, so whole regions are dropped rather
+ * than tracking the keys a sync touched. The listeners run after the read replica is refreshed and
+ * before the in-memory copies reload.
+ */
+public class RateCacheEvictor {
+
+    private final Cache cache;
+    private final Counter evictions;
+
+    /**
+     * Creates the evictor.
+     *
+     * @param entityManagerFactory JPA entity manager factory backed by Hibernate
+     * @param registry             meter registry for eviction counts
+     */
+    public RateCacheEvictor(EntityManagerFactory entityManagerFactory, MeterRegistry registry) {
+        this.cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        this.evictions = Counter.builder("db.cache.evictions")
+                .description("Times the cached rates were dropped after a write").register(registry);
+    }
+
+    /**
+     * Evicts after a committed sync of this node.
+     *
+     * @param event dates that were synced
+     */
+    @TransactionalEventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE + 1)
+    public void onRatesWritten(RatesWrittenEvent event) {
+        evict();
+    }
+
+    /**
+     * Evicts after another node's sync.
+     *
+     * @param event changed date range, or all dates
+     */
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE + 1)
+    public void onRemoteRatesWritten(RemoteRatesWrittenEvent event) {
+        evict();
+    }
+
+    void evict() {
+        this.cache.evictEntityData(ExchangeRateEntity.class);
+        this.cache.evictQueryRegion(ExchangeRateRepository.RATE_QUERIES_CACHE_REGION);
+        this.cache.evictQueryRegion(ExchangeRateRepository.RATE_PAGES_CACHE_REGION);
+        // coverage another node commits is written past Hibernate as well
+        this.cache.evictQueryRegion(SyncCoverageRepository.COVERED_DATES_CACHE_REGION);
+        this.evictions.increment();
+    }
+}
@@ -0,0 +1,21 @@
+package com.crewmeister.cmcodingchallenge.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings for Hibernate's second-level and query cache of rates.
+ *
+ * @param enabled      whether rates and the cacheable rate queries are cached in the JVM heap
+ * @param rateEntries  maximum rates in the entity region, least recently used evicted first
+ * @param queryEntries maximum results in each query region of counts and single-day rates
+ * @param pageEntries  maximum cached pages of {@code /api/rates}, each holding up to thousands of rates
+ */
+@ConfigurationProperties(prefix = "fx.db.cache")
+public record RateCacheProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("20000") long rateEntries,
+        @DefaultValue("1000") long queryEntries,
+        @DefaultValue("100") long pageEntries
+) {
+}
@@ -0,0 +1,67 @@
+package com.crewmeister.cmcodingchallenge.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Hands out replica connections to read-only transactions and primary connections to everything
+ * else. The route is decided when a connection is taken, so this data source must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the JPA transaction
+ * manager asks for a connection before it marks the transaction read-only, and the proxy defers the
+ * real one to the first statement. Until the replica is marked ready, all connections come from the
+ * primary.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    /** Target of a connection. */
+    public enum Route {
+        PRIMARY, REPLICA
+    }
+
+    private final Counter primaryConnections;
+    private final Counter replicaConnections;
+
+    private volatile boolean replicaReady;
+
+    /**
+     * Creates the routing data source.
+     *
+     * @param primary  data source for writes and read-write transactions
+     * @param replica  data source for read-only transactions
+     * @param registry meter registry for connections taken per route
+     */
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, MeterRegistry registry) {
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        this.primaryConnections = registry.counter("db.connections.routed", "route", "primary");
+        this.replicaConnections = registry.counter("db.connections.routed", "route", "replica");
+    }
+
+    /**
+     * Marks whether the replica holds the committed rates and may serve reads.
+     *
+     * @param ready whether read-only transactions go to the replica
+     */
+    public void setReplicaReady(boolean ready) {
+        this.replicaReady = ready;
+    }
+
+    public boolean isReplicaReady() {
+        return this.replicaReady;
+    }
+
+    @Override
+    protected Route determineCurrentLookupKey() {
+        if (this.replicaReady && TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            this.replicaConnections.increment();
+            return Route.REPLICA;
+        }
+        this.primaryConnections.increment();
+        return Route.PRIMARY;
+    }
+}
@@ -0,0 +1,105 @@
+package com.crewmeister.cmcodingchallenge.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Splits the database into a primary for writes and read-write transactions and a replica for
+ * read-only transactions, each with its own connection pool, so API reads do not queue behind large
+ * syncs for connections. Active with {@code fx.db.replica.enabled=true}; Spring Boot's single data
+ * source is used otherwise.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "fx.db.replica", name = "enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    /**
+     * Builds the primary pool from {@code spring.datasource.*}.
+     *
+     * @param properties Spring Boot data source settings
+     * @return primary data source
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    /**
+     * Builds the replica pool from {@code fx.db.replica.*}.
+     *
+     * @param properties replica settings
+     * @return replica data source
+     */
+    @Bean
+    HikariDataSource replicaDataSource(ReplicaProperties properties) {
+        if (properties.url() == null || properties.url().isBlank()) {
+            throw new IllegalStateException("fx.db.replica.url is required when fx.db.replica.enabled=true");
+        }
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setJdbcUrl(properties.url());
+        dataSource.setUsername(properties.username());
+        dataSource.setPassword(properties.password());
+        dataSource.setMaximumPoolSize(properties.poolSize());
+        return dataSource;
+    }
+
+    /**
+     * Routes connections by transaction, marking the replica ready at once unless this service
+     * fills it itself.
+     *
+     * @param primaryDataSource primary data source
+     * @param replicaDataSource replica data source
+     * @param properties        replica settings
+     * @param registry          meter registry for connections taken per route
+     * @return routing data source
+     */
+    @Bean
+    ReadWriteRoutingDataSource routingDataSource(HikariDataSource primaryDataSource, HikariDataSource replicaDataSource,
+                                                 ReplicaProperties properties, MeterRegistry registry) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primaryDataSource, replicaDataSource, registry);
+        routing.setReplicaReady(!properties.refresh());
+        return routing;
+    }
+
+    /**
+     * The data source JPA uses. Connections are taken from the routing data source only at the
+     * first statement, when the transaction's read-only flag is known.
+     *
+     * @param routingDataSource routing data source
+     * @return lazy connection proxy
+     */
+    @Bean
+    @Primary
+    DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    /**
+     * Copies committed rates into the replica when it has no replication of its own.
+     *
+     * @param primaryDataSource primary data source
+     * @param replicaDataSource replica data source
+     * @param routingDataSource routing data source the replica is opened on
+     * @param registry          meter registry for copy durations
+     * @return replica refresher
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "fx.db.replica", name = "refresh", havingValue = "true", matchIfMissing = true)
+    ReplicaRefresher replicaRefresher(HikariDataSource primaryDataSource, HikariDataSource replicaDataSource,
+                                      ReadWriteRoutingDataSource routingDataSource, MeterRegistry registry) {
+        return new ReplicaRefresher(primaryDataSource, replicaDataSource, routingDataSource, registry);
+    }
+}
@@ -0,0 +1,26 @@
+package com.crewmeister.cmcodingchallenge.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings for the read replica that serves read-only transactions.
+ *
+ * @param enabled  whether read-only transactions are routed to the replica; otherwise everything uses {@code spring.datasource}
+ * @param url      JDBC URL of the replica
+ * @param username replica user
+ * @param password replica password
+ * @param poolSize maximum connections to the replica
+ * @param refresh  whether this service copies committed rates into the replica itself, for databases
+ *                 without replication of their own such as H2; off when the replica is fed natively
+ */
+@ConfigurationProperties(prefix = "fx.db.replica")
+public record ReplicaProperties(
+        @DefaultValue("false") boolean enabled,
+        String url,
+        @DefaultValue("sa") String username,
+        @DefaultValue("") String password,
+        @DefaultValue("10") int poolSize,
+        @DefaultValue("true") boolean refresh
+) {
+}
@@ -0,0 +1,230 @@
+package com.crewmeister.cmcodingchallenge.config;
+
+import com.crewmeister.cmcodingchallenge.sync.RatesWrittenEvent;
+import com.crewmeister.cmcodingchallenge.sync.RemoteRatesWrittenEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps an H2 replica in step with the primary, standing in for the replication a production
+ * database would do. Once the context has been refreshed, it recreates the tables that read-only
+ * transactions read, copies them and opens the replica for reads. After that, each committed
+ * sync and each change of another node is copied over as a range of dates. The listeners run
+ * before those of the in-memory copies, so a reload from the replica sees the change. A failed copy
+ * sends reads back to the primary until a later full copy succeeds.
+ */
+public class ReplicaRefresher {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReplicaRefresher.class);
+
+    private static final int BATCH_SIZE = 1000;
+
+    /**
+     * A table copied to the replica.
+     *
+     * @param name    table name
+     * @param columns columns, the first being the date that ranges select on
+     */
+    private record Table(String name, List<String> columns) {
+    }
+
+    // coverage first, so a copy racing a sync may miss coverage for copied rows, but never the reverse
+    private static final List<Table> TABLES = List.of(
+            new Table("sync_coverage", List.of("date", "scope")),
+            new Table("exchange_rate", List.of("date", "currency", "rate")));
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReadWriteRoutingDataSource routing;
+    private final Timer rangeRefreshes;
+    private final Timer fullRefreshes;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Creates the refresher.
+     *
+     * @param primary  primary data source, the source of every copy
+     * @param replica  replica data source
+     * @param routing  routing data source whose replica is opened after the first full copy
+     * @param registry meter registry for copy durations
+     */
+    public ReplicaRefresher(DataSource primary, DataSource replica, ReadWriteRoutingDataSource routing,
+                            MeterRegistry registry) {
+        this.primary = primary;
+        this.replica = replica;
+        this.routing = routing;
+        this.rangeRefreshes = Timer.builder("db.replica.refresh").tag("kind", "range")
+                .description("Time to copy committed rates into the replica").register(registry);
+        this.fullRefreshes = Timer.builder("db.replica.refresh").tag("kind", "full")
+                .description("Time to copy committed rates into the replica").register(registry);
+    }
+
+    /**
+     * Recreates the replica once the schema on the primary exists, before startup syncs run.
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    public void onContextRefreshed() {
+        refresh(null, null);
+    }
+
+    /**
+     * Copies the dates of a committed sync.
+     *
+     * @param event dates that were synced
+     */
+    @TransactionalEventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onRatesWritten(RatesWrittenEvent event) {
+        if (!event.dates().isEmpty()) {
+            refresh(Collections.min(event.dates()), Collections.max(event.dates()));
+        }
+    }
+
+    /**
+     * Copies the dates another node has synced.
+     *
+     * @param event changed date range, or all dates
+     */
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onRemoteRatesWritten(RemoteRatesWrittenEvent event) {
+        refresh(event.firstDate(), event.lastDate());
+    }
+
+    /**
+     * Makes the replica match the primary for an inclusive date range, or for all dates. Until the
+     * replica is ready, its tables are recreated first; H2 commits DDL at once, so that only happens
+     * while reads go to the primary.
+     *
+     * @param first first date, or null for all dates
+     * @param last  last date, or null for all dates
+     */
+    void refresh(LocalDate first, LocalDate last) {
+        this.lock.lock();
+        try {
+            if (!this.routing.isReplicaReady()) {
+                this.fullRefreshes.record(this::recreate);
+                this.routing.setReplicaReady(true);
+            } else {
+                (first == null ? this.fullRefreshes : this.rangeRefreshes).record(() -> copyRange(first, last));
+            }
+        } catch (RuntimeException e) {
+            this.routing.setReplicaReady(false);
+            LOG.warn("Refreshing the read replica failed, reading from the primary until a full copy succeeds", e);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private void recreate() {
+        try (Connection source = this.primary.getConnection(); Connection target = this.replica.getConnection()) {
+            target.setAutoCommit(false);
+            List<String> ddl = schemaOf(source);
+            try (Statement statement = target.createStatement()) {
+                for (Table table : TABLES.reversed()) {
+                    statement.execute("DROP TABLE IF EXISTS " + table.name());
+                }
+                for (String sql : ddl) {
+                    statement.execute(sql);
+                }
+            }
+            long rows = 0;
+            for (Table table : TABLES) {
+                rows += copy(source, target, table, null, null);
+            }
+            target.commit();
+            LOG.info("Recreated the read replica with {} rows", rows);
+        } catch (SQLException e) {
+            throw new IllegalStateException("copying all rates to the replica failed", e);
+        }
+    }
+
+    private void copyRange(LocalDate first, LocalDate last) {
+        try (Connection source = this.primary.getConnection(); Connection target = this.replica.getConnection()) {
+            target.setAutoCommit(false);
+            for (Table table : TABLES) {
+                try (PreparedStatement delete = target.prepareStatement(
+                        "DELETE FROM " + table.name() + (first == null ? "" : " WHERE date BETWEEN ? AND ?"))) {
+                    if (first != null) {
+                        delete.setDate(1, Date.valueOf(first));
+                        delete.setDate(2, Date.valueOf(last));
+                    }
+                    delete.executeUpdate();
+                }
+                copy(source, target, table, first, last);
+            }
+            // readers see the whole range change at once
+            target.commit();
+        } catch (SQLException e) {
+            throw new IllegalStateException("copying " + (first == null ? "all dates" : first + ".." + last)
+                    + " to the replica failed", e);
+        }
+    }
+
+    private static long copy(Connection source, Connection target, Table table, LocalDate first, LocalDate last)
+            throws SQLException {
+        String columns = String.join(", ", table.columns());
+        String select = "SELECT " + columns + " FROM " + table.name()
+                + (first == null ? "" : " WHERE date BETWEEN ? AND ?");
+        String insert = "INSERT INTO " + table.name() + " (" + columns + ") VALUES ("
+                + String.join(", ", Collections.nCopies(table.columns().size(), "?")) + ")";
+        long rows = 0;
+        try (PreparedStatement read = source.prepareStatement(select);
+             PreparedStatement write = target.prepareStatement(insert)) {
+            if (first != null) {
+                read.setDate(1, Date.valueOf(first));
+                read.setDate(2, Date.valueOf(last));
+            }
+            try (ResultSet result = read.executeQuery()) {
+                while (result.next()) {
+                    for (int i = 1; i <= table.columns().size(); i++) {
+                        write.setObject(i, result.getObject(i));
+                    }
+                    write.addBatch();
+                    if (++rows % BATCH_SIZE == 0) {
+                        write.executeBatch();
+                    }
+                }
+            }
+            write.executeBatch();
+        }
+        return rows;
+    }
+
+    private static List<String> schemaOf(Connection source) throws SQLException {
+        // H2 prints its own DDL; table, constraint and index statements are kept, user and comment lines dropped
+        List<String> ddl = new ArrayList<>();
+        String tables = String.join(", ", TABLES.stream().map(Table::name).toList());
+        try (Statement statement = source.createStatement();
+             ResultSet script = statement.executeQuery("SCRIPT NODATA NOPASSWORDS NOSETTINGS TABLE " + tables)) {
+            while (script.next()) {
+                String sql = script.getString(1);
+                if (sql.startsWith("CREATE") && !sql.startsWith("CREATE USER") || sql.startsWith("ALTER TABLE")) {
+                    ddl.add(sql);
+                }
+            }
+        }
+        return ddl;
+    }
+}
@@ -0,0 +1,36 @@
+package com.crewmeister.cmcodingchallenge.config;
+
+import com.crewmeister.cmcodingchallenge.sync.SnapshotService;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint {@code /actuator/snapshot}: {@code POST} exports all stored rates to the
+ * binary snapshot file at {@code fx.snapshot.path}, which new nodes load at startup.
+ */
+@Component
+@Endpoint(id = "snapshot")
+public class SnapshotEndpoint {
+
+    private final SnapshotService snapshotService;
+
+    /**
+     * Creates the endpoint.
+     *
+     * @param snapshotService service writing the snapshot
+     */
+    public SnapshotEndpoint(SnapshotService snapshotService) {
+        this.snapshotService = snapshotService;
+    }
+
+    /**
+     * Exports the snapshot, replacing the previous one.
+     *
+     * @return exported counts and file size
+     */
+    @WriteOperation
+    public SnapshotService.Result export() {
+        return this.snapshotService.export();
+    }
+}
@@ -1,27 +1,25 @@
 package com.crewmeister.cmcodingchallenge.config;
 
-import com.crewmeister.cmcodingchallenge.sync.SyncService;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.crewmeister.cmcodingchallenge.currency.JitWarmUp;
+import com.crewmeister.cmcodingchallenge.sync.DataVersionPoller;
+import com.crewmeister.cmcodingchallenge.sync.WarmSync;
 import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
 public class StartupSyncConfig {
 
-    private static final Logger LOG = LoggerFactory.getLogger(StartupSyncConfig.class);
-
     @Bean
-    ApplicationRunner startupSyncRunner(SyncService syncService) {
+    ApplicationRunner startupSyncRunner(WarmSync warmSync, JitWarmUp jitWarmUp, DataVersionPoller dataVersionPoller,
+                                        ApplicationContext context) {
+        // startup does not wait for Bundesbank or the warm-up; readiness does, see WarmSync and JitWarmUp
         return args -> {
-            LOG.info("Running startup request to Bank to sync db ");
-            try {
-                syncService.syncLastDays();
-                LOG.debug("Startup sync finished.");
-            } catch (Exception e) {
-                LOG.error("Startup sync failed", e);
-            }
+            dataVersionPoller.start();
+            warmSync.start();
+            jitWarmUp.start(context instanceof WebServerApplicationContext web ? web.getWebServer().getPort() : -1);
         };
     }
 }
@@ -1,6 +1,7 @@
 package com.crewmeister.cmcodingchallenge.currency;
 
 import com.crewmeister.cmcodingchallenge.dto.ConversionResponse;
+import com.crewmeister.cmcodingchallenge.dto.CurrencyDetails;
 import com.crewmeister.cmcodingchallenge.dto.RatesByDateResponse;
 import com.crewmeister.cmcodingchallenge.dto.RatesResponse;
 import io.swagger.v3.oas.annotations.Operation;
@@ -11,6 +12,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -23,6 +25,7 @@ import static org.springframework.format.annotation.DateTimeFormat.ISO;
 
 @RestController()
 @RequestMapping("/api")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @Tag(name = "Currency API", description = "Endpoints for EUR-based rates, conversion to EUR, and sync updates.")
 public class CurrencyController {
 
@@ -43,23 +46,28 @@ public class CurrencyController {
     /**
      * Returns all available currencies for EUR-based rates.
      *
-     * @return list of currency codes
+     * @return list of currency codes, or of currency details if requested
      */
     @GetMapping("/currencies")
-    @Operation(summary = "List available currencies")
+    @Operation(summary = "List available currencies",
+            description = "With details=true, each currency comes with its first and last rate date and number of rates.")
     @ApiResponses({
             @ApiResponse(
                     responseCode = "200",
                     description = "Currencies returned",
                     content = @Content(array = @ArraySchema(
-                            schema = @Schema(type = "string"),
+                            schema = @Schema(oneOf = {String.class, CurrencyDetails.class}),
                             arraySchema = @Schema(example = "[\"AUD\",\"USD\"]")
                     ))
             ),
             @ApiResponse(responseCode = "503", description = "Sync in progress, retry")
     })
-    public ResponseEntity<List<String>> getCurrencies() {
-        return ResponseEntity.ok(currencyService.getCurrencies());
+    public ResponseEntity<List<?>> getCurrencies(
+            @Parameter(description = "Return each currency with its first and last rate date and number of rates", example = "false")
+            @RequestParam(defaultValue = "false")
+            boolean details
+    ) {
+        return ResponseEntity.ok(details ? currencyService.getCurrencyDetails() : currencyService.getCurrencies());
     }
 
 
@@ -40,39 +40,75 @@ public class CurrencyConversionService {
      */
     public ConversionResponse convertToEur(LocalDate date, String currency, BigDecimal foreignCurrencyAmount) {
         validateInput(date, currency, foreignCurrencyAmount);
-        this.syncService.syncDay(date);
         String normalizedCurrency = normalizeCurrency(currency);
 
         // Handling the special case of EUR -> EUR, just return the same amount rounded
         if (normalizedCurrency.equals("EUR")) {
-            BigDecimal rounded = foreignCurrencyAmount.setScale(2, RoundingMode.HALF_UP);
-            return new ConversionResponse(
-                    date,
-                    "EUR",
-                    new ConversionResponse.Money("EUR", rounded),
-                    new ConversionResponse.Money("EUR", rounded),
-                    new ConversionResponse.Rate("EUR/EUR", BigDecimal.ONE)
-            );
+            return eurToEur(date, foreignCurrencyAmount);
         }
 
+        // Only the requested currency's series is fetched on a miss
+        this.syncService.syncDay(date, normalizedCurrency);
         ExchangeRateEntity rateEntity = this.repo.findByIdDateAndIdCurrency(date, normalizedCurrency)
                 .orElseThrow(() -> new RateNotFoundException("no rate found"));
-        BigDecimal rate = rateEntity.getRate();
+        return conversion(date, normalizedCurrency, foreignCurrencyAmount, rateEntity.getRate());
+    }
+
+    /**
+     * Builds the response for an EUR amount, which converts to itself.
+     *
+     * @param date   conversion date
+     * @param amount amount in EUR
+     * @return conversion result at rate 1
+     */
+    static ConversionResponse eurToEur(LocalDate date, BigDecimal amount) {
+        BigDecimal rounded = amount.setScale(2, RoundingMode.HALF_UP);
+        return new ConversionResponse(
+                date,
+                "EUR",
+                new ConversionResponse.Money("EUR", rounded),
+                new ConversionResponse.Money("EUR", rounded),
+                new ConversionResponse.Rate("EUR/EUR", BigDecimal.ONE)
+        );
+    }
+
+    /**
+     * Builds the response for a foreign-currency amount converted at a stored rate.
+     *
+     * @param date                  conversion date
+     * @param currency              upper-case foreign currency code
+     * @param foreignCurrencyAmount amount in foreign currency
+     * @param rate                  foreign units per EUR on that date
+     * @return conversion result in EUR
+     */
+    static ConversionResponse conversion(LocalDate date, String currency, BigDecimal foreignCurrencyAmount,
+                                         BigDecimal rate) {
         BigDecimal givenForeignCurrencyAmount = foreignCurrencyAmount.setScale(2, RoundingMode.HALF_UP);
-        // conversion to euro from given foreign curreny amount
-        BigDecimal eurPerForeign = foreignCurrencyAmount.divide(rate, 10, RoundingMode.HALF_UP);
-        BigDecimal eurRounded = eurPerForeign.setScale(2, RoundingMode.HALF_UP);
+        BigDecimal eurRounded = toEur(foreignCurrencyAmount, rate);
 
         return new ConversionResponse(
                 date,
                 "EUR",
-                new ConversionResponse.Money(normalizedCurrency, givenForeignCurrencyAmount),
+                new ConversionResponse.Money(currency, givenForeignCurrencyAmount),
                 new ConversionResponse.Money("EUR", eurRounded),
-                new ConversionResponse.Rate("EUR/" + normalizedCurrency, rateEntity.getRate())
+                new ConversionResponse.Rate("EUR/" + currency, rate)
         );
     }
 
-    private static void validateInput(LocalDate date, String currency, BigDecimal amount) {
+    /**
+     * Converts a foreign-currency amount into EUR at a rate quoted as foreign units per EUR.
+     *
+     * @param foreignCurrencyAmount amount in foreign currency
+     * @param rate                  foreign units per EUR
+     * @return EUR amount rounded half-up to cents
+     */
+    static BigDecimal toEur(BigDecimal foreignCurrencyAmount, BigDecimal rate) {
+        // conversion to euro from given foreign curreny amount
+        BigDecimal eurPerForeign = foreignCurrencyAmount.divide(rate, 10, RoundingMode.HALF_UP);
+        return eurPerForeign.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    static void validateInput(LocalDate date, String currency, BigDecimal amount) {
         if (date == null) {
             throw new IllegalArgumentException("date is required");
         }
@@ -91,7 +127,7 @@ public class CurrencyConversionService {
         }
     }
 
-    private String normalizeCurrency(String currency) {
+    static String normalizeCurrency(String currency) {
         if (currency == null || currency.isBlank()) return null;
         return currency.trim().toUpperCase(Locale.ROOT);
     }
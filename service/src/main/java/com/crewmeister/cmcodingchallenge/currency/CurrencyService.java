@@ -1,11 +1,13 @@
 package com.crewmeister.cmcodingchallenge.currency;
 
+import com.crewmeister.cmcodingchallenge.dto.CurrencyDetails;
 import com.crewmeister.cmcodingchallenge.dto.PageMeta;
 import com.crewmeister.cmcodingchallenge.dto.RateItem;
 import com.crewmeister.cmcodingchallenge.dto.RatesByDateResponse;
 import com.crewmeister.cmcodingchallenge.dto.RatesResponse;
-import com.crewmeister.cmcodingchallenge.model.ExchangeRateEntity;
+import com.crewmeister.cmcodingchallenge.model.CurrencyRate;
 import com.crewmeister.cmcodingchallenge.model.ExchangeRateRepository;
+import com.crewmeister.cmcodingchallenge.sync.CurrencyCatalog;
 import com.crewmeister.cmcodingchallenge.sync.SyncService;
 import org.springframework.stereotype.Service;
 
@@ -27,16 +29,22 @@ public class CurrencyService {
 
     private final SyncService syncService;
     private final ExchangeRateRepository repo;
+    private final CurrencyCatalog catalog;
+
+    // day the recent window was last synced for the currency list; later syncs keep the catalog current
+    private volatile LocalDate catalogSyncedOn;
 
     /**
      * Creates the core service for EUR-based rate retrieval.
      *
      * @param syncService sync service for keeping local data fresh
      * @param repo        exchange rate repository
+     * @param catalog     in-memory currency catalog
      */
-    public CurrencyService(SyncService syncService, ExchangeRateRepository repo) {
+    public CurrencyService(SyncService syncService, ExchangeRateRepository repo, CurrencyCatalog catalog) {
         this.syncService = syncService;
         this.repo = repo;
+        this.catalog = catalog;
     }
 
     /**
@@ -45,8 +53,31 @@ public class CurrencyService {
      * @return sorted currency codes
      */
     public List<String> getCurrencies() {
+        syncCatalogDaily();
+        return this.catalog.codes();
+    }
+
+    /**
+     * Returns all available currencies with their first and last rate date and number of rates.
+     *
+     * @return currency details sorted by code
+     */
+    public List<CurrencyDetails> getCurrencyDetails() {
+        syncCatalogDaily();
+        return this.catalog.details();
+    }
+
+    /**
+     * Syncs the recent window on the first currency request of each day, and while no currency is
+     * stored. Every sync updates the catalog, so other requests are answered from memory.
+     */
+    private void syncCatalogDaily() {
+        LocalDate today = LocalDate.now();
+        if (today.equals(this.catalogSyncedOn) && !this.catalog.isEmpty()) {
+            return;
+        }
         this.syncService.syncLastDays();
-        return this.repo.findDistinctCurrencies();
+        this.catalogSyncedOn = today;
     }
 
     /**
@@ -76,23 +107,20 @@ public class CurrencyService {
     public RatesResponse getRates(LocalDate start, LocalDate end, String currency, int limit, int offset) {
         validateRatesRequest(start, end, currency, limit, offset);
         DateRange range = resolveDateRange(start, end);
-        this.syncService.syncRange(range.start(), range.end(), false);
-
         String normalizedCurrency = normalizeCurrency(currency);
+        this.syncService.syncRange(range.start(), range.end(), normalizedCurrency, false);
+
         long total = this.repo.countRates(range.start(), range.end(), normalizedCurrency);
         if (offset >= total) {
             return new RatesResponse("EUR", range.start(), range.end(), List.of(), new PageMeta(limit, offset, total));
         }
-        List<ExchangeRateEntity> rows =
-                this.repo.findRates(range.start(), range.end(), normalizedCurrency, limit, offset);
-        List<RateItem> items = rows.stream()
-                .map(e -> new RateItem(e.getDate(), e.getCurrency(), e.getRate()))
-                .toList();
+        List<RateItem> items =
+                this.repo.findRateItems(range.start(), range.end(), normalizedCurrency, limit, offset);
 
         return new RatesResponse("EUR", range.start(), range.end(), items, new PageMeta(limit, offset, total));
     }
 
-    private static void validateRatesRequest(LocalDate start, LocalDate end, String currency, int limit, int offset) {
+    static void validateRatesRequest(LocalDate start, LocalDate end, String currency, int limit, int offset) {
         if (limit < 1 || limit > MAX_LIMIT) {
             throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
         }
@@ -107,7 +135,7 @@ public class CurrencyService {
         }
     }
 
-    private static DateRange resolveDateRange(LocalDate start, LocalDate end) {
+    static DateRange resolveDateRange(LocalDate start, LocalDate end) {
         if (start == null && end == null) {
             LocalDate resolvedEnd = LocalDate.now();
             LocalDate resolvedStart = resolvedEnd.minusDays(DEFAULT_RANGE_DAYS - 1L);
@@ -127,10 +155,10 @@ public class CurrencyService {
         return new DateRange(start, end);
     }
 
-    private record DateRange(LocalDate start, LocalDate end) {
+    record DateRange(LocalDate start, LocalDate end) {
     }
 
-    private String normalizeCurrency(String currency) {
+    static String normalizeCurrency(String currency) {
         if (currency == null || currency.isBlank()) {
             return null;
         }
@@ -146,16 +174,15 @@ public class CurrencyService {
      * @throws RateNotFoundException if no rate exists for the date
      */
     public RatesByDateResponse getRatesByDate(LocalDate date, String currency) {
-        this.syncService.syncDay(date);
         String normalizedCurrency = normalizeCurrency(currency);
-        List<ExchangeRateEntity> rows =
-                this.repo.findByDateAndOptionalCurrency(date, normalizedCurrency);
+        this.syncService.syncDay(date, normalizedCurrency);
+        List<CurrencyRate> rows = this.repo.findCurrencyRates(date, normalizedCurrency);
         if (rows.isEmpty()) {
             throw new RateNotFoundException("No rate exists for that date");
         }
-        Map<String, BigDecimal> rates = new LinkedHashMap<>();
-        for (ExchangeRateEntity e : rows) {
-            rates.put(e.getCurrency(), e.getRate());
+        Map<String, BigDecimal> rates = LinkedHashMap.newLinkedHashMap(rows.size());
+        for (CurrencyRate row : rows) {
+            rates.put(row.currency(), row.rate());
         }
         return new RatesByDateResponse("EUR", date, rates);
     }
@@ -0,0 +1,179 @@
+package com.crewmeister.cmcodingchallenge.currency;
+
+import com.crewmeister.cmcodingchallenge.model.CurrencyRate;
+import com.crewmeister.cmcodingchallenge.model.ExchangeRateRepository;
+import com.crewmeister.cmcodingchallenge.sync.WarmSync;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Exercises the {@link CurrencyController} endpoints over loopback HTTP before the service reports
+ * ready, so request handling, Jackson serialization, query plans and the conversion path are
+ * compiled before real traffic arrives. Requests only ask for the latest stored date, which the
+ * warm sync has covered, so the warm-up runs against local data without calling the Bundesbank.
+ * The {@code jitWarmUp} health indicator is {@code OUT_OF_SERVICE} until the warm-up has finished,
+ * stopped on an unexpected response, or reached {@code fx.warm-up.timeout}.
+ */
+@Component
+public class JitWarmUp implements HealthIndicator {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JitWarmUp.class);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    enum State { PENDING, WAITING, RUNNING, DONE, SKIPPED, FAILED, DISABLED }
+
+    private final WarmSync warmSync;
+    private final ExchangeRateRepository repo;
+    private final boolean enabled;
+    private final int iterations;
+    private final Duration timeout;
+
+    private volatile State state = State.PENDING;
+    private volatile long startedNanos;
+    private volatile int completedIterations;
+    private volatile String failure;
+
+    /**
+     * Creates the warm-up.
+     *
+     * @param warmSync   startup sync whose data the warm-up reads
+     * @param repo       exchange rate repository used to pick a stored date and currencies
+     * @param properties warm-up settings
+     */
+    public JitWarmUp(WarmSync warmSync, ExchangeRateRepository repo, JitWarmUpProperties properties) {
+        this.warmSync = warmSync;
+        this.repo = repo;
+        this.enabled = properties.enabled();
+        this.iterations = properties.iterations();
+        this.timeout = properties.timeout();
+    }
+
+    /**
+     * Starts the warm-up on a background thread once the warm sync has finished, and returns immediately.
+     *
+     * @param port local port the service listens on, or a negative value when there is no web server
+     */
+    public void start(int port) {
+        this.startedNanos = System.nanoTime();
+        if (!this.enabled) {
+            this.state = State.DISABLED;
+            return;
+        }
+        if (port < 0) {
+            this.state = State.SKIPPED;
+            return;
+        }
+        this.state = State.WAITING;
+        Thread.ofVirtual().name("jit-warm-up").start(() -> run(URI.create("http://127.0.0.1:" + port)));
+    }
+
+    @Override
+    public Health health() {
+        State current = this.state;
+        Health.Builder health = switch (current) {
+            case DONE, SKIPPED, FAILED, DISABLED -> Health.up();
+            // the warm-up thread notices the timeout only between requests
+            case PENDING, WAITING, RUNNING -> current != State.PENDING && timedOut()
+                    ? Health.up().withDetail("timedOut", true)
+                    : Health.outOfService();
+        };
+        health.withDetail("state", current).withDetail("iterations", this.completedIterations);
+        if (this.failure != null) {
+            health.withDetail("failure", this.failure);
+        }
+        return health.build();
+    }
+
+    State state() {
+        return this.state;
+    }
+
+    private void run(URI baseUri) {
+        try {
+            if (!this.warmSync.awaitFinished(remaining())) {
+                LOG.warn("Warm-up skipped, startup sync did not finish within {}", this.timeout);
+                this.state = State.SKIPPED;
+                return;
+            }
+            LocalDate date = this.repo.findMaxDate();
+            // only currencies with a rate on that date, so every conversion request can succeed
+            List<String> currencies = date == null ? List.of()
+                    : this.repo.findCurrencyRates(date, null).stream().map(CurrencyRate::currency).toList();
+            if (currencies.isEmpty()) {
+                LOG.info("Warm-up skipped, no local rates yet");
+                this.state = State.SKIPPED;
+                return;
+            }
+            this.state = State.RUNNING;
+            exercise(baseUri, date, currencies);
+            this.state = State.DONE;
+            LOG.info("Warm-up finished {} iterations after {} ms", this.completedIterations, elapsed().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            this.failure = "interrupted";
+            this.state = State.FAILED;
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Warm-up stopped after {} iterations: {}", this.completedIterations, e.getMessage());
+            this.failure = e.getMessage();
+            this.state = State.FAILED;
+        }
+    }
+
+    private void exercise(URI baseUri, LocalDate date, List<String> currencies) throws IOException, InterruptedException {
+        try (HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(REQUEST_TIMEOUT)
+                .build()) {
+            for (int i = 0; i < this.iterations && !timedOut(); i++) {
+                String currency = currencies.get(i % currencies.size());
+                get(client, baseUri, "/api/rates/" + date);
+                get(client, baseUri, "/api/rates/" + date + "?currency=" + currency);
+                get(client, baseUri, "/api/rates?start=" + date + "&end=" + date + "&limit=100");
+                get(client, baseUri, "/api/rates?start=" + date + "&end=" + date + "&currency=" + currency);
+                get(client, baseUri, "/api/conversions/to-eur?date=" + date + "&currency=" + currency
+                        + "&amount=" + (100 + i % 900) + ".25");
+                this.completedIterations = i + 1;
+            }
+        }
+    }
+
+    /**
+     * Sends one request and fails on anything but a success, so a warm-up that would reach the
+     * Bundesbank or hit errors stops instead of repeating them.
+     */
+    private static void get(HttpClient client, URI baseUri, String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(baseUri.resolve(path))
+                .timeout(REQUEST_TIMEOUT)
+                .GET()
+                .build();
+        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status / 100 != 2) {
+            throw new IOException("GET " + path + " returned " + status);
+        }
+    }
+
+    private boolean timedOut() {
+        return elapsed().compareTo(this.timeout) >= 0;
+    }
+
+    private Duration remaining() {
+        Duration remaining = this.timeout.minus(elapsed());
+        return remaining.isNegative() ? Duration.ZERO : remaining;
+    }
+
+    private Duration elapsed() {
+        return Duration.ofNanos(System.nanoTime() - this.startedNanos);
+    }
+}
@@ -0,0 +1,21 @@
+package com.crewmeister.cmcodingchallenge.currency;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings for the endpoint warm-up run before the service reports ready.
+ *
+ * @param enabled    whether the API endpoints are exercised before the service reports ready
+ * @param iterations rounds of requests, each round calling every warmed endpoint once
+ * @param timeout    time after startup at which the warm-up stops and the service reports ready regardless
+ */
+@ConfigurationProperties(prefix = "fx.warm-up")
+public record JitWarmUpProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("1000") int iterations,
+        @DefaultValue("120s") Duration timeout
+) {
+}
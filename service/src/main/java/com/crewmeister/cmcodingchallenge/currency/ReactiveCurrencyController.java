@@ -0,0 +1,106 @@
+package com.crewmeister.cmcodingchallenge.currency;
+
+import com.crewmeister.cmcodingchallenge.dto.ConversionResponse;
+import com.crewmeister.cmcodingchallenge.dto.RatesByDateResponse;
+import com.crewmeister.cmcodingchallenge.dto.RatesResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.springframework.format.annotation.DateTimeFormat.ISO;
+
+/**
+ * The currency API on the WebFlux stack, active with {@code spring.main.web-application-type=reactive}.
+ * Paths, parameters and responses are those of {@link CurrencyController}, which documents them.
+ */
+@RestController()
+@RequestMapping("/api")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveCurrencyController {
+
+    private final ReactiveCurrencyService currencyService;
+
+    /**
+     * Creates the reactive currency API controller.
+     *
+     * @param currencyService reactive service for currency, rate and conversion endpoints
+     */
+    public ReactiveCurrencyController(ReactiveCurrencyService currencyService) {
+        this.currencyService = currencyService;
+    }
+
+    /**
+     * Returns all available currencies for EUR-based rates.
+     *
+     * @return list of currency codes, or of currency details if requested
+     */
+    @GetMapping("/currencies")
+    public Mono<ResponseEntity<List<?>>> getCurrencies(@RequestParam(defaultValue = "false") boolean details) {
+        Mono<? extends List<?>> currencies = details
+                ? this.currencyService.getCurrencyDetails()
+                : this.currencyService.getCurrencies();
+        return currencies.map(ResponseEntity::ok);
+    }
+
+    /**
+     * Returns EUR-based rates with optional filtering and pagination.
+     *
+     * @return paginated rates response
+     */
+    @GetMapping("/rates")
+    public Mono<ResponseEntity<RatesResponse>> getRates(
+            @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate start,
+            @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate end,
+            @RequestParam(required = false) String currency,
+            @RequestParam(defaultValue = "1000") int limit,
+            @RequestParam(defaultValue = "0") int offset
+    ) {
+        return this.currencyService.getRates(start, end, currency, limit, offset).map(ResponseEntity::ok);
+    }
+
+    /**
+     * Returns EUR-based rates for a single date.
+     *
+     * @return rates for the requested date
+     */
+    @GetMapping("/rates/{date}")
+    public Mono<ResponseEntity<RatesByDateResponse>> getRatesByDate(
+            @PathVariable @DateTimeFormat(iso = ISO.DATE) LocalDate date,
+            @RequestParam(required = false) String currency
+    ) {
+        return this.currencyService.getRatesByDate(date, currency).map(ResponseEntity::ok);
+    }
+
+    /**
+     * Converts a foreign-currency amount to EUR for a given date.
+     *
+     * @return conversion response
+     */
+    @GetMapping("/conversions/to-eur")
+    public Mono<ResponseEntity<ConversionResponse>> convertToEur(
+            @RequestParam @DateTimeFormat(iso = ISO.DATE) LocalDate date,
+            @RequestParam String currency,
+            @RequestParam BigDecimal amount
+    ) {
+        return this.currencyService.convertToEur(date, currency, amount).map(ResponseEntity::ok);
+    }
+
+    /**
+     * Forces a data sync for the requested inclusive date range.
+     *
+     * @return no-content response once the sync is stored
+     */
+    @PostMapping("/update")
+    public Mono<ResponseEntity<Void>> update(
+            @RequestParam @DateTimeFormat(iso = ISO.DATE) LocalDate start,
+            @RequestParam @DateTimeFormat(iso = ISO.DATE) LocalDate end
+    ) {
+        return this.currencyService.forceUpdateData(start, end).thenReturn(ResponseEntity.noContent().build());
+    }
+}
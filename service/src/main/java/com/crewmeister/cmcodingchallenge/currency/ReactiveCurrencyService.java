@@ -0,0 +1,192 @@
+package com.crewmeister.cmcodingchallenge.currency;
+
+import com.crewmeister.cmcodingchallenge.bank.ExchangeRateRow;
+import com.crewmeister.cmcodingchallenge.dto.ConversionResponse;
+import com.crewmeister.cmcodingchallenge.dto.CurrencyDetails;
+import com.crewmeister.cmcodingchallenge.dto.PageMeta;
+import com.crewmeister.cmcodingchallenge.dto.RateItem;
+import com.crewmeister.cmcodingchallenge.dto.RatesByDateResponse;
+import com.crewmeister.cmcodingchallenge.dto.RatesResponse;
+import com.crewmeister.cmcodingchallenge.sync.CurrencyCatalog;
+import com.crewmeister.cmcodingchallenge.sync.RateStore;
+import com.crewmeister.cmcodingchallenge.sync.ReactiveSyncService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reactive counterpart of {@link CurrencyService} and {@link CurrencyConversionService}, with the same
+ * validation and responses. Reads are answered from the {@link RateStore}; a range that is not
+ * covered yet is synced first by {@link ReactiveSyncService} without blocking the calling thread.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveCurrencyService {
+
+    private static final int DEFAULT_LIMIT = 1000;
+
+    private final ReactiveSyncService syncService;
+    private final RateStore store;
+    private final CurrencyCatalog catalog;
+
+    // day the recent window was last synced for the currency list; later syncs keep the catalog current
+    private volatile LocalDate catalogSyncedOn;
+
+    /**
+     * Creates the reactive currency service.
+     *
+     * @param syncService reactive sync service for keeping the store fresh
+     * @param store       in-memory rates
+     * @param catalog     in-memory currency catalog
+     */
+    public ReactiveCurrencyService(ReactiveSyncService syncService, RateStore store, CurrencyCatalog catalog) {
+        this.syncService = syncService;
+        this.store = store;
+        this.catalog = catalog;
+    }
+
+    /**
+     * Returns all available currency codes.
+     *
+     * @return sorted currency codes
+     */
+    public Mono<List<String>> getCurrencies() {
+        return syncCatalogDaily().then(Mono.fromSupplier(this.catalog::codes));
+    }
+
+    /**
+     * Returns all available currencies with their first and last rate date and number of rates.
+     *
+     * @return currency details sorted by code
+     */
+    public Mono<List<CurrencyDetails>> getCurrencyDetails() {
+        return syncCatalogDaily().then(Mono.fromSupplier(this.catalog::details));
+    }
+
+    /**
+     * Syncs the recent window on the first currency request of each day, and while no currency is
+     * stored, like {@link CurrencyService}.
+     */
+    private Mono<Void> syncCatalogDaily() {
+        return Mono.defer(() -> {
+            LocalDate today = LocalDate.now();
+            if (today.equals(this.catalogSyncedOn) && !this.catalog.isEmpty()) {
+                return Mono.empty();
+            }
+            return this.syncService.syncLastDays().doOnSuccess(done -> this.catalogSyncedOn = today);
+        });
+    }
+
+    /**
+     * Returns rates with default pagination.
+     *
+     * @param start    optional start date (inclusive); must be paired with end
+     * @param end      optional end date (inclusive); must be paired with start
+     * @param currency optional 3-letter currency code
+     * @return rates response, or an {@link IllegalArgumentException} error if input is invalid
+     */
+    public Mono<RatesResponse> getRates(LocalDate start, LocalDate end, String currency) {
+        return getRates(start, end, currency, DEFAULT_LIMIT, 0);
+    }
+
+    /**
+     * Returns rates with optional filters and explicit pagination.
+     *
+     * @param start    optional start date (inclusive); must be paired with end
+     * @param end      optional end date (inclusive); must be paired with start
+     * @param currency optional 3-letter currency code
+     * @param limit    page size
+     * @param offset   row offset
+     * @return paginated rates response, or an {@link IllegalArgumentException} error if input is invalid
+     */
+    public Mono<RatesResponse> getRates(LocalDate start, LocalDate end, String currency, int limit, int offset) {
+        return Mono.defer(() -> {
+            CurrencyService.validateRatesRequest(start, end, currency, limit, offset);
+            CurrencyService.DateRange range = CurrencyService.resolveDateRange(start, end);
+            String normalizedCurrency = CurrencyService.normalizeCurrency(currency);
+            return this.syncService.syncRange(range.start(), range.end(), normalizedCurrency, false)
+                    .then(Mono.fromSupplier(() -> page(range, normalizedCurrency, limit, offset)));
+        });
+    }
+
+    private RatesResponse page(CurrencyService.DateRange range, String currency, int limit, int offset) {
+        List<ExchangeRateRow> rows = this.store.rates(range.start(), range.end(), currency);
+        long total = rows.size();
+        List<RateItem> items = rows.stream()
+                .skip(offset)
+                .limit(limit)
+                .map(row -> new RateItem(row.date(), row.currency(), row.rate()))
+                .toList();
+        return new RatesResponse("EUR", range.start(), range.end(), items, new PageMeta(limit, offset, total));
+    }
+
+    /**
+     * Returns EUR-based rates for a specific date.
+     *
+     * @param date     date to query
+     * @param currency optional currency filter
+     * @return rates grouped by currency code, or a {@link RateNotFoundException} error if no rate
+     * exists for the date
+     */
+    public Mono<RatesByDateResponse> getRatesByDate(LocalDate date, String currency) {
+        return Mono.defer(() -> {
+            String normalizedCurrency = CurrencyService.normalizeCurrency(currency);
+            return this.syncService.syncDay(date, normalizedCurrency)
+                    .then(Mono.fromSupplier(() -> ratesByDate(date, normalizedCurrency)));
+        });
+    }
+
+    private RatesByDateResponse ratesByDate(LocalDate date, String currency) {
+        Map<String, BigDecimal> rates = new LinkedHashMap<>();
+        if (currency == null) {
+            rates.putAll(this.store.ratesOn(date));
+        } else {
+            this.store.rate(date, currency).ifPresent(rate -> rates.put(currency, rate));
+        }
+        if (rates.isEmpty()) {
+            throw new RateNotFoundException("No rate exists for that date");
+        }
+        return new RatesByDateResponse("EUR", date, rates);
+    }
+
+    /**
+     * Converts a foreign-currency amount into EUR for a given date.
+     *
+     * @param date                  conversion date
+     * @param currency              foreign currency code
+     * @param foreignCurrencyAmount amount in foreign currency
+     * @return conversion result in EUR, or an {@link IllegalArgumentException} error if input is
+     * invalid or a {@link RateNotFoundException} error if no rate exists
+     */
+    public Mono<ConversionResponse> convertToEur(LocalDate date, String currency, BigDecimal foreignCurrencyAmount) {
+        return Mono.defer(() -> {
+            CurrencyConversionService.validateInput(date, currency, foreignCurrencyAmount);
+            String normalizedCurrency = CurrencyConversionService.normalizeCurrency(currency);
+            if (normalizedCurrency.equals("EUR")) {
+                return Mono.just(CurrencyConversionService.eurToEur(date, foreignCurrencyAmount));
+            }
+            return this.syncService.syncDay(date, normalizedCurrency)
+                    .then(Mono.fromSupplier(() -> this.store.rate(date, normalizedCurrency)
+                            .map(rate -> CurrencyConversionService.conversion(date, normalizedCurrency,
+                                    foreignCurrencyAmount, rate))
+                            .orElseThrow(() -> new RateNotFoundException("no rate found"))));
+        });
+    }
+
+    /**
+     * Forces a sync for the provided inclusive date range.
+     *
+     * @param start start date (inclusive)
+     * @param end   end date (inclusive)
+     * @return completion once the sync has been stored
+     */
+    public Mono<Void> forceUpdateData(LocalDate start, LocalDate end) {
+        return Mono.defer(() -> this.syncService.syncRange(start, end, null, true));
+    }
+}
@@ -0,0 +1,17 @@
+package com.crewmeister.cmcodingchallenge.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+
+public record CurrencyDetails(
+        @Schema(description = "Foreign currency code", example = "USD")
+        String code,
+        @Schema(description = "First date with a stored rate", example = "1999-01-04")
+        LocalDate firstDate,
+        @Schema(description = "Last date with a stored rate", example = "2026-02-18")
+        LocalDate lastDate,
+        @Schema(description = "Number of stored rates", example = "6946")
+        long observations
+) {
+}
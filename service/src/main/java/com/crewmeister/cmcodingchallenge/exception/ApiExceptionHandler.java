@@ -1,5 +1,6 @@
 package com.crewmeister.cmcodingchallenge.exception;
 
+import com.crewmeister.cmcodingchallenge.bank.BundesbankUnavailableException;
 import com.crewmeister.cmcodingchallenge.currency.RateNotFoundException;
 import com.crewmeister.cmcodingchallenge.sync.SyncInProgressException;
 import org.springframework.http.HttpStatus;
@@ -7,6 +8,7 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.server.ServerWebInputException;
 
 @RestControllerAdvice
 public class ApiExceptionHandler {
@@ -23,6 +25,18 @@ public class ApiExceptionHandler {
         return "Invalid input";
     }
 
+    /**
+     * Handles missing or unconvertible request parameters on the reactive stack.
+     *
+     * @param e WebFlux input exception
+     * @return fixed bad-request message
+     */
+    @ExceptionHandler(ServerWebInputException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public String handleServerWebInput(ServerWebInputException e) {
+        return "Invalid input";
+    }
+
     /**
      * Handles missing rate data errors.
      *
@@ -59,4 +73,16 @@ public class ApiExceptionHandler {
     public String handleSyncInProgress(SyncInProgressException e) {
         return e.getMessage();
     }
+
+    /**
+     * Handles calls rejected while the Bundesbank circuit is open.
+     *
+     * @param e bundesbank-unavailable exception
+     * @return retry message
+     */
+    @ExceptionHandler(BundesbankUnavailableException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public String handleBundesbankUnavailable(BundesbankUnavailableException e) {
+        return e.getMessage();
+    }
 }
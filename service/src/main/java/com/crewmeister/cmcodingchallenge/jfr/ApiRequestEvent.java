@@ -0,0 +1,41 @@
+package com.crewmeister.cmcodingchallenge.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One HTTP request handled by the API, filled in by {@link ApiRequestEventFilter}.
+ */
+@Name("fx.ApiRequest")
+@Label("API Request")
+@Category({"FX Service", "HTTP"})
+@Description("One /api request, including any on-demand sync it triggered")
+@StackTrace(false)
+public class ApiRequestEvent extends Event {
+
+    @Label("Method")
+    String method;
+
+    @Label("Route")
+    @Description("Matched route pattern, e.g. /api/rates/{date}")
+    String route;
+
+    @Label("Status")
+    int status;
+
+    @Label("Currency")
+    String currency;
+
+    @Label("Start Date")
+    String startDate;
+
+    @Label("End Date")
+    String endDate;
+
+    @Label("Date")
+    String date;
+}
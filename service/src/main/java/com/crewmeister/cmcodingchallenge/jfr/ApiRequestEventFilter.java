@@ -0,0 +1,62 @@
+package com.crewmeister.cmcodingchallenge.jfr;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Emits an {@link ApiRequestEvent} around each {@code /api} request.
+ */
+@Component
+public class ApiRequestEventFilter extends OncePerRequestFilter {
+
+    private static final String API_PREFIX = "/api/";
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(API_PREFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ApiRequestEvent event = new ApiRequestEvent();
+        event.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            event.end();
+            // Request attributes are only read when a recording wants the event
+            if (event.shouldCommit()) {
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                event.method = request.getMethod();
+                event.route = pattern != null ? pattern.toString() : request.getRequestURI();
+                event.status = response.getStatus();
+                event.currency = request.getParameter("currency");
+                event.startDate = request.getParameter("start");
+                event.endDate = request.getParameter("end");
+                event.date = dateParameter(request);
+                event.commit();
+            }
+        }
+    }
+
+    private static String dateParameter(HttpServletRequest request) {
+        String date = request.getParameter("date");
+        if (date != null) {
+            return date;
+        }
+        if (request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE) instanceof Map<?, ?> variables) {
+            Object value = variables.get("date");
+            return value == null ? null : value.toString();
+        }
+        return null;
+    }
+}
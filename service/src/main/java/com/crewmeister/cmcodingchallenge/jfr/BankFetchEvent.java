@@ -0,0 +1,54 @@
+package com.crewmeister.cmcodingchallenge.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.time.LocalDate;
+
+/**
+ * A Bundesbank fetch including retries and hedges.
+ */
+@Name("fx.BankFetch")
+@Label("Bundesbank Fetch")
+@Category({"FX Service", "Sync"})
+@Description("Guarded Bundesbank HTTP call including retries and hedges")
+@StackTrace(false)
+public class BankFetchEvent extends Event {
+
+    @Label("Start Date")
+    String startDate;
+
+    @Label("End Date")
+    String endDate;
+
+    @Label("Currency")
+    @Description("Requested currency, or * for all currencies")
+    String currency;
+
+    @Label("Exception")
+    @Description("Simple name of the exception that ended the call, or none")
+    String exception;
+
+    /**
+     * Ends and commits the event if it is enabled and above its threshold.
+     *
+     * @param start     requested start date
+     * @param end       requested end date
+     * @param currency  requested currency, or null for all currencies
+     * @param exception exception simple name, or "none"
+     */
+    public void finish(LocalDate start, LocalDate end, String currency, String exception) {
+        end();
+        if (shouldCommit()) {
+            this.startDate = String.valueOf(start);
+            this.endDate = String.valueOf(end);
+            this.currency = currency == null ? "*" : currency;
+            this.exception = exception;
+            commit();
+        }
+    }
+}
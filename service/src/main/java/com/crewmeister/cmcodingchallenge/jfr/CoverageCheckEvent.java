@@ -0,0 +1,52 @@
+package com.crewmeister.cmcodingchallenge.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.time.LocalDate;
+
+/**
+ * A coverage check deciding whether a sync must fetch.
+ */
+@Name("fx.CoverageCheck")
+@Label("Coverage Check")
+@Category({"FX Service", "Sync"})
+@Description("Query deciding whether a date range is already synced")
+@StackTrace(false)
+public class CoverageCheckEvent extends Event {
+
+    @Label("Start Date")
+    String startDate;
+
+    @Label("End Date")
+    String endDate;
+
+    @Label("Scope")
+    String scope;
+
+    @Label("Covered")
+    boolean covered;
+
+    /**
+     * Ends and commits the event if it is enabled and above its threshold.
+     *
+     * @param start   range start
+     * @param end     range end
+     * @param scope   coverage scope
+     * @param covered whether the range was fully covered
+     */
+    public void finish(LocalDate start, LocalDate end, String scope, boolean covered) {
+        end();
+        if (shouldCommit()) {
+            this.startDate = String.valueOf(start);
+            this.endDate = String.valueOf(end);
+            this.scope = scope;
+            this.covered = covered;
+            commit();
+        }
+    }
+}
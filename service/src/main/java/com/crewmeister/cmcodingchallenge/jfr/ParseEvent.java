@@ -0,0 +1,51 @@
+package com.crewmeister.cmcodingchallenge.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Parsing of one SDMX payload into rows.
+ */
+@Name("fx.Parse")
+@Label("SDMX Parse")
+@Category({"FX Service", "Sync"})
+@Description("Turning a Bundesbank SDMX payload into exchange rate rows")
+@StackTrace(false)
+public class ParseEvent extends Event {
+
+    @Label("Mode")
+    @Description("sequential or streaming")
+    String mode;
+
+    @Label("Rows")
+    int rows;
+
+    @Label("Skipped Series")
+    int skippedSeries;
+
+    @Label("Skipped Observations")
+    int skippedObservations;
+
+    /**
+     * Ends and commits the event if it is enabled and above its threshold.
+     *
+     * @param mode                parse mode
+     * @param rows                parsed rows
+     * @param skippedSeries       skipped series
+     * @param skippedObservations skipped observations
+     */
+    public void finish(String mode, int rows, int skippedSeries, int skippedObservations) {
+        end();
+        if (shouldCommit()) {
+            this.mode = mode;
+            this.rows = rows;
+            this.skippedSeries = skippedSeries;
+            this.skippedObservations = skippedObservations;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.crewmeister.cmcodingchallenge.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.time.LocalDate;
+
+/**
+ * A whole sync, from input validation to the last commit.
+ */
+@Name("fx.Sync")
+@Label("Sync")
+@Category({"FX Service", "Sync"})
+@Description("One syncRange call; nested fetch, parse, write and coverage events show where the time went")
+@StackTrace(false)
+public class SyncEvent extends Event {
+
+    @Label("Start Date")
+    String startDate;
+
+    @Label("End Date")
+    String endDate;
+
+    @Label("Currency")
+    @Description("Synced currency, or * for all currencies")
+    String currency;
+
+    @Label("Forced")
+    boolean forced;
+
+    @Label("Outcome")
+    @Description("covered, synced, rejected or failed")
+    String outcome;
+
+    @Label("Inserted")
+    long inserted;
+
+    @Label("Updated")
+    long updated;
+
+    @Label("Unchanged")
+    long unchanged;
+
+    /**
+     * Ends and commits the event if it is enabled and above its threshold.
+     *
+     * @param start     range start
+     * @param end       range end
+     * @param currency  synced currency, or null for all currencies
+     * @param forced    whether coverage checks were bypassed
+     * @param outcome   sync outcome
+     * @param inserted  inserted rows
+     * @param updated   updated rows
+     * @param unchanged unchanged rows
+     */
+    public void finish(LocalDate start, LocalDate end, String currency, boolean forced, String outcome,
+                       long inserted, long updated, long unchanged) {
+        end();
+        if (shouldCommit()) {
+            this.startDate = String.valueOf(start);
+            this.endDate = String.valueOf(end);
+            this.currency = currency == null ? "*" : currency;
+            this.forced = forced;
+            this.outcome = outcome;
+            this.inserted = inserted;
+            this.updated = updated;
+            this.unchanged = unchanged;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.crewmeister.cmcodingchallenge.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * An attempt to take the sync lock.
+ */
+@Name("fx.SyncLock")
+@Label("Sync Lock")
+@Category({"FX Service", "Sync"})
+@Description("Attempt to acquire the sync lock; rejected attempts mean concurrent syncs")
+public class SyncLockEvent extends Event {
+
+    @Label("Acquired")
+    boolean acquired;
+
+    /**
+     * Ends and commits the event if it is enabled and above its threshold.
+     *
+     * @param acquired whether the lock was obtained
+     */
+    public void finish(boolean acquired) {
+        end();
+        if (shouldCommit()) {
+            this.acquired = acquired;
+            commit();
+        }
+    }
+}
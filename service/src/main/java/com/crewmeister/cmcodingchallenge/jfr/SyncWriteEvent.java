@@ -0,0 +1,63 @@
+package com.crewmeister.cmcodingchallenge.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One DB write transaction of a sync, including Hibernate flush and commit.
+ */
+@Name("fx.SyncWrite")
+@Label("Sync Write")
+@Category({"FX Service", "Sync"})
+@Description("One sync write transaction including flush and commit")
+@StackTrace(false)
+public class SyncWriteEvent extends Event {
+
+    @Label("Mode")
+    @Description("direct, stage or publish")
+    String mode;
+
+    @Label("Scope")
+    @Description("Synced currency, or * for all currencies")
+    String scope;
+
+    @Label("Rows")
+    @Description("Rows handed to the transaction; for publish, rows staged by the sync")
+    long rows;
+
+    @Label("Inserted")
+    long inserted;
+
+    @Label("Updated")
+    long updated;
+
+    @Label("Unchanged")
+    long unchanged;
+
+    /**
+     * Ends and commits the event if it is enabled and above its threshold.
+     *
+     * @param mode      write mode
+     * @param scope     coverage scope
+     * @param rows      rows written
+     * @param inserted  inserted rows
+     * @param updated   updated rows
+     * @param unchanged unchanged rows
+     */
+    public void finish(String mode, String scope, long rows, long inserted, long updated, long unchanged) {
+        end();
+        if (shouldCommit()) {
+            this.mode = mode;
+            this.scope = scope;
+            this.rows = rows;
+            this.inserted = inserted;
+            this.updated = updated;
+            this.unchanged = unchanged;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.crewmeister.cmcodingchallenge.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.LocalDate;
+
+/**
+ * One currency with stored rates, its first and last rate date and its number of rates. Rates are
+ * never deleted, so each write extends the entries by the rows it inserts, and the currency list is
+ * read without scanning the rates.
+ */
+@Entity
+@Table(name = "currency_catalog")
+public class CurrencyCatalogEntity {
+
+    @Id
+    @Column(name = "code", nullable = false, length = 3)
+    private String code;
+
+    @Column(name = "first_date", nullable = false)
+    private LocalDate firstDate;
+
+    @Column(name = "last_date", nullable = false)
+    private LocalDate lastDate;
+
+    @Column(name = "observations", nullable = false)
+    private long observations;
+
+    protected CurrencyCatalogEntity() {
+    }
+
+    /**
+     * Creates a catalog entry.
+     *
+     * @param code         currency code
+     * @param firstDate    first date with a stored rate
+     * @param lastDate     last date with a stored rate
+     * @param observations number of stored rates
+     */
+    public CurrencyCatalogEntity(String code, LocalDate firstDate, LocalDate lastDate, long observations) {
+        this.code = code;
+        this.firstDate = firstDate;
+        this.lastDate = lastDate;
+        this.observations = observations;
+    }
+
+    /**
+     * Returns the currency code.
+     *
+     * @return currency code
+     */
+    public String getCode() {
+        return this.code;
+    }
+
+    /**
+     * Returns the first date with a stored rate.
+     *
+     * @return first rate date
+     */
+    public LocalDate getFirstDate() {
+        return this.firstDate;
+    }
+
+    /**
+     * Returns the last date with a stored rate.
+     *
+     * @return last rate date
+     */
+    public LocalDate getLastDate() {
+        return this.lastDate;
+    }
+
+    /**
+     * Returns the number of stored rates.
+     *
+     * @return rate count
+     */
+    public long getObservations() {
+        return this.observations;
+    }
+
+    /**
+     * Extends the entry by newly inserted rates.
+     *
+     * @param first first date of the inserted rates
+     * @param last  last date of the inserted rates
+     * @param count number of inserted rates
+     */
+    public void addRates(LocalDate first, LocalDate last, long count) {
+        if (first.isBefore(this.firstDate)) {
+            this.firstDate = first;
+        }
+        if (last.isAfter(this.lastDate)) {
+            this.lastDate = last;
+        }
+        this.observations += count;
+    }
+}
@@ -0,0 +1,75 @@
+package com.crewmeister.cmcodingchallenge.model;
+
+import com.crewmeister.cmcodingchallenge.dto.CurrencyDetails;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public interface CurrencyCatalogRepository extends JpaRepository<CurrencyCatalogEntity, String> {
+
+    /**
+     * Returns the whole catalog in a read-write transaction, so that with a read replica, which does
+     * not copy the catalog, it is read from the primary.
+     *
+     * @return catalog entries sorted by currency code
+     */
+    @Transactional
+    @Query("""
+                SELECT new com.crewmeister.cmcodingchallenge.dto.CurrencyDetails(
+                    c.code, c.firstDate, c.lastDate, c.observations)
+                FROM CurrencyCatalogEntity c
+                ORDER BY c.code
+            """)
+    List<CurrencyDetails> findAllDetails();
+
+    /**
+     * Extends the catalog by the staged rates of a sync that are not stored yet, adding currencies
+     * seen for the first time. Runs before the staged rates are published, while the new ones can
+     * still be told apart.
+     *
+     * @param syncId identifier of the sync that staged the rates
+     * @return number of inserted or updated entries
+     */
+    @Modifying
+    @Query(value = """
+                MERGE INTO currency_catalog c
+                USING (SELECT s.currency, MIN(s.date) AS first_date, MAX(s.date) AS last_date,
+                              COUNT(*) AS observations
+                       FROM exchange_rate_staging s
+                       WHERE s.sync_id = :syncId
+                         AND NOT EXISTS (SELECT 1 FROM exchange_rate e
+                                         WHERE e.date = s.date AND e.currency = s.currency)
+                       GROUP BY s.currency) n
+                ON c.code = n.currency
+                WHEN MATCHED THEN UPDATE
+                    SET first_date = LEAST(c.first_date, n.first_date),
+                        last_date = GREATEST(c.last_date, n.last_date),
+                        observations = c.observations + n.observations
+                WHEN NOT MATCHED THEN INSERT (code, first_date, last_date, observations)
+                    VALUES (n.currency, n.first_date, n.last_date, n.observations)
+            """, nativeQuery = true)
+    int addNewStagedRates(@Param("syncId") String syncId);
+
+    /**
+     * Recomputes every entry from all stored rates, for rates written before the catalog existed.
+     *
+     * @return number of inserted or updated entries
+     */
+    @Modifying
+    @Query(value = """
+                MERGE INTO currency_catalog c
+                USING (SELECT currency, MIN(date) AS first_date, MAX(date) AS last_date, COUNT(*) AS observations
+                       FROM exchange_rate
+                       GROUP BY currency) s
+                ON c.code = s.currency
+                WHEN MATCHED THEN UPDATE
+                    SET first_date = s.first_date, last_date = s.last_date, observations = s.observations
+                WHEN NOT MATCHED THEN INSERT (code, first_date, last_date, observations)
+                    VALUES (s.currency, s.first_date, s.last_date, s.observations)
+            """, nativeQuery = true)
+    int rebuildAll();
+}
@@ -0,0 +1,12 @@
+package com.crewmeister.cmcodingchallenge.model;
+
+import java.math.BigDecimal;
+
+/**
+ * A currency's rate on a date the query already fixes, projected without loading the entity.
+ *
+ * @param currency currency code
+ * @param rate     rate value
+ */
+public record CurrencyRate(String currency, BigDecimal rate) {
+}
@@ -0,0 +1,86 @@
+package com.crewmeister.cmcodingchallenge.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.LocalDate;
+
+/**
+ * One committed change to the stored rates, numbered in commit order, so that nodes sharing the
+ * database can tell which dates another node has changed since they last looked. Versions are
+ * assigned as the current maximum plus one while the sync lease row is locked, not from a sequence:
+ * sequence values can commit out of order, and a reader could then skip a version that commits late.
+ */
+@Entity
+@Table(name = "data_version")
+public class DataVersionEntity {
+
+    @Id
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    @Column(name = "origin", nullable = false, length = 128)
+    private String origin;
+
+    @Column(name = "first_date", nullable = false)
+    private LocalDate firstDate;
+
+    @Column(name = "last_date", nullable = false)
+    private LocalDate lastDate;
+
+    protected DataVersionEntity() {
+    }
+
+    /**
+     * Creates a change record.
+     *
+     * @param version   data version the change commits as
+     * @param origin    identifier of the node that wrote it
+     * @param firstDate first changed date
+     * @param lastDate  last changed date
+     */
+    public DataVersionEntity(long version, String origin, LocalDate firstDate, LocalDate lastDate) {
+        this.version = version;
+        this.origin = origin;
+        this.firstDate = firstDate;
+        this.lastDate = lastDate;
+    }
+
+    /**
+     * Returns the data version.
+     *
+     * @return data version
+     */
+    public long getVersion() {
+        return this.version;
+    }
+
+    /**
+     * Returns the node that wrote the change.
+     *
+     * @return owner identifier of the writing node
+     */
+    public String getOrigin() {
+        return this.origin;
+    }
+
+    /**
+     * Returns the first changed date.
+     *
+     * @return first date
+     */
+    public LocalDate getFirstDate() {
+        return this.firstDate;
+    }
+
+    /**
+     * Returns the last changed date. Dates in between may be unchanged.
+     *
+     * @return last date
+     */
+    public LocalDate getLastDate() {
+        return this.lastDate;
+    }
+}
@@ -0,0 +1,41 @@
+package com.crewmeister.cmcodingchallenge.model;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public interface DataVersionRepository extends JpaRepository<DataVersionEntity, Long> {
+
+    /**
+     * Returns the version of the last committed change, read from the primary key index alone.
+     *
+     * @return current data version, 0 before the first change
+     */
+    // read-write, so the poll reads the primary rather than a read replica
+    @Transactional
+    @Query("SELECT COALESCE(MAX(v.version), 0) FROM DataVersionEntity v")
+    long findCurrentVersion();
+
+    /**
+     * Finds the changes committed after a version.
+     *
+     * @param version last version already seen
+     * @return newer changes in version order
+     */
+    @Transactional
+    List<DataVersionEntity> findByVersionGreaterThanOrderByVersion(long version);
+
+    /**
+     * Removes changes older than a version.
+     *
+     * @param version oldest version to keep
+     * @return number of removed changes
+     */
+    @Modifying
+    @Query("DELETE FROM DataVersionEntity v WHERE v.version < :version")
+    int deleteOlderThan(@Param("version") long version);
+}
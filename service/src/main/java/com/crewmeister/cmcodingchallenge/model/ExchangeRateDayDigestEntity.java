@@ -0,0 +1,80 @@
+package com.crewmeister.cmcodingchallenge.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.LocalDate;
+
+/**
+ * Content digest of all rates stored for one date, used to skip unchanged days on re-sync.
+ */
+@Entity
+@Table(name = "exchange_rate_day_digest")
+public class ExchangeRateDayDigestEntity {
+
+    @Id
+    @Column(name = "date", nullable = false)
+    private LocalDate date;
+
+    @Column(name = "digest", nullable = false)
+    private long digest;
+
+    @Column(name = "row_count", nullable = false)
+    private int rowCount;
+
+    protected ExchangeRateDayDigestEntity() {
+    }
+
+    /**
+     * Creates a day digest.
+     *
+     * @param date     digested date
+     * @param digest   order-independent digest of the stored rows of that date
+     * @param rowCount number of stored rows of that date
+     */
+    public ExchangeRateDayDigestEntity(LocalDate date, long digest, int rowCount) {
+        this.date = date;
+        this.digest = digest;
+        this.rowCount = rowCount;
+    }
+
+    /**
+     * Returns the digested date.
+     *
+     * @return date
+     */
+    public LocalDate getDate() {
+        return this.date;
+    }
+
+    /**
+     * Returns the digest of the stored rows.
+     *
+     * @return content digest
+     */
+    public long getDigest() {
+        return this.digest;
+    }
+
+    /**
+     * Returns the number of stored rows.
+     *
+     * @return row count
+     */
+    public int getRowCount() {
+        return this.rowCount;
+    }
+
+    /**
+     * Replaces the digest after the rows of the date changed.
+     *
+     * @param digest   new content digest
+     * @param rowCount new row count
+     */
+    public void update(long digest, int rowCount) {
+        this.digest = digest;
+        this.rowCount = rowCount;
+    }
+}
@@ -0,0 +1,8 @@
+package com.crewmeister.cmcodingchallenge.model;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+
+public interface ExchangeRateDayDigestRepository extends JpaRepository<ExchangeRateDayDigestEntity, LocalDate> {
+}
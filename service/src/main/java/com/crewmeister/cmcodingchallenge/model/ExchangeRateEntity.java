@@ -1,9 +1,12 @@
 package com.crewmeister.cmcodingchallenge.model;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.EmbeddedId;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -11,8 +14,15 @@ import java.time.LocalDate;
 
 @Entity
 @Table(name = "exchange_rate")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = ExchangeRateEntity.CACHE_REGION)
 public class ExchangeRateEntity {
 
+    /**
+     * Second-level cache region of rates, by composite key.
+     */
+    public static final String CACHE_REGION = "exchange-rate";
+
     @EmbeddedId
     private ExchangeRateId id;
 
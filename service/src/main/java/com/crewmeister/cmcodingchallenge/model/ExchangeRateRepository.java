@@ -1,15 +1,33 @@
 package com.crewmeister.cmcodingchallenge.model;
 
+import com.crewmeister.cmcodingchallenge.dto.RateItem;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+// queries run read-only, which routes them to a read replica if one is configured; writes join DbWriter's transactions
+@Transactional(readOnly = true)
 public interface ExchangeRateRepository extends JpaRepository<ExchangeRateEntity, ExchangeRateId>, ExchangeRateRepositoryCustom {
 
+    /**
+     * Query cache region of {@link #countRates} and {@link #findCurrencyRates}.
+     */
+    String RATE_QUERIES_CACHE_REGION = "exchange-rate-queries";
+
+    /**
+     * Query cache region of {@link #findRateItems}, whose pages hold up to thousands of rates each.
+     */
+    String RATE_PAGES_CACHE_REGION = "exchange-rate-pages";
+
     /**
      * Finds the latest date currently stored in the database.
      *
@@ -18,14 +36,6 @@ public interface ExchangeRateRepository extends JpaRepository<ExchangeRateEntity
     @Query("SELECT MAX(e.id.date) FROM ExchangeRateEntity e")
     LocalDate findMaxDate();
 
-    /**
-     * Returns all distinct currencies sorted alphabetically.
-     *
-     * @return distinct currency codes
-     */
-    @Query("SELECT DISTINCT e.id.currency FROM ExchangeRateEntity e ORDER BY e.id.currency")
-    List<String> findDistinctCurrencies();
-
     /**
      * Counts rates for optional date and currency filters.
      *
@@ -41,50 +51,96 @@ public interface ExchangeRateRepository extends JpaRepository<ExchangeRateEntity
                 AND (:start IS NULL OR e.id.date >= :start)
                 AND (:end IS NULL OR e.id.date <= :end)
             """)
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = RATE_QUERIES_CACHE_REGION)})
     long countRates(@Param("start") LocalDate start,
                     @Param("end") LocalDate end,
                     @Param("currency") String currency);
 
     /**
-     * Finds rates for a specific date and optional currency filter.
+     * Finds rates for a specific date and optional currency filter, projected to code and rate.
      *
      * @param date     requested date
      * @param currency optional currency code
      * @return matching rates ordered by currency
      */
     @Query("""
-                SELECT e
+                SELECT new com.crewmeister.cmcodingchallenge.model.CurrencyRate(e.id.currency, e.rate)
                 FROM ExchangeRateEntity e
                 WHERE e.id.date = :date
                   AND (:currency IS NULL OR UPPER(e.id.currency) = UPPER(:currency))
                 ORDER BY e.id.currency ASC
             """)
-    List<ExchangeRateEntity> findByDateAndOptionalCurrency(@Param("date") LocalDate date,
-                                                           @Param("currency") String currency);
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = RATE_QUERIES_CACHE_REGION)})
+    List<CurrencyRate> findCurrencyRates(@Param("date") LocalDate date,
+                                         @Param("currency") String currency);
 
     /**
-     * Finds a single rate by composite key.
+     * Finds a single rate by composite key. A primary-key load, so it is answered from the
+     * second-level cache when the rate is cached.
      *
      * @param date     rate date
      * @param currency currency code
      * @return matching rate if present
      */
-    Optional<ExchangeRateEntity> findByIdDateAndIdCurrency(LocalDate date, String currency);
+    default Optional<ExchangeRateEntity> findByIdDateAndIdCurrency(LocalDate date, String currency) {
+        return findById(new ExchangeRateId(date, currency));
+    }
 
+    /**
+     * Finds all rates stored for the given dates.
+     *
+     * @param dates requested dates
+     * @return matching rates in no particular order
+     */
+    List<ExchangeRateEntity> findByIdDateIn(Collection<LocalDate> dates);
 
     /**
-     * Counts distinct dates stored for an inclusive date range.
+     * Finds all rates stored for an inclusive date range.
      *
      * @param start start date (inclusive)
      * @param end   end date (inclusive)
-     * @return number of distinct dates in the range
+     * @return matching rates in no particular order
+     */
+    List<ExchangeRateEntity> findByIdDateBetween(LocalDate start, LocalDate end);
+
+    /**
+     * Finds every stored rate as a projection, so no entity is managed, snapshotted or put into
+     * the second-level cache.
+     *
+     * @return all rates in no particular order
+     */
+    @Query("""
+                SELECT new com.crewmeister.cmcodingchallenge.dto.RateItem(e.id.date, e.id.currency, e.rate)
+                FROM ExchangeRateEntity e
+            """)
+    List<RateItem> findAllRateItems();
+
+    /**
+     * Finds all rates stored for the given dates as projections.
+     *
+     * @param dates requested dates
+     * @return matching rates in no particular order
      */
     @Query("""
-                SELECT COUNT(DISTINCT e.id.date)
+                SELECT new com.crewmeister.cmcodingchallenge.dto.RateItem(e.id.date, e.id.currency, e.rate)
                 FROM ExchangeRateEntity e
-                WHERE e.id.date >= :start AND e.id.date <= :end
+                WHERE e.id.date IN :dates
             """)
-    long countDistinctDates(@Param("start") LocalDate start,
-                            @Param("end") LocalDate end);
+    List<RateItem> findRateItemsOn(@Param("dates") Collection<LocalDate> dates);
 
+    /**
+     * Finds all rates stored for an inclusive date range as projections.
+     *
+     * @param start start date (inclusive)
+     * @param end   end date (inclusive)
+     * @return matching rates in no particular order
+     */
+    @Query("""
+                SELECT new com.crewmeister.cmcodingchallenge.dto.RateItem(e.id.date, e.id.currency, e.rate)
+                FROM ExchangeRateEntity e
+                WHERE e.id.date BETWEEN :start AND :end
+            """)
+    List<RateItem> findRateItemsBetween(@Param("start") LocalDate start, @Param("end") LocalDate end);
 }
@@ -1,6 +1,9 @@
 package com.crewmeister.cmcodingchallenge.model;
 
+import com.crewmeister.cmcodingchallenge.dto.RateItem;
+
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 public interface ExchangeRateRepositoryCustom {
@@ -15,4 +18,32 @@ public interface ExchangeRateRepositoryCustom {
      * @return matching rates ordered by date and currency
      */
     List<ExchangeRateEntity> findRates(LocalDate start, LocalDate end, String currency, int limit, int offset);
+
+    /**
+     * Finds the same page as {@link #findRates}, projected straight into response items, so no
+     * entities are hydrated or tracked by the persistence context.
+     *
+     * @param start    optional start date (inclusive)
+     * @param end      optional end date (inclusive)
+     * @param currency optional currency code
+     * @param limit    maximum rows to return
+     * @param offset   row offset
+     * @return matching rates ordered by date and currency
+     */
+    List<RateItem> findRateItems(LocalDate start, LocalDate end, String currency, int limit, int offset);
+
+    /**
+     * Inserts rates known to be absent, without the existence check of {@code saveAll}.
+     *
+     * @param entities new rate entities
+     */
+    void insertAll(Collection<ExchangeRateEntity> entities);
+
+    /**
+     * Inserts rates known to be absent with JDBC batches on the transaction's connection, bypassing
+     * the persistence context. For bulk loads; the inserted entities are not managed afterwards.
+     *
+     * @param entities new rate entities
+     */
+    void bulkInsert(Collection<ExchangeRateEntity> entities);
 }
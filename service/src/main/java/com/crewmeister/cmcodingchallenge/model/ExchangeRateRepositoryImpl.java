@@ -1,14 +1,29 @@
 package com.crewmeister.cmcodingchallenge.model;
 
+import com.crewmeister.cmcodingchallenge.dto.RateItem;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.TypedQuery;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.PreparedStatement;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 public class ExchangeRateRepositoryImpl implements ExchangeRateRepositoryCustom {
 
+    private static final int BULK_BATCH_SIZE = 1000;
+
+    private static final String FILTER = """
+                WHERE (:currency IS NULL OR UPPER(e.id.currency) = UPPER(:currency))
+                  AND (:start IS NULL OR e.id.date >= :start)
+                  AND (:end IS NULL OR e.id.date <= :end)
+                ORDER BY e.id.date ASC, e.id.currency ASC
+            """;
+
     @PersistenceContext
     private EntityManager em;
 
@@ -23,18 +38,36 @@ public class ExchangeRateRepositoryImpl implements ExchangeRateRepositoryCustom
      * @return matching rates ordered by date and currency
      */
     @Override
+    @Transactional(readOnly = true)
     public List<ExchangeRateEntity> findRates(LocalDate start, LocalDate end, String currency, int limit, int offset) {
+        TypedQuery<ExchangeRateEntity> q = em.createQuery(
+                "SELECT e FROM ExchangeRateEntity e " + FILTER, ExchangeRateEntity.class);
+        return page(q, start, end, currency, limit, offset);
+    }
 
-        String jpql = """
-                    SELECT e
-                    FROM ExchangeRateEntity e
-                    WHERE (:currency IS NULL OR UPPER(e.id.currency) = UPPER(:currency))
-                      AND (:start IS NULL OR e.id.date >= :start)
-                      AND (:end IS NULL OR e.id.date <= :end)
-                    ORDER BY e.id.date ASC, e.id.currency ASC
-                """;
+    /**
+     * Implements the projected rate lookup with a constructor expression.
+     *
+     * @param start    optional start date (inclusive)
+     * @param end      optional end date (inclusive)
+     * @param currency optional currency code
+     * @param limit    maximum rows to return
+     * @param offset   row offset
+     * @return matching rates ordered by date and currency
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<RateItem> findRateItems(LocalDate start, LocalDate end, String currency, int limit, int offset) {
+        TypedQuery<RateItem> q = em.createQuery(
+                "SELECT new com.crewmeister.cmcodingchallenge.dto.RateItem(e.id.date, e.id.currency, e.rate) "
+                        + "FROM ExchangeRateEntity e " + FILTER, RateItem.class);
+        q.setHint(HibernateHints.HINT_CACHEABLE, true);
+        q.setHint(HibernateHints.HINT_CACHE_REGION, ExchangeRateRepository.RATE_PAGES_CACHE_REGION);
+        return page(q, start, end, currency, limit, offset);
+    }
 
-        TypedQuery<ExchangeRateEntity> q = em.createQuery(jpql, ExchangeRateEntity.class);
+    private static <T> List<T> page(TypedQuery<T> q, LocalDate start, LocalDate end, String currency,
+                                    int limit, int offset) {
         q.setParameter("currency", currency);
         q.setParameter("start", start);
         q.setParameter("end", end);
@@ -44,4 +77,45 @@ public class ExchangeRateRepositoryImpl implements ExchangeRateRepositoryCustom
 
         return q.getResultList();
     }
+
+    /**
+     * Persists new rate entities directly; callers guarantee the keys do not exist yet.
+     *
+     * @param entities new rate entities
+     */
+    @Override
+    public void insertAll(Collection<ExchangeRateEntity> entities) {
+        for (ExchangeRateEntity entity : entities) {
+            em.persist(entity);
+        }
+    }
+
+    /**
+     * Inserts rates with JDBC batches of {@value #BULK_BATCH_SIZE} rows, skipping the per-entity
+     * bookkeeping and flush of {@link #insertAll}, which dominates loads of a hundred thousand rows.
+     *
+     * @param entities new rate entities
+     */
+    @Override
+    public void bulkInsert(Collection<ExchangeRateEntity> entities) {
+        em.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO exchange_rate (date, currency, rate) VALUES (?, ?, ?)")) {
+                int pending = 0;
+                for (ExchangeRateEntity entity : entities) {
+                    insert.setObject(1, entity.getDate());
+                    insert.setString(2, entity.getCurrency());
+                    insert.setBigDecimal(3, entity.getRate());
+                    insert.addBatch();
+                    if (++pending == BULK_BATCH_SIZE) {
+                        insert.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    insert.executeBatch();
+                }
+            }
+        });
+    }
 }
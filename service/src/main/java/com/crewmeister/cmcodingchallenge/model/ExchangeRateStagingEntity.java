@@ -0,0 +1,65 @@
+package com.crewmeister.cmcodingchallenge.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * A rate written by a large sync before it is published into {@code exchange_rate}.
+ */
+@Entity
+@Table(name = "exchange_rate_staging", indexes = @Index(name = "idx_staging_sync_id", columnList = "sync_id"))
+public class ExchangeRateStagingEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "exchange_rate_staging_seq")
+    @SequenceGenerator(name = "exchange_rate_staging_seq", allocationSize = 100)
+    private Long id;
+
+    @Column(name = "sync_id", nullable = false, length = 36)
+    private String syncId;
+
+    @Column(name = "date", nullable = false)
+    private LocalDate date;
+
+    @Column(name = "currency", nullable = false, length = 3)
+    private String currency;
+
+    @Column(name = "rate", nullable = false, precision = 19, scale = 8)
+    private BigDecimal rate;
+
+    protected ExchangeRateStagingEntity() {
+    }
+
+    /**
+     * Creates a staged rate.
+     *
+     * @param syncId   identifier of the sync that staged the rate
+     * @param date     rate date
+     * @param currency currency code
+     * @param rate     rate value
+     */
+    public ExchangeRateStagingEntity(String syncId, LocalDate date, String currency, BigDecimal rate) {
+        this.syncId = syncId;
+        this.date = date;
+        this.currency = currency;
+        this.rate = rate;
+    }
+
+    /**
+     * Returns the identifier of the sync that staged the rate.
+     *
+     * @return sync identifier
+     */
+    public String getSyncId() {
+        return this.syncId;
+    }
+}
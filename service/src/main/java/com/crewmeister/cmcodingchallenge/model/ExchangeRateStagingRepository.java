@@ -0,0 +1,81 @@
+package com.crewmeister.cmcodingchallenge.model;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface ExchangeRateStagingRepository extends JpaRepository<ExchangeRateStagingEntity, Long> {
+
+    /**
+     * Counts rates staged by a sync.
+     *
+     * @param syncId sync identifier
+     * @return number of staged rows
+     */
+    long countBySyncId(String syncId);
+
+    /**
+     * Counts staged rates whose date and currency are not stored yet.
+     *
+     * @param syncId sync identifier
+     * @return number of rows the publish will insert
+     */
+    @Query(value = """
+                SELECT COUNT(*)
+                FROM exchange_rate_staging s
+                WHERE s.sync_id = :syncId
+                  AND NOT EXISTS (SELECT 1 FROM exchange_rate e
+                                  WHERE e.date = s.date AND e.currency = s.currency)
+            """, nativeQuery = true)
+    long countNew(@Param("syncId") String syncId);
+
+    /**
+     * Counts staged rates that differ from the stored rate.
+     *
+     * @param syncId sync identifier
+     * @return number of rows the publish will update
+     */
+    @Query(value = """
+                SELECT COUNT(*)
+                FROM exchange_rate_staging s
+                JOIN exchange_rate e ON e.date = s.date AND e.currency = s.currency
+                WHERE s.sync_id = :syncId AND e.rate <> s.rate
+            """, nativeQuery = true)
+    long countChanged(@Param("syncId") String syncId);
+
+    /**
+     * Publishes staged rates in one statement, inserting new rows and updating only changed ones.
+     *
+     * @param syncId sync identifier
+     * @return number of inserted or updated rows
+     */
+    @Modifying
+    @Query(value = """
+                MERGE INTO exchange_rate e
+                USING (SELECT date, currency, rate FROM exchange_rate_staging WHERE sync_id = :syncId) s
+                ON e.date = s.date AND e.currency = s.currency
+                WHEN MATCHED AND e.rate <> s.rate THEN UPDATE SET rate = s.rate
+                WHEN NOT MATCHED THEN INSERT (date, currency, rate) VALUES (s.date, s.currency, s.rate)
+            """, nativeQuery = true)
+    int mergeIntoRates(@Param("syncId") String syncId);
+
+    /**
+     * Removes all rates staged by a sync.
+     *
+     * @param syncId sync identifier
+     * @return number of removed rows
+     */
+    @Modifying
+    @Query("DELETE FROM ExchangeRateStagingEntity s WHERE s.syncId = :syncId")
+    int deleteStaged(@Param("syncId") String syncId);
+
+    /**
+     * Removes the rates staged by every sync.
+     *
+     * @return number of removed rows
+     */
+    @Modifying
+    @Query("DELETE FROM ExchangeRateStagingEntity s")
+    int deleteAllStaged();
+}
@@ -0,0 +1,40 @@
+package com.crewmeister.cmcodingchallenge.model;
+
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+
+import java.time.LocalDate;
+
+/**
+ * Records that rates for a date were synced, either for all currencies or for a single one.
+ */
+@Entity
+@Table(name = "sync_coverage")
+public class SyncCoverageEntity {
+
+    @EmbeddedId
+    private SyncCoverageId id;
+
+    protected SyncCoverageEntity() {
+    }
+
+    /**
+     * Creates a coverage entry.
+     *
+     * @param date  covered date
+     * @param scope currency code, or {@link SyncCoverageId#ALL_CURRENCIES} for a full sync
+     */
+    public SyncCoverageEntity(LocalDate date, String scope) {
+        this.id = new SyncCoverageId(date, scope);
+    }
+
+    /**
+     * Returns the composite identifier.
+     *
+     * @return coverage identifier
+     */
+    public SyncCoverageId getId() {
+        return this.id;
+    }
+}
@@ -0,0 +1,93 @@
+package com.crewmeister.cmcodingchallenge.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+@Embeddable
+public class SyncCoverageId implements Serializable {
+
+    /**
+     * Scope value recorded when a sync fetched every currency for a date.
+     */
+    public static final String ALL_CURRENCIES = "*";
+
+    /**
+     * Returns the coverage scope for a sync.
+     *
+     * @param currency synced currency code, or null for a full sync
+     * @return the currency code, or {@link #ALL_CURRENCIES}
+     */
+    public static String scopeOf(String currency) {
+        return currency == null ? ALL_CURRENCIES : currency;
+    }
+
+    @Column(name = "date", nullable = false)
+    private LocalDate date;
+
+    @Column(name = "scope", nullable = false, length = 3)
+    private String scope;
+
+    protected SyncCoverageId() {
+    }
+
+    /**
+     * Creates a coverage identifier.
+     *
+     * @param date  covered date
+     * @param scope currency code, or {@link #ALL_CURRENCIES} for a full sync
+     */
+    public SyncCoverageId(LocalDate date, String scope) {
+        this.date = Objects.requireNonNull(date, "date");
+        this.scope = Objects.requireNonNull(scope, "scope");
+    }
+
+    /**
+     * Returns the covered date.
+     *
+     * @return covered date
+     */
+    public LocalDate getDate() {
+        return date;
+    }
+
+    /**
+     * Returns the coverage scope.
+     *
+     * @return currency code or {@link #ALL_CURRENCIES}
+     */
+    public String getScope() {
+        return scope;
+    }
+
+    /**
+     * Compares composite key values.
+     *
+     * @param o object to compare
+     * @return true when date and scope are equal
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SyncCoverageId given)) {
+            return false;
+        }
+        return Objects.equals(this.date, given.date) &&
+                Objects.equals(this.scope, given.scope);
+    }
+
+    /**
+     * Computes hash code from date and scope.
+     *
+     * @return hash code for this composite key
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.date, this.scope);
+    }
+}
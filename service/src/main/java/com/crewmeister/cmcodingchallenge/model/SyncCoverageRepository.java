@@ -0,0 +1,72 @@
+package com.crewmeister.cmcodingchallenge.model;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+// queries run read-only, which routes them to a read replica if one is configured; writes join DbWriter's transactions
+@Transactional(readOnly = true)
+public interface SyncCoverageRepository extends JpaRepository<SyncCoverageEntity, SyncCoverageId> {
+
+    /**
+     * Query cache region of {@link #countCoveredDates}.
+     */
+    String COVERED_DATES_CACHE_REGION = "sync-coverage-counts";
+
+    /**
+     * Counts distinct covered dates in an inclusive range for any of the given scopes.
+     *
+     * @param start  start date (inclusive)
+     * @param end    end date (inclusive)
+     * @param scopes accepted scopes, e.g. a currency code and the all-currencies marker
+     * @return number of covered dates in the range
+     */
+    @Query("""
+                SELECT COUNT(DISTINCT c.id.date)
+                FROM SyncCoverageEntity c
+                WHERE c.id.date >= :start AND c.id.date <= :end
+                  AND c.id.scope IN :scopes
+            """)
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = COVERED_DATES_CACHE_REGION)})
+    long countCoveredDates(@Param("start") LocalDate start,
+                           @Param("end") LocalDate end,
+                           @Param("scopes") Collection<String> scopes);
+
+    /**
+     * Counts covered dates like {@link #countCoveredDates}, but in a read-write transaction and past
+     * the query cache, so that it sees what other nodes have just committed to the primary.
+     *
+     * @param start  start date (inclusive)
+     * @param end    end date (inclusive)
+     * @param scopes accepted scopes, e.g. a currency code and the all-currencies marker
+     * @return number of covered dates in the range
+     */
+    @Transactional
+    @Query("""
+                SELECT COUNT(DISTINCT c.id.date)
+                FROM SyncCoverageEntity c
+                WHERE c.id.date >= :start AND c.id.date <= :end
+                  AND c.id.scope IN :scopes
+            """)
+    long countCoveredDatesOnPrimary(@Param("start") LocalDate start,
+                                    @Param("end") LocalDate end,
+                                    @Param("scopes") Collection<String> scopes);
+
+    /**
+     * Finds the coverage records of an inclusive date range, for every scope.
+     *
+     * @param start start date (inclusive)
+     * @param end   end date (inclusive)
+     * @return matching coverage records
+     */
+    List<SyncCoverageEntity> findByIdDateBetween(LocalDate start, LocalDate end);
+}
@@ -0,0 +1,79 @@
+package com.crewmeister.cmcodingchallenge.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+
+/**
+ * Lease that lets one node at a time sync rates into the shared database. Every acquisition
+ * increments the fencing token, so writes of a node whose lease has expired and been taken over
+ * can be told apart from those of the current holder.
+ */
+@Entity
+@Table(name = "sync_lease")
+public class SyncLeaseEntity {
+
+    @Id
+    @Column(name = "name", nullable = false, length = 64)
+    private String name;
+
+    @Column(name = "owner", length = 128)
+    private String owner;
+
+    @Column(name = "token", nullable = false)
+    private long token;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    protected SyncLeaseEntity() {
+    }
+
+    /**
+     * Returns the lease name.
+     *
+     * @return lease name
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Returns the node that took the lease last.
+     *
+     * @return owner identifier, null if the lease was never taken
+     */
+    public String getOwner() {
+        return this.owner;
+    }
+
+    /**
+     * Returns the fencing token of the last acquisition.
+     *
+     * @return fencing token, 0 if the lease was never taken
+     */
+    public long getToken() {
+        return this.token;
+    }
+
+    /**
+     * Returns the time at which the lease may be taken over.
+     *
+     * @return expiry time, in the past once released
+     */
+    public Instant getExpiresAt() {
+        return this.expiresAt;
+    }
+
+    /**
+     * Moves the expiry of the current holder's lease.
+     *
+     * @param expiresAt new expiry time
+     */
+    public void renew(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,76 @@
+package com.crewmeister.cmcodingchallenge.model;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface SyncLeaseRepository extends JpaRepository<SyncLeaseEntity, String> {
+
+    /**
+     * Creates a lease row, released and never taken, unless it exists already.
+     *
+     * @param name  lease name
+     * @param epoch expiry to store, any time in the past
+     * @return number of inserted rows
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+                MERGE INTO sync_lease l
+                USING (SELECT CAST(:name AS VARCHAR(64)) AS name) n
+                ON l.name = n.name
+                WHEN NOT MATCHED THEN INSERT (name, token, expires_at) VALUES (n.name, 0, :epoch)
+            """, nativeQuery = true)
+    int createIfAbsent(@Param("name") String name, @Param("epoch") Instant epoch);
+
+    /**
+     * Takes the lease if it has expired or is already held by the same owner, and issues the next
+     * fencing token. The update is committed at once.
+     *
+     * @param name      lease name
+     * @param owner     identifier of the taking node
+     * @param now       current time
+     * @param expiresAt expiry of the new lease
+     * @return 1 if the lease was taken, 0 if another node holds it
+     */
+    @Modifying
+    @Transactional
+    @Query("""
+                UPDATE SyncLeaseEntity l
+                SET l.owner = :owner, l.token = l.token + 1, l.expiresAt = :expiresAt
+                WHERE l.name = :name AND (l.expiresAt <= :now OR l.owner = :owner)
+            """)
+    int take(@Param("name") String name, @Param("owner") String owner, @Param("now") Instant now,
+             @Param("expiresAt") Instant expiresAt);
+
+    /**
+     * Releases the lease if it is still held with the given fencing token.
+     *
+     * @param name  lease name
+     * @param token fencing token of the acquisition being released
+     * @param now   current time, stored as expiry
+     * @return 1 if released, 0 if the lease had been taken over
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE SyncLeaseEntity l SET l.expiresAt = :now WHERE l.name = :name AND l.token = :token")
+    int release(@Param("name") String name, @Param("token") long token, @Param("now") Instant now);
+
+    /**
+     * Reads the lease and locks its row until the surrounding transaction ends, so it cannot be
+     * taken over while a write checks its fencing token and commits.
+     *
+     * @param name lease name
+     * @return lease, if created
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT l FROM SyncLeaseEntity l WHERE l.name = :name")
+    Optional<SyncLeaseEntity> lockByName(@Param("name") String name);
+}
@@ -0,0 +1,133 @@
+package com.crewmeister.cmcodingchallenge.sync;
+
+import com.crewmeister.cmcodingchallenge.dto.CurrencyDetails;
+import com.crewmeister.cmcodingchallenge.model.CurrencyCatalogRepository;
+import com.crewmeister.cmcodingchallenge.model.ExchangeRateRepository;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory copy of the currency catalog, so the currency list is answered without a query. It is
+ * loaded at startup, built in the background by {@link WarmSync} if rates were stored before the
+ * catalog existed, and reloaded whole after every committed sync, whichever stack or node ran it; the catalog holds one
+ * row per currency, so a reload is cheaper than working out which entries changed. Readers see
+ * either the previous or the reloaded catalog, never a mix.
+ */
+@Component
+// the poller takes its starting version first, so no change of another node is missed during the load,
+// and a snapshot is imported first, so it is part of the load
+@DependsOn({"dataVersionPoller", "snapshotService"})
+public class CurrencyCatalog {
+
+    /**
+     * Catalog entries and their codes, replaced together.
+     */
+    private record Entries(List<String> codes, List<CurrencyDetails> details) {
+    }
+
+    private final CurrencyCatalogRepository catalogRepo;
+    private final ExchangeRateRepository repo;
+    private final DbWriter dbWriter;
+    private final SyncService syncService;
+
+    // orders a reload of this node's sync and one of another node's; a lock rather than synchronized,
+    // so a reload on the pipeline's virtual writer thread does not pin its carrier during the query
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    private volatile Entries entries;
+
+    /**
+     * Creates the catalog and loads it.
+     *
+     * @param catalogRepo repository of the currency catalog
+     * @param repo        exchange rate repository
+     * @param dbWriter    writer that builds the catalog
+     * @param syncService sync service whose lock and lease the build holds
+     */
+    public CurrencyCatalog(CurrencyCatalogRepository catalogRepo, ExchangeRateRepository repo, DbWriter dbWriter,
+                           SyncService syncService) {
+        this.catalogRepo = catalogRepo;
+        this.repo = repo;
+        this.dbWriter = dbWriter;
+        this.syncService = syncService;
+        reload();
+    }
+
+    /**
+     * Builds the catalog from the stored rates under the sync lock and lease if it is empty although
+     * rates are stored, i.e. they were written before the catalog existed, and reloads it.
+     *
+     * @throws SyncInProgressException if a sync of this or another node holds the lease
+     */
+    void backfill() {
+        if (this.catalogRepo.count() == 0 && this.repo.findMaxDate() != null) {
+            this.syncService.writeExclusively(() -> {
+                this.dbWriter.rebuildCurrencyCatalog();
+                return null;
+            });
+            reload();
+        }
+    }
+
+    /**
+     * Reloads the catalog after a committed sync of this node.
+     *
+     * @param event dates and scope that were synced
+     */
+    @TransactionalEventListener
+    public void onRatesWritten(RatesWrittenEvent event) {
+        reload();
+    }
+
+    /**
+     * Reloads the catalog after another node's sync.
+     *
+     * @param event changed date range, or all dates
+     */
+    @EventListener
+    public void onRemoteRatesWritten(RemoteRatesWrittenEvent event) {
+        reload();
+    }
+
+    /**
+     * Returns all currency codes with at least one stored rate.
+     *
+     * @return sorted currency codes, unmodifiable
+     */
+    public List<String> codes() {
+        return this.entries.codes();
+    }
+
+    /**
+     * Returns every currency with its first and last rate date and its number of rates.
+     *
+     * @return catalog entries sorted by currency code, unmodifiable
+     */
+    public List<CurrencyDetails> details() {
+        return this.entries.details();
+    }
+
+    /**
+     * Tells whether no currency has a stored rate yet.
+     *
+     * @return whether the catalog is empty
+     */
+    public boolean isEmpty() {
+        return this.entries.codes().isEmpty();
+    }
+
+    private void reload() {
+        this.reloadLock.lock();
+        try {
+            List<CurrencyDetails> details = List.copyOf(this.catalogRepo.findAllDetails());
+            this.entries = new Entries(details.stream().map(CurrencyDetails::code).toList(), details);
+        } finally {
+            this.reloadLock.unlock();
+        }
+    }
+}
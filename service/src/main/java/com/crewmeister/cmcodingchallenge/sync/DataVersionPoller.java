@@ -0,0 +1,123 @@
+package com.crewmeister.cmcodingchallenge.sync;
+
+import com.crewmeister.cmcodingchallenge.model.DataVersionEntity;
+import com.crewmeister.cmcodingchallenge.model.DataVersionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Polls the data version so that in-memory copies of the rates follow syncs committed by other
+ * nodes sharing the database. Each poll reads the current version only; when it has moved, the
+ * changes since the last poll are read and a {@link RemoteRatesWrittenEvent} is published for each
+ * change another node wrote. Changes of this node are skipped, as its {@link RatesWrittenEvent}s
+ * already refreshed them. Copies therefore lag other nodes' commits by at most
+ * {@code fx.sync.data-version.poll-interval} plus the time to reload the changed dates.
+ */
+@Component
+public class DataVersionPoller {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DataVersionPoller.class);
+
+    private final DataVersionRepository repo;
+    private final SyncLease lease;
+    private final ApplicationEventPublisher events;
+    private final boolean enabled;
+    private final Duration pollInterval;
+
+    private final Counter remoteChanges;
+    private final Counter fullReloads;
+
+    private volatile long seen;
+    private volatile Thread poller;
+
+    /**
+     * Creates the poller, taking the current version as seen. Copies loaded after this point are
+     * at least as new, and changes committed meanwhile are reloaded once more, which is harmless.
+     *
+     * @param repo       data version repository
+     * @param lease      sync lease whose owner identifies changes of this node
+     * @param properties data version settings
+     * @param events     publisher of {@link RemoteRatesWrittenEvent}s
+     * @param registry   meter registry for remote change counts
+     */
+    public DataVersionPoller(DataVersionRepository repo, SyncLease lease, DataVersionProperties properties,
+                             ApplicationEventPublisher events, MeterRegistry registry) {
+        this.repo = repo;
+        this.lease = lease;
+        this.events = events;
+        this.enabled = properties.enabled();
+        this.pollInterval = properties.pollInterval();
+        this.remoteChanges = registry.counter("sync.data-version.changes", "kind", "range");
+        this.fullReloads = registry.counter("sync.data-version.changes", "kind", "full");
+        this.seen = properties.enabled() ? repo.findCurrentVersion() : 0;
+    }
+
+    /**
+     * Starts polling on a background thread and returns immediately.
+     */
+    public void start() {
+        if (!this.enabled || this.poller != null) {
+            return;
+        }
+        this.poller = Thread.ofVirtual().name("data-version-poller").start(this::run);
+    }
+
+    /**
+     * Checks the data version once and publishes the changes of other nodes since the last check.
+     */
+    void poll() {
+        long current = this.repo.findCurrentVersion();
+        if (current <= this.seen) {
+            return;
+        }
+        List<DataVersionEntity> changes = this.repo.findByVersionGreaterThanOrderByVersion(this.seen);
+        if (changes.isEmpty() || changes.getFirst().getVersion() != this.seen + 1) {
+            // the changes in between were pruned, so nothing tells which dates they touched
+            LOG.info("Data version moved from {} past the retained changes, reloading all rates", this.seen);
+            this.fullReloads.increment();
+            this.events.publishEvent(RemoteRatesWrittenEvent.everything());
+        } else {
+            for (DataVersionEntity change : changes) {
+                if (!change.getOrigin().equals(this.lease.owner())) {
+                    this.remoteChanges.increment();
+                    this.events.publishEvent(new RemoteRatesWrittenEvent(change.getFirstDate(), change.getLastDate()));
+                }
+            }
+        }
+        this.seen = changes.isEmpty() ? current : changes.getLast().getVersion();
+    }
+
+    long seen() {
+        return this.seen;
+    }
+
+    @PreDestroy
+    void stop() {
+        Thread running = this.poller;
+        if (running != null) {
+            running.interrupt();
+        }
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Thread.sleep(this.pollInterval);
+                poll();
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                // the version is kept, so the same changes are picked up by the next poll
+                LOG.warn("Polling the data version failed", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.crewmeister.cmcodingchallenge.sync;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings for the data version that tells nodes sharing a database which rates another node has
+ * changed.
+ *
+ * @param enabled      whether this node polls for changes of other nodes
+ * @param pollInterval wait between polls, which bounds how long in-memory copies serve stale rates
+ * @param retention    number of recent changes kept; a node that falls further behind reloads everything
+ */
+@ConfigurationProperties(prefix = "fx.sync.data-version")
+public record DataVersionProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("1s") Duration pollInterval,
+        @DefaultValue("1000") int retention
+) {
+}
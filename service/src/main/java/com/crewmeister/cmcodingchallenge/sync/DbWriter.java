@@ -1,37 +1,340 @@
 package com.crewmeister.cmcodingchallenge.sync;
 
 import com.crewmeister.cmcodingchallenge.bank.ExchangeRateRow;
+import com.crewmeister.cmcodingchallenge.model.CurrencyCatalogEntity;
+import com.crewmeister.cmcodingchallenge.model.CurrencyCatalogRepository;
+import com.crewmeister.cmcodingchallenge.model.DataVersionEntity;
+import com.crewmeister.cmcodingchallenge.model.DataVersionRepository;
+import com.crewmeister.cmcodingchallenge.model.ExchangeRateDayDigestEntity;
+import com.crewmeister.cmcodingchallenge.model.ExchangeRateDayDigestRepository;
 import com.crewmeister.cmcodingchallenge.model.ExchangeRateEntity;
+import com.crewmeister.cmcodingchallenge.model.ExchangeRateId;
 import com.crewmeister.cmcodingchallenge.model.ExchangeRateRepository;
+import com.crewmeister.cmcodingchallenge.model.ExchangeRateStagingEntity;
+import com.crewmeister.cmcodingchallenge.model.ExchangeRateStagingRepository;
+import com.crewmeister.cmcodingchallenge.model.SyncCoverageEntity;
+import com.crewmeister.cmcodingchallenge.model.SyncCoverageId;
+import com.crewmeister.cmcodingchallenge.model.SyncCoverageRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Component
 public class DbWriter {
 
     private final ExchangeRateRepository repo;
+    private final SyncCoverageRepository coverageRepo;
+    private final ExchangeRateDayDigestRepository digestRepo;
+    private final ExchangeRateStagingRepository stagingRepo;
+    private final DataVersionRepository versionRepo;
+    private final CurrencyCatalogRepository catalogRepo;
+    private final SyncLease lease;
+    private final int versionRetention;
+    private final ApplicationEventPublisher events;
 
     /**
      * Creates the DB writer for exchange rates.
      *
-     * @param repo exchange rate repository
+     * @param repo         exchange rate repository
+     * @param coverageRepo repository recording which dates were synced for which scope
+     * @param digestRepo   repository of per-day content digests
+     * @param stagingRepo  repository of rates staged by large syncs
+     * @param versionRepo  repository of data versions read by other nodes
+     * @param catalogRepo  repository of the currency catalog
+     * @param lease        sync lease whose fencing token is checked before each write commits
+     * @param versions     data version settings
+     * @param events       publisher of {@link RatesWrittenEvent}s
      */
-    public DbWriter(ExchangeRateRepository repo) {
+    public DbWriter(ExchangeRateRepository repo, SyncCoverageRepository coverageRepo,
+                    ExchangeRateDayDigestRepository digestRepo, ExchangeRateStagingRepository stagingRepo,
+                    DataVersionRepository versionRepo, CurrencyCatalogRepository catalogRepo, SyncLease lease,
+                    DataVersionProperties versions, ApplicationEventPublisher events) {
         this.repo = repo;
+        this.coverageRepo = coverageRepo;
+        this.digestRepo = digestRepo;
+        this.stagingRepo = stagingRepo;
+        this.versionRepo = versionRepo;
+        this.catalogRepo = catalogRepo;
+        this.lease = lease;
+        this.versionRetention = versions.retention();
+        this.events = events;
     }
 
     /**
-     * Persists exchange rates as entities in a single transaction.
+     * Writes one batch of exchange rates in its own transaction, skipping rows that match what is
+     * already stored. A full sync first compares each day's content digest with the stored one and
+     * skips matching days without reading their rows; other days are diffed row by row.
      *
-     * @param rows parsed exchange rate rows
+     * @param rows  parsed exchange rate rows, holding every row of each date they contain
+     * @param scope synced currency code, or the all-currencies marker for a full sync
+     * @return inserted, updated and unchanged row counts of this batch
+     * @throws SyncInProgressException if another node has taken the sync lease over
      */
     @Transactional
-    public void saveToDb(List<ExchangeRateRow> rows) {
+    public WriteResult saveBatch(List<ExchangeRateRow> rows, String scope) {
+        this.lease.verify();
+        Map<LocalDate, List<ExchangeRateRow>> byDate = rows.stream()
+                .collect(Collectors.groupingBy(ExchangeRateRow::date, LinkedHashMap::new, Collectors.toList()));
+        Map<LocalDate, ExchangeRateDayDigestEntity> digests = this.digestRepo.findAllById(byDate.keySet()).stream()
+                .collect(Collectors.toMap(ExchangeRateDayDigestEntity::getDate, Function.identity()));
+
+        long unchanged = 0;
+        if (SyncCoverageId.ALL_CURRENCIES.equals(scope)) {
+            Iterator<Map.Entry<LocalDate, List<ExchangeRateRow>>> it = byDate.entrySet().iterator();
+            while (it.hasNext()) {
+                var day = it.next();
+                if (matchesStored(day.getValue(), digests.get(day.getKey()))) {
+                    unchanged += day.getValue().size();
+                    it.remove();
+                }
+            }
+        }
+        if (byDate.isEmpty()) {
+            return new WriteResult(0, 0, unchanged);
+        }
+
+        Map<ExchangeRateId, ExchangeRateEntity> stored = this.repo.findByIdDateIn(byDate.keySet()).stream()
+                .collect(Collectors.toMap(ExchangeRateEntity::getId, Function.identity()));
+        List<ExchangeRateEntity> inserts = new ArrayList<>();
+        long updated = 0;
+        for (List<ExchangeRateRow> dayRows : byDate.values()) {
+            for (ExchangeRateRow row : dayRows) {
+                ExchangeRateEntity existing = stored.get(new ExchangeRateId(row.date(), row.currency()));
+                if (existing == null) {
+                    ExchangeRateEntity entity = new ExchangeRateEntity(row.date(), row.currency(), row.rate());
+                    inserts.add(entity);
+                    stored.put(entity.getId(), entity);
+                } else if (RateDigest.normalize(existing.getRate()).compareTo(RateDigest.normalize(row.rate())) != 0) {
+                    // managed entity, flushed as an UPDATE on commit
+                    existing.setRate(row.rate());
+                    updated++;
+                } else {
+                    unchanged++;
+                }
+            }
+        }
+        this.repo.insertAll(inserts);
+        addToCatalog(inserts);
+        refreshDigests(byDate.keySet(), stored.values(), digests);
+        return new WriteResult(inserts.size(), updated, unchanged);
+    }
+
+    /**
+     * Stages one batch of exchange rates for a later {@link #publishStaged} in its own transaction.
+     * Staging does not touch {@code exchange_rate}, so readers do not compete with it.
+     *
+     * @param syncId identifier of the running sync
+     * @param rows   parsed exchange rate rows
+     * @throws SyncInProgressException if another node has taken the sync lease over
+     */
+    @Transactional
+    public void stageBatch(String syncId, List<ExchangeRateRow> rows) {
+        this.lease.verify();
+        List<ExchangeRateStagingEntity> staged = rows.stream()
+                .map(rate -> new ExchangeRateStagingEntity(syncId, rate.date(), rate.currency(), rate.rate()))
+                .toList();
+        this.stagingRepo.saveAll(staged);
+    }
+
+    /**
+     * Publishes all rates staged by a sync in one short transaction: the catalog is extended by the
+     * new rows, a single merge inserts them and updates changed ones, the digests of the published days are recomputed from their merged
+     * rows, the staged rows are removed and the dates are recorded as covered.
+     *
+     * @param syncId identifier of the sync that staged the rates
+     * @param dates  dates the sync covered
+     * @param scope  synced currency code, or the all-currencies marker for a full sync
+     * @return inserted, updated and unchanged row counts of the sync
+     * @throws SyncInProgressException if another node has taken the sync lease over
+     */
+    @Transactional
+    public WriteResult publishStaged(String syncId, Collection<LocalDate> dates, String scope) {
+        this.lease.verify();
+        long staged = this.stagingRepo.countBySyncId(syncId);
+        long inserted = this.stagingRepo.countNew(syncId);
+        long updated = this.stagingRepo.countChanged(syncId);
+        if (inserted + updated > 0) {
+            if (inserted > 0) {
+                this.catalogRepo.addNewStagedRates(syncId);
+            }
+            this.stagingRepo.mergeIntoRates(syncId);
+            // the merge wrote past Hibernate, so the days are read back to keep their digests current
+            List<ExchangeRateEntity> stored = this.repo.findByIdDateIn(dates);
+            Set<LocalDate> published = stored.stream().map(ExchangeRateEntity::getDate).collect(Collectors.toSet());
+            Map<LocalDate, ExchangeRateDayDigestEntity> digests = this.digestRepo.findAllById(published).stream()
+                    .collect(Collectors.toMap(ExchangeRateDayDigestEntity::getDate, Function.identity()));
+            refreshDigests(published, stored, digests);
+        }
+        this.stagingRepo.deleteStaged(syncId);
+        recordCoverage(dates, scope);
+        return new WriteResult(inserted, updated, staged - inserted - updated);
+    }
+
+    /**
+     * Loads rates from a snapshot into an empty table in one transaction and records the snapshot's
+     * covered dates. Day digests are left to the next sync, which diffs these days row by row.
+     *
+     * @param rows         snapshot rates
+     * @param coveredDates dates the snapshot covers for all currencies
+     * @return inserted row count, or {@link WriteResult#NONE} if rates were stored meanwhile
+     * @throws SyncInProgressException if another node has taken the sync lease over
+     */
+    @Transactional
+    public WriteResult importRates(List<ExchangeRateRow> rows, Collection<LocalDate> coveredDates) {
+        this.lease.verify();
+        if (this.repo.findMaxDate() != null) {
+            return WriteResult.NONE;
+        }
         List<ExchangeRateEntity> entities = rows.stream()
-                .map(rate -> new ExchangeRateEntity(rate.date(), rate.currency(), rate.rate()))
+                .map(row -> new ExchangeRateEntity(row.date(), row.currency(), row.rate()))
+                .toList();
+        this.repo.bulkInsert(entities);
+        addToCatalog(entities);
+        recordCoverage(coveredDates, SyncCoverageId.ALL_CURRENCIES);
+        return new WriteResult(rows.size(), 0, 0);
+    }
+
+    /**
+     * Drops rates staged by a sync that will not be published.
+     *
+     * @param syncId identifier of the failed sync
+     */
+    @Transactional
+    public void discardStaged(String syncId) {
+        this.stagingRepo.deleteStaged(syncId);
+    }
+
+    /**
+     * Drops every staged rate, left behind by syncs that neither published nor discarded them, e.g.
+     * on a node that crashed mid-sync. Called before a sync starts writing: it holds the sync lease,
+     * so no other sync can be staging at the same time.
+     *
+     * @return number of dropped rows
+     * @throws SyncInProgressException if another node has taken the sync lease over
+     */
+    @Transactional
+    public int discardAbandonedStaged() {
+        this.lease.verify();
+        return this.stagingRepo.deleteAllStaged();
+    }
+
+    /**
+     * Records dates as synced for a scope, once all of their rows have been written, bumps the data
+     * version so other nodes refresh them, and publishes a {@link RatesWrittenEvent} for them.
+     *
+     * @param dates synced dates
+     * @param scope synced currency code, or the all-currencies marker for a full sync
+     * @throws SyncInProgressException if another node has taken the sync lease over
+     */
+    @Transactional
+    public void recordCoverage(Collection<LocalDate> dates, String scope) {
+        this.lease.verify();
+        List<SyncCoverageEntity> coverage = dates.stream()
+                .map(date -> new SyncCoverageEntity(date, scope))
                 .toList();
-        this.repo.saveAll(entities);
+        this.coverageRepo.saveAll(coverage);
+        bumpVersion(dates);
+        this.events.publishEvent(new RatesWrittenEvent(List.copyOf(dates), scope));
+    }
+
+    /**
+     * Builds the currency catalog from all stored rates, for rates written before the catalog
+     * existed. Rates are unchanged, so no event is published.
+     *
+     * @throws SyncInProgressException if another node has taken the sync lease over
+     */
+    @Transactional
+    public void rebuildCurrencyCatalog() {
+        this.lease.verify();
+        this.catalogRepo.rebuildAll();
+    }
+
+    /**
+     * Appends the next data version. The lease row locked by {@link SyncLease#verify} serializes
+     * writers across nodes, so versions commit in order; the primary key rejects a concurrent writer
+     * should leasing be disabled on more than one node.
+     */
+    private void bumpVersion(Collection<LocalDate> dates) {
+        if (dates.isEmpty()) {
+            return;
+        }
+        long next = this.versionRepo.findCurrentVersion() + 1;
+        this.versionRepo.save(new DataVersionEntity(next, this.lease.owner(),
+                Collections.min(dates), Collections.max(dates)));
+        this.versionRepo.deleteOlderThan(next - this.versionRetention + 1);
+    }
+
+    /**
+     * Extends the catalog entries of the inserted rows' currencies; updated rows neither add a rate
+     * nor move a currency's first or last date.
+     */
+    private void addToCatalog(Collection<ExchangeRateEntity> inserted) {
+        if (inserted.isEmpty()) {
+            return;
+        }
+        Map<String, List<ExchangeRateEntity>> byCurrency = inserted.stream()
+                .collect(Collectors.groupingBy(ExchangeRateEntity::getCurrency));
+        Map<String, CurrencyCatalogEntity> entries = this.catalogRepo.findAllById(byCurrency.keySet()).stream()
+                .collect(Collectors.toMap(CurrencyCatalogEntity::getCode, Function.identity()));
+        List<CurrencyCatalogEntity> created = new ArrayList<>();
+        byCurrency.forEach((currency, rows) -> {
+            LocalDate first = rows.stream().map(ExchangeRateEntity::getDate).min(Comparator.naturalOrder()).orElseThrow();
+            LocalDate last = rows.stream().map(ExchangeRateEntity::getDate).max(Comparator.naturalOrder()).orElseThrow();
+            CurrencyCatalogEntity existing = entries.get(currency);
+            if (existing == null) {
+                created.add(new CurrencyCatalogEntity(currency, first, last, rows.size()));
+            } else {
+                existing.addRates(first, last, rows.size());
+            }
+        });
+        this.catalogRepo.saveAll(created);
+    }
+
+    private static boolean matchesStored(List<ExchangeRateRow> dayRows, ExchangeRateDayDigestEntity stored) {
+        if (stored == null || stored.getRowCount() != dayRows.size()) {
+            return false;
+        }
+        RateDigest incoming = new RateDigest();
+        for (ExchangeRateRow row : dayRows) {
+            incoming.add(row.currency(), row.rate());
+        }
+        return incoming.digest() == stored.getDigest();
+    }
+
+    /**
+     * Recomputes the digests of the given dates from their full stored content, which also
+     * repairs days written before digests existed.
+     */
+    private void refreshDigests(Collection<LocalDate> dates, Collection<ExchangeRateEntity> storedRows,
+                                Map<LocalDate, ExchangeRateDayDigestEntity> digests) {
+        Map<LocalDate, RateDigest> fresh = new HashMap<>();
+        for (ExchangeRateEntity entity : storedRows) {
+            fresh.computeIfAbsent(entity.getDate(), d -> new RateDigest()).add(entity.getCurrency(), entity.getRate());
+        }
+        List<ExchangeRateDayDigestEntity> created = new ArrayList<>();
+        for (LocalDate date : dates) {
+            RateDigest digest = fresh.getOrDefault(date, new RateDigest());
+            ExchangeRateDayDigestEntity existing = digests.get(date);
+            if (existing == null) {
+                created.add(new ExchangeRateDayDigestEntity(date, digest.digest(), digest.count()));
+            } else {
+                existing.update(digest.digest(), digest.count());
+            }
+        }
+        this.digestRepo.saveAll(created);
     }
 }
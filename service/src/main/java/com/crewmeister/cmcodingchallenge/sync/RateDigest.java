@@ -0,0 +1,44 @@
+package com.crewmeister.cmcodingchallenge.sync;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Order-independent 64-bit digest over the rates of one day. Row hashes are summed, so a day's
+ * digest does not depend on the order rows arrive in or are read back from the database.
+ */
+final class RateDigest {
+
+    /**
+     * Scale of the {@code exchange_rate.rate} column; rates are compared as stored.
+     */
+    static final int STORED_SCALE = 8;
+
+    private long digest;
+    private int count;
+
+    void add(String currency, BigDecimal rate) {
+        this.digest += rowHash(currency, rate);
+        this.count++;
+    }
+
+    long digest() {
+        return this.digest;
+    }
+
+    int count() {
+        return this.count;
+    }
+
+    static BigDecimal normalize(BigDecimal rate) {
+        return rate.setScale(STORED_SCALE, RoundingMode.HALF_UP);
+    }
+
+    private static long rowHash(String currency, BigDecimal rate) {
+        long h = currency.hashCode() * 0x9E3779B97F4A7C15L + normalize(rate).unscaledValue().longValue();
+        // SplitMix64 finalizer, so similar rows spread across all bits before summing
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        return h ^ (h >>> 31);
+    }
+}
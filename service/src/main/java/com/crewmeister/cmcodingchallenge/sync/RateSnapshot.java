@@ -0,0 +1,214 @@
+package com.crewmeister.cmcodingchallenge.sync;
+
+import com.crewmeister.cmcodingchallenge.bank.ExchangeRateRow;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Compact binary snapshot of all stored rates and of the dates synced for all currencies.
+ * <p>
+ * Layout, big-endian, {@code varint} being an unsigned LEB128 value:
+ * <pre>
+ * int     magic "FXS1"
+ * varint  currency count, then per currency: byte length, ASCII code     (dictionary, in code order)
+ * varint  day count
+ * varint  row count
+ * long    epoch day of the first day
+ * per day, in date order:
+ *   varint  days since the previous day (0 for the first)
+ *   byte    flags, bit 0 set if the day is covered for all currencies
+ *   varint  rate count, then per rate: varint dictionary index, varint rate in units of 10^-8
+ * </pre>
+ * Rates are fixed-point at the database scale of 8 decimals, so they round-trip exactly. A rate
+ * between 0.03 and 2.6 takes five bytes with its currency index.
+ */
+public final class RateSnapshot {
+
+    /** Decimal places of the fixed-point rates, matching the {@code exchange_rate.rate} column. */
+    static final int SCALE = 8;
+
+    private static final int MAGIC = 0x46585331;
+    private static final byte COVERED = 1;
+
+    /**
+     * Decoded snapshot contents.
+     *
+     * @param rows         rates in date and currency order
+     * @param coveredDates dates synced for all currencies, in date order
+     */
+    public record Contents(List<ExchangeRateRow> rows, List<LocalDate> coveredDates) {
+    }
+
+    private RateSnapshot() {
+    }
+
+    /**
+     * Writes a snapshot to a temporary file next to {@code path} and moves it into place, so
+     * readers never see a partial snapshot.
+     *
+     * @param path         snapshot file
+     * @param rows         rates to write, in any order
+     * @param coveredDates dates synced for all currencies
+     * @return size of the snapshot in bytes
+     * @throws IOException         if the file cannot be written
+     * @throws ArithmeticException if a rate is negative, has more than {@value #SCALE} decimals or does not fit
+     */
+    public static long write(Path path, Collection<ExchangeRateRow> rows, Collection<LocalDate> coveredDates)
+            throws IOException {
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp))) {
+                encode(rows, coveredDates, out);
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return Files.size(path);
+    }
+
+    /**
+     * Reads a snapshot through a memory mapping of the file, so it is decoded straight from the
+     * page cache without copying it onto the heap first.
+     *
+     * @param path snapshot file
+     * @return decoded contents
+     * @throws IOException           if the file cannot be read
+     * @throws IllegalStateException if the file is not a valid snapshot
+     */
+    public static Contents read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return decode(buffer);
+        }
+    }
+
+    static void encode(Collection<ExchangeRateRow> rows, Collection<LocalDate> coveredDates, OutputStream target)
+            throws IOException {
+        TreeMap<LocalDate, TreeMap<String, BigDecimal>> days = new TreeMap<>();
+        NavigableSet<String> currencies = new TreeSet<>();
+        for (ExchangeRateRow row : rows) {
+            days.computeIfAbsent(row.date(), date -> new TreeMap<>()).put(row.currency(), row.rate());
+            currencies.add(row.currency());
+        }
+        Set<LocalDate> covered = new TreeSet<>(coveredDates);
+        covered.forEach(date -> days.computeIfAbsent(date, d -> new TreeMap<>()));
+
+        DataOutputStream out = new DataOutputStream(target);
+        out.writeInt(MAGIC);
+        writeVarint(out, currencies.size());
+        Map<String, Integer> dictionary = new HashMap<>();
+        for (String currency : currencies) {
+            byte[] code = currency.getBytes(StandardCharsets.US_ASCII);
+            out.writeByte(code.length);
+            out.write(code);
+            dictionary.put(currency, dictionary.size());
+        }
+        writeVarint(out, days.size());
+        writeVarint(out, rows.size());
+        out.writeLong(days.isEmpty() ? 0 : days.firstKey().toEpochDay());
+
+        long previous = days.isEmpty() ? 0 : days.firstKey().toEpochDay();
+        for (var day : days.entrySet()) {
+            long epochDay = day.getKey().toEpochDay();
+            writeVarint(out, epochDay - previous);
+            previous = epochDay;
+            out.writeByte(covered.contains(day.getKey()) ? COVERED : 0);
+            writeVarint(out, day.getValue().size());
+            for (var rate : day.getValue().entrySet()) {
+                writeVarint(out, dictionary.get(rate.getKey()));
+                writeVarint(out, rate.getValue().setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact());
+            }
+        }
+        out.flush();
+    }
+
+    static Contents decode(ByteBuffer in) {
+        try {
+            if (in.getInt() != MAGIC) {
+                throw new IllegalStateException("not a rate snapshot");
+            }
+            String[] dictionary = new String[readCount(in)];
+            for (int i = 0; i < dictionary.length; i++) {
+                byte[] code = new byte[in.get()];
+                in.get(code);
+                dictionary[i] = new String(code, StandardCharsets.US_ASCII);
+            }
+            int dayCount = readCount(in);
+            // each rate takes at least two bytes, which bounds a corrupt count
+            List<ExchangeRateRow> rows = new ArrayList<>(Math.min(readCount(in), in.remaining() / 2));
+            List<LocalDate> covered = new ArrayList<>();
+            long epochDay = in.getLong();
+            for (int d = 0; d < dayCount; d++) {
+                epochDay += readVarint(in);
+                LocalDate date = LocalDate.ofEpochDay(epochDay);
+                if ((in.get() & COVERED) != 0) {
+                    covered.add(date);
+                }
+                int rates = readCount(in);
+                for (int r = 0; r < rates; r++) {
+                    String currency = dictionary[readCount(in)];
+                    rows.add(new ExchangeRateRow(date, currency, BigDecimal.valueOf(readVarint(in), SCALE)));
+                }
+            }
+            return new Contents(rows, covered);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException
+                 | ArithmeticException | DateTimeException e) {
+            throw new IllegalStateException("truncated or corrupt rate snapshot", e);
+        }
+    }
+
+    private static void writeVarint(DataOutputStream out, long value) throws IOException {
+        if (value < 0) {
+            throw new ArithmeticException("negative value in rate snapshot: " + value);
+        }
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarint(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("malformed varint in rate snapshot");
+    }
+
+    private static int readCount(ByteBuffer in) {
+        return Math.toIntExact(readVarint(in));
+    }
+}
@@ -0,0 +1,186 @@
+package com.crewmeister.cmcodingchallenge.sync;
+
+import com.crewmeister.cmcodingchallenge.bank.ExchangeRateRow;
+import com.crewmeister.cmcodingchallenge.dto.RateItem;
+import com.crewmeister.cmcodingchallenge.model.ExchangeRateRepository;
+import com.crewmeister.cmcodingchallenge.model.SyncCoverageEntity;
+import com.crewmeister.cmcodingchallenge.model.SyncCoverageId;
+import com.crewmeister.cmcodingchallenge.model.SyncCoverageRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * In-memory copy of the stored rates and of their sync coverage, read by the reactive API so that
+ * requests never wait on JDBC. It is loaded from the database at startup and refreshed for the
+ * affected dates after every committed sync, whichever stack or node ran it. Each day's rates are
+ * replaced as a whole, so readers see a day either before or after a sync, never half of it.
+ * Rates are loaded as projections and hold shared currency codes, about 80 bytes per stored rate.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+// the poller takes its starting version first, so no change of another node is missed during the load,
+// and a snapshot is imported first, so it is part of the load
+@DependsOn({"dataVersionPoller", "snapshotService"})
+public class RateStore {
+
+    private final ExchangeRateRepository repo;
+    private final SyncCoverageRepository coverageRepo;
+
+    private final ConcurrentSkipListMap<LocalDate, SortedMap<String, BigDecimal>> days = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListSet<String> currencies = new ConcurrentSkipListSet<>();
+    private final Map<String, Set<LocalDate>> coverage = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the store and loads every stored rate and coverage record.
+     *
+     * @param repo         exchange rate repository
+     * @param coverageRepo repository of synced dates per scope
+     */
+    public RateStore(ExchangeRateRepository repo, SyncCoverageRepository coverageRepo) {
+        this.repo = repo;
+        this.coverageRepo = coverageRepo;
+        putDays(repo.findAllRateItems());
+        coverWith(coverageRepo.findAll());
+    }
+
+    /**
+     * Reloads the dates of a committed sync from the database and marks them covered.
+     *
+     * @param event dates and scope that were synced
+     */
+    @TransactionalEventListener
+    public void onRatesWritten(RatesWrittenEvent event) {
+        // rates first, so a reader that sees the coverage also sees the rows
+        putDays(this.repo.findRateItemsOn(event.dates()));
+        cover(event.scope(), event.dates());
+    }
+
+    /**
+     * Reloads the dates another node has synced, rates and coverage alike.
+     *
+     * @param event changed date range, or all dates
+     */
+    @EventListener
+    public void onRemoteRatesWritten(RemoteRatesWrittenEvent event) {
+        if (event.isEverything()) {
+            putDays(this.repo.findAllRateItems());
+            coverWith(this.coverageRepo.findAll());
+        } else {
+            putDays(this.repo.findRateItemsBetween(event.firstDate(), event.lastDate()));
+            coverWith(this.coverageRepo.findByIdDateBetween(event.firstDate(), event.lastDate()));
+        }
+    }
+
+    /**
+     * Checks whether every date of an inclusive range has been synced for a currency, or for all
+     * currencies, following the same rule as the database coverage check.
+     *
+     * @param start    start date (inclusive)
+     * @param end      end date (inclusive)
+     * @param currency upper-case currency code; null asks for all currencies
+     * @return whether the whole range is covered
+     */
+    public boolean isCovered(LocalDate start, LocalDate end, String currency) {
+        Set<LocalDate> all = this.coverage.getOrDefault(SyncCoverageId.ALL_CURRENCIES, Set.of());
+        Set<LocalDate> single = currency == null ? Set.of() : this.coverage.getOrDefault(currency, Set.of());
+        for (LocalDate date = start; !date.isAfter(end); date = date.plusDays(1)) {
+            if (!all.contains(date) && !single.contains(date)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns all currency codes with at least one stored rate.
+     *
+     * @return sorted currency codes
+     */
+    public List<String> currencies() {
+        return List.copyOf(this.currencies);
+    }
+
+    /**
+     * Returns the rates of one date.
+     *
+     * @param date requested date
+     * @return rates by currency code in code order, empty if none are stored
+     */
+    public SortedMap<String, BigDecimal> ratesOn(LocalDate date) {
+        return this.days.getOrDefault(date, Collections.emptySortedMap());
+    }
+
+    /**
+     * Returns the rate of one currency on one date.
+     *
+     * @param date     requested date
+     * @param currency upper-case currency code
+     * @return stored rate, if any
+     */
+    public Optional<BigDecimal> rate(LocalDate date, String currency) {
+        return Optional.ofNullable(ratesOn(date).get(currency));
+    }
+
+    /**
+     * Returns the rates of an inclusive date range, ordered by date and currency like
+     * {@link ExchangeRateRepository#findRates}.
+     *
+     * @param start    start date (inclusive)
+     * @param end      end date (inclusive)
+     * @param currency optional upper-case currency code
+     * @return matching rates
+     */
+    public List<ExchangeRateRow> rates(LocalDate start, LocalDate end, String currency) {
+        NavigableMap<LocalDate, SortedMap<String, BigDecimal>> range = this.days.subMap(start, true, end, true);
+        List<ExchangeRateRow> rows = new ArrayList<>();
+        range.forEach((date, rates) -> {
+            if (currency == null) {
+                rates.forEach((code, rate) -> rows.add(new ExchangeRateRow(date, code, rate)));
+            } else {
+                BigDecimal rate = rates.get(currency);
+                if (rate != null) {
+                    rows.add(new ExchangeRateRow(date, currency, rate));
+                }
+            }
+        });
+        return rows;
+    }
+
+    private void putDays(Collection<RateItem> items) {
+        Map<LocalDate, SortedMap<String, BigDecimal>> loaded = new TreeMap<>();
+        for (RateItem item : items) {
+            // each row carries its own copy of the code; a few dozen shared ones are kept instead
+            String currency = item.currency().intern();
+            loaded.computeIfAbsent(item.date(), date -> new TreeMap<>()).put(currency, item.rate());
+            this.currencies.add(currency);
+        }
+        loaded.forEach((date, rates) -> this.days.put(date, Collections.unmodifiableSortedMap(rates)));
+    }
+
+    private void coverWith(Collection<SyncCoverageEntity> records) {
+        records.forEach(c -> cover(c.getId().getScope(), List.of(c.getId().getDate())));
+    }
+
+    private void cover(String scope, Collection<LocalDate> dates) {
+        this.coverage.computeIfAbsent(scope, s -> ConcurrentHashMap.newKeySet()).addAll(dates);
+    }
+}
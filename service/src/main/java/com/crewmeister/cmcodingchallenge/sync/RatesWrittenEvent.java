@@ -0,0 +1,14 @@
+package com.crewmeister.cmcodingchallenge.sync;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+/**
+ * Published when a sync has recorded dates as covered, i.e. once all of their rows are written.
+ * Listeners that keep derived copies of the rates refresh these dates after the commit.
+ *
+ * @param dates covered dates
+ * @param scope synced currency code, or the all-currencies marker for a full sync
+ */
+public record RatesWrittenEvent(Collection<LocalDate> dates, String scope) {
+}
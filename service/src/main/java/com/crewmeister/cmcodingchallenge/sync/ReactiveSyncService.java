@@ -0,0 +1,161 @@
+package com.crewmeister.cmcodingchallenge.sync;
+
+import com.crewmeister.cmcodingchallenge.bank.ExchangeRateRow;
+import com.crewmeister.cmcodingchallenge.bank.ReactiveBankClient;
+import com.crewmeister.cmcodingchallenge.model.SyncCoverageId;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the {@link RateStore} covering what the reactive API reads. Covered ranges complete at
+ * once. A missing range is fetched with the non-blocking {@link ReactiveBankClient}, and concurrent
+ * requests for the same range share one fetch instead of being rejected. The fetched rows are written
+ * through {@link DbWriter} on the bounded-elastic scheduler while holding the sync lock of
+ * {@link SyncService}, and the store picks them up from the resulting {@link RatesWrittenEvent}.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveSyncService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReactiveSyncService.class);
+
+    private record Key(LocalDate start, LocalDate end, String scope) {
+    }
+
+    private final RateStore store;
+    private final ReactiveBankClient bankClient;
+    private final DbWriter dbWriter;
+    private final SyncService syncService;
+    private final Duration timeout;
+
+    private final MeterRegistry registry;
+    private final Counter coverageHits;
+    private final Counter coverageMisses;
+
+    private final Map<Key, Mono<Void>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the reactive sync service.
+     *
+     * @param store       in-memory rates read by the reactive API
+     * @param bankClient  non-blocking Bundesbank client
+     * @param dbWriter    writer used for transactional persistence
+     * @param syncService blocking sync service whose lock serializes all writes
+     * @param properties  sync settings
+     * @param registry    meter registry for sync duration and coverage checks
+     */
+    public ReactiveSyncService(RateStore store, ReactiveBankClient bankClient, DbWriter dbWriter,
+                               SyncService syncService, SyncProperties properties, MeterRegistry registry) {
+        this.store = store;
+        this.bankClient = bankClient;
+        this.dbWriter = dbWriter;
+        this.syncService = syncService;
+        this.timeout = properties.timeout();
+
+        this.registry = registry;
+        this.coverageHits = registry.counter("sync.coverage", "result", "hit");
+        this.coverageMisses = registry.counter("sync.coverage", "result", "miss");
+    }
+
+    /**
+     * Ensures the default recent time window is covered.
+     *
+     * @return completion once the window is covered
+     */
+    public Mono<Void> syncLastDays() {
+        LocalDate end = LocalDate.now();
+        return syncRange(end.minusDays(SyncService.DEFAULT_DAYS), end, null, false);
+    }
+
+    /**
+     * Ensures a single day is covered for one currency or all currencies.
+     *
+     * @param date     date to sync
+     * @param currency upper-case currency code; null syncs all currencies
+     * @return completion once the day is covered
+     */
+    public Mono<Void> syncDay(LocalDate date, String currency) {
+        return syncRange(date, date, currency, false);
+    }
+
+    /**
+     * Ensures an inclusive date range is covered, fetching it from Bundesbank if it is not or if
+     * forced.
+     *
+     * @param start    start date (inclusive)
+     * @param end      end date (inclusive)
+     * @param currency upper-case currency code; null syncs all currencies
+     * @param force    whether to fetch even if the range is covered
+     * @return completion once the range is covered or the fetch found nothing to store
+     * @throws IllegalArgumentException if the date range is invalid
+     */
+    public Mono<Void> syncRange(LocalDate start, LocalDate end, String currency, boolean force) {
+        SyncService.validateInput(start, end);
+        if (!force) {
+            if (this.store.isCovered(start, end, currency)) {
+                this.coverageHits.increment();
+                return Mono.empty();
+            }
+            this.coverageMisses.increment();
+        }
+        Key key = new Key(start, end, SyncCoverageId.scopeOf(currency));
+        return this.inFlight.computeIfAbsent(key, k -> fetchAndStore(k, currency));
+    }
+
+    private Mono<Void> fetchAndStore(Key key, String currency) {
+        return Mono.defer(() -> {
+                    Timer.Sample sample = Timer.start(this.registry);
+                    return this.bankClient.fetchRates(key.start(), key.end(), currency)
+                            .publishOn(Schedulers.boundedElastic())
+                            .map(rows -> write(rows, key.scope()))
+                            .timeout(this.timeout)
+                            .doOnSuccess(result -> {
+                                sample.stop(syncTimer(currency, "synced"));
+                                LOG.info("Sync completed with inserted={}, updated={}, unchanged={} rates ({}..{}, {})",
+                                        result.inserted(), result.updated(), result.unchanged(),
+                                        key.start(), key.end(), key.scope());
+                            })
+                            .doOnError(e -> sample.stop(syncTimer(currency, "failed")));
+                })
+                .then()
+                // before subscribers see the outcome, so a sync started after it fetches anew
+                .doOnTerminate(() -> this.inFlight.remove(key))
+                .cache();
+    }
+
+    private WriteResult write(List<ExchangeRateRow> rows, String scope) {
+        if (rows.isEmpty()) {
+            return WriteResult.NONE;
+        }
+        Set<LocalDate> dates = new TreeSet<>();
+        rows.forEach(row -> dates.add(row.date()));
+        return this.syncService.writeExclusively(() -> {
+            WriteResult result = this.dbWriter.saveBatch(rows, scope);
+            this.dbWriter.recordCoverage(dates, scope);
+            return result;
+        });
+    }
+
+    private Timer syncTimer(String currency, String outcome) {
+        return Timer.builder("sync.range")
+                .description("Sync duration from coverage check to last commit")
+                .tag("scope", currency == null ? "all" : "single")
+                .tag("outcome", outcome)
+                .register(this.registry);
+    }
+}
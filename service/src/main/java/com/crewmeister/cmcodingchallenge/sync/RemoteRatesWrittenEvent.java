@@ -0,0 +1,32 @@
+package com.crewmeister.cmcodingchallenge.sync;
+
+import java.time.LocalDate;
+
+/**
+ * Published when the data version shows that another node sharing the database has committed
+ * rates. Listeners that keep derived copies of the rates reload the range, rates and coverage alike.
+ *
+ * @param firstDate first changed date, null when everything must be reloaded
+ * @param lastDate  last changed date, null when everything must be reloaded
+ */
+public record RemoteRatesWrittenEvent(LocalDate firstDate, LocalDate lastDate) {
+
+    /**
+     * Creates an event for a node that fell behind the retained changes and cannot tell which
+     * dates changed.
+     *
+     * @return event covering all dates
+     */
+    public static RemoteRatesWrittenEvent everything() {
+        return new RemoteRatesWrittenEvent(null, null);
+    }
+
+    /**
+     * Tells whether all dates must be reloaded.
+     *
+     * @return whether the change is unbounded
+     */
+    public boolean isEverything() {
+        return this.firstDate == null;
+    }
+}
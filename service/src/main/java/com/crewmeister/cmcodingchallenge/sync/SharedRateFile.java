@@ -0,0 +1,274 @@
+package com.crewmeister.cmcodingchallenge.sync;
+
+import com.crewmeister.cmcodingchallenge.model.ExchangeRateEntity;
+import com.crewmeister.cmcodingchallenge.model.ExchangeRateRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.VarHandle;
+import java.math.RoundingMode;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import static com.crewmeister.cmcodingchallenge.sync.SharedRateReader.CURRENCIES;
+import static com.crewmeister.cmcodingchallenge.sync.SharedRateReader.CURRENCY_BYTES;
+import static com.crewmeister.cmcodingchallenge.sync.SharedRateReader.CURRENCY_CAPACITY;
+import static com.crewmeister.cmcodingchallenge.sync.SharedRateReader.CURRENCY_COUNT;
+import static com.crewmeister.cmcodingchallenge.sync.SharedRateReader.DATE_CAPACITY;
+import static com.crewmeister.cmcodingchallenge.sync.SharedRateReader.FIRST_EPOCH_DAY;
+import static com.crewmeister.cmcodingchallenge.sync.SharedRateReader.LAYOUT_VERSION;
+import static com.crewmeister.cmcodingchallenge.sync.SharedRateReader.LONGS;
+import static com.crewmeister.cmcodingchallenge.sync.SharedRateReader.MAGIC;
+import static com.crewmeister.cmcodingchallenge.sync.SharedRateReader.SEQUENCE;
+
+/**
+ * Maintains the memory-mapped rate matrix that {@link SharedRateReader}s in other processes on the
+ * same host read without HTTP calls. The file is loaded from the database at startup and the
+ * affected days are rewritten after every committed sync, whichever node ran it. Each update is one
+ * seqlock write section, so readers see it either completely or not at all. Does nothing unless
+ * {@code fx.shared-rates.enabled} is set.
+ */
+@Component
+// as for the RateStore: no change of another node is missed during the load, and a snapshot is part of it
+@DependsOn({"dataVersionPoller", "snapshotService"})
+public class SharedRateFile {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SharedRateFile.class);
+
+    private record Rate(int dateIndex, String currency, long value) {
+    }
+
+    private final ExchangeRateRepository repo;
+    private final long firstEpochDay;
+    private final int dateCapacity;
+    private final int currencyCapacity;
+    private final int matrix;
+    private final MappedByteBuffer buffer;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Map<String, Integer> currencyIndexes = new HashMap<>();
+
+    /**
+     * Creates the file, or reuses an existing one of the same layout, and loads every stored rate.
+     *
+     * @param repo       exchange rate repository
+     * @param properties shared rate file settings
+     * @throws UncheckedIOException if the file cannot be created or mapped
+     */
+    public SharedRateFile(ExchangeRateRepository repo, SharedRateProperties properties) {
+        this.repo = repo;
+        this.firstEpochDay = properties.firstDate().toEpochDay();
+        this.dateCapacity = properties.days();
+        this.currencyCapacity = properties.currencies();
+        this.matrix = SharedRateReader.matrixOffset(this.currencyCapacity);
+        if (!properties.enabled()) {
+            this.buffer = null;
+            return;
+        }
+        try {
+            this.buffer = map(properties.path());
+        } catch (IOException e) {
+            throw new UncheckedIOException("mapping shared rate file " + properties.path() + " failed", e);
+        }
+        int stored = replace(null, repo.findAll());
+        LOG.info("Shared rate file {} holds {} rates of {} currencies", properties.path(), stored,
+                this.buffer.getInt(CURRENCY_COUNT));
+    }
+
+    /**
+     * Rewrites the days of a committed sync from the database.
+     *
+     * @param event dates that were synced
+     */
+    @TransactionalEventListener
+    public void onRatesWritten(RatesWrittenEvent event) {
+        if (this.buffer != null) {
+            updateQuietly(event.dates(), () -> this.repo.findByIdDateIn(event.dates()));
+        }
+    }
+
+    /**
+     * Rewrites the days another node has synced.
+     *
+     * @param event changed date range, or all dates
+     */
+    @EventListener
+    public void onRemoteRatesWritten(RemoteRatesWrittenEvent event) {
+        if (this.buffer == null) {
+            return;
+        }
+        if (event.isEverything()) {
+            updateQuietly(null, this.repo::findAll);
+        } else {
+            updateQuietly(event.firstDate().datesUntil(event.lastDate().plusDays(1)).toList(),
+                    () -> this.repo.findByIdDateBetween(event.firstDate(), event.lastDate()));
+        }
+    }
+
+    /**
+     * Replaces whole days of the matrix in one write section: their old rates are cleared and the
+     * given ones stored, so a currency dropped from a day disappears from it.
+     *
+     * @param dates    days to replace, or null to replace the whole matrix
+     * @param entities new rates of those days
+     * @return number of rates stored
+     */
+    int replace(Collection<LocalDate> dates, Collection<ExchangeRateEntity> entities) {
+        // converted before the write section starts, so a bad rate leaves the file untouched
+        List<Rate> rates = new ArrayList<>(entities.size());
+        int outOfRange = 0;
+        for (ExchangeRateEntity entity : entities) {
+            long dateIndex = entity.getDate().toEpochDay() - this.firstEpochDay;
+            if (dateIndex < 0 || dateIndex >= this.dateCapacity) {
+                outOfRange++;
+                continue;
+            }
+            long value = entity.getRate().setScale(SharedRateReader.SCALE, RoundingMode.HALF_EVEN)
+                    .unscaledValue().longValueExact();
+            rates.add(new Rate((int) dateIndex, entity.getCurrency(), value));
+        }
+        if (outOfRange > 0) {
+            LOG.warn("Skipped {} rates outside the {} days of the shared rate file", outOfRange, this.dateCapacity);
+        }
+        this.writeLock.lock();
+        try {
+            long start = ((long) LONGS.getOpaque(this.buffer, SEQUENCE) + 1) | 1;
+            LONGS.setOpaque(this.buffer, SEQUENCE, start);
+            // readers that see any of the writes below also see the odd sequence
+            VarHandle.storeStoreFence();
+            if (dates == null) {
+                clearRows(0, this.dateCapacity);
+            } else {
+                for (LocalDate date : dates) {
+                    long dateIndex = date.toEpochDay() - this.firstEpochDay;
+                    if (dateIndex >= 0 && dateIndex < this.dateCapacity) {
+                        clearRows((int) dateIndex, 1);
+                    }
+                }
+            }
+            int stored = 0;
+            for (Rate rate : rates) {
+                int currencyIndex = currencyIndex(rate.currency());
+                if (currencyIndex >= 0) {
+                    this.buffer.putLong(this.matrix + (rate.dateIndex() * this.currencyCapacity + currencyIndex) * Long.BYTES,
+                            rate.value());
+                    stored++;
+                }
+            }
+            LONGS.setRelease(this.buffer, SEQUENCE, start + 1);
+            return stored;
+        } finally {
+            this.writeLock.unlock();
+        }
+    }
+
+    private void updateQuietly(Collection<LocalDate> dates, Supplier<List<ExchangeRateEntity>> query) {
+        try {
+            replace(dates, query.get());
+        } catch (RuntimeException e) {
+            // the database is unaffected; the file catches up with the next update of these days
+            LOG.warn("Updating the shared rate file failed", e);
+        }
+    }
+
+    private int currencyIndex(String currency) {
+        Integer known = this.currencyIndexes.get(currency);
+        if (known != null) {
+            return known;
+        }
+        int code = SharedRateReader.pack(currency);
+        int index = this.buffer.getInt(CURRENCY_COUNT);
+        if (index >= this.currencyCapacity || code == 0) {
+            LOG.warn("No room for currency {} in the shared rate file", currency);
+            // remembered, so the warning is logged once
+            this.currencyIndexes.put(currency, -1);
+            return -1;
+        }
+        this.buffer.putInt(CURRENCIES + index * CURRENCY_BYTES, code);
+        this.currencyIndexes.put(currency, index);
+        this.buffer.putInt(CURRENCY_COUNT, index + 1);
+        return index;
+    }
+
+    private void clearRows(int firstRow, int rows) {
+        int from = this.matrix + firstRow * this.currencyCapacity * Long.BYTES;
+        int to = from + rows * this.currencyCapacity * Long.BYTES;
+        for (int offset = from; offset < to; offset += Long.BYTES) {
+            this.buffer.putLong(offset, SharedRateReader.NO_RATE);
+        }
+    }
+
+    private MappedByteBuffer map(Path path) throws IOException {
+        long size = SharedRateReader.fileSize(this.dateCapacity, this.currencyCapacity);
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("shared rate file of " + size + " bytes exceeds 2 GiB");
+        }
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        if (Files.exists(path) && !hasLayout(path, size)) {
+            // a new inode rather than a resized one, so readers mapping the old file never fault
+            Files.delete(path);
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            if (mapped.getInt(0) == MAGIC) {
+                readCurrencies(mapped);
+            } else {
+                mapped.putLong(FIRST_EPOCH_DAY, this.firstEpochDay);
+                mapped.putInt(DATE_CAPACITY, this.dateCapacity);
+                mapped.putInt(CURRENCY_CAPACITY, this.currencyCapacity);
+                mapped.putInt(4, LAYOUT_VERSION);
+                mapped.putInt(0, MAGIC);
+            }
+            return mapped;
+        }
+    }
+
+    private boolean hasLayout(Path path, long size) throws IOException {
+        if (Files.size(path) != size) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, CURRENCIES);
+            return header.getInt(0) == MAGIC && header.getInt(4) == LAYOUT_VERSION
+                    && header.getLong(FIRST_EPOCH_DAY) == this.firstEpochDay
+                    && header.getInt(DATE_CAPACITY) == this.dateCapacity
+                    && header.getInt(CURRENCY_CAPACITY) == this.currencyCapacity;
+        }
+    }
+
+    private void readCurrencies(MappedByteBuffer mapped) {
+        // columns keep their currency across restarts; the load at startup rewrites every row
+        int count = mapped.getInt(CURRENCY_COUNT);
+        byte[] code = new byte[CURRENCY_BYTES];
+        for (int i = 0; i < count; i++) {
+            mapped.get(CURRENCIES + i * CURRENCY_BYTES, code);
+            int length = 0;
+            while (length < CURRENCY_BYTES && code[length] != 0) {
+                length++;
+            }
+            this.currencyIndexes.put(new String(code, 0, length, StandardCharsets.US_ASCII), i);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.crewmeister.cmcodingchallenge.sync;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+/**
+ * Settings for the memory-mapped rate file shared with other processes on the same host.
+ *
+ * @param enabled    whether this node maintains the file
+ * @param path       shared rate file, created if missing
+ * @param firstDate  date of the first matrix row
+ * @param days       number of matrix rows, one per calendar day from the first date
+ * @param currencies number of matrix columns, one per currency in order of first appearance
+ */
+@ConfigurationProperties(prefix = "fx.shared-rates")
+public record SharedRateProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("./data/rates.shm") Path path,
+        @DefaultValue("1999-01-01") LocalDate firstDate,
+        @DefaultValue("16384") int days,
+        @DefaultValue("64") int currencies
+) {
+}
@@ -0,0 +1,183 @@
+package com.crewmeister.cmcodingchallenge.sync;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+
+/**
+ * Lock-free reader of the shared rate file maintained by {@link SharedRateFile}, for processes on
+ * the same host that want rates without HTTP calls or a copy of their own. Lookups allocate nothing
+ * on the heap and return rates as fixed-point longs.
+ * <p>
+ * Layout, big-endian:
+ * <pre>
+ * offset 0   int   magic "FXSR"
+ *        4   int   layout version
+ *        8   long  sequence, odd while the writer is updating
+ *        16  long  epoch day of date index 0
+ *        24  int   date capacity
+ *        28  int   currency capacity
+ *        32  int   currency count
+ *        64        currency table: 4 bytes per currency, ASCII code padded with zeros
+ *        then      rate matrix: date index x currency index, 8 bytes each, rate in units of 10^-8, 0 if absent
+ * </pre>
+ * Readers follow the seqlock protocol: read the sequence, retry while it is odd, read the values,
+ * and retry if the sequence has changed meanwhile. A reader therefore never sees a sync half applied.
+ * Instances are thread-safe.
+ */
+public final class SharedRateReader {
+
+    /** Returned when no rate is stored; real rates are positive. */
+    public static final long NO_RATE = 0;
+
+    /** Decimal places of the fixed-point rates. */
+    public static final int SCALE = RateSnapshot.SCALE;
+
+    static final int MAGIC = 0x46585352;
+    static final int LAYOUT_VERSION = 1;
+    static final int SEQUENCE = 8;
+    static final int FIRST_EPOCH_DAY = 16;
+    static final int DATE_CAPACITY = 24;
+    static final int CURRENCY_CAPACITY = 28;
+    static final int CURRENCY_COUNT = 32;
+    static final int CURRENCIES = 64;
+    static final int CURRENCY_BYTES = 4;
+
+    static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    private final ByteBuffer buffer;
+    private final long firstEpochDay;
+    private final int dateCapacity;
+    private final int currencyCapacity;
+    private final int matrix;
+
+    SharedRateReader(ByteBuffer buffer) {
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != LAYOUT_VERSION) {
+            throw new IllegalStateException("not a shared rate file of layout " + LAYOUT_VERSION);
+        }
+        this.buffer = buffer;
+        this.firstEpochDay = buffer.getLong(FIRST_EPOCH_DAY);
+        this.dateCapacity = buffer.getInt(DATE_CAPACITY);
+        this.currencyCapacity = buffer.getInt(CURRENCY_CAPACITY);
+        this.matrix = matrixOffset(this.currencyCapacity);
+        if (buffer.capacity() < fileSize(this.dateCapacity, this.currencyCapacity)) {
+            throw new IllegalStateException("truncated shared rate file");
+        }
+    }
+
+    /**
+     * Maps a shared rate file read-only. The mapping stays valid while the service rewrites the
+     * file in place.
+     *
+     * @param path shared rate file
+     * @return reader over the mapping
+     * @throws IOException           if the file cannot be mapped
+     * @throws IllegalStateException if the file is not a shared rate file
+     */
+    public static SharedRateReader open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new SharedRateReader(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Returns the rate of a currency on a date.
+     *
+     * @param date     rate date
+     * @param currency upper-case currency code
+     * @return rate in units of 10^-{@value #SCALE}, or {@link #NO_RATE}
+     */
+    public long rate(LocalDate date, CharSequence currency) {
+        return rate(date.toEpochDay(), currency);
+    }
+
+    /**
+     * Returns the rate of a currency on a date given as epoch day.
+     *
+     * @param epochDay rate date as days since 1970-01-01
+     * @param currency upper-case currency code
+     * @return rate in units of 10^-{@value #SCALE}, or {@link #NO_RATE}
+     */
+    public long rate(long epochDay, CharSequence currency) {
+        long dateIndex = epochDay - this.firstEpochDay;
+        if (dateIndex < 0 || dateIndex >= this.dateCapacity) {
+            return NO_RATE;
+        }
+        int code = pack(currency);
+        if (code == 0) {
+            return NO_RATE;
+        }
+        while (true) {
+            long sequence = (long) LONGS.getAcquire(this.buffer, SEQUENCE);
+            if ((sequence & 1) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            int currencyIndex = currencyIndex(code);
+            long rate = currencyIndex < 0
+                    ? NO_RATE
+                    : this.buffer.getLong(this.matrix + (int) (dateIndex * this.currencyCapacity + currencyIndex) * Long.BYTES);
+            VarHandle.loadLoadFence();
+            if ((long) LONGS.getVolatile(this.buffer, SEQUENCE) == sequence) {
+                return rate;
+            }
+        }
+    }
+
+    /**
+     * Returns the sequence number, which grows by two with every update. Readers can poll it to
+     * tell whether anything changed.
+     *
+     * @return current sequence number, odd while an update is in progress
+     */
+    public long sequence() {
+        return (long) LONGS.getAcquire(this.buffer, SEQUENCE);
+    }
+
+    private int currencyIndex(int code) {
+        // read inside the seqlock section; a torn count is clamped and the result discarded on retry
+        int count = Math.min(Math.max(this.buffer.getInt(CURRENCY_COUNT), 0), this.currencyCapacity);
+        for (int i = 0; i < count; i++) {
+            if (this.buffer.getInt(CURRENCIES + i * CURRENCY_BYTES) == code) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Packs a currency code as its table entry, ASCII bytes padded with zeros read as a big-endian int.
+     *
+     * @param currency currency code
+     * @return packed code, or 0 if the code cannot be in the table
+     */
+    static int pack(CharSequence currency) {
+        int length = currency.length();
+        if (length == 0 || length > CURRENCY_BYTES) {
+            return 0;
+        }
+        int code = 0;
+        for (int i = 0; i < CURRENCY_BYTES; i++) {
+            int c = i < length ? currency.charAt(i) : 0;
+            if (c > 0x7f) {
+                return 0;
+            }
+            code = code << 8 | c;
+        }
+        return code;
+    }
+
+    static int matrixOffset(int currencyCapacity) {
+        return CURRENCIES + currencyCapacity * CURRENCY_BYTES;
+    }
+
+    static long fileSize(int dateCapacity, int currencyCapacity) {
+        return matrixOffset(currencyCapacity) + (long) dateCapacity * currencyCapacity * Long.BYTES;
+    }
+}
@@ -0,0 +1,19 @@
+package com.crewmeister.cmcodingchallenge.sync;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+
+/**
+ * Settings for binary rate snapshots.
+ *
+ * @param path            snapshot file written by the export and read at startup
+ * @param importOnStartup whether an empty database is loaded from the snapshot file at startup, if it exists
+ */
+@ConfigurationProperties(prefix = "fx.snapshot")
+public record SnapshotProperties(
+        @DefaultValue("./data/rates.snapshot") Path path,
+        @DefaultValue("true") boolean importOnStartup
+) {
+}
@@ -0,0 +1,137 @@
+package com.crewmeister.cmcodingchallenge.sync;
+
+import com.crewmeister.cmcodingchallenge.bank.ExchangeRateRow;
+import com.crewmeister.cmcodingchallenge.model.ExchangeRateRepository;
+import com.crewmeister.cmcodingchallenge.model.SyncCoverageId;
+import com.crewmeister.cmcodingchallenge.model.SyncCoverageRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Exports all stored rates to a {@link RateSnapshot} on demand, and loads a snapshot into an empty
+ * database at startup, so a new node serves complete history without fetching it from Bundesbank.
+ * The import runs while the application context starts, before the web server accepts requests.
+ */
+@Service
+public class SnapshotService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SnapshotService.class);
+
+    /**
+     * Outcome of an export or import.
+     *
+     * @param path       snapshot file
+     * @param rates      number of rates
+     * @param dates      number of dates covered for all currencies
+     * @param bytes      size of the snapshot file
+     * @param tookMillis time taken
+     */
+    public record Result(String path, long rates, long dates, long bytes, long tookMillis) {
+    }
+
+    private final ExchangeRateRepository repo;
+    private final SyncCoverageRepository coverageRepo;
+    private final DbWriter dbWriter;
+    private final SyncService syncService;
+    private final SnapshotProperties properties;
+
+    /**
+     * Creates the snapshot service.
+     *
+     * @param repo         exchange rate repository
+     * @param coverageRepo repository of synced dates per scope
+     * @param dbWriter     writer that imports snapshot rates
+     * @param syncService  sync service whose lock and lease the import takes
+     * @param properties   snapshot settings
+     */
+    public SnapshotService(ExchangeRateRepository repo, SyncCoverageRepository coverageRepo, DbWriter dbWriter,
+                           SyncService syncService, SnapshotProperties properties) {
+        this.repo = repo;
+        this.coverageRepo = coverageRepo;
+        this.dbWriter = dbWriter;
+        this.syncService = syncService;
+        this.properties = properties;
+    }
+
+    /**
+     * Writes all stored rates and the dates covered for all currencies to the snapshot file,
+     * replacing it atomically.
+     *
+     * @return exported counts and file size
+     * @throws UncheckedIOException if the snapshot cannot be written
+     */
+    @Transactional(readOnly = true)
+    public Result export() {
+        long startedAt = System.nanoTime();
+        List<ExchangeRateRow> rows = this.repo.findAll().stream()
+                .map(e -> new ExchangeRateRow(e.getDate(), e.getCurrency(), e.getRate()))
+                .toList();
+        List<LocalDate> covered = this.coverageRepo.findAll().stream()
+                .filter(c -> SyncCoverageId.ALL_CURRENCIES.equals(c.getId().getScope()))
+                .map(c -> c.getId().getDate())
+                .toList();
+        try {
+            long bytes = RateSnapshot.write(this.properties.path(), rows, covered);
+            Result result = new Result(this.properties.path().toString(), rows.size(), covered.size(), bytes,
+                    elapsedMillis(startedAt));
+            LOG.info("Exported {} rates and {} covered dates to {} ({} bytes)",
+                    result.rates(), result.dates(), result.path(), result.bytes());
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException("writing rate snapshot " + this.properties.path() + " failed", e);
+        }
+    }
+
+    /**
+     * Loads the snapshot file into the database if the database holds no rates yet. A missing or
+     * unreadable snapshot leaves the database empty, to be filled by syncs as without one.
+     *
+     * @return imported counts, or null if nothing was imported
+     */
+    public Result importIfEmpty() {
+        Path path = this.properties.path();
+        if (!Files.isRegularFile(path) || this.repo.findMaxDate() != null) {
+            return null;
+        }
+        long startedAt = System.nanoTime();
+        try {
+            RateSnapshot.Contents contents = RateSnapshot.read(path);
+            long decodedMillis = elapsedMillis(startedAt);
+            WriteResult written = this.syncService.writeExclusively(
+                    () -> this.dbWriter.importRates(contents.rows(), contents.coveredDates()));
+            if (written.inserted() == 0) {
+                // another node filled the database first
+                return null;
+            }
+            Result result = new Result(path.toString(), written.inserted(), contents.coveredDates().size(),
+                    Files.size(path), elapsedMillis(startedAt));
+            LOG.info("Imported {} rates and {} covered dates from {} in {} ms (decoded in {} ms)",
+                    result.rates(), result.dates(), result.path(), result.tookMillis(), decodedMillis);
+            return result;
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Importing rate snapshot {} failed, syncing from Bundesbank instead", path, e);
+            return null;
+        }
+    }
+
+    @PostConstruct
+    void importOnStartup() {
+        if (this.properties.importOnStartup()) {
+            importIfEmpty();
+        }
+    }
+
+    private static long elapsedMillis(long startedAt) {
+        return (System.nanoTime() - startedAt) / 1_000_000;
+    }
+}
@@ -0,0 +1,198 @@
+package com.crewmeister.cmcodingchallenge.sync;
+
+import com.crewmeister.cmcodingchallenge.bank.Deadline;
+import com.crewmeister.cmcodingchallenge.model.SyncLeaseEntity;
+import com.crewmeister.cmcodingchallenge.model.SyncLeaseRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Database lease that lets one node at a time sync into a database shared by several replicas.
+ * {@link SyncService} takes it after its process-local lock, waiting while another node holds it,
+ * and releases it after the sync has committed. A node that waited re-checks coverage once it holds
+ * the lease, so it finds the range synced by the other node instead of calling Bundesbank again.
+ * <p>
+ * Every write transaction renews the lease, so a long sync keeps it as long as it keeps writing;
+ * the ttl only has to outlast the longest gap between writes, e.g. the Bundesbank call before the
+ * first batch. Each acquisition issues a new fencing token. {@link DbWriter} checks the token inside every write
+ * transaction while locking the lease row, so a node whose lease expired mid-sync and was taken over
+ * has its writes rolled back, and the lease cannot be taken over between such a check and its commit.
+ */
+@Component
+public class SyncLease {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SyncLease.class);
+
+    static final String NAME = "bundesbank-sync";
+    private static final long NOT_HELD = 0;
+
+    private final SyncLeaseRepository repo;
+    private final TransactionTemplate transactions;
+    private final boolean enabled;
+    private final Duration ttl;
+    private final Duration pollInterval;
+    private final String owner;
+
+    private final MeterRegistry registry;
+    private final Counter fenced;
+
+    private volatile boolean created;
+    private volatile long token = NOT_HELD;
+
+    /**
+     * Creates the sync lease.
+     *
+     * @param repo               lease repository
+     * @param transactionManager transaction manager for taking the lease and reading its token at once
+     * @param properties         lease settings
+     * @param registry           meter registry for lease waits and fenced writes
+     */
+    public SyncLease(SyncLeaseRepository repo, PlatformTransactionManager transactionManager,
+                     SyncLeaseProperties properties, MeterRegistry registry) {
+        this.repo = repo;
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.enabled = properties.enabled();
+        this.ttl = properties.ttl();
+        this.pollInterval = properties.pollInterval();
+        this.owner = properties.owner().isBlank()
+                ? System.getenv().getOrDefault("HOSTNAME", "node") + "-" + UUID.randomUUID().toString().substring(0, 8)
+                : properties.owner();
+
+        this.registry = registry;
+        this.fenced = registry.counter("sync.lease.fenced");
+    }
+
+    /**
+     * Takes the lease, waiting while another node holds it. Callers hold the process-local sync
+     * lock, so at most one thread per node holds the lease.
+     *
+     * @param deadline time by which the lease must be taken
+     * @return fencing token of this acquisition, 0 when leasing is disabled
+     * @throws SyncInProgressException if another node still holds the lease at the deadline
+     */
+    public long acquire(Deadline deadline) {
+        if (!this.enabled) {
+            return NOT_HELD;
+        }
+        Timer.Sample sample = Timer.start(this.registry);
+        createIfAbsent();
+        boolean waited = false;
+        while (true) {
+            long taken = tryTake();
+            if (taken != NOT_HELD) {
+                this.token = taken;
+                sample.stop(acquireTimer(waited ? "waited" : "acquired"));
+                return taken;
+            }
+            waited = true;
+            if (deadline.isExpired()) {
+                sample.stop(acquireTimer("timeout"));
+                throw new SyncInProgressException("sync in progress on another node, retry");
+            }
+            try {
+                Thread.sleep(deadline.capped(this.pollInterval));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                sample.stop(acquireTimer("interrupted"));
+                throw new SyncInProgressException("interrupted while waiting for the sync lease");
+            }
+        }
+    }
+
+    /**
+     * Releases the lease so other nodes can take it without waiting for it to expire. A lease that
+     * was taken over in the meantime is left to its new holder.
+     */
+    public void release() {
+        long held = this.token;
+        if (held == NOT_HELD) {
+            return;
+        }
+        this.token = NOT_HELD;
+        try {
+            if (this.repo.release(NAME, held, Instant.now()) == 0) {
+                LOG.warn("Sync lease {} had been taken over by another node before it was released", held);
+            }
+        } catch (RuntimeException e) {
+            // it expires on its own
+            LOG.warn("Releasing sync lease {} failed", held, e);
+        }
+    }
+
+    /**
+     * Checks that this node still holds the lease it acquired, locking the lease row until the
+     * surrounding write transaction ends, and renews it for another ttl when that transaction
+     * commits. Must be called inside that transaction.
+     *
+     * @throws SyncInProgressException if another node has taken the lease over since
+     * @throws IllegalStateException   if this node does not hold the lease
+     */
+    public void verify() {
+        if (!this.enabled) {
+            return;
+        }
+        long held = this.token;
+        if (held == NOT_HELD) {
+            throw new IllegalStateException("sync lease not held");
+        }
+        SyncLeaseEntity lease = this.repo.lockByName(NAME).orElse(null);
+        if (lease == null || lease.getToken() != held) {
+            this.fenced.increment();
+            throw new SyncInProgressException("sync lease " + held + " was taken over by another node, retry");
+        }
+        lease.renew(Instant.now().plus(this.ttl));
+    }
+
+    /**
+     * Returns the identifier of this node in the lease table.
+     *
+     * @return owner identifier
+     */
+    public String owner() {
+        return this.owner;
+    }
+
+    private long tryTake() {
+        Instant now = Instant.now();
+        try {
+            Long taken = this.transactions.execute(status -> this.repo.take(NAME, this.owner, now, now.plus(this.ttl)) == 1
+                    ? this.repo.findById(NAME).map(SyncLeaseEntity::getToken).orElseThrow()
+                    : NOT_HELD);
+            return taken == null ? NOT_HELD : taken;
+        } catch (PessimisticLockingFailureException e) {
+            // the holder is committing a write, which keeps the row locked
+            return NOT_HELD;
+        }
+    }
+
+    private void createIfAbsent() {
+        if (this.created) {
+            return;
+        }
+        try {
+            this.repo.createIfAbsent(NAME, Instant.EPOCH);
+        } catch (DataIntegrityViolationException e) {
+            // another node created it at the same time
+        }
+        this.created = true;
+    }
+
+    private Timer acquireTimer(String outcome) {
+        return Timer.builder("sync.lease.acquire")
+                .description("Time to take the database sync lease")
+                .tag("outcome", outcome)
+                .register(this.registry);
+    }
+}
@@ -0,0 +1,24 @@
+package com.crewmeister.cmcodingchallenge.sync;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings for the database lease that lets one node at a time sync into a shared database.
+ *
+ * @param enabled      whether syncs take the lease; without it only the process-local lock applies
+ * @param ttl          time after which a lease that was neither renewed by a write nor released may be taken
+ *                     over; longer than {@code fx.sync.timeout}, which bounds the wait for the first write
+ * @param pollInterval wait between attempts while another node holds the lease
+ * @param owner        identifier of this node in the lease table; empty generates a unique one
+ */
+@ConfigurationProperties(prefix = "fx.sync.lease")
+public record SyncLeaseProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("60s") Duration ttl,
+        @DefaultValue("200ms") Duration pollInterval,
+        @DefaultValue("") String owner
+) {
+}
@@ -0,0 +1,234 @@
+package com.crewmeister.cmcodingchallenge.sync;
+
+import com.crewmeister.cmcodingchallenge.bank.BankService;
+import com.crewmeister.cmcodingchallenge.bank.Deadline;
+import com.crewmeister.cmcodingchallenge.bank.ExchangeRateRow;
+import com.crewmeister.cmcodingchallenge.jfr.SyncWriteEvent;
+import com.crewmeister.cmcodingchallenge.model.SyncCoverageId;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Streams parsed rows from the Bundesbank payload through a bounded queue into a writer
+ * that commits about every {@code fx.sync.batch-size} rows, so writing overlaps with parsing and
+ * the number of rows held in memory stays bounded by the queue and one batch. Batches are cut
+ * between dates, so each one holds complete days for the writer's per-day change detection.
+ */
+@Component
+public class SyncPipeline {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SyncPipeline.class);
+    private static final ExchangeRateRow END_OF_ROWS = new ExchangeRateRow(LocalDate.MIN, "", null);
+    private static final long OFFER_WAIT_MILLIS = 50;
+
+    private final BankService bankService;
+    private final DbWriter dbWriter;
+    private final int batchSize;
+    private final int queueCapacity;
+    private final int stagingMinDays;
+    private final ExecutorService writerExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Timer directWrites;
+    private final Timer stagedWrites;
+    private final Timer publishes;
+    private final Counter inserted;
+    private final Counter updated;
+    private final Counter unchanged;
+
+    /**
+     * Creates the sync pipeline.
+     *
+     * @param bankService service used to fetch and parse Bundesbank data
+     * @param dbWriter    writer used for batched transactional persistence
+     * @param properties  sync settings
+     * @param registry    meter registry for write latency and row outcomes
+     */
+    public SyncPipeline(BankService bankService, DbWriter dbWriter, SyncProperties properties,
+                        MeterRegistry registry) {
+        this.bankService = bankService;
+        this.dbWriter = dbWriter;
+        this.batchSize = Math.max(1, properties.batchSize());
+        this.queueCapacity = Math.max(1, properties.queueCapacity());
+        this.stagingMinDays = properties.stagingMinDays();
+
+        this.directWrites = writeTimer(registry, "direct");
+        this.stagedWrites = writeTimer(registry, "stage");
+        this.publishes = writeTimer(registry, "publish");
+        this.inserted = registry.counter("sync.rows", "result", "inserted");
+        this.updated = registry.counter("sync.rows", "result", "updated");
+        this.unchanged = registry.counter("sync.rows", "result", "unchanged");
+    }
+
+    private static Timer writeTimer(MeterRegistry registry, String mode) {
+        return Timer.builder("sync.write")
+                .description("Time per DB write transaction including commit")
+                .tag("mode", mode)
+                .register(registry);
+    }
+
+    /**
+     * Fetches, parses and writes rates for an inclusive date range. Dates are recorded as
+     * covered only after every batch has been committed; if any stage fails, already
+     * committed batches stay but no coverage is recorded, so the next sync fetches again.
+     * Ranges of at least {@code fx.sync.staging-min-days} days are staged instead and published
+     * in one short transaction at the end, so a failure leaves {@code exchange_rate} untouched.
+     * Rows a crashed node left in staging are dropped before anything is written.
+     *
+     * @param start    start date (inclusive)
+     * @param end      end date (inclusive)
+     * @param currency upper-case currency code; null syncs all currencies
+     * @param deadline caller deadline for the Bundesbank call
+     * @return inserted, updated and unchanged row counts
+     */
+    public WriteResult run(LocalDate start, LocalDate end, String currency, Deadline deadline) {
+        BlockingQueue<ExchangeRateRow> queue = new ArrayBlockingQueue<>(this.queueCapacity);
+        AtomicBoolean aborted = new AtomicBoolean();
+        String scope = SyncCoverageId.scopeOf(currency);
+        long days = ChronoUnit.DAYS.between(start, end) + 1;
+        String syncId = this.stagingMinDays > 0 && days >= this.stagingMinDays ? UUID.randomUUID().toString() : null;
+        int abandoned = this.dbWriter.discardAbandonedStaged();
+        if (abandoned > 0) {
+            LOG.warn("Discarded {} rates staged by a sync that never finished", abandoned);
+        }
+        Future<WriteResult> writer = this.writerExecutor.submit(() -> drain(queue, aborted, scope, syncId));
+        try {
+            this.bankService.streamRates(start, end, currency, deadline, row -> enqueue(queue, row, writer));
+            enqueue(queue, END_OF_ROWS, writer);
+            WriteResult result = await(writer);
+            this.inserted.increment(result.inserted());
+            this.updated.increment(result.updated());
+            this.unchanged.increment(result.unchanged());
+            return result;
+        } catch (RuntimeException e) {
+            // Stop the writer without interrupting it mid-commit, then surface the first failure
+            aborted.set(true);
+            queue.clear();
+            queue.offer(END_OF_ROWS);
+            awaitQuietly(writer);
+            if (syncId != null) {
+                try {
+                    this.dbWriter.discardStaged(syncId);
+                } catch (RuntimeException discardFailure) {
+                    e.addSuppressed(discardFailure);
+                }
+            }
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        this.writerExecutor.shutdownNow();
+    }
+
+    /**
+     * Writes queued rows directly, or stages them when {@code syncId} is set and publishes at the end.
+     */
+    private WriteResult drain(BlockingQueue<ExchangeRateRow> queue, AtomicBoolean aborted, String scope,
+                              String syncId) throws InterruptedException {
+        List<ExchangeRateRow> batch = new ArrayList<>(this.batchSize);
+        Set<LocalDate> dates = new HashSet<>();
+        WriteResult result = WriteResult.NONE;
+        while (true) {
+            ExchangeRateRow row = queue.take();
+            if (aborted.get()) {
+                return result;
+            }
+            if (row == END_OF_ROWS) {
+                break;
+            }
+            // Rows arrive date by date; cut batches only between dates so each holds whole days
+            if (batch.size() >= this.batchSize && !row.date().equals(batch.get(batch.size() - 1).date())) {
+                result = result.plus(write(batch, scope, syncId));
+                batch = new ArrayList<>(this.batchSize);
+            }
+            batch.add(row);
+            dates.add(row.date());
+        }
+        if (!batch.isEmpty()) {
+            result = result.plus(write(batch, scope, syncId));
+        }
+        if (syncId != null) {
+            SyncWriteEvent event = new SyncWriteEvent();
+            event.begin();
+            WriteResult published = this.publishes.record(() -> this.dbWriter.publishStaged(syncId, dates, scope));
+            event.finish("publish", scope, published.inserted() + published.updated() + published.unchanged(),
+                    published.inserted(), published.updated(), published.unchanged());
+            return published;
+        }
+        this.dbWriter.recordCoverage(dates, scope);
+        return result;
+    }
+
+    private WriteResult write(List<ExchangeRateRow> batch, String scope, String syncId) {
+        SyncWriteEvent event = new SyncWriteEvent();
+        event.begin();
+        if (syncId == null) {
+            WriteResult result = this.directWrites.record(() -> this.dbWriter.saveBatch(batch, scope));
+            event.finish("direct", scope, batch.size(), result.inserted(), result.updated(), result.unchanged());
+            return result;
+        }
+        this.stagedWrites.record(() -> this.dbWriter.stageBatch(syncId, batch));
+        event.finish("stage", scope, batch.size(), 0, 0, 0);
+        return WriteResult.NONE;
+    }
+
+    private static void enqueue(BlockingQueue<ExchangeRateRow> queue, ExchangeRateRow row,
+                                Future<WriteResult> writer) {
+        try {
+            while (!queue.offer(row, OFFER_WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (writer.isDone()) {
+                    // Writer stopped early, which only happens on failure; report its cause
+                    await(writer);
+                    throw new IllegalStateException("sync writer stopped before all rows were written");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while handing rows to the sync writer", e);
+        }
+    }
+
+    private static WriteResult await(Future<WriteResult> writer) {
+        try {
+            return writer.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("sync writer failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while waiting for the sync writer", e);
+        }
+    }
+
+    private static void awaitQuietly(Future<WriteResult> writer) {
+        try {
+            await(writer);
+        } catch (RuntimeException ignored) {
+            // the producer failure is the one reported
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.crewmeister.cmcodingchallenge.sync;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings for syncing Bundesbank rates into the local database.
+ *
+ * @param timeout        time budget for one sync, shared by lock wait, Bundesbank call and retries
+ * @param batchSize      number of rows written and committed per transaction
+ * @param queueCapacity  maximum parsed rows waiting for the writer before parsing blocks
+ * @param stagingMinDays syncs spanning at least this many days are staged and published atomically;
+ *                       above the routine 31-day window, which direct writes handle more cheaply
+ *                       by skipping unchanged days by digest instead of staging every row
+ */
+@ConfigurationProperties(prefix = "fx.sync")
+public record SyncProperties(
+        @DefaultValue("20s") Duration timeout,
+        @DefaultValue("500") int batchSize,
+        @DefaultValue("1000") int queueCapacity,
+        @DefaultValue("60") int stagingMinDays
+) {
+}
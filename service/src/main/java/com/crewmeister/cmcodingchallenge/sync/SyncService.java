@@ -1,41 +1,63 @@
 package com.crewmeister.cmcodingchallenge.sync;
 
-import com.crewmeister.cmcodingchallenge.bank.BankService;
-import com.crewmeister.cmcodingchallenge.bank.ExchangeRateRow;
-import com.crewmeister.cmcodingchallenge.model.ExchangeRateRepository;
+import com.crewmeister.cmcodingchallenge.bank.Deadline;
+import com.crewmeister.cmcodingchallenge.jfr.CoverageCheckEvent;
+import com.crewmeister.cmcodingchallenge.jfr.SyncEvent;
+import com.crewmeister.cmcodingchallenge.jfr.SyncLockEvent;
+import com.crewmeister.cmcodingchallenge.model.SyncCoverageId;
+import com.crewmeister.cmcodingchallenge.model.SyncCoverageRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
-import java.util.List;
+import java.util.Set;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
 
 @Service
 public class SyncService {
 
     private static final Logger LOG = LoggerFactory.getLogger(SyncService.class);
 
-    private static final int DEFAULT_DAYS = 30;
+    static final int DEFAULT_DAYS = 30;
     private static final int MAX_DAYS = 90;
 
-    private final BankService bankService;
-    private final ExchangeRateRepository repo;
-    private final DbWriter dbWriter;
+    private final SyncCoverageRepository coverageRepo;
+    private final SyncPipeline pipeline;
+    private final SyncLease lease;
+    private final SyncProperties properties;
+
+    private final MeterRegistry registry;
+    private final Counter coverageHits;
+    private final Counter coverageMisses;
+    private final Counter lockRejected;
 
     private final ReentrantLock lock = new ReentrantLock();
 
     /**
      * Creates the sync service.
      *
-     * @param bankService service used to fetch Bundesbank data
-     * @param repo        repository used for coverage checks
-     * @param dbWriter    writer used for transactional persistence
+     * @param coverageRepo repository used for coverage checks
+     * @param pipeline     fetch, parse and batched write pipeline
+     * @param lease        database lease shared with the other nodes
+     * @param properties   sync settings
+     * @param registry     meter registry for sync duration, coverage checks and lock contention
      */
-    public SyncService(BankService bankService, ExchangeRateRepository repo, DbWriter dbWriter) {
-        this.bankService = bankService;
-        this.repo = repo;
-        this.dbWriter = dbWriter;
+    public SyncService(SyncCoverageRepository coverageRepo, SyncPipeline pipeline, SyncLease lease,
+                       SyncProperties properties, MeterRegistry registry) {
+        this.coverageRepo = coverageRepo;
+        this.pipeline = pipeline;
+        this.lease = lease;
+        this.properties = properties;
+
+        this.registry = registry;
+        this.coverageHits = registry.counter("sync.coverage", "result", "hit");
+        this.coverageMisses = registry.counter("sync.coverage", "result", "miss");
+        this.lockRejected = registry.counter("sync.lock.rejected");
     }
 
     /**
@@ -53,7 +75,17 @@ public class SyncService {
      * @param date date to sync
      */
     public void syncDay(LocalDate date) {
-        syncRange(date, date, false);
+        syncRange(date, date, null, false);
+    }
+
+    /**
+     * Syncs EUR-based rates of a single currency for a single day.
+     *
+     * @param date     date to sync
+     * @param currency upper-case currency code; null syncs all currencies
+     */
+    public void syncDay(LocalDate date, String currency) {
+        syncRange(date, date, currency, false);
     }
 
     /**
@@ -62,28 +94,123 @@ public class SyncService {
      * @param start start date (inclusive)
      * @param end   end date (inclusive)
      * @param force whether to bypass DB coverage checks
+     * @return inserted, updated and unchanged row counts, all zero when the range was already covered
      * @throws IllegalArgumentException if the date range is invalid
-     * @throws SyncInProgressException  if another sync is already running
+     * @throws SyncInProgressException  if the range is not covered and another sync is already running
      */
-    public void syncRange(LocalDate start, LocalDate end, boolean force) {
+    public WriteResult syncRange(LocalDate start, LocalDate end, boolean force) {
+        return syncRange(start, end, null, force);
+    }
+
+    /**
+     * Syncs EUR-based rates for an inclusive date range, optionally for a single currency only.
+     * A single-currency sync fetches just that series and is tracked as coverage for that currency.
+     *
+     * @param start    start date (inclusive)
+     * @param end      end date (inclusive)
+     * @param currency upper-case currency code; null syncs all currencies
+     * @param force    whether to bypass DB coverage checks
+     * @return inserted, updated and unchanged row counts, all zero when the range was already covered
+     * @throws IllegalArgumentException if the date range is invalid
+     * @throws SyncInProgressException  if the range is not covered and another sync is already running,
+     *                                  or another node holds the sync lease past the sync timeout
+     */
+    public WriteResult syncRange(LocalDate start, LocalDate end, String currency, boolean force) {
         long days = validateInput(start, end);
-        if (!this.lock.tryLock()) {
+        Deadline deadline = Deadline.after(this.properties.timeout());
+        SyncEvent syncEvent = new SyncEvent();
+        syncEvent.begin();
+        Timer.Sample sample = Timer.start(this.registry);
+        String outcome = "failed";
+        WriteResult result = WriteResult.NONE;
+
+        // covered ranges are answered without the lock, so reads never queue behind a running sync
+        if (!force && isCovered(start, end, currency, days, false)) {
+            return covered(start, end, currency, sample, syncEvent);
+        }
+
+        SyncLockEvent lockEvent = new SyncLockEvent();
+        lockEvent.begin();
+        boolean acquired = this.lock.tryLock();
+        lockEvent.finish(acquired);
+        if (!acquired) {
+            this.lockRejected.increment();
+            sample.stop(syncTimer(currency, "rejected"));
+            syncEvent.finish(start, end, currency, force, "rejected", 0, 0, 0);
             throw new SyncInProgressException("sync in progress, retry");
         }
         try {
-            if (!force && isRangeCoveredInDb(start, end, days)) {
-                LOG.debug("Sync not needed as range already covered  ({}..{}) in DB", start, end);
-                return;
+            // another node may be syncing into the same database; wait for it rather than fetch twice
+            this.lease.acquire(deadline);
+            if (!force) {
+                // the sync that held the lock or the lease before may have covered the range since the first check;
+                // it may have run on another node, so this check reads the primary even with a read replica
+                boolean covered = isCovered(start, end, currency, days, true);
+                (covered ? this.coverageHits : this.coverageMisses).increment();
+                if (covered) {
+                    outcome = "covered";
+                    return WriteResult.NONE;
+                }
             }
-            List<ExchangeRateRow> rows = this.bankService.retrieveRates(start, end);
-            this.dbWriter.saveToDb(rows);
-            LOG.info("Sync completed with stored {} rates ({}..{})", rows.size(), start, end);
+            result = this.pipeline.run(start, end, currency, deadline);
+            outcome = "synced";
+            LOG.info("Sync completed with inserted={}, updated={}, unchanged={} rates ({}..{}, {})",
+                    result.inserted(), result.updated(), result.unchanged(), start, end, scopeOf(currency));
+            return result;
         } finally {
+            this.lease.release();
             this.lock.unlock();
+            sample.stop(syncTimer(currency, outcome));
+            syncEvent.finish(start, end, currency, force, outcome,
+                    result.inserted(), result.updated(), result.unchanged());
         }
     }
 
-    private static long validateInput(LocalDate start, LocalDate end) {
+    private WriteResult covered(LocalDate start, LocalDate end, String currency, Timer.Sample sample, SyncEvent syncEvent) {
+        this.coverageHits.increment();
+        LOG.debug("Sync not needed as range already covered  ({}..{}, {}) in DB", start, end, scopeOf(currency));
+        sample.stop(syncTimer(currency, "covered"));
+        syncEvent.finish(start, end, currency, false, "covered", 0, 0, 0);
+        return WriteResult.NONE;
+    }
+
+    private boolean isCovered(LocalDate start, LocalDate end, String currency, long days, boolean onPrimary) {
+        CoverageCheckEvent coverageEvent = new CoverageCheckEvent();
+        coverageEvent.begin();
+        boolean covered = isRangeCoveredInDb(start, end, currency, days, onPrimary);
+        coverageEvent.finish(start, end, scopeOf(currency), covered);
+        return covered;
+    }
+
+    private Timer syncTimer(String currency, String outcome) {
+        return Timer.builder("sync.range")
+                .description("Sync duration from coverage check to last commit")
+                .tag("scope", currency == null ? "all" : "single")
+                .tag("outcome", outcome)
+                .register(this.registry);
+    }
+
+    /**
+     * Runs a write while holding the sync lock and the sync lease, waiting for a running sync to
+     * finish first, so writers outside this service never interleave with a sync on any node.
+     *
+     * @param write write to run
+     * @param <T>   result type
+     * @return result of the write
+     * @throws SyncInProgressException if another node holds the sync lease past the sync timeout
+     */
+    <T> T writeExclusively(Supplier<T> write) {
+        this.lock.lock();
+        try {
+            this.lease.acquire(Deadline.after(this.properties.timeout()));
+            return write.get();
+        } finally {
+            this.lease.release();
+            this.lock.unlock();
+        }
+    }
+
+    static long validateInput(LocalDate start, LocalDate end) {
         if (start == null || end == null) {
             throw new IllegalArgumentException("start and end dates must be provided");
         }
@@ -102,11 +229,21 @@ public class SyncService {
 
     /**
      * Checks if the db already has info for the given dates
-     * Assume that a date in database means that all info for
-     * that day is fully stored
+     * Assume that a covered date means that all info for
+     * that day and scope is fully stored; a full sync covers every currency
      */
-    private boolean isRangeCoveredInDb(LocalDate start, LocalDate end, long daysInclusive) {
-        long distinctDates = this.repo.countDistinctDates(start, end);
-        return distinctDates >= daysInclusive;
+    private boolean isRangeCoveredInDb(LocalDate start, LocalDate end, String currency, long daysInclusive,
+                                       boolean onPrimary) {
+        Set<String> scopes = currency == null
+                ? Set.of(SyncCoverageId.ALL_CURRENCIES)
+                : Set.of(SyncCoverageId.ALL_CURRENCIES, currency);
+        long coveredDates = onPrimary
+                ? this.coverageRepo.countCoveredDatesOnPrimary(start, end, scopes)
+                : this.coverageRepo.countCoveredDates(start, end, scopes);
+        return coveredDates >= daysInclusive;
+    }
+
+    private static String scopeOf(String currency) {
+        return SyncCoverageId.scopeOf(currency);
     }
 }
@@ -0,0 +1,147 @@
+package com.crewmeister.cmcodingchallenge.sync;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Syncs the recent window in the background after startup and gates readiness on it: the
+ * {@code warmSync} health indicator is {@code OUT_OF_SERVICE} until the sync has finished, which
+ * means local data covers the recent window as far as the Bundesbank has published it, or until
+ * {@code fx.sync.warm.readiness-timeout} has passed, after which rates are synced on demand.
+ * The currency catalog is backfilled first, also when the sync itself is disabled.
+ */
+@Component
+public class WarmSync implements HealthIndicator {
+
+    private static final Logger LOG = LoggerFactory.getLogger(WarmSync.class);
+    private static final long BUSY_RETRY_MILLIS = 200;
+
+    enum State { PENDING, RUNNING, SYNCED, FAILED, DISABLED }
+
+    private final SyncService syncService;
+    private final CurrencyCatalog catalog;
+    private final boolean enabled;
+    private final Duration readinessTimeout;
+    private final CountDownLatch finished = new CountDownLatch(1);
+
+    private volatile State state = State.PENDING;
+    private volatile long startedNanos;
+    private volatile String failure;
+
+    /**
+     * Creates the warm sync.
+     *
+     * @param syncService sync service used for the recent window
+     * @param catalog     currency catalog to backfill before the sync
+     * @param properties  warm sync settings
+     */
+    public WarmSync(SyncService syncService, CurrencyCatalog catalog, WarmSyncProperties properties) {
+        this.syncService = syncService;
+        this.catalog = catalog;
+        this.enabled = properties.enabled();
+        this.readinessTimeout = properties.readinessTimeout();
+    }
+
+    /**
+     * Starts the catalog backfill and the sync on a background thread and returns immediately.
+     */
+    public void start() {
+        this.startedNanos = System.nanoTime();
+        this.state = State.RUNNING;
+        Thread.ofVirtual().name("warm-sync").start(this::run);
+    }
+
+    @Override
+    public Health health() {
+        State current = this.state;
+        if (current == State.SYNCED || current == State.DISABLED) {
+            return Health.up().withDetail("state", current).build();
+        }
+        Health.Builder health;
+        if (current != State.PENDING && timedOut()) {
+            // serve what is stored; missing rates are synced on demand
+            health = Health.up().withDetail("timedOut", true);
+        } else {
+            health = Health.outOfService();
+        }
+        health.withDetail("state", current);
+        if (this.failure != null) {
+            health.withDetail("failure", this.failure);
+        }
+        return health.build();
+    }
+
+    /**
+     * Waits until the sync has finished, successfully or not, or the catalog is backfilled if the
+     * sync is disabled.
+     *
+     * @param timeout longest time to wait
+     * @return whether the sync finished within the timeout
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean awaitFinished(Duration timeout) throws InterruptedException {
+        return this.finished.await(timeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    State state() {
+        return this.state;
+    }
+
+    private void run() {
+        try {
+            whenIdle(this.catalog::backfill);
+            if (!this.enabled) {
+                this.state = State.DISABLED;
+                return;
+            }
+            LOG.info("Running startup request to Bank to sync db in the background");
+            whenIdle(this.syncService::syncLastDays);
+            this.state = State.SYNCED;
+            LOG.info("Startup sync finished after {} ms", elapsed().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            this.failure = "interrupted";
+            this.state = State.FAILED;
+        } catch (RuntimeException e) {
+            LOG.error("Startup sync failed", e);
+            this.failure = e.getMessage();
+            this.state = State.FAILED;
+        } finally {
+            this.finished.countDown();
+        }
+    }
+
+    /**
+     * Runs a write, retrying while a sync of this or another node holds the lock, until the
+     * readiness timeout has passed.
+     */
+    private void whenIdle(Runnable write) throws InterruptedException {
+        while (true) {
+            try {
+                write.run();
+                return;
+            } catch (SyncInProgressException e) {
+                // an on-demand sync got there first; try again once it is done
+                if (timedOut()) {
+                    throw e;
+                }
+                TimeUnit.MILLISECONDS.sleep(BUSY_RETRY_MILLIS);
+            }
+        }
+    }
+
+    private boolean timedOut() {
+        return elapsed().compareTo(this.readinessTimeout) >= 0;
+    }
+
+    private Duration elapsed() {
+        return Duration.ofNanos(System.nanoTime() - this.startedNanos);
+    }
+}
@@ -0,0 +1,19 @@
+package com.crewmeister.cmcodingchallenge.sync;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings for the background sync of the recent window at startup.
+ *
+ * @param enabled          whether the recent window is synced at startup
+ * @param readinessTimeout time after startup at which the service reports ready even if the warm sync has not finished
+ */
+@ConfigurationProperties(prefix = "fx.sync.warm")
+public record WarmSyncProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("60s") Duration readinessTimeout
+) {
+}
@@ -0,0 +1,38 @@
+package com.crewmeister.cmcodingchallenge.sync;
+
+/**
+ * Row counts of a sync write.
+ *
+ * @param inserted  rows that did not exist before
+ * @param updated   rows whose stored rate changed
+ * @param unchanged rows that matched the stored rate and were not written
+ */
+public record WriteResult(long inserted, long updated, long unchanged) {
+
+    /**
+     * Result of a sync that wrote nothing.
+     */
+    public static final WriteResult NONE = new WriteResult(0, 0, 0);
+
+    /**
+     * Adds the counts of another result.
+     *
+     * @param other result to add
+     * @return combined result
+     */
+    public WriteResult plus(WriteResult other) {
+        return new WriteResult(
+                this.inserted + other.inserted,
+                this.updated + other.updated,
+                this.unchanged + other.unchanged);
+    }
+
+    /**
+     * Returns the number of rows actually written.
+     *
+     * @return inserted plus updated rows
+     */
+    public long written() {
+        return this.inserted + this.updated;
+    }
+}
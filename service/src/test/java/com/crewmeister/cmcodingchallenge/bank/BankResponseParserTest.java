@@ -2,12 +2,16 @@ package com.crewmeister.cmcodingchallenge.bank;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -15,7 +19,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 class BankResponseParserTest {
 
     private static final ObjectMapper MAPPER = new ObjectMapper();
-    private final BankResponseParser parser = new BankResponseParser();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final BankResponseParser parser = new BankResponseParser(registry);
 
     @Test
     void parseValidInput() throws Exception {
@@ -91,6 +96,70 @@ class BankResponseParserTest {
         assertThat(parser.parseRates(MAPPER.createArrayNode())).isEmpty();
     }
 
+    @Test
+    void listParseKeepsSeriesOrderAndCountsSkips() {
+        JsonNode payload = generatedPayload(12, 400);
+
+        List<ExchangeRateRow> rows = parser.parseRates(payload);
+
+        // one series has a bad key and every 50th observation is non-numeric
+        assertThat(rows).hasSize(11 * (400 - 8));
+        assertThat(rows.get(0).currency()).isEqualTo("CAA");
+        assertThat(rows.get(rows.size() - 1).currency()).isEqualTo("CAK");
+        assertThat(registry.get("bank.parse").tag("mode", "sequential").timer().count()).isEqualTo(1);
+        assertThat(registry.get("bank.parse.skipped").tag("kind", "series").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void streamingParseHandsSameRowsToSinkGroupedByDate() {
+        JsonNode payload = generatedPayload(3, 120);
+        List<ExchangeRateRow> streamed = new ArrayList<>();
+
+        int count = parser.parseRates(payload, streamed::add);
+
+        assertThat(count).isEqualTo(streamed.size());
+        assertThat(streamed).containsExactlyInAnyOrderElementsOf(parser.parseRates(payload));
+        assertThat(streamed).extracting(ExchangeRateRow::date).isSorted();
+    }
+
+    /**
+     * Builds an SDMX payload with {@code currencies} series of {@code days} observations each.
+     */
+    private static JsonNode generatedPayload(int currencies, int days) {
+        ObjectNode root = MAPPER.createObjectNode();
+        ObjectNode data = root.putObject("data");
+        ObjectNode dims = data.putObject("structure").putObject("dimensions");
+
+        ArrayNode currencyValues = MAPPER.createArrayNode();
+        for (int c = 0; c < currencies; c++) {
+            currencyValues.addObject().put("id", "C" + (char) ('A' + c / 26) + (char) ('A' + c % 26));
+        }
+        ArrayNode seriesDims = dims.putArray("series");
+        seriesDims.addObject().put("id", "BBK_STD_FREQ");
+        seriesDims.addObject().put("id", "BBK_STD_CURRENCY").set("values", currencyValues);
+
+        ArrayNode dateValues = dims.putArray("observation").addObject().put("id", "TIME_PERIOD").putArray("values");
+        LocalDate first = LocalDate.of(2020, 1, 1);
+        for (int d = 0; d < days; d++) {
+            dateValues.addObject().put("id", first.plusDays(d).toString());
+        }
+
+        ObjectNode series = data.putArray("dataSets").addObject().putObject("series");
+        for (int c = 0; c < currencies; c++) {
+            String key = c == currencies - 1 ? "0:x:0:0:0" : "0:" + c + ":0:0:0";
+            ObjectNode observations = series.putObject(key).putObject("observations");
+            for (int d = 0; d < days; d++) {
+                ArrayNode obs = observations.putArray(Integer.toString(d));
+                if (d % 50 == 0) {
+                    obs.add("NaN");
+                } else {
+                    obs.add(BigDecimal.valueOf(1000 + c * 10 + d % 7, 3));
+                }
+            }
+        }
+        return root;
+    }
+
     private static JsonNode jsonFromResource(String resourcePath) throws IOException {
         try (InputStream in = BankResponseParserTest.class.getClassLoader().getResourceAsStream(resourcePath)) {
             if (in == null) {
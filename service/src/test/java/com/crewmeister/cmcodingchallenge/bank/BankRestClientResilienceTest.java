@@ -0,0 +1,277 @@
+package com.crewmeister.cmcodingchallenge.bank;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BankRestClientResilienceTest {
+
+    private static final LocalDate START = LocalDate.of(2026, 2, 18);
+    private static final LocalDate END = LocalDate.of(2026, 2, 19);
+    private static final String HAPPY_PATH = FakeBundesbankServer.resource("bank/parser/happy-path.json");
+
+    private FakeBundesbankServer upstream;
+    private MeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        upstream = new FakeBundesbankServer();
+        registry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        upstream.close();
+    }
+
+    @Test
+    void serverErrorsAreRetriedUntilSuccess() {
+        upstream.enqueue(FakeBundesbankServer.Response.status(503), FakeBundesbankServer.Response.status(500),
+                FakeBundesbankServer.Response.ok(HAPPY_PATH));
+        BankRestClient client = client(retry(3, 10), breaker(5), noHedge());
+
+        JsonNode node = client.fetchRates(START, END);
+
+        assertThat(node.path("data").isObject()).isTrue();
+        assertThat(upstream.requestCount()).isEqualTo(3);
+        assertThat(registry.counter("bank.retries").count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void clientErrorsAreNotRetried() {
+        upstream.enqueue(FakeBundesbankServer.Response.status(404));
+        BankRestClient client = client(retry(3, 10), breaker(5), noHedge());
+
+        assertThatThrownBy(() -> client.fetchRates(START, END)).isInstanceOf(BundesbankClientException.class);
+        assertThat(upstream.requestCount()).isEqualTo(1);
+    }
+
+    @Test
+    void exhaustedRetryBudgetStopsRetrying() {
+        BankRestClient client = client(retry(5, 1), breaker(100), noHedge());
+
+        assertThatThrownBy(() -> client.fetchRates(START, END)).isInstanceOf(BundesbankServerException.class);
+        assertThatThrownBy(() -> client.fetchRates(START, END)).isInstanceOf(BundesbankServerException.class);
+
+        // one banked retry for the first call, none left for the second
+        assertThat(upstream.requestCount()).isEqualTo(3);
+        assertThat(registry.counter("bank.retry.budget.exhausted").count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void openCircuitFailsFastAndRecoversAfterTrialCall() throws Exception {
+        BankCallGuard guard = new BankCallGuard(properties(retry(1, 10), breaker(2), noHedge()), registry);
+        BankRestClient client = new BankRestClient(restClient(), guard, registry);
+
+        assertThatThrownBy(() -> client.fetchRates(START, END)).isInstanceOf(BundesbankServerException.class);
+        assertThatThrownBy(() -> client.fetchRates(START, END)).isInstanceOf(BundesbankServerException.class);
+        assertThat(guard.circuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        assertThatThrownBy(() -> client.fetchRates(START, END)).isInstanceOf(BundesbankUnavailableException.class);
+        assertThat(upstream.requestCount()).isEqualTo(2);
+
+        Thread.sleep(250);
+        upstream.respondByDefault(FakeBundesbankServer.Response.ok(HAPPY_PATH));
+        client.fetchRates(START, END);
+
+        assertThat(guard.circuitState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(registry.counter("bank.circuit.rejected").count()).isEqualTo(1.0);
+        assertThat(transitions("CLOSED", "OPEN")).isEqualTo(1.0);
+        assertThat(transitions("OPEN", "HALF_OPEN")).isEqualTo(1.0);
+        assertThat(transitions("HALF_OPEN", "CLOSED")).isEqualTo(1.0);
+        assertThat(registry.get("bank.circuit.state").gauge().value()).isEqualTo(0.0);
+    }
+
+    @Test
+    void slowPrimaryIsHedged() {
+        upstream.enqueue(FakeBundesbankServer.Response.ok(HAPPY_PATH).delayed(1500),
+                FakeBundesbankServer.Response.ok(HAPPY_PATH));
+        BankRestClient client = client(retry(1, 10),
+                breaker(5), new BankClientProperties.Hedge(true, Duration.ofMillis(100)));
+
+        long startedAt = System.nanoTime();
+        JsonNode node = client.fetchRates(START, END);
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - startedAt).toMillis();
+
+        assertThat(node.path("data").isObject()).isTrue();
+        assertThat(elapsedMillis).isLessThan(1000);
+        assertThat(upstream.requestCount()).isEqualTo(2);
+        assertThat(registry.counter("bank.hedges").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void losingHedgedRequestGivesBackItsConnection() {
+        // unless aborted, the slow primary holds one of the two pooled connections for three seconds,
+        // and the two calls after it share the other one instead of running side by side
+        upstream.enqueue(FakeBundesbankServer.Response.ok(HAPPY_PATH).delayed(3000),
+                FakeBundesbankServer.Response.ok(HAPPY_PATH));
+        upstream.respondByDefault(FakeBundesbankServer.Response.ok(HAPPY_PATH).delayed(700));
+        RestClient restClient = restClient(2);
+        BankRestClient hedged = new BankRestClient(restClient, new BankCallGuard(properties(retry(1, 10),
+                breaker(5), new BankClientProperties.Hedge(true, Duration.ofMillis(100))), registry), registry);
+        BankRestClient plain = new BankRestClient(restClient,
+                new BankCallGuard(properties(retry(1, 10), breaker(5), noHedge()), registry), registry);
+        hedged.fetchRates(START, END);
+
+        long startedAt = System.nanoTime();
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<JsonNode> first = callers.submit(() -> plain.fetchRates(START, END));
+            Future<JsonNode> second = callers.submit(() -> plain.fetchRates(START, END));
+            assertThat(first).succeedsWithin(Duration.ofSeconds(5));
+            assertThat(second).succeedsWithin(Duration.ofSeconds(5));
+        }
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - startedAt).toMillis();
+
+        assertThat(elapsedMillis).isLessThan(1200);
+    }
+
+    @Test
+    void interruptedHedgedCallLeavesTheBreakerUntouched() throws Exception {
+        BankCallGuard guard = new BankCallGuard(properties(retry(1, 10), breaker(2),
+                new BankClientProperties.Hedge(true, Duration.ofSeconds(2))), registry);
+        BankRestClient client = new BankRestClient(restClient(), guard, registry);
+        assertThatThrownBy(() -> client.fetchRates(START, END)).isInstanceOf(BundesbankServerException.class);
+
+        upstream.respondByDefault(FakeBundesbankServer.Response.ok(HAPPY_PATH).delayed(3000));
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread caller = Thread.ofVirtual().start(() -> {
+            try {
+                client.fetchRates(START, END);
+            } catch (RuntimeException e) {
+                failure.set(e);
+            }
+        });
+        Thread.sleep(200);
+        caller.interrupt();
+        caller.join(Duration.ofSeconds(5));
+        assertThat(failure.get()).isInstanceOf(BundesbankUnavailableException.class)
+                .hasMessageContaining("interrupted");
+
+        // the failure before the interrupt still counts, so one more opens the circuit
+        upstream.respondByDefault(FakeBundesbankServer.Response.status(500));
+        assertThatThrownBy(() -> client.fetchRates(START, END)).isInstanceOf(BundesbankServerException.class);
+        assertThat(guard.circuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void retryRejectedByTheCircuitKeepsTheFailureThatOpenedIt() {
+        upstream.enqueue(FakeBundesbankServer.Response.status(503));
+        BankRestClient client = client(retry(2, 10), breaker(1), noHedge());
+
+        assertThatThrownBy(() -> client.fetchRates(START, END))
+                .isInstanceOf(BundesbankUnavailableException.class)
+                .hasMessageContaining("circuit open")
+                .hasCauseInstanceOf(BundesbankServerException.class);
+        assertThat(upstream.requestCount()).isEqualTo(1);
+    }
+
+    @Test
+    void invalidRangeIsRejectedBeforeCallingUpstream() {
+        BankRestClient client = client(retry(1, 10), breaker(1), noHedge());
+
+        assertThatThrownBy(() -> client.fetchRates(END, START)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(upstream.requestCount()).isZero();
+    }
+
+    @Test
+    void deadlineBoundsSlowCallAndSkipsRetries() {
+        upstream.respondByDefault(FakeBundesbankServer.Response.ok(HAPPY_PATH).delayed(2000));
+        BankRestClient client = client(retry(3, 10), breaker(5), noHedge());
+
+        long startedAt = System.nanoTime();
+        assertThatThrownBy(() -> client.fetchRates(START, END, null, Deadline.after(Duration.ofMillis(300))))
+                .isInstanceOfAny(ResourceAccessException.class, BundesbankUnavailableException.class);
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - startedAt).toMillis();
+
+        assertThat(elapsedMillis).isLessThan(1200);
+        assertThat(upstream.requestCount()).isEqualTo(1);
+    }
+
+    @Test
+    void sequentialCallsReusePooledConnection() {
+        upstream.respondByDefault(FakeBundesbankServer.Response.ok(HAPPY_PATH));
+        BankRestClient client = client(retry(1, 10), breaker(5), noHedge());
+
+        for (int i = 0; i < 5; i++) {
+            client.fetchRates(START, END);
+        }
+
+        assertThat(upstream.requestCount()).isEqualTo(5);
+        // Connections are released to the pool asynchronously, so a call may occasionally race ahead
+        assertThat(upstream.connectionCount()).isLessThan(upstream.requestCount());
+    }
+
+    @Test
+    void singleCurrencyFillsSeriesKeyCurrencyDimension() {
+        upstream.respondByDefault(FakeBundesbankServer.Response.ok(HAPPY_PATH));
+        BankRestClient client = client(retry(1, 10), breaker(5), noHedge());
+
+        client.fetchRates(START, END);
+        client.fetchRates(START, END, "USD", Deadline.NONE);
+
+        assertThat(upstream.requests().get(0)).startsWith("/rest/data/BBEX3/D..EUR.BB.AC.000?");
+        assertThat(upstream.requests().get(1)).startsWith("/rest/data/BBEX3/D.USD.EUR.BB.AC.000?");
+        assertThatThrownBy(() -> client.fetchRates(START, END, "usd", Deadline.NONE))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(registry.get("bank.fetch").tag("scope", "single").tag("exception", "none").timer().count())
+                .isEqualTo(1);
+    }
+
+    private double transitions(String from, String to) {
+        return registry.counter("bank.circuit.transitions", "from", from, "to", to).count();
+    }
+
+    private BankRestClient client(BankClientProperties.Retry retry, BankClientProperties.CircuitBreaker breaker,
+                                  BankClientProperties.Hedge hedge) {
+        return new BankRestClient(restClient(), new BankCallGuard(properties(retry, breaker, hedge), registry), registry);
+    }
+
+    private RestClient restClient() {
+        return restClient(4);
+    }
+
+    private RestClient restClient(int maxConnections) {
+        RestClientConfig config = new RestClientConfig();
+        BankClientProperties properties = properties(retry(1, 1), breaker(1), noHedge(), maxConnections);
+        return config.restClient(properties, config.bankConnectionProvider(properties));
+    }
+
+    private BankClientProperties properties(BankClientProperties.Retry retry, BankClientProperties.CircuitBreaker breaker,
+                                            BankClientProperties.Hedge hedge) {
+        return properties(retry, breaker, hedge, 4);
+    }
+
+    private BankClientProperties properties(BankClientProperties.Retry retry, BankClientProperties.CircuitBreaker breaker,
+                                            BankClientProperties.Hedge hedge, int maxConnections) {
+        return new BankClientProperties(upstream.baseUrl(), Duration.ofSeconds(1), Duration.ofSeconds(5),
+                new BankClientProperties.Pool(maxConnections, Duration.ofSeconds(30), Duration.ofSeconds(10), true),
+                retry, breaker, hedge);
+    }
+
+    private static BankClientProperties.Retry retry(int maxAttempts, int budgetMax) {
+        return new BankClientProperties.Retry(maxAttempts, Duration.ofMillis(1), Duration.ofMillis(5), 0.0, budgetMax);
+    }
+
+    private static BankClientProperties.CircuitBreaker breaker(int threshold) {
+        return new BankClientProperties.CircuitBreaker(threshold, Duration.ofMillis(200));
+    }
+
+    private static BankClientProperties.Hedge noHedge() {
+        return new BankClientProperties.Hedge(false, Duration.ofSeconds(1));
+    }
+}
@@ -0,0 +1,143 @@
+package com.crewmeister.cmcodingchallenge.bank;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+
+/**
+ * Local stand-in for the Bundesbank API that replays scripted responses.
+ */
+public class FakeBundesbankServer implements AutoCloseable {
+
+    /**
+     * A scripted HTTP response.
+     *
+     * @param status      HTTP status
+     * @param body        response body
+     * @param delayMillis delay before the response is sent
+     */
+    public record Response(int status, String body, long delayMillis) {
+
+        public static Response ok(String body) {
+            return new Response(200, body, 0);
+        }
+
+        public static Response status(int status) {
+            return new Response(status, "{\"error\":\"" + status + "\"}", 0);
+        }
+
+        public Response delayed(long millis) {
+            return new Response(this.status, this.body, millis);
+        }
+    }
+
+    private final HttpServer server;
+    private final Queue<Response> script = new ConcurrentLinkedQueue<>();
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private final List<Integer> clientPorts = new CopyOnWriteArrayList<>();
+    private volatile Response fallback = Response.status(503);
+
+    /**
+     * Starts the fake server on an ephemeral local port.
+     */
+    public FakeBundesbankServer() {
+        try {
+            this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.server.createContext("/", this::handle);
+        this.server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        this.server.start();
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + this.server.getAddress().getPort();
+    }
+
+    public FakeBundesbankServer enqueue(Response... responses) {
+        this.script.addAll(List.of(responses));
+        return this;
+    }
+
+    public FakeBundesbankServer respondByDefault(Response response) {
+        this.fallback = response;
+        return this;
+    }
+
+    public int requestCount() {
+        return this.requests.size();
+    }
+
+    public List<String> requests() {
+        return List.copyOf(this.requests);
+    }
+
+    /**
+     * Returns the distinct client ports seen, i.e. the number of TCP connections used.
+     *
+     * @return number of distinct client connections
+     */
+    public long connectionCount() {
+        return this.clientPorts.stream().distinct().count();
+    }
+
+    /**
+     * Loads a classpath resource as a string, for use as a response body.
+     *
+     * @param path resource path
+     * @return resource content
+     */
+    public static String resource(String path) {
+        try (InputStream in = FakeBundesbankServer.class.getClassLoader().getResourceAsStream(path)) {
+            if (in == null) {
+                throw new IOException("Missing test resource: " + path);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        this.server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        this.requests.add(exchange.getRequestURI().toString());
+        this.clientPorts.add(exchange.getRemoteAddress().getPort());
+        Response response = this.script.poll();
+        if (response == null) {
+            response = this.fallback;
+        }
+        try {
+            if (response.delayMillis() > 0) {
+                Thread.sleep(response.delayMillis());
+            }
+            byte[] body = response.body().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(response.status(), body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            // client went away, e.g. a cancelled hedge
+        } finally {
+            exchange.close();
+        }
+    }
+}
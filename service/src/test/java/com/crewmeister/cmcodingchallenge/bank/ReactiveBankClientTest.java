@@ -0,0 +1,108 @@
+package com.crewmeister.cmcodingchallenge.bank;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReactiveBankClientTest {
+
+    private static final LocalDate START = LocalDate.of(2026, 2, 18);
+    private static final LocalDate END = LocalDate.of(2026, 2, 19);
+    private static final String HAPPY_PATH = FakeBundesbankServer.resource("bank/parser/happy-path.json");
+
+    private FakeBundesbankServer upstream;
+    private MeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        upstream = new FakeBundesbankServer();
+        registry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        upstream.close();
+    }
+
+    @Test
+    void fetchesAndParsesRows() {
+        upstream.respondByDefault(FakeBundesbankServer.Response.ok(HAPPY_PATH));
+
+        List<ExchangeRateRow> rows = client(3).fetchRates(START, END, null).block();
+
+        assertThat(rows).containsExactlyInAnyOrder(
+                new ExchangeRateRow(START, "USD", new BigDecimal("1.2")),
+                new ExchangeRateRow(END, "USD", new BigDecimal("1.3")),
+                new ExchangeRateRow(START, "GBP", new BigDecimal("0.88")));
+        assertThat(upstream.requests().get(0))
+                .startsWith("/rest/data/BBEX3/D..EUR.BB.AC.000?")
+                .contains("startPeriod=2026-02-18", "endPeriod=2026-02-19");
+        assertThat(registry.get("bank.fetch").tag("scope", "all").tag("exception", "none").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void serverErrorsAreRetriedUntilSuccess() {
+        upstream.enqueue(FakeBundesbankServer.Response.status(503), FakeBundesbankServer.Response.status(500),
+                FakeBundesbankServer.Response.ok(HAPPY_PATH));
+
+        List<ExchangeRateRow> rows = client(3).fetchRates(START, END, "USD").block();
+
+        assertThat(rows).isNotEmpty();
+        assertThat(upstream.requestCount()).isEqualTo(3);
+        assertThat(upstream.requests().get(0)).startsWith("/rest/data/BBEX3/D.USD.EUR.BB.AC.000?");
+    }
+
+    @Test
+    void exhaustedRetriesSurfaceTheServerError() {
+        assertThatThrownBy(() -> client(2).fetchRates(START, END, null).block())
+                .isInstanceOf(BundesbankServerException.class);
+        assertThat(upstream.requestCount()).isEqualTo(2);
+    }
+
+    @Test
+    void clientErrorsAreNotRetried() {
+        upstream.enqueue(FakeBundesbankServer.Response.status(404));
+
+        assertThatThrownBy(() -> client(3).fetchRates(START, END, null).block())
+                .isInstanceOf(BundesbankClientException.class);
+        assertThat(upstream.requestCount()).isEqualTo(1);
+    }
+
+    @Test
+    void nothingIsSentUntilSubscribed() {
+        upstream.respondByDefault(FakeBundesbankServer.Response.ok(HAPPY_PATH));
+
+        client(1).fetchRates(START, END, null);
+
+        assertThat(upstream.requestCount()).isZero();
+    }
+
+    @Test
+    void invalidRangeIsRejectedBeforeCallingUpstream() {
+        assertThatThrownBy(() -> client(1).fetchRates(END, START, null)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(upstream.requestCount()).isZero();
+    }
+
+    private ReactiveBankClient client(int maxAttempts) {
+        BankClientProperties properties = new BankClientProperties(upstream.baseUrl(), Duration.ofSeconds(1),
+                Duration.ofSeconds(5),
+                new BankClientProperties.Pool(4, Duration.ofSeconds(30), Duration.ofSeconds(10), true),
+                new BankClientProperties.Retry(maxAttempts, Duration.ofMillis(1), Duration.ofMillis(5), 0.0, 10),
+                new BankClientProperties.CircuitBreaker(5, Duration.ofMillis(200)),
+                new BankClientProperties.Hedge(false, Duration.ofSeconds(1)));
+        RestClientConfig config = new RestClientConfig();
+        return new ReactiveBankClient(config.bankWebClient(properties, config.bankConnectionProvider(properties)),
+                new BankResponseParser(registry), properties, registry);
+    }
+}
@@ -0,0 +1,99 @@
+package com.crewmeister.cmcodingchallenge.config;
+
+import com.crewmeister.cmcodingchallenge.model.ExchangeRateEntity;
+import com.crewmeister.cmcodingchallenge.model.ExchangeRateRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {"fx.db.statistics-enabled=true", "fx.db.slow-query-threshold=100ms"})
+@Import({HibernateStatisticsConfig.class, HibernateStatisticsEndpoint.class, HibernateStatisticsEndpointTest.Config.class})
+class HibernateStatisticsEndpointTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 2, 18);
+
+    @TestConfiguration
+    @EnableConfigurationProperties(DbDiagnosticsProperties.class)
+    static class Config {
+    }
+
+    @Autowired
+    private HibernateStatisticsEndpoint endpoint;
+
+    @Autowired
+    private ExchangeRateRepository repo;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @BeforeEach
+    void setUp() {
+        repo.saveAll(List.of(
+                new ExchangeRateEntity(DAY, "USD", new BigDecimal("1.10")),
+                new ExchangeRateEntity(DAY, "GBP", new BigDecimal("0.88"))));
+        em.flush();
+        em.clear();
+        endpoint.reset();
+    }
+
+    @Test
+    void flagAndSlowQueryThresholdReachHibernate() {
+        assertThat(endpoint.report().enabled()).isTrue();
+        assertThat(emf.getProperties()).containsEntry(AvailableSettings.LOG_SLOW_QUERY, 100L);
+    }
+
+    @Test
+    void reportsPerQueryExecutionsAndEntityLoads() {
+        repo.findRates(DAY, DAY, null, 10, 0);
+        repo.findRates(DAY, DAY, "USD", 10, 0);
+
+        HibernateStatisticsEndpoint.Report report = endpoint.report();
+
+        assertThat(report.queryExecutions()).isEqualTo(2);
+        assertThat(report.entityLoads()).isEqualTo(2);
+        assertThat(report.queries())
+                .filteredOn(q -> q.query().contains("FROM ExchangeRateEntity"))
+                .singleElement()
+                .satisfies(q -> {
+                    assertThat(q.executions()).isEqualTo(2);
+                    assertThat(q.rows()).isEqualTo(3);
+                    assertThat(q.maxMillis()).isGreaterThanOrEqualTo(q.meanMillis());
+                });
+        assertThat(report.entities())
+                .filteredOn(e -> e.entity().endsWith("ExchangeRateEntity"))
+                .singleElement()
+                .satisfies(e -> assertThat(e.loads()).isEqualTo(2));
+    }
+
+    @Test
+    void resetClearsAndDisablingStopsCollection() {
+        repo.findRates(DAY, DAY, null, 10, 0);
+        endpoint.reset();
+        assertThat(endpoint.report().queries()).isEmpty();
+
+        endpoint.enable(false);
+        try {
+            repo.findRates(DAY, DAY, null, 10, 0);
+            assertThat(endpoint.report().enabled()).isFalse();
+            assertThat(endpoint.report().queryExecutions()).isZero();
+        } finally {
+            endpoint.enable(true);
+        }
+    }
+}
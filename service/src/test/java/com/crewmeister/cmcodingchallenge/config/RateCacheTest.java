@@ -0,0 +1,179 @@
+package com.crewmeister.cmcodingchallenge.config;
+
+import com.crewmeister.cmcodingchallenge.bank.ExchangeRateRow;
+import com.crewmeister.cmcodingchallenge.model.CurrencyRate;
+import com.crewmeister.cmcodingchallenge.model.ExchangeRateEntity;
+import com.crewmeister.cmcodingchallenge.model.ExchangeRateRepository;
+import com.crewmeister.cmcodingchallenge.model.SyncCoverageRepository;
+import com.crewmeister.cmcodingchallenge.sync.DataVersionProperties;
+import com.crewmeister.cmcodingchallenge.sync.DbWriter;
+import com.crewmeister.cmcodingchallenge.sync.RemoteRatesWrittenEvent;
+import com.crewmeister.cmcodingchallenge.sync.SyncLease;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = "fx.db.statistics-enabled=true")
+// writes commit, so the cache and the after-commit eviction see them as in the running service
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({RateCacheConfig.class, HibernateStatisticsConfig.class, DbWriter.class, RateCacheTest.Config.class})
+@EnableConfigurationProperties({RateCacheProperties.class, DbDiagnosticsProperties.class, DataVersionProperties.class})
+class RateCacheTest {
+
+    private static final LocalDate DAY_1 = LocalDate.of(2026, 2, 18);
+    private static final LocalDate DAY_2 = LocalDate.of(2026, 2, 19);
+    private static final Set<String> ALL = Set.of("*");
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private DbWriter dbWriter;
+
+    @Autowired
+    private ExchangeRateRepository repo;
+
+    @Autowired
+    private SyncCoverageRepository coverageRepo;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private ApplicationEventPublisher events;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @MockBean
+    private SyncLease lease;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        when(lease.owner()).thenReturn("node-a");
+        jdbc.update("DELETE FROM exchange_rate_day_digest");
+        // a bulk delete through Hibernate, which also empties the entity region
+        repo.deleteAllInBatch();
+        coverageRepo.deleteAll();
+        write(List.of(
+                new ExchangeRateRow(DAY_1, "USD", new BigDecimal("1.10")),
+                new ExchangeRateRow(DAY_1, "GBP", new BigDecimal("0.88"))));
+        this.statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        this.statistics.clear();
+    }
+
+    @Test
+    void rateLookupsByKeyAreAnsweredFromTheCacheAfterTheFirst() {
+        assertThat(rate(DAY_1, "USD")).isEqualByComparingTo("1.10");
+        assertThat(statements(() -> rate(DAY_1, "USD"))).isZero();
+        assertThat(statements(() -> rate(DAY_1, "GBP"))).isEqualTo(1);
+        assertThat(this.statistics.getSecondLevelCacheHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void queriesOfRequestsAreAnsweredFromTheQueryCacheAfterTheFirst() {
+        assertThat(statements(() -> repo.findRateItems(DAY_1, DAY_2, null, 10, 0))).isEqualTo(1);
+        assertThat(statements(() -> repo.findRateItems(DAY_1, DAY_2, null, 10, 0))).isZero();
+        // other parameters, including another page, are other entries
+        assertThat(statements(() -> repo.findRateItems(DAY_1, DAY_2, null, 10, 1))).isEqualTo(1);
+
+        assertThat(statements(() -> repo.countRates(DAY_1, DAY_2, null))).isEqualTo(1);
+        assertThat(statements(() -> repo.countRates(DAY_1, DAY_2, null))).isZero();
+
+        assertThat(statements(() -> repo.findCurrencyRates(DAY_1, null))).isEqualTo(1);
+        assertThat(statements(() -> repo.findCurrencyRates(DAY_1, null))).isZero();
+        assertThat(repo.findCurrencyRates(DAY_1, null)).extracting(CurrencyRate::currency).containsExactly("GBP", "USD");
+
+        assertThat(statements(() -> coverageRepo.countCoveredDates(DAY_1, DAY_2, ALL))).isEqualTo(1);
+        assertThat(statements(() -> coverageRepo.countCoveredDates(DAY_1, DAY_2, ALL))).isZero();
+        // the recheck under the lease goes past the cache
+        assertThat(statements(() -> coverageRepo.countCoveredDatesOnPrimary(DAY_1, DAY_2, ALL))).isEqualTo(1);
+    }
+
+    @Test
+    void committedSyncsAreSeenByTheNextRead() {
+        rate(DAY_1, "USD");
+        repo.findRateItems(DAY_1, DAY_2, null, 10, 0);
+        repo.countRates(DAY_1, DAY_2, null);
+        repo.findCurrencyRates(DAY_2, null);
+        coverageRepo.countCoveredDates(DAY_1, DAY_2, ALL);
+
+        write(List.of(
+                new ExchangeRateRow(DAY_1, "USD", new BigDecimal("1.12")),
+                new ExchangeRateRow(DAY_1, "GBP", new BigDecimal("0.88")),
+                new ExchangeRateRow(DAY_2, "CHF", new BigDecimal("0.94"))));
+
+        assertThat(rate(DAY_1, "USD")).isEqualByComparingTo("1.12");
+        assertThat(repo.findRateItems(DAY_1, DAY_2, null, 10, 0)).hasSize(3);
+        assertThat(repo.countRates(DAY_1, DAY_2, null)).isEqualTo(3);
+        assertThat(repo.findCurrencyRates(DAY_2, null)).extracting(CurrencyRate::currency).containsExactly("CHF");
+        assertThat(coverageRepo.countCoveredDates(DAY_1, DAY_2, ALL)).isEqualTo(2);
+    }
+
+    @Test
+    void writesHibernateDoesNotSeeAreReadAfterTheNextSyncEvent() {
+        rate(DAY_1, "USD");
+        repo.countRates(DAY_1, DAY_2, null);
+        repo.findCurrencyRates(DAY_2, null);
+        coverageRepo.countCoveredDates(DAY_1, DAY_2, ALL);
+        // another node's commit to the shared database
+        jdbc.update("UPDATE exchange_rate SET rate = 1.15 WHERE date = ? AND currency = 'USD'", DAY_1);
+        jdbc.update("INSERT INTO exchange_rate (date, currency, rate) VALUES (?, 'JPY', 162.87)", DAY_2);
+        jdbc.update("INSERT INTO sync_coverage (date, scope) VALUES (?, '*')", DAY_2);
+        assertThat(rate(DAY_1, "USD")).isEqualByComparingTo("1.10");
+        assertThat(repo.countRates(DAY_1, DAY_2, null)).isEqualTo(2);
+
+        events.publishEvent(new RemoteRatesWrittenEvent(DAY_1, DAY_2));
+
+        assertThat(rate(DAY_1, "USD")).isEqualByComparingTo("1.15");
+        assertThat(repo.countRates(DAY_1, DAY_2, null)).isEqualTo(3);
+        assertThat(repo.findCurrencyRates(DAY_2, null)).extracting(CurrencyRate::currency).containsExactly("JPY");
+        assertThat(coverageRepo.countCoveredDates(DAY_1, DAY_2, ALL)).isEqualTo(2);
+    }
+
+    private void write(List<ExchangeRateRow> rows) {
+        dbWriter.saveBatch(rows, "*");
+        dbWriter.recordCoverage(rows.stream().map(ExchangeRateRow::date).distinct().toList(), "*");
+    }
+
+    private BigDecimal rate(LocalDate date, String currency) {
+        return repo.findByIdDateAndIdCurrency(date, currency).map(ExchangeRateEntity::getRate).orElseThrow();
+    }
+
+    private long statements(Supplier<?> read) {
+        long before = this.statistics.getPrepareStatementCount();
+        read.get();
+        return this.statistics.getPrepareStatementCount() - before;
+    }
+}
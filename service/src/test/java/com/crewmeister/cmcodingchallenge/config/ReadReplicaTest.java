@@ -0,0 +1,134 @@
+package com.crewmeister.cmcodingchallenge.config;
+
+import com.crewmeister.cmcodingchallenge.CmCodingChallengeApplication;
+import com.crewmeister.cmcodingchallenge.bank.FakeBundesbankServer;
+import com.crewmeister.cmcodingchallenge.currency.CurrencyService;
+import com.crewmeister.cmcodingchallenge.dto.RateItem;
+import com.crewmeister.cmcodingchallenge.model.CurrencyRate;
+import com.crewmeister.cmcodingchallenge.model.ExchangeRateRepository;
+import com.crewmeister.cmcodingchallenge.model.SyncCoverageRepository;
+import com.crewmeister.cmcodingchallenge.sync.RemoteRatesWrittenEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The service on two H2 databases, a primary and a replica filled by {@link ReplicaRefresher}.
+ */
+class ReadReplicaTest {
+
+    private static final LocalDate START = LocalDate.of(2026, 2, 18);
+    private static final LocalDate END = LocalDate.of(2026, 2, 19);
+    private static final LocalDate LATER = LocalDate.of(2026, 3, 2);
+    private static final String HAPPY_PATH = FakeBundesbankServer.resource("bank/parser/happy-path.json");
+
+    private static FakeBundesbankServer upstream;
+    private static ConfigurableApplicationContext context;
+    private static JdbcTemplate primary;
+    private static JdbcTemplate replica;
+
+    @BeforeAll
+    static void start() {
+        upstream = new FakeBundesbankServer();
+        upstream.respondByDefault(FakeBundesbankServer.Response.ok(HAPPY_PATH));
+        String id = UUID.randomUUID().toString();
+        // command-line arguments, so they take precedence over application.properties
+        context = new SpringApplicationBuilder(CmCodingChallengeApplication.class).run(
+                "--spring.main.web-application-type=none",
+                "--spring.datasource.url=jdbc:h2:mem:primary-" + id + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.properties.hibernate.format_sql=false",
+                "--spring.main.banner-mode=off",
+                "--fx.db.replica.enabled=true",
+                "--fx.db.replica.url=jdbc:h2:mem:replica-" + id + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                "--fx.bank.base-url=" + upstream.baseUrl(),
+                "--fx.bank.retry.max-attempts=1",
+                "--fx.sync.warm.enabled=false",
+                // the query cache would answer both routes alike and hide which database was read
+                "--fx.db.cache.enabled=false",
+                "--fx.snapshot.import-on-startup=false");
+        primary = new JdbcTemplate(context.getBean("primaryDataSource", DataSource.class));
+        replica = new JdbcTemplate(context.getBean("replicaDataSource", DataSource.class));
+    }
+
+    @AfterAll
+    static void stop() {
+        context.close();
+        upstream.close();
+    }
+
+    @Test
+    void readsGoToTheReplicaAndWritesToThePrimary() {
+        assertThat(context.getBean(ReadWriteRoutingDataSource.class).isReplicaReady()).isTrue();
+        double replicaReadsBefore = routed("replica");
+
+        // the request syncs into the primary, and the refreshed replica answers the read that follows
+        assertThat(context.getBean(CurrencyService.class).getRates(START, END, null).items())
+                .extracting(RateItem::currency).containsExactly("GBP", "USD", "USD");
+
+        assertThat(routed("replica")).isGreaterThan(replicaReadsBefore);
+        assertThat(count(primary, "exchange_rate")).isEqualTo(3);
+        assertThat(count(replica, "exchange_rate")).isEqualTo(3);
+        assertThat(count(replica, "sync_coverage")).isEqualTo(2);
+        // tables the replica does not need are not copied
+        assertThat(replica.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.tables WHERE table_name = 'DATA_VERSION'", Long.class)).isZero();
+    }
+
+    @Test
+    void readOnlyTransactionsSeeTheReplicaAndReadWriteTransactionsThePrimary() {
+        ExchangeRateRepository repo = context.getBean(ExchangeRateRepository.class);
+        TransactionTemplate readWrite = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        TransactionTemplate readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        replica.update("INSERT INTO exchange_rate (date, currency, rate) VALUES (?, 'XXX', 1)", LATER);
+        try {
+            // repository query methods run read-only by default
+            assertThat(repo.findRateItems(LATER, LATER, "XXX", 10, 0)).extracting(RateItem::currency).containsExactly("XXX");
+            assertThat(repo.findCurrencyRates(LATER, "XXX")).extracting(CurrencyRate::currency).containsExactly("XXX");
+            Boolean seenReadOnly = readOnly.execute(status -> !repo.findCurrencyRates(LATER, "XXX").isEmpty());
+            Boolean seenReadWrite = readWrite.execute(status -> !repo.findCurrencyRates(LATER, "XXX").isEmpty());
+            assertThat(seenReadOnly).isTrue();
+            assertThat(seenReadWrite).isFalse();
+        } finally {
+            replica.update("DELETE FROM exchange_rate WHERE currency = 'XXX'");
+        }
+    }
+
+    @Test
+    void changesOfAnotherNodeAreCopiedAndTheCoverageRecheckReadsThePrimary() {
+        SyncCoverageRepository coverageRepo = context.getBean(SyncCoverageRepository.class);
+        // another node commits a day to the shared primary
+        primary.update("INSERT INTO exchange_rate (date, currency, rate) VALUES (?, 'CHF', 0.94)", LATER);
+        primary.update("INSERT INTO sync_coverage (date, scope) VALUES (?, '*')", LATER);
+
+        assertThat(coverageRepo.countCoveredDates(LATER, LATER, Set.of("*"))).isZero();
+        assertThat(coverageRepo.countCoveredDatesOnPrimary(LATER, LATER, Set.of("*"))).isEqualTo(1);
+
+        context.publishEvent(new RemoteRatesWrittenEvent(LATER, LATER));
+
+        assertThat(coverageRepo.countCoveredDates(LATER, LATER, Set.of("*"))).isEqualTo(1);
+        assertThat(context.getBean(ExchangeRateRepository.class).findByIdDateAndIdCurrency(LATER, "CHF")).isPresent();
+    }
+
+    private static long count(JdbcTemplate database, String table) {
+        return database.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE date BETWEEN ? AND ?", Long.class,
+                START, END);
+    }
+
+    private static double routed(String route) {
+        return context.getBean(MeterRegistry.class).get("db.connections.routed").tag("route", route).counter().count();
+    }
+}
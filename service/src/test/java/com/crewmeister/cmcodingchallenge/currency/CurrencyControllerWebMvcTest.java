@@ -50,6 +50,21 @@ class CurrencyControllerWebMvcTest {
         verify(currencyService).getCurrencies();
     }
 
+    @Test
+    void getCurrenciesWithDetails() throws Exception {
+        when(currencyService.getCurrencyDetails()).thenReturn(List.of(
+                new CurrencyDetails("USD", LocalDate.of(1999, 1, 4), LocalDate.of(2026, 2, 18), 6946)));
+
+        mockMvc.perform(get("/api/currencies").param("details", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].code").value("USD"))
+                .andExpect(jsonPath("$[0].firstDate").value("1999-01-04"))
+                .andExpect(jsonPath("$[0].lastDate").value("2026-02-18"))
+                .andExpect(jsonPath("$[0].observations").value(6946));
+
+        verify(currencyService, never()).getCurrencies();
+    }
+
     @Test
     void getRatesSuccessWithAllParams() throws Exception {
         RatesResponse response = new RatesResponse(
@@ -48,7 +48,7 @@ class CurrencyConversionServiceTest {
         assertEquals(new BigDecimal("100.13"), response.to().amount());
         assertEquals("EUR/EUR", response.rate().pair());
         assertEquals(BigDecimal.ONE, response.rate().value());
-        verify(syncService).syncDay(date);
+        verifyNoInteractions(syncService);
         verify(repo, never()).findByIdDateAndIdCurrency(date, "EUR");
     }
 
@@ -67,7 +67,7 @@ class CurrencyConversionServiceTest {
         assertEquals("EUR/USD", response.rate().pair());
         assertEquals(new BigDecimal("1.0923"), response.rate().value());
         InOrder ordered = inOrder(syncService, repo);
-        ordered.verify(syncService).syncDay(date);
+        ordered.verify(syncService).syncDay(date, "USD");
         ordered.verify(repo).findByIdDateAndIdCurrency(date, "USD");
     }
 
@@ -92,7 +92,7 @@ class CurrencyConversionServiceTest {
                 () -> conversionService.convertToEur(date, "usd", new BigDecimal("100")));
 
         assertEquals("no rate found", ex.getMessage());
-        verify(syncService).syncDay(date);
+        verify(syncService).syncDay(date, "USD");
         verify(repo).findByIdDateAndIdCurrency(date, "USD");
     }
 
@@ -1,9 +1,12 @@
 package com.crewmeister.cmcodingchallenge.currency;
 
+import com.crewmeister.cmcodingchallenge.dto.CurrencyDetails;
+import com.crewmeister.cmcodingchallenge.dto.RateItem;
 import com.crewmeister.cmcodingchallenge.dto.RatesByDateResponse;
 import com.crewmeister.cmcodingchallenge.dto.RatesResponse;
-import com.crewmeister.cmcodingchallenge.model.ExchangeRateEntity;
+import com.crewmeister.cmcodingchallenge.model.CurrencyRate;
 import com.crewmeister.cmcodingchallenge.model.ExchangeRateRepository;
+import com.crewmeister.cmcodingchallenge.sync.CurrencyCatalog;
 import com.crewmeister.cmcodingchallenge.sync.SyncService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -31,22 +34,50 @@ class CurrencyServiceTest {
     @Mock
     private ExchangeRateRepository repo;
 
+    @Mock
+    private CurrencyCatalog catalog;
+
     private CurrencyService currencyService;
 
     @BeforeEach
     void setUp() {
-        currencyService = new CurrencyService(syncService, repo);
+        currencyService = new CurrencyService(syncService, repo, catalog);
     }
 
     @Test
-    void getCurrenciesReturnsDistinctCurrenciesAfterSync() {
-        when(repo.findDistinctCurrencies()).thenReturn(List.of("GBP", "USD"));
+    void getCurrenciesReturnsTheCatalogAfterSync() {
+        when(catalog.codes()).thenReturn(List.of("GBP", "USD"));
 
         List<String> currencies = currencyService.getCurrencies();
 
         assertEquals(List.of("GBP", "USD"), currencies);
         verify(syncService).syncLastDays();
-        verify(repo).findDistinctCurrencies();
+        verifyNoInteractions(repo);
+    }
+
+    @Test
+    void currencyRequestsSyncOnlyOnceADayWhileCurrenciesAreStored() {
+        when(catalog.codes()).thenReturn(List.of("GBP", "USD"));
+        List<CurrencyDetails> details = List.of(
+                new CurrencyDetails("GBP", LocalDate.of(1999, 1, 4), LocalDate.of(2026, 2, 18), 6946),
+                new CurrencyDetails("USD", LocalDate.of(1999, 1, 4), LocalDate.of(2026, 2, 18), 6946));
+        when(catalog.details()).thenReturn(details);
+
+        currencyService.getCurrencies();
+        currencyService.getCurrencies();
+
+        assertEquals(details, currencyService.getCurrencyDetails());
+        verify(syncService).syncLastDays();
+    }
+
+    @Test
+    void currencyRequestsSyncAgainWhileNoCurrencyIsStored() {
+        when(catalog.isEmpty()).thenReturn(true);
+
+        currencyService.getCurrencies();
+        currencyService.getCurrencies();
+
+        verify(syncService, times(2)).syncLastDays();
     }
 
     @Test
@@ -54,11 +85,11 @@ class CurrencyServiceTest {
         LocalDate start = LocalDate.of(2026, 1, 1);
         LocalDate end = LocalDate.of(2026, 1, 3);
         when(repo.countRates(start, end, "USD")).thenReturn(3L);
-        List<ExchangeRateEntity> entities = List.of(
-                new ExchangeRateEntity(LocalDate.of(2026, 1, 1), "USD", new BigDecimal("1.1010")),
-                new ExchangeRateEntity(LocalDate.of(2026, 1, 2), "USD", new BigDecimal("1.1020"))
+        List<RateItem> items = List.of(
+                new RateItem(LocalDate.of(2026, 1, 1), "USD", new BigDecimal("1.1010")),
+                new RateItem(LocalDate.of(2026, 1, 2), "USD", new BigDecimal("1.1020"))
         );
-        when(repo.findRates(start, end, "USD", 2, 0)).thenReturn(entities);
+        when(repo.findRateItems(start, end, "USD", 2, 0)).thenReturn(items);
 
         RatesResponse response = currencyService.getRates(start, end, "usd", 2, 0);
 
@@ -73,10 +104,10 @@ class CurrencyServiceTest {
         assertEquals(0, response.page().offset());
         assertEquals(3L, response.page().total());
 
-        verify(syncService).syncRange(start, end, false);
+        verify(syncService).syncRange(start, end, "USD", false);
         verify(syncService, never()).syncLastDays();
         verify(repo).countRates(start, end, "USD");
-        verify(repo).findRates(start, end, "USD", 2, 0);
+        verify(repo).findRateItems(start, end, "USD", 2, 0);
     }
 
     @Test
@@ -92,10 +123,10 @@ class CurrencyServiceTest {
         assertEquals(0, response.page().offset());
         assertEquals(0L, response.page().total());
 
-        verify(syncService).syncRange(response.start(), response.end(), false);
+        verify(syncService).syncRange(response.start(), response.end(), null, false);
         verify(syncService, never()).syncLastDays();
         verify(repo).countRates(response.start(), response.end(), null);
-        verify(repo, never()).findRates(response.start(), response.end(), null, 1000, 0);
+        verify(repo, never()).findRateItems(response.start(), response.end(), null, 1000, 0);
     }
 
     @Test
@@ -111,7 +142,7 @@ class CurrencyServiceTest {
         assertEquals(5, response.page().offset());
         assertEquals(5L, response.page().total());
         verify(repo).countRates(start, end, null);
-        verify(repo, never()).findRates(start, end, null, 2, 5);
+        verify(repo, never()).findRateItems(start, end, null, 2, 5);
     }
 
     @Test
@@ -181,11 +212,11 @@ class CurrencyServiceTest {
     @Test
     void getRatesByDateReturnsMappedRatesAndCallsSyncDay() {
         LocalDate date = LocalDate.of(2026, 2, 18);
-        List<ExchangeRateEntity> rows = List.of(
-                new ExchangeRateEntity(date, "GBP", new BigDecimal("0.8541")),
-                new ExchangeRateEntity(date, "USD", new BigDecimal("1.0923"))
+        List<CurrencyRate> rows = List.of(
+                new CurrencyRate("GBP", new BigDecimal("0.8541")),
+                new CurrencyRate("USD", new BigDecimal("1.0923"))
         );
-        when(repo.findByDateAndOptionalCurrency(date, null)).thenReturn(rows);
+        when(repo.findCurrencyRates(date, null)).thenReturn(rows);
 
         RatesByDateResponse response = currencyService.getRatesByDate(date, null);
 
@@ -194,21 +225,21 @@ class CurrencyServiceTest {
         assertEquals(2, response.rates().size());
         assertEquals(new BigDecimal("0.8541"), response.rates().get("GBP"));
         assertEquals(new BigDecimal("1.0923"), response.rates().get("USD"));
-        verify(syncService).syncDay(date);
-        verify(repo).findByDateAndOptionalCurrency(date, null);
+        verify(syncService).syncDay(date, null);
+        verify(repo).findCurrencyRates(date, null);
     }
 
     @Test
     void getRatesByDateThrowsNotFoundWhenNoRows() {
         LocalDate date = LocalDate.of(2026, 2, 18);
-        when(repo.findByDateAndOptionalCurrency(date, null)).thenReturn(List.of());
+        when(repo.findCurrencyRates(date, null)).thenReturn(List.of());
 
         RateNotFoundException ex = assertThrows(RateNotFoundException.class,
                 () -> currencyService.getRatesByDate(date, null));
 
         assertEquals("No rate exists for that date", ex.getMessage());
-        verify(syncService).syncDay(date);
-        verify(repo).findByDateAndOptionalCurrency(date, null);
+        verify(syncService).syncDay(date, null);
+        verify(repo).findCurrencyRates(date, null);
     }
 
     @Test
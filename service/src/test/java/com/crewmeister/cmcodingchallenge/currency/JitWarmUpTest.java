@@ -0,0 +1,171 @@
+package com.crewmeister.cmcodingchallenge.currency;
+
+import com.crewmeister.cmcodingchallenge.bank.FakeBundesbankServer;
+import com.crewmeister.cmcodingchallenge.bank.FakeBundesbankServer.Response;
+import com.crewmeister.cmcodingchallenge.model.CurrencyRate;
+import com.crewmeister.cmcodingchallenge.model.ExchangeRateRepository;
+import com.crewmeister.cmcodingchallenge.sync.WarmSync;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JitWarmUpTest {
+
+    private static final LocalDate LATEST = LocalDate.of(2026, 3, 13);
+
+    @Mock
+    private WarmSync warmSync;
+
+    @Mock
+    private ExchangeRateRepository repo;
+
+    private final FakeBundesbankServer service = new FakeBundesbankServer().respondByDefault(Response.ok("{}"));
+
+    @AfterEach
+    void stopService() {
+        service.close();
+    }
+
+    @Test
+    void disabledIsReadyWithoutRequests() {
+        JitWarmUp warmUp = warmUp(false, 10, Duration.ofMinutes(1));
+
+        warmUp.start(port());
+
+        assertThat(warmUp.health().getStatus()).isEqualTo(Status.UP);
+        assertThat(warmUp.state()).isEqualTo(JitWarmUp.State.DISABLED);
+        assertThat(service.requestCount()).isZero();
+        verifyNoInteractions(warmSync, repo);
+    }
+
+    @Test
+    void outOfServiceUntilTheIterationsAreDone() throws Exception {
+        CountDownLatch synced = new CountDownLatch(1);
+        when(warmSync.awaitFinished(any())).thenAnswer(invocation -> synced.await(5, TimeUnit.SECONDS));
+        storedRates();
+        JitWarmUp warmUp = warmUp(true, 20, Duration.ofMinutes(1));
+        assertThat(warmUp.health().getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+
+        warmUp.start(port());
+        assertThat(warmUp.health().getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+        assertThat(service.requestCount()).isZero();
+
+        synced.countDown();
+        await().atMost(Duration.ofSeconds(10)).until(() -> warmUp.state() == JitWarmUp.State.DONE);
+        Health health = warmUp.health();
+        assertThat(health.getStatus()).isEqualTo(Status.UP);
+        assertThat(health.getDetails()).containsEntry("iterations", 20);
+        assertThat(service.requestCount()).isEqualTo(20 * 5);
+    }
+
+    @Test
+    void requestsOnlyTheLatestStoredDate() throws Exception {
+        when(warmSync.awaitFinished(any())).thenReturn(true);
+        storedRates();
+        JitWarmUp warmUp = warmUp(true, 2, Duration.ofMinutes(1));
+
+        warmUp.start(port());
+        await().atMost(Duration.ofSeconds(10)).until(() -> warmUp.state() == JitWarmUp.State.DONE);
+
+        assertThat(service.requests()).containsExactly(
+                "/api/rates/2026-03-13",
+                "/api/rates/2026-03-13?currency=AUD",
+                "/api/rates?start=2026-03-13&end=2026-03-13&limit=100",
+                "/api/rates?start=2026-03-13&end=2026-03-13&currency=AUD",
+                "/api/conversions/to-eur?date=2026-03-13&currency=AUD&amount=100.25",
+                "/api/rates/2026-03-13",
+                "/api/rates/2026-03-13?currency=USD",
+                "/api/rates?start=2026-03-13&end=2026-03-13&limit=100",
+                "/api/rates?start=2026-03-13&end=2026-03-13&currency=USD",
+                "/api/conversions/to-eur?date=2026-03-13&currency=USD&amount=101.25");
+    }
+
+    @Test
+    void skippedWithoutLocalRates() throws Exception {
+        when(warmSync.awaitFinished(any())).thenReturn(true);
+        when(repo.findMaxDate()).thenReturn(null);
+        JitWarmUp warmUp = warmUp(true, 10, Duration.ofMinutes(1));
+
+        warmUp.start(port());
+        await().atMost(Duration.ofSeconds(5)).until(() -> warmUp.state() == JitWarmUp.State.SKIPPED);
+
+        assertThat(warmUp.health().getStatus()).isEqualTo(Status.UP);
+        assertThat(service.requestCount()).isZero();
+    }
+
+    @Test
+    void stopsAtTheFirstUnsuccessfulResponse() throws Exception {
+        when(warmSync.awaitFinished(any())).thenReturn(true);
+        storedRates();
+        service.enqueue(Response.ok("{}"), Response.status(503));
+        JitWarmUp warmUp = warmUp(true, 100, Duration.ofMinutes(1));
+
+        warmUp.start(port());
+        await().atMost(Duration.ofSeconds(5)).until(() -> warmUp.state() == JitWarmUp.State.FAILED);
+
+        Health health = warmUp.health();
+        assertThat(health.getStatus()).isEqualTo(Status.UP);
+        assertThat(health.getDetails()).containsEntry("failure", "GET /api/rates/2026-03-13?currency=AUD returned 503");
+        assertThat(service.requestCount()).isEqualTo(2);
+    }
+
+    @Test
+    void readyAfterTheTimeoutEvenIfTheWarmSyncHasNotFinished() throws Exception {
+        when(warmSync.awaitFinished(any())).thenAnswer(invocation -> {
+            Thread.sleep(((Duration) invocation.getArgument(0)).toMillis());
+            return false;
+        });
+        JitWarmUp warmUp = warmUp(true, 10, Duration.ofMillis(500));
+
+        warmUp.start(port());
+        assertThat(warmUp.health().getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> warmUp.health().getStatus().equals(Status.UP));
+        await().atMost(Duration.ofSeconds(5)).until(() -> warmUp.state() == JitWarmUp.State.SKIPPED);
+        assertThat(service.requestCount()).isZero();
+        verifyNoInteractions(repo);
+    }
+
+    @Test
+    void skippedWithoutAWebServer() {
+        JitWarmUp warmUp = warmUp(true, 10, Duration.ofMinutes(1));
+
+        warmUp.start(-1);
+
+        assertThat(warmUp.state()).isEqualTo(JitWarmUp.State.SKIPPED);
+        assertThat(warmUp.health().getStatus()).isEqualTo(Status.UP);
+    }
+
+    private void storedRates() {
+        when(repo.findMaxDate()).thenReturn(LATEST);
+        when(repo.findCurrencyRates(LATEST, null)).thenReturn(List.of(
+                new CurrencyRate("AUD", new BigDecimal("1.6578")),
+                new CurrencyRate("USD", new BigDecimal("1.0824"))));
+    }
+
+    private int port() {
+        return URI.create(service.baseUrl()).getPort();
+    }
+
+    private JitWarmUp warmUp(boolean enabled, int iterations, Duration timeout) {
+        return new JitWarmUp(warmSync, repo, new JitWarmUpProperties(enabled, iterations, timeout));
+    }
+}
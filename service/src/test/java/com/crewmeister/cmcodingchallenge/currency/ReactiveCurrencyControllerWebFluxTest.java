@@ -0,0 +1,143 @@
+package com.crewmeister.cmcodingchallenge.currency;
+
+import com.crewmeister.cmcodingchallenge.dto.*;
+import com.crewmeister.cmcodingchallenge.exception.ApiExceptionHandler;
+import com.crewmeister.cmcodingchallenge.sync.SyncInProgressException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@WebFluxTest(controllers = ReactiveCurrencyController.class)
+@Import(ApiExceptionHandler.class)
+class ReactiveCurrencyControllerWebFluxTest {
+
+    @Autowired
+    private WebTestClient client;
+
+    @MockBean
+    private ReactiveCurrencyService currencyService;
+
+    @Test
+    void getCurrenciesSuccess() {
+        when(currencyService.getCurrencies()).thenReturn(Mono.just(List.of("GBP", "USD")));
+
+        client.get().uri("/api/currencies").exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$[0]").isEqualTo("GBP")
+                .jsonPath("$[1]").isEqualTo("USD");
+    }
+
+    @Test
+    void getCurrenciesWithDetails() {
+        when(currencyService.getCurrencyDetails()).thenReturn(Mono.just(List.of(
+                new CurrencyDetails("USD", LocalDate.of(1999, 1, 4), LocalDate.of(2026, 2, 18), 6946))));
+
+        client.get().uri("/api/currencies?details=true").exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].code").isEqualTo("USD")
+                .jsonPath("$[0].firstDate").isEqualTo("1999-01-04")
+                .jsonPath("$[0].observations").isEqualTo(6946);
+    }
+
+    @Test
+    void getRatesPassesFiltersAndPaging() {
+        LocalDate start = LocalDate.of(2026, 1, 1);
+        LocalDate end = LocalDate.of(2026, 1, 31);
+        RatesResponse response = new RatesResponse("EUR", start, end,
+                List.of(new RateItem(LocalDate.of(2026, 1, 2), "USD", new BigDecimal("1.0923"))),
+                new PageMeta(10, 20, 21));
+        when(currencyService.getRates(start, end, "USD", 10, 20)).thenReturn(Mono.just(response));
+
+        client.get().uri("/api/rates?start=2026-01-01&end=2026-01-31&currency=USD&limit=10&offset=20").exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.items[0].currency").isEqualTo("USD")
+                .jsonPath("$.page.total").isEqualTo(21);
+    }
+
+    @Test
+    void getRatesInvalidDateFormatReturnsBadRequest() {
+        client.get().uri("/api/rates?start=bad-date&end=2026-01-31").exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(String.class).isEqualTo("Invalid input");
+
+        verifyNoInteractions(currencyService);
+    }
+
+    @Test
+    void getRatesValidationFailureReturnsBadRequest() {
+        when(currencyService.getRates(any(), any(), any(), anyInt(), anyInt()))
+                .thenReturn(Mono.error(new IllegalArgumentException("start and end must be provided together")));
+
+        client.get().uri("/api/rates?start=2026-01-01").exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(String.class).isEqualTo("start and end must be provided together");
+    }
+
+    @Test
+    void getRatesByDateNotFoundReturns404() {
+        when(currencyService.getRatesByDate(LocalDate.of(2026, 2, 18), null))
+                .thenReturn(Mono.error(new RateNotFoundException("No rate exists for that date")));
+
+        client.get().uri("/api/rates/2026-02-18").exchange()
+                .expectStatus().isNotFound()
+                .expectBody(String.class).isEqualTo("No rate exists for that date");
+    }
+
+    @Test
+    void getRatesByDateSuccess() {
+        LocalDate date = LocalDate.of(2026, 2, 18);
+        when(currencyService.getRatesByDate(date, "USD"))
+                .thenReturn(Mono.just(new RatesByDateResponse("EUR", date, Map.of("USD", new BigDecimal("1.0923")))));
+
+        client.get().uri("/api/rates/2026-02-18?currency=USD").exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.rates.USD").isEqualTo(1.0923);
+    }
+
+    @Test
+    void convertToEurMissingRequiredParamReturnsBadRequest() {
+        client.get().uri("/api/conversions/to-eur?date=2026-02-18&currency=USD").exchange()
+                .expectStatus().isBadRequest();
+
+        verifyNoInteractions(currencyService);
+    }
+
+    @Test
+    void convertToEurSyncInProgressReturnsServiceUnavailable() {
+        when(currencyService.convertToEur(any(), any(), any()))
+                .thenReturn(Mono.error(new SyncInProgressException("sync in progress, retry")));
+
+        client.get().uri("/api/conversions/to-eur?date=2026-02-18&currency=USD&amount=100").exchange()
+                .expectStatus().isEqualTo(503);
+    }
+
+    @Test
+    void updateReturnsNoContentOnceSynced() {
+        LocalDate start = LocalDate.of(2026, 1, 1);
+        LocalDate end = LocalDate.of(2026, 1, 31);
+        when(currencyService.forceUpdateData(start, end)).thenReturn(Mono.empty());
+
+        client.post().uri("/api/update?start=2026-01-01&end=2026-01-31").exchange()
+                .expectStatus().isNoContent();
+
+        verify(currencyService).forceUpdateData(start, end);
+    }
+}
@@ -0,0 +1,139 @@
+package com.crewmeister.cmcodingchallenge.currency;
+
+import com.crewmeister.cmcodingchallenge.bank.ExchangeRateRow;
+import com.crewmeister.cmcodingchallenge.dto.ConversionResponse;
+import com.crewmeister.cmcodingchallenge.dto.CurrencyDetails;
+import com.crewmeister.cmcodingchallenge.dto.RatesByDateResponse;
+import com.crewmeister.cmcodingchallenge.dto.RatesResponse;
+import com.crewmeister.cmcodingchallenge.sync.CurrencyCatalog;
+import com.crewmeister.cmcodingchallenge.sync.RateStore;
+import com.crewmeister.cmcodingchallenge.sync.ReactiveSyncService;
+import com.crewmeister.cmcodingchallenge.sync.SyncInProgressException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveCurrencyServiceTest {
+
+    private static final LocalDate DAY_1 = LocalDate.of(2026, 1, 2);
+    private static final LocalDate DAY_2 = LocalDate.of(2026, 1, 5);
+
+    @Mock
+    private ReactiveSyncService syncService;
+
+    @Mock
+    private RateStore store;
+
+    @Mock
+    private CurrencyCatalog catalog;
+
+    private ReactiveCurrencyService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ReactiveCurrencyService(syncService, store, catalog);
+    }
+
+    @Test
+    void getCurrenciesSyncsTheRecentWindowFirst() {
+        when(syncService.syncLastDays()).thenReturn(Mono.empty());
+        when(catalog.codes()).thenReturn(List.of("GBP", "USD"));
+
+        assertThat(service.getCurrencies().block()).containsExactly("GBP", "USD");
+        // the window was synced today
+        assertThat(service.getCurrencies().block()).containsExactly("GBP", "USD");
+        verify(syncService).syncLastDays();
+    }
+
+    @Test
+    void getCurrencyDetailsSyncsTheRecentWindowFirst() {
+        CurrencyDetails usd = new CurrencyDetails("USD", DAY_1, DAY_2, 2);
+        when(syncService.syncLastDays()).thenReturn(Mono.empty());
+        when(catalog.details()).thenReturn(List.of(usd));
+
+        assertThat(service.getCurrencyDetails().block()).containsExactly(usd);
+    }
+
+    @Test
+    void getRatesPagesTheStoredRange() {
+        when(syncService.syncRange(DAY_1, DAY_2, "USD", false)).thenReturn(Mono.empty());
+        when(store.rates(DAY_1, DAY_2, "USD")).thenReturn(List.of(
+                new ExchangeRateRow(DAY_1, "USD", new BigDecimal("1.10")),
+                new ExchangeRateRow(DAY_2, "USD", new BigDecimal("1.11"))));
+
+        RatesResponse page = service.getRates(DAY_1, DAY_2, " usd ", 1, 1).block();
+
+        assertThat(page.items()).singleElement().satisfies(item -> assertThat(item.date()).isEqualTo(DAY_2));
+        assertThat(page.page().total()).isEqualTo(2);
+        assertThat(service.getRates(DAY_1, DAY_2, "USD", 10, 5).block().items()).isEmpty();
+    }
+
+    @Test
+    void invalidInputFailsWithoutSyncing() {
+        assertThatThrownBy(() -> service.getRates(DAY_1, null, null).block())
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.convertToEur(DAY_1, "USD", BigDecimal.ZERO).block())
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(syncService);
+    }
+
+    @Test
+    void getRatesByDateFailsWhenNothingIsStored() {
+        when(syncService.syncDay(DAY_1, null)).thenReturn(Mono.empty());
+        when(store.ratesOn(DAY_1)).thenReturn(new TreeMap<>());
+
+        assertThatThrownBy(() -> service.getRatesByDate(DAY_1, null).block())
+                .isInstanceOf(RateNotFoundException.class);
+    }
+
+    @Test
+    void getRatesByDateFiltersByCurrency() {
+        when(syncService.syncDay(DAY_1, "USD")).thenReturn(Mono.empty());
+        when(store.rate(DAY_1, "USD")).thenReturn(Optional.of(new BigDecimal("1.10")));
+
+        RatesByDateResponse response = service.getRatesByDate(DAY_1, "usd").block();
+
+        assertThat(response.rates()).containsOnlyKeys("USD");
+    }
+
+    @Test
+    void convertToEurUsesTheStoredRate() {
+        when(syncService.syncDay(DAY_1, "USD")).thenReturn(Mono.empty());
+        when(store.rate(DAY_1, "USD")).thenReturn(Optional.of(new BigDecimal("1.25")));
+
+        ConversionResponse response = service.convertToEur(DAY_1, "usd", new BigDecimal("100")).block();
+
+        assertThat(response.to().amount()).isEqualByComparingTo("80.00");
+    }
+
+    @Test
+    void convertEurNeedsNoRate() {
+        ConversionResponse response = service.convertToEur(DAY_1, "EUR", new BigDecimal("10.005")).block();
+
+        assertThat(response.to().amount()).isEqualByComparingTo("10.01");
+        verifyNoInteractions(syncService, store);
+    }
+
+    @Test
+    void syncFailuresArePropagated() {
+        when(syncService.syncDay(any(), any())).thenReturn(Mono.error(new SyncInProgressException("busy")));
+
+        assertThatThrownBy(() -> service.convertToEur(DAY_1, "USD", BigDecimal.TEN).block())
+                .isInstanceOf(SyncInProgressException.class);
+    }
+}
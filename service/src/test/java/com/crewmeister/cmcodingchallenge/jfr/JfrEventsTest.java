@@ -0,0 +1,153 @@
+package com.crewmeister.cmcodingchallenge.jfr;
+
+import com.crewmeister.cmcodingchallenge.bank.BankResponseParser;
+import com.crewmeister.cmcodingchallenge.bank.BankService;
+import com.crewmeister.cmcodingchallenge.bank.ExchangeRateRow;
+import com.crewmeister.cmcodingchallenge.model.SyncCoverageRepository;
+import com.crewmeister.cmcodingchallenge.sync.DbWriter;
+import com.crewmeister.cmcodingchallenge.sync.SyncLease;
+import com.crewmeister.cmcodingchallenge.sync.SyncPipeline;
+import com.crewmeister.cmcodingchallenge.sync.SyncProperties;
+import com.crewmeister.cmcodingchallenge.sync.SyncService;
+import com.crewmeister.cmcodingchallenge.sync.WriteResult;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JfrEventsTest {
+
+    private static final LocalDate DATE = LocalDate.of(2026, 2, 18);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void syncPhasesEmitNestedEventsWithRangeAndRowCounts() throws Exception {
+        BankService bankService = mock(BankService.class);
+        DbWriter dbWriter = mock(DbWriter.class);
+        SyncCoverageRepository coverageRepo = mock(SyncCoverageRepository.class);
+        when(coverageRepo.countCoveredDates(any(), any(), any())).thenReturn(0L);
+        when(bankService.streamRates(any(), any(), any(), any(), any())).thenAnswer(invocation -> {
+            Consumer<ExchangeRateRow> sink = invocation.getArgument(4);
+            sink.accept(new ExchangeRateRow(DATE, "USD", BigDecimal.ONE));
+            return 1;
+        });
+        when(dbWriter.saveBatch(anyList(), anyString())).thenReturn(new WriteResult(1, 0, 0));
+        SyncProperties properties = new SyncProperties(Duration.ofSeconds(5), 100, 10, 60);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        SyncPipeline pipeline = new SyncPipeline(bankService, dbWriter, properties, registry);
+        SyncService syncService = new SyncService(coverageRepo, pipeline, mock(SyncLease.class), properties, registry);
+
+        List<RecordedEvent> events = record(() -> syncService.syncDay(DATE, "USD"));
+
+        assertThat(events).extracting(e -> e.getEventType().getName())
+                .contains("fx.SyncLock", "fx.CoverageCheck", "fx.SyncWrite", "fx.Sync");
+        RecordedEvent sync = only(events, "fx.Sync");
+        assertThat(sync.getString("startDate")).isEqualTo("2026-02-18");
+        assertThat(sync.getString("currency")).isEqualTo("USD");
+        assertThat(sync.getString("outcome")).isEqualTo("synced");
+        assertThat(sync.getLong("inserted")).isEqualTo(1);
+        // checked before taking the lock and again under it
+        assertThat(events).filteredOn(e -> e.getEventType().getName().equals("fx.CoverageCheck"))
+                .extracting(e -> e.getBoolean("covered"))
+                .containsExactly(false, false);
+        assertThat(only(events, "fx.SyncWrite").getString("mode")).isEqualTo("direct");
+    }
+
+    @Test
+    void parseEventsAreFinishedForUnsupportedPayloadsAndFailingSinks() throws Exception {
+        BankResponseParser parser = new BankResponseParser(new SimpleMeterRegistry());
+        JsonNode payload;
+        try (var in = getClass().getClassLoader().getResourceAsStream("bank/parser/happy-path.json")) {
+            payload = new ObjectMapper().readTree(in);
+        }
+
+        List<RecordedEvent> events = record(() -> {
+            parser.parseRates(null, row -> { });
+            parser.parseRates(new ObjectMapper().createObjectNode());
+            assertThatThrownBy(() -> parser.parseRates(payload, row -> {
+                throw new IllegalStateException("writer gone");
+            })).hasMessage("writer gone");
+        });
+
+        assertThat(events).filteredOn(e -> e.getEventType().getName().equals("fx.Parse"))
+                .extracting(e -> e.getString("mode"), e -> e.getInt("rows"))
+                .containsExactly(
+                        tuple("streaming", 0),
+                        tuple("sequential", 0),
+                        tuple("streaming", 0));
+    }
+
+    @Test
+    void apiRequestEventCarriesRouteStatusAndParameters() throws Exception {
+        ApiRequestEventFilter filter = new ApiRequestEventFilter();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/rates/2026-02-18");
+        request.setParameter("currency", "USD");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/rates/{date}");
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("date", "2026-02-18"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        List<RecordedEvent> events = record(() -> {
+            try {
+                filter.doFilter(request, response, new MockFilterChain());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        RecordedEvent event = only(events, "fx.ApiRequest");
+        assertThat(event.getString("route")).isEqualTo("/api/rates/{date}");
+        assertThat(event.getInt("status")).isEqualTo(200);
+        assertThat(event.getString("currency")).isEqualTo("USD");
+        assertThat(event.getString("date")).isEqualTo("2026-02-18");
+    }
+
+    private List<RecordedEvent> record(Runnable action) throws Exception {
+        Path file = tempDir.resolve("fx.jfr");
+        try (Recording recording = new Recording()) {
+            for (String name : List.of("fx.Sync", "fx.SyncLock", "fx.CoverageCheck", "fx.SyncWrite",
+                    "fx.BankFetch", "fx.Parse", "fx.ApiRequest")) {
+                recording.enable(name).withThreshold(Duration.ZERO);
+            }
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        return RecordingFile.readAllEvents(file);
+    }
+
+    private static RecordedEvent only(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> matching = events.stream()
+                .filter(e -> e.getEventType().getName().equals(name))
+                .toList();
+        assertThat(matching).hasSize(1);
+        return matching.get(0);
+    }
+}
@@ -0,0 +1,104 @@
+package com.crewmeister.cmcodingchallenge.sync;
+
+import com.crewmeister.cmcodingchallenge.CmCodingChallengeApplication;
+import com.crewmeister.cmcodingchallenge.bank.FakeBundesbankServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.h2.tools.Server;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Two reactive instances of the service, each with its own in-memory {@link RateStore}, sharing one
+ * H2 server as replicas share a database in production.
+ */
+class CrossNodeRefreshTest {
+
+    private static final LocalDate START = LocalDate.of(2026, 2, 18);
+    private static final LocalDate END = LocalDate.of(2026, 2, 19);
+    private static final String HAPPY_PATH = FakeBundesbankServer.resource("bank/parser/happy-path.json");
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(100);
+    // the poll interval plus the time to reload a few dates
+    private static final Duration STALENESS_BOUND = Duration.ofSeconds(2);
+
+    private static Server database;
+    private static FakeBundesbankServer upstream;
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    static void startNodes() throws SQLException {
+        database = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        upstream = new FakeBundesbankServer();
+        String url = "jdbc:h2:tcp://localhost:" + database.getPort() + "/mem:cross-node-" + UUID.randomUUID()
+                + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1";
+        nodeA = start("node-a", url);
+        nodeB = start("node-b", url);
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        nodeB.close();
+        nodeA.close();
+        upstream.close();
+        database.stop();
+    }
+
+    @Test
+    void syncOnOneNodeReachesTheOtherNodesStoreWithinTheStalenessBound() {
+        RateStore storeB = nodeB.getBean(RateStore.class);
+        upstream.respondByDefault(FakeBundesbankServer.Response.ok(HAPPY_PATH));
+        assertThat(storeB.isCovered(START, END, null)).isFalse();
+
+        nodeA.getBean(SyncService.class).syncRange(START, END, false);
+
+        await().atMost(STALENESS_BOUND).untilAsserted(() -> {
+            assertThat(storeB.isCovered(START, END, null)).isTrue();
+            assertThat(storeB.rate(START, "GBP")).hasValueSatisfying(rate -> assertThat(rate).isEqualByComparingTo("0.88"));
+            assertThat(nodeB.getBean(CurrencyCatalog.class).codes()).containsExactly("GBP", "USD");
+        });
+
+        // a forced re-sync that revises a rate
+        upstream.respondByDefault(FakeBundesbankServer.Response.ok(HAPPY_PATH.replace("\"0.88\"", "\"0.89\"")));
+        nodeA.getBean(SyncService.class).syncRange(START, END, true);
+
+        await().atMost(STALENESS_BOUND).untilAsserted(() ->
+                assertThat(storeB.rate(START, "GBP")).hasValueSatisfying(rate -> assertThat(rate).isEqualByComparingTo("0.89")));
+        assertThat(upstream.requestCount()).isEqualTo(2);
+        assertThat(remoteChanges(nodeB)).isEqualTo(2.0);
+        // node A refreshed its own store on commit and skips its own versions
+        assertThat(remoteChanges(nodeA)).isZero();
+        assertThat(nodeA.getBean(RateStore.class).rate(START, "GBP"))
+                .hasValueSatisfying(rate -> assertThat(rate).isEqualByComparingTo("0.89"));
+    }
+
+    private static ConfigurableApplicationContext start(String owner, String url) {
+        // command-line arguments, so they take precedence over application.properties
+        return new SpringApplicationBuilder(CmCodingChallengeApplication.class).run(
+                "--spring.main.web-application-type=reactive",
+                "--server.port=0",
+                "--spring.datasource.url=" + url,
+                "--spring.jpa.properties.hibernate.format_sql=false",
+                "--spring.main.banner-mode=off",
+                "--fx.bank.base-url=" + upstream.baseUrl(),
+                "--fx.bank.retry.max-attempts=1",
+                "--fx.sync.warm.enabled=false",
+                "--fx.snapshot.import-on-startup=false",
+                "--fx.sync.lease.owner=" + owner,
+                "--fx.sync.data-version.poll-interval=" + POLL_INTERVAL.toMillis() + "ms");
+    }
+
+    private static double remoteChanges(ConfigurableApplicationContext node) {
+        return node.getBean(MeterRegistry.class).get("sync.data-version.changes").tag("kind", "range").counter().count();
+    }
+}
@@ -0,0 +1,116 @@
+package com.crewmeister.cmcodingchallenge.sync;
+
+import com.crewmeister.cmcodingchallenge.dto.CurrencyDetails;
+import com.crewmeister.cmcodingchallenge.model.CurrencyCatalogRepository;
+import com.crewmeister.cmcodingchallenge.model.ExchangeRateRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CurrencyCatalogTest {
+
+    private static final LocalDate DAY_1 = LocalDate.of(2026, 2, 18);
+    private static final LocalDate DAY_2 = LocalDate.of(2026, 2, 19);
+
+    private static final CurrencyDetails GBP = new CurrencyDetails("GBP", DAY_1, DAY_1, 1);
+    private static final CurrencyDetails USD = new CurrencyDetails("USD", DAY_1, DAY_2, 2);
+
+    @Mock
+    private CurrencyCatalogRepository catalogRepo;
+
+    @Mock
+    private ExchangeRateRepository repo;
+
+    @Mock
+    private DbWriter dbWriter;
+
+    @Mock
+    private SyncService syncService;
+
+    @Test
+    void loadsTheStoredCatalogWithoutWriting() {
+        when(catalogRepo.findAllDetails()).thenReturn(List.of(GBP, USD));
+
+        CurrencyCatalog catalog = catalog();
+
+        assertThat(catalog.codes()).containsExactly("GBP", "USD");
+        assertThat(catalog.details()).containsExactly(GBP, USD);
+        assertThat(catalog.isEmpty()).isFalse();
+        verifyNoInteractions(syncService, dbWriter);
+    }
+
+    @Test
+    void backfillBuildsAnEmptyCatalogFromStoredRatesUnderTheSyncLock() {
+        when(catalogRepo.findAllDetails()).thenReturn(List.of());
+        CurrencyCatalog catalog = catalog();
+        when(catalogRepo.count()).thenReturn(0L);
+        when(repo.findMaxDate()).thenReturn(DAY_2);
+        when(syncService.writeExclusively(any())).thenAnswer(call -> call.<Supplier<?>>getArgument(0).get());
+        when(catalogRepo.findAllDetails()).thenReturn(List.of(GBP, USD));
+
+        catalog.backfill();
+
+        verify(dbWriter).rebuildCurrencyCatalog();
+        assertThat(catalog.codes()).containsExactly("GBP", "USD");
+    }
+
+    @Test
+    void backfillLeavesABuiltCatalogAlone() {
+        when(catalogRepo.findAllDetails()).thenReturn(List.of(GBP, USD));
+        CurrencyCatalog catalog = catalog();
+        when(catalogRepo.count()).thenReturn(2L);
+
+        catalog.backfill();
+
+        verify(syncService, never()).writeExclusively(any());
+    }
+
+    @Test
+    void backfillOfAnEmptyDatabaseLeavesTheCatalogEmpty() {
+        when(catalogRepo.findAllDetails()).thenReturn(List.of());
+        CurrencyCatalog catalog = catalog();
+        when(catalogRepo.count()).thenReturn(0L);
+
+        catalog.backfill();
+
+        assertThat(catalog.isEmpty()).isTrue();
+        verify(syncService, never()).writeExclusively(any());
+    }
+
+    @Test
+    void syncsOfThisAndOtherNodesReloadTheCatalog() {
+        when(catalogRepo.findAllDetails()).thenReturn(List.of(USD));
+        CurrencyCatalog catalog = catalog();
+        List<String> before = catalog.codes();
+
+        when(catalogRepo.findAllDetails()).thenReturn(List.of(GBP, USD));
+        catalog.onRatesWritten(new RatesWrittenEvent(List.of(DAY_1), "*"));
+
+        assertThat(catalog.codes()).containsExactly("GBP", "USD");
+        // readers keep the list they were handed
+        assertThat(before).containsExactly("USD");
+
+        CurrencyDetails jpy = new CurrencyDetails("JPY", DAY_2, DAY_2, 1);
+        when(catalogRepo.findAllDetails()).thenReturn(List.of(GBP, jpy, USD));
+        catalog.onRemoteRatesWritten(new RemoteRatesWrittenEvent(DAY_2, DAY_2));
+
+        assertThat(catalog.details()).containsExactly(GBP, jpy, USD);
+    }
+
+    private CurrencyCatalog catalog() {
+        return new CurrencyCatalog(catalogRepo, repo, dbWriter, syncService);
+    }
+}
@@ -0,0 +1,101 @@
+package com.crewmeister.cmcodingchallenge.sync;
+
+import com.crewmeister.cmcodingchallenge.model.DataVersionEntity;
+import com.crewmeister.cmcodingchallenge.model.DataVersionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DataVersionPollerTest {
+
+    private static final LocalDate DAY_1 = LocalDate.of(2026, 2, 18);
+    private static final LocalDate DAY_2 = LocalDate.of(2026, 2, 19);
+
+    @Mock
+    private DataVersionRepository repo;
+
+    @Mock
+    private SyncLease lease;
+
+    @Mock
+    private ApplicationEventPublisher events;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private DataVersionPoller poller;
+
+    @BeforeEach
+    void setUp() {
+        when(repo.findCurrentVersion()).thenReturn(4L);
+        poller = new DataVersionPoller(repo, lease,
+                new DataVersionProperties(true, Duration.ofSeconds(1), 1000), events, registry);
+    }
+
+    @Test
+    void unchangedVersionReadsNothingElse() {
+        poller.poll();
+
+        verify(repo, never()).findByVersionGreaterThanOrderByVersion(anyLong());
+        verifyNoInteractions(events);
+    }
+
+    @Test
+    void changesOfOtherNodesArePublishedAndOwnChangesSkipped() {
+        when(lease.owner()).thenReturn("node-a");
+        when(repo.findCurrentVersion()).thenReturn(6L);
+        when(repo.findByVersionGreaterThanOrderByVersion(4)).thenReturn(List.of(
+                new DataVersionEntity(5, "node-b", DAY_1, DAY_2),
+                new DataVersionEntity(6, "node-a", DAY_2, DAY_2)));
+
+        poller.poll();
+        poller.poll();
+
+        verify(events).publishEvent(new RemoteRatesWrittenEvent(DAY_1, DAY_2));
+        verifyNoMoreInteractions(events);
+        assertThat(poller.seen()).isEqualTo(6);
+        assertThat(registry.get("sync.data-version.changes").tag("kind", "range").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void nodeBehindTheRetainedChangesReloadsEverything() {
+        when(repo.findCurrentVersion()).thenReturn(2000L);
+        when(repo.findByVersionGreaterThanOrderByVersion(4)).thenReturn(List.of(
+                new DataVersionEntity(1001, "node-b", DAY_1, DAY_1),
+                new DataVersionEntity(2000, "node-b", DAY_2, DAY_2)));
+
+        poller.poll();
+
+        verify(events).publishEvent(RemoteRatesWrittenEvent.everything());
+        verifyNoMoreInteractions(events);
+        assertThat(poller.seen()).isEqualTo(2000);
+        assertThat(registry.get("sync.data-version.changes").tag("kind", "full").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void failedListenerKeepsTheChangesForTheNextPoll() {
+        when(lease.owner()).thenReturn("node-a");
+        when(repo.findCurrentVersion()).thenReturn(5L);
+        when(repo.findByVersionGreaterThanOrderByVersion(4)).thenReturn(List.of(
+                new DataVersionEntity(5, "node-b", DAY_1, DAY_2)));
+        doThrow(new IllegalStateException("database down")).doNothing().when(events).publishEvent(any(Object.class));
+
+        assertThatThrownBy(() -> poller.poll()).isInstanceOf(IllegalStateException.class);
+        poller.poll();
+
+        verify(events, times(2)).publishEvent(new RemoteRatesWrittenEvent(DAY_1, DAY_2));
+        assertThat(poller.seen()).isEqualTo(5);
+    }
+}
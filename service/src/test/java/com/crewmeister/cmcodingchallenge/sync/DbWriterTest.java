@@ -0,0 +1,304 @@
+package com.crewmeister.cmcodingchallenge.sync;
+
+import com.crewmeister.cmcodingchallenge.bank.ExchangeRateRow;
+import com.crewmeister.cmcodingchallenge.dto.CurrencyDetails;
+import com.crewmeister.cmcodingchallenge.model.CurrencyCatalogRepository;
+import com.crewmeister.cmcodingchallenge.model.DataVersionEntity;
+import com.crewmeister.cmcodingchallenge.model.DataVersionRepository;
+import com.crewmeister.cmcodingchallenge.model.ExchangeRateDayDigestRepository;
+import com.crewmeister.cmcodingchallenge.model.ExchangeRateEntity;
+import com.crewmeister.cmcodingchallenge.model.ExchangeRateRepository;
+import com.crewmeister.cmcodingchallenge.model.ExchangeRateStagingRepository;
+import com.crewmeister.cmcodingchallenge.model.SyncCoverageRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = "fx.sync.data-version.retention=2")
+@Import(DbWriter.class)
+@EnableConfigurationProperties(DataVersionProperties.class)
+@RecordApplicationEvents
+class DbWriterTest {
+
+    private static final LocalDate DAY_1 = LocalDate.of(2026, 2, 18);
+    private static final LocalDate DAY_2 = LocalDate.of(2026, 2, 19);
+    private static final LocalDate DAY_3 = LocalDate.of(2026, 2, 20);
+
+    @Autowired
+    private DbWriter dbWriter;
+
+    @Autowired
+    private ExchangeRateRepository repo;
+
+    @Autowired
+    private ExchangeRateDayDigestRepository digestRepo;
+
+    @Autowired
+    private ExchangeRateStagingRepository stagingRepo;
+
+    @Autowired
+    private SyncCoverageRepository coverageRepo;
+
+    @Autowired
+    private DataVersionRepository versionRepo;
+
+    @Autowired
+    private CurrencyCatalogRepository catalogRepo;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @MockBean
+    private SyncLease lease;
+
+    @BeforeEach
+    void setUp() {
+        when(lease.owner()).thenReturn("node-a");
+    }
+
+    @Test
+    void firstWriteInsertsAllRowsAndStoresDayDigests() {
+        WriteResult result = dbWriter.saveBatch(rows("1.10", "0.88", "1.11"), "*");
+
+        assertThat(result).isEqualTo(new WriteResult(3, 0, 0));
+        assertThat(repo.count()).isEqualTo(3);
+        assertThat(digestRepo.findById(DAY_1)).hasValueSatisfying(d -> assertThat(d.getRowCount()).isEqualTo(2));
+        assertThat(digestRepo.findById(DAY_2)).hasValueSatisfying(d -> assertThat(d.getRowCount()).isEqualTo(1));
+    }
+
+    @Test
+    void identicalResyncWritesNothing() {
+        dbWriter.saveBatch(rows("1.10", "0.88", "1.11"), "*");
+        flushAndClear();
+
+        // same values at a different scale must still count as unchanged
+        WriteResult result = dbWriter.saveBatch(rows("1.1", "0.880", "1.11"), "*");
+
+        assertThat(result).isEqualTo(new WriteResult(0, 0, 3));
+    }
+
+    @Test
+    void resyncUpdatesOnlyChangedRowsAndAddsNewOnes() {
+        dbWriter.saveBatch(rows("1.10", "0.88", "1.11"), "*");
+        flushAndClear();
+
+        List<ExchangeRateRow> revised = List.of(
+                new ExchangeRateRow(DAY_1, "USD", new BigDecimal("1.10")),
+                new ExchangeRateRow(DAY_1, "GBP", new BigDecimal("0.87")),
+                new ExchangeRateRow(DAY_2, "USD", new BigDecimal("1.11")),
+                new ExchangeRateRow(DAY_2, "GBP", new BigDecimal("0.89")));
+        WriteResult result = dbWriter.saveBatch(revised, "*");
+        flushAndClear();
+
+        assertThat(result).isEqualTo(new WriteResult(1, 1, 2));
+        assertThat(repo.findByIdDateAndIdCurrency(DAY_1, "GBP"))
+                .map(ExchangeRateEntity::getRate)
+                .hasValueSatisfying(rate -> assertThat(rate).isEqualByComparingTo("0.87"));
+        assertThat(dbWriter.saveBatch(revised, "*")).isEqualTo(new WriteResult(0, 0, 4));
+    }
+
+    @Test
+    void singleCurrencyWriteKeepsDayDigestConsistentForLaterFullSync() {
+        dbWriter.saveBatch(rows("1.10", "0.88", "1.11"), "*");
+        flushAndClear();
+
+        assertThat(dbWriter.saveBatch(List.of(new ExchangeRateRow(DAY_1, "USD", new BigDecimal("1.12"))), "USD"))
+                .isEqualTo(new WriteResult(0, 1, 0));
+        flushAndClear();
+
+        assertThat(dbWriter.saveBatch(rows("1.12", "0.88", "1.11"), "*")).isEqualTo(new WriteResult(0, 0, 3));
+    }
+
+    @Test
+    void stagedRowsArePublishedWithOneMergeAndCountedLikeDirectWrites() {
+        dbWriter.saveBatch(rows("1.10", "0.88", "1.11"), "*");
+        flushAndClear();
+
+        dbWriter.stageBatch("sync-1", List.of(
+                new ExchangeRateRow(DAY_1, "USD", new BigDecimal("1.10")),
+                new ExchangeRateRow(DAY_1, "GBP", new BigDecimal("0.87"))));
+        dbWriter.stageBatch("sync-1", List.of(
+                new ExchangeRateRow(DAY_2, "USD", new BigDecimal("1.11")),
+                new ExchangeRateRow(DAY_2, "GBP", new BigDecimal("0.89"))));
+        dbWriter.stageBatch("sync-2", List.of(new ExchangeRateRow(DAY_2, "JPY", new BigDecimal("160"))));
+        flushAndClear();
+        assertThat(repo.count()).isEqualTo(3);
+
+        WriteResult result = dbWriter.publishStaged("sync-1", List.of(DAY_1, DAY_2), "*");
+        flushAndClear();
+
+        assertThat(result).isEqualTo(new WriteResult(1, 1, 2));
+        assertThat(repo.count()).isEqualTo(4);
+        assertThat(repo.findByIdDateAndIdCurrency(DAY_1, "GBP"))
+                .map(ExchangeRateEntity::getRate)
+                .hasValueSatisfying(rate -> assertThat(rate).isEqualByComparingTo("0.87"));
+        assertThat(stagingRepo.countBySyncId("sync-1")).isZero();
+        assertThat(stagingRepo.countBySyncId("sync-2")).isEqualTo(1);
+        assertThat(coverageRepo.countCoveredDates(DAY_1, DAY_2, List.of("*"))).isEqualTo(2);
+        // digests follow the merged rows, so a re-sync of the published days skips them unread
+        assertThat(digestRepo.findById(DAY_2)).hasValueSatisfying(d -> assertThat(d.getRowCount()).isEqualTo(2));
+        assertThat(dbWriter.saveBatch(List.of(
+                new ExchangeRateRow(DAY_1, "USD", new BigDecimal("1.10")),
+                new ExchangeRateRow(DAY_1, "GBP", new BigDecimal("0.87")),
+                new ExchangeRateRow(DAY_2, "USD", new BigDecimal("1.11")),
+                new ExchangeRateRow(DAY_2, "GBP", new BigDecimal("0.89"))), "*"))
+                .isEqualTo(new WriteResult(0, 0, 4));
+    }
+
+    @Test
+    void recordedCoverageIsAnnouncedForTheStore() {
+        dbWriter.saveBatch(rows("1.10", "0.88", "1.11"), "USD");
+        assertThat(events.stream(RatesWrittenEvent.class)).isEmpty();
+
+        dbWriter.recordCoverage(List.of(DAY_1, DAY_2), "USD");
+
+        assertThat(events.stream(RatesWrittenEvent.class))
+                .containsExactly(new RatesWrittenEvent(List.of(DAY_1, DAY_2), "USD"));
+        assertThat(coverageRepo.countCoveredDates(DAY_1, DAY_2, List.of("USD"))).isEqualTo(2);
+    }
+
+    @Test
+    void recordedCoverageBumpsTheDataVersionAndPrunesOldVersions() {
+        dbWriter.recordCoverage(List.of(DAY_1), "*");
+        dbWriter.recordCoverage(List.of(DAY_2, DAY_1), "USD");
+        dbWriter.recordCoverage(List.of(), "*");
+        dbWriter.recordCoverage(List.of(DAY_2), "*");
+        flushAndClear();
+
+        assertThat(versionRepo.findCurrentVersion()).isEqualTo(3);
+        // retention is 2
+        assertThat(versionRepo.findByVersionGreaterThanOrderByVersion(0))
+                .extracting(DataVersionEntity::getVersion, DataVersionEntity::getOrigin,
+                        DataVersionEntity::getFirstDate, DataVersionEntity::getLastDate)
+                .containsExactly(
+                        tuple(2L, "node-a", DAY_1, DAY_2),
+                        tuple(3L, "node-a", DAY_2, DAY_2));
+    }
+
+    @Test
+    void writesExtendTheCatalogByTheRatesTheyInsert() {
+        dbWriter.saveBatch(rows("1.10", "0.88", "1.11"), "*");
+        dbWriter.recordCoverage(List.of(DAY_1, DAY_2), "*");
+        // an updated rate is no new observation
+        dbWriter.saveBatch(List.of(new ExchangeRateRow(DAY_1, "USD", new BigDecimal("1.09")),
+                new ExchangeRateRow(DAY_3, "USD", new BigDecimal("1.12"))), "USD");
+        dbWriter.recordCoverage(List.of(DAY_1, DAY_3), "USD");
+        // written and recorded again without new rows, which must not count them twice
+        dbWriter.saveBatch(rows("1.10", "0.88", "1.11"), "*");
+        dbWriter.recordCoverage(List.of(DAY_1, DAY_2), "*");
+        flushAndClear();
+
+        assertThat(catalogRepo.findAllDetails()).containsExactly(
+                new CurrencyDetails("GBP", DAY_1, DAY_1, 1),
+                new CurrencyDetails("USD", DAY_1, DAY_3, 3));
+    }
+
+    @Test
+    void publishedStagedRatesExtendTheCatalogByTheNewOnes() {
+        dbWriter.saveBatch(List.of(new ExchangeRateRow(DAY_2, "USD", new BigDecimal("1.11"))), "USD");
+        dbWriter.stageBatch("sync-1", rows("1.10", "0.88", "1.12"));
+
+        dbWriter.publishStaged("sync-1", List.of(DAY_1, DAY_2), "*");
+        flushAndClear();
+
+        assertThat(catalogRepo.findAllDetails()).containsExactly(
+                new CurrencyDetails("GBP", DAY_1, DAY_1, 1),
+                new CurrencyDetails("USD", DAY_1, DAY_2, 2));
+    }
+
+    @Test
+    void importedRatesAreAddedToTheCatalog() {
+        dbWriter.importRates(rows("1.10", "0.88", "1.11"), List.of(DAY_1, DAY_2));
+        flushAndClear();
+
+        assertThat(catalogRepo.findAllDetails()).containsExactly(
+                new CurrencyDetails("GBP", DAY_1, DAY_1, 1),
+                new CurrencyDetails("USD", DAY_1, DAY_2, 2));
+    }
+
+    @Test
+    void catalogIsRebuiltFromRatesWrittenBeforeIt() {
+        repo.saveAll(rows("1.10", "0.88", "1.11").stream()
+                .map(row -> new ExchangeRateEntity(row.date(), row.currency(), row.rate()))
+                .toList());
+        assertThat(catalogRepo.findAllDetails()).isEmpty();
+
+        dbWriter.rebuildCurrencyCatalog();
+        flushAndClear();
+
+        assertThat(catalogRepo.findAllDetails()).containsExactly(
+                new CurrencyDetails("GBP", DAY_1, DAY_1, 1),
+                new CurrencyDetails("USD", DAY_1, DAY_2, 2));
+        assertThat(events.stream(RatesWrittenEvent.class)).isEmpty();
+    }
+
+    @Test
+    void writesAreRejectedOnceTheLeaseIsTakenOver() {
+        doThrow(new SyncInProgressException("taken over")).when(lease).verify();
+
+        assertThatThrownBy(() -> dbWriter.saveBatch(rows("1.10", "0.88", "1.11"), "*"))
+                .isInstanceOf(SyncInProgressException.class);
+        assertThatThrownBy(() -> dbWriter.stageBatch("sync-1", rows("1.10", "0.88", "1.11")))
+                .isInstanceOf(SyncInProgressException.class);
+        assertThatThrownBy(() -> dbWriter.recordCoverage(List.of(DAY_1), "*"))
+                .isInstanceOf(SyncInProgressException.class);
+        assertThat(repo.count()).isZero();
+        assertThat(stagingRepo.countBySyncId("sync-1")).isZero();
+        assertThat(events.stream(RatesWrittenEvent.class)).isEmpty();
+    }
+
+    @Test
+    void discardDropsOnlyThatSyncsStagedRows() {
+        dbWriter.stageBatch("sync-1", rows("1.10", "0.88", "1.11"));
+        dbWriter.stageBatch("sync-2", rows("1.10", "0.88", "1.11"));
+
+        dbWriter.discardStaged("sync-1");
+
+        assertThat(stagingRepo.countBySyncId("sync-1")).isZero();
+        assertThat(stagingRepo.countBySyncId("sync-2")).isEqualTo(3);
+        assertThat(repo.count()).isZero();
+    }
+
+    @Test
+    void abandonedStagedRowsOfEverySyncAreDiscarded() {
+        dbWriter.stageBatch("crashed-1", rows("1.10", "0.88", "1.11"));
+        dbWriter.stageBatch("crashed-2", List.of(new ExchangeRateRow(DAY_3, "USD", new BigDecimal("1.12"))));
+
+        assertThat(dbWriter.discardAbandonedStaged()).isEqualTo(4);
+
+        assertThat(stagingRepo.count()).isZero();
+        assertThat(repo.count()).isZero();
+    }
+
+    private void flushAndClear() {
+        em.flush();
+        em.clear();
+    }
+
+    private static List<ExchangeRateRow> rows(String usdDay1, String gbpDay1, String usdDay2) {
+        return List.of(
+                new ExchangeRateRow(DAY_1, "USD", new BigDecimal(usdDay1)),
+                new ExchangeRateRow(DAY_1, "GBP", new BigDecimal(gbpDay1)),
+                new ExchangeRateRow(DAY_2, "USD", new BigDecimal(usdDay2)));
+    }
+}
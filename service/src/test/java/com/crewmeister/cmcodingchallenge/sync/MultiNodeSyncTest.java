@@ -0,0 +1,135 @@
+package com.crewmeister.cmcodingchallenge.sync;
+
+import com.crewmeister.cmcodingchallenge.CmCodingChallengeApplication;
+import com.crewmeister.cmcodingchallenge.bank.FakeBundesbankServer;
+import com.crewmeister.cmcodingchallenge.model.ExchangeRateDayDigestRepository;
+import com.crewmeister.cmcodingchallenge.model.ExchangeRateRepository;
+import com.crewmeister.cmcodingchallenge.model.SyncCoverageRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Two instances of the service, each in its own application context, sharing one database as
+ * replicas do in production.
+ */
+class MultiNodeSyncTest {
+
+    private static final LocalDate START = LocalDate.of(2026, 2, 18);
+    private static final LocalDate END = LocalDate.of(2026, 2, 19);
+    private static final String HAPPY_PATH = FakeBundesbankServer.resource("bank/parser/happy-path.json");
+
+    private static FakeBundesbankServer upstream;
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    static void startNodes() {
+        upstream = new FakeBundesbankServer();
+        String database = "jdbc:h2:mem:multi-node-" + UUID.randomUUID() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1";
+        nodeA = start("node-a", database);
+        nodeB = start("node-b", database);
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        nodeB.close();
+        nodeA.close();
+        upstream.close();
+    }
+
+    @BeforeEach
+    void clearRates() {
+        nodeA.getBean(SyncCoverageRepository.class).deleteAll();
+        nodeA.getBean(ExchangeRateDayDigestRepository.class).deleteAll();
+        nodeA.getBean(ExchangeRateRepository.class).deleteAll();
+    }
+
+    @Test
+    void concurrentSyncOfTheSameRangeCallsBundesbankOnce() throws Exception {
+        upstream.respondByDefault(FakeBundesbankServer.Response.ok(HAPPY_PATH).delayed(300));
+        int requestsBefore = upstream.requestCount();
+        long waitsBefore = leaseWaits();
+
+        List<WriteResult> results = onBothNodes(node -> node.getBean(SyncService.class).syncRange(START, END, false));
+
+        assertThat(upstream.requestCount() - requestsBefore).isEqualTo(1);
+        // one node wrote the rows, the other waited for its commit and found the range covered
+        assertThat(results).containsExactlyInAnyOrder(new WriteResult(3, 0, 0), WriteResult.NONE);
+        assertThat(nodeB.getBean(ExchangeRateRepository.class).count()).isEqualTo(3);
+        assertThat(leaseWaits() - waitsBefore).isEqualTo(1);
+    }
+
+    @Test
+    void nodeWhoseLeaseExpiredMidSyncCannotOverwriteTheNewHolder() throws Exception {
+        // node A's response outlasts its 3s lease; node B takes the lease over and syncs meanwhile
+        upstream.enqueue(FakeBundesbankServer.Response.ok(HAPPY_PATH).delayed(5000),
+                FakeBundesbankServer.Response.ok(HAPPY_PATH));
+        double fencedBefore = fenced(nodeA);
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            Future<WriteResult> slow = executor.submit(() -> nodeA.getBean(SyncService.class).syncRange(START, END, true));
+            Thread.sleep(3300);
+            WriteResult taken = nodeB.getBean(SyncService.class).syncRange(START, END, true);
+
+            assertThat(taken).isEqualTo(new WriteResult(3, 0, 0));
+            assertThatThrownBy(() -> slow.get(10, TimeUnit.SECONDS)).hasCauseInstanceOf(SyncInProgressException.class);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(fenced(nodeA) - fencedBefore).isEqualTo(1.0);
+        assertThat(nodeA.getBean(ExchangeRateRepository.class).count()).isEqualTo(3);
+    }
+
+    private static ConfigurableApplicationContext start(String owner, String database) {
+        // command-line arguments, so they take precedence over application.properties
+        return new SpringApplicationBuilder(CmCodingChallengeApplication.class).run(
+                "--spring.main.web-application-type=none",
+                "--spring.datasource.url=" + database,
+                "--spring.jpa.properties.hibernate.format_sql=false",
+                "--spring.main.banner-mode=off",
+                "--fx.bank.base-url=" + upstream.baseUrl(),
+                "--fx.bank.retry.max-attempts=1",
+                "--fx.sync.warm.enabled=false",
+                "--fx.snapshot.import-on-startup=false",
+                "--fx.sync.lease.owner=" + owner,
+                "--fx.sync.lease.ttl=3s",
+                "--fx.sync.lease.poll-interval=20ms");
+    }
+
+    private static List<WriteResult> onBothNodes(Function<ConfigurableApplicationContext, WriteResult> sync)
+            throws Exception {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<WriteResult> a = executor.submit(() -> sync.apply(nodeA));
+            Future<WriteResult> b = executor.submit(() -> sync.apply(nodeB));
+            return List.of(a.get(10, TimeUnit.SECONDS), b.get(10, TimeUnit.SECONDS));
+        }
+    }
+
+    private static double fenced(ConfigurableApplicationContext node) {
+        return node.getBean(MeterRegistry.class).get("sync.lease.fenced").counter().count();
+    }
+
+    private static long leaseWaits() {
+        return List.of(nodeA, nodeB).stream()
+                .mapToLong(node -> node.getBean(MeterRegistry.class).find("sync.lease.acquire")
+                        .tag("outcome", "waited").timers().stream().mapToLong(t -> t.count()).sum())
+                .sum();
+    }
+}
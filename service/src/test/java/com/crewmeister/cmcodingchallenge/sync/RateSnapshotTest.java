@@ -0,0 +1,105 @@
+package com.crewmeister.cmcodingchallenge.sync;
+
+import com.crewmeister.cmcodingchallenge.bank.ExchangeRateRow;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+class RateSnapshotTest {
+
+    private static final LocalDate DAY_1 = LocalDate.of(2026, 2, 18);
+    private static final LocalDate DAY_2 = LocalDate.of(2026, 2, 19);
+    private static final LocalDate WEEKEND = LocalDate.of(2026, 2, 21);
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void roundTripsRatesInDateAndCurrencyOrderWithCoverage() throws IOException {
+        Path path = this.directory.resolve("rates.snapshot");
+        List<ExchangeRateRow> rows = List.of(
+                new ExchangeRateRow(DAY_2, "USD", new BigDecimal("1.0834")),
+                new ExchangeRateRow(DAY_1, "USD", new BigDecimal("1.08")),
+                new ExchangeRateRow(DAY_1, "JPY", new BigDecimal("162.87000000")),
+                new ExchangeRateRow(DAY_1, "GBP", new BigDecimal("0.85613")));
+
+        RateSnapshot.write(path, rows, List.of(DAY_1, DAY_2, WEEKEND));
+        RateSnapshot.Contents contents = RateSnapshot.read(path);
+
+        assertThat(contents.rows()).extracting(ExchangeRateRow::date, ExchangeRateRow::currency).containsExactly(
+                tuple(DAY_1, "GBP"),
+                tuple(DAY_1, "JPY"),
+                tuple(DAY_1, "USD"),
+                tuple(DAY_2, "USD"));
+        assertThat(contents.rows()).extracting(ExchangeRateRow::rate)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("0.85613"), new BigDecimal("162.87"), new BigDecimal("1.08"),
+                        new BigDecimal("1.0834"));
+        // a covered day without rates is kept, so it is not fetched again
+        assertThat(contents.coveredDates()).containsExactly(DAY_1, DAY_2, WEEKEND);
+    }
+
+    @Test
+    void emptySnapshotRoundTrips() throws IOException {
+        Path path = this.directory.resolve("empty.snapshot");
+
+        RateSnapshot.write(path, List.of(), List.of());
+
+        assertThat(RateSnapshot.read(path)).isEqualTo(new RateSnapshot.Contents(List.of(), List.of()));
+    }
+
+    @Test
+    void yearOfThirtyCurrenciesTakesUnderSixBytesPerRate() throws IOException {
+        Path path = this.directory.resolve("year.snapshot");
+        List<ExchangeRateRow> rows = new ArrayList<>();
+        List<LocalDate> covered = new ArrayList<>();
+        for (int d = 0; d < 365; d++) {
+            LocalDate date = DAY_1.plusDays(d);
+            covered.add(date);
+            for (int c = 0; c < 30; c++) {
+                rows.add(new ExchangeRateRow(date, "C" + (char) ('A' + c) + "X", BigDecimal.valueOf(10_000 + c * 100L + d, 4)));
+            }
+        }
+
+        long bytes = RateSnapshot.write(path, rows, covered);
+
+        assertThat(bytes).isLessThan(rows.size() * 6L);
+        assertThat(RateSnapshot.read(path).rows()).hasSize(rows.size());
+    }
+
+    @Test
+    void rateBeyondTheDatabaseScaleIsRejected() {
+        List<ExchangeRateRow> rows = List.of(new ExchangeRateRow(DAY_1, "USD", new BigDecimal("1.123456789")));
+
+        assertThatThrownBy(() -> RateSnapshot.write(this.directory.resolve("bad.snapshot"), rows, List.of()))
+                .isInstanceOf(ArithmeticException.class);
+        assertThat(this.directory).isEmptyDirectory();
+    }
+
+    @Test
+    void truncatedOrForeignFilesAreRejected() throws IOException {
+        Path path = this.directory.resolve("rates.snapshot");
+        RateSnapshot.write(path, List.of(new ExchangeRateRow(DAY_1, "USD", new BigDecimal("1.08"))), List.of(DAY_1));
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 2));
+
+        assertThatThrownBy(() -> RateSnapshot.read(path)).isInstanceOf(IllegalStateException.class);
+
+        Files.writeString(path, "{\"data\": {}}");
+        assertThatThrownBy(() -> RateSnapshot.read(path))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("not a rate snapshot");
+    }
+}
@@ -0,0 +1,111 @@
+package com.crewmeister.cmcodingchallenge.sync;
+
+import com.crewmeister.cmcodingchallenge.bank.ExchangeRateRow;
+import com.crewmeister.cmcodingchallenge.dto.RateItem;
+import com.crewmeister.cmcodingchallenge.model.ExchangeRateRepository;
+import com.crewmeister.cmcodingchallenge.model.SyncCoverageEntity;
+import com.crewmeister.cmcodingchallenge.model.SyncCoverageRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RateStoreTest {
+
+    private static final LocalDate DAY_1 = LocalDate.of(2026, 2, 18);
+    private static final LocalDate DAY_2 = LocalDate.of(2026, 2, 19);
+    private static final LocalDate DAY_3 = LocalDate.of(2026, 2, 20);
+
+    @Mock
+    private ExchangeRateRepository repo;
+
+    @Mock
+    private SyncCoverageRepository coverageRepo;
+
+    @Test
+    void loadsStoredRatesOrderedByDateAndCurrency() {
+        RateStore store = store();
+
+        assertThat(store.currencies()).containsExactly("GBP", "USD");
+        assertThat(store.rates(DAY_1, DAY_2, null)).containsExactly(
+                new ExchangeRateRow(DAY_1, "GBP", new BigDecimal("0.88")),
+                new ExchangeRateRow(DAY_1, "USD", new BigDecimal("1.10")),
+                new ExchangeRateRow(DAY_2, "USD", new BigDecimal("1.11")));
+        assertThat(store.rates(DAY_1, DAY_2, "USD")).extracting(ExchangeRateRow::date).containsExactly(DAY_1, DAY_2);
+        assertThat(store.ratesOn(DAY_1)).containsOnlyKeys("GBP", "USD");
+        assertThat(store.ratesOn(DAY_3)).isEmpty();
+        assertThat(store.rate(DAY_2, "GBP")).isEmpty();
+    }
+
+    @Test
+    void rowsOfOneCurrencyShareItsCode() {
+        RateStore store = store();
+
+        assertThat(store.ratesOn(DAY_1).lastKey()).isSameAs(store.ratesOn(DAY_2).firstKey());
+    }
+
+    @Test
+    void coverageFollowsTheDatabaseRule() {
+        RateStore store = store();
+
+        assertThat(store.isCovered(DAY_1, DAY_2, null)).isTrue();
+        assertThat(store.isCovered(DAY_1, DAY_3, null)).isFalse();
+        assertThat(store.isCovered(DAY_1, DAY_3, "USD")).isTrue();
+        assertThat(store.isCovered(DAY_3, DAY_3, "GBP")).isFalse();
+    }
+
+    @Test
+    void writtenDatesAreReloadedAsWholeDays() {
+        RateStore store = store();
+        when(repo.findRateItemsOn(List.of(DAY_1, DAY_3))).thenReturn(List.of(
+                new RateItem(DAY_1, "USD", new BigDecimal("1.12")),
+                new RateItem(DAY_3, "JPY", new BigDecimal("160"))));
+
+        store.onRatesWritten(new RatesWrittenEvent(List.of(DAY_1, DAY_3), "*"));
+
+        // the day's rates are replaced, so GBP is gone from DAY_1
+        assertThat(store.ratesOn(DAY_1)).containsOnlyKeys("USD");
+        assertThat(store.rate(DAY_1, "USD")).hasValueSatisfying(rate -> assertThat(rate).isEqualByComparingTo("1.12"));
+        assertThat(store.rate(DAY_2, "USD")).isPresent();
+        assertThat(store.currencies()).containsExactly("GBP", "JPY", "USD");
+        assertThat(store.isCovered(DAY_1, DAY_3, null)).isTrue();
+    }
+
+    @Test
+    void datesWrittenByAnotherNodeAreReloadedWithTheirCoverage() {
+        RateStore store = store();
+        when(repo.findRateItemsBetween(DAY_2, DAY_3)).thenReturn(List.of(
+                new RateItem(DAY_2, "USD", new BigDecimal("1.13")),
+                new RateItem(DAY_3, "USD", new BigDecimal("1.14"))));
+        when(coverageRepo.findByIdDateBetween(DAY_2, DAY_3)).thenReturn(List.of(
+                new SyncCoverageEntity(DAY_2, "*"),
+                new SyncCoverageEntity(DAY_3, "*")));
+
+        store.onRemoteRatesWritten(new RemoteRatesWrittenEvent(DAY_2, DAY_3));
+
+        assertThat(store.rate(DAY_2, "USD")).hasValueSatisfying(rate -> assertThat(rate).isEqualByComparingTo("1.13"));
+        assertThat(store.rate(DAY_3, "USD")).isPresent();
+        assertThat(store.isCovered(DAY_1, DAY_3, null)).isTrue();
+    }
+
+    private RateStore store() {
+        when(repo.findAllRateItems()).thenReturn(List.of(
+                // each row brings its own copy of a code, as read from JDBC
+                new RateItem(DAY_1, new String("USD"), new BigDecimal("1.10")),
+                new RateItem(DAY_1, "GBP", new BigDecimal("0.88")),
+                new RateItem(DAY_2, new String("USD"), new BigDecimal("1.11"))));
+        when(coverageRepo.findAll()).thenReturn(List.of(
+                new SyncCoverageEntity(DAY_1, "*"),
+                new SyncCoverageEntity(DAY_2, "*"),
+                new SyncCoverageEntity(DAY_3, "USD")));
+        return new RateStore(repo, coverageRepo);
+    }
+}
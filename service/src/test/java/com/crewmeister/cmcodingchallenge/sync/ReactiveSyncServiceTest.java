@@ -0,0 +1,148 @@
+package com.crewmeister.cmcodingchallenge.sync;
+
+import com.crewmeister.cmcodingchallenge.bank.BundesbankServerException;
+import com.crewmeister.cmcodingchallenge.bank.ExchangeRateRow;
+import com.crewmeister.cmcodingchallenge.bank.ReactiveBankClient;
+import com.crewmeister.cmcodingchallenge.model.SyncCoverageRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveSyncServiceTest {
+
+    private static final LocalDate START = LocalDate.of(2026, 2, 18);
+    private static final LocalDate END = LocalDate.of(2026, 2, 19);
+    private static final List<ExchangeRateRow> ROWS = List.of(
+            new ExchangeRateRow(START, "USD", new BigDecimal("1.10")),
+            new ExchangeRateRow(END, "USD", new BigDecimal("1.11")));
+
+    @Mock
+    private RateStore store;
+
+    @Mock
+    private ReactiveBankClient bankClient;
+
+    @Mock
+    private DbWriter dbWriter;
+
+    @Mock
+    private SyncCoverageRepository coverageRepo;
+
+    @Mock
+    private SyncPipeline pipeline;
+
+    @Mock
+    private SyncLease lease;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private ReactiveSyncService syncService;
+
+    @BeforeEach
+    void setUp() {
+        SyncProperties properties = new SyncProperties(Duration.ofSeconds(5), 500, 1000, 60);
+        SyncService blocking = new SyncService(coverageRepo, pipeline, lease, properties, registry);
+        syncService = new ReactiveSyncService(store, bankClient, dbWriter, blocking, properties, registry);
+    }
+
+    @Test
+    void coveredRangeCompletesWithoutFetching() {
+        when(store.isCovered(START, END, null)).thenReturn(true);
+
+        syncService.syncRange(START, END, null, false).block();
+
+        verifyNoInteractions(bankClient, dbWriter);
+        assertThat(registry.get("sync.coverage").tag("result", "hit").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void missingRangeIsFetchedAndWrittenWithCoverage() {
+        when(bankClient.fetchRates(START, END, "USD")).thenReturn(Mono.just(ROWS));
+        when(dbWriter.saveBatch(ROWS, "USD")).thenReturn(new WriteResult(2, 0, 0));
+
+        syncService.syncRange(START, END, "USD", false).block();
+
+        verify(dbWriter).saveBatch(ROWS, "USD");
+        verify(dbWriter).recordCoverage(Set.of(START, END), "USD");
+        assertThat(registry.get("sync.coverage").tag("result", "miss").counter().count()).isEqualTo(1.0);
+        assertThat(registry.get("sync.range").tag("outcome", "synced").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentRequestsForTheSameRangeShareOneFetch() {
+        Sinks.One<List<ExchangeRateRow>> response = Sinks.one();
+        when(bankClient.fetchRates(START, END, null)).thenReturn(response.asMono(), Mono.just(ROWS));
+        when(dbWriter.saveBatch(any(), any())).thenReturn(WriteResult.NONE);
+
+        Mono<Void> first = syncService.syncRange(START, END, null, false);
+        Mono<Void> second = syncService.syncRange(START, END, null, false);
+        first.subscribe();
+        second.subscribe();
+        response.tryEmitValue(ROWS);
+        Mono.when(first, second).block(Duration.ofSeconds(5));
+
+        verify(bankClient, times(1)).fetchRates(START, END, null);
+        verify(dbWriter, times(1)).saveBatch(ROWS, "*");
+
+        // a finished fetch is not reused
+        syncService.syncRange(START, END, null, false).block();
+        verify(bankClient, times(2)).fetchRates(START, END, null);
+    }
+
+    @Test
+    void emptyFetchWritesNothing() {
+        when(bankClient.fetchRates(START, END, null)).thenReturn(Mono.just(List.of()));
+
+        syncService.syncRange(START, END, null, false).block();
+
+        verifyNoInteractions(dbWriter);
+    }
+
+    @Test
+    void forcedSyncIgnoresCoverage() {
+        when(bankClient.fetchRates(START, END, null)).thenReturn(Mono.just(ROWS));
+        when(dbWriter.saveBatch(ROWS, "*")).thenReturn(WriteResult.NONE);
+
+        syncService.syncRange(START, END, null, true).block();
+
+        verify(store, never()).isCovered(any(), any(), any());
+        verify(dbWriter).saveBatch(ROWS, "*");
+    }
+
+    @Test
+    void fetchFailureIsPropagatedAndNotCached() {
+        when(bankClient.fetchRates(START, END, null))
+                .thenReturn(Mono.error(new BundesbankServerException(503, "down")), Mono.just(ROWS));
+        when(dbWriter.saveBatch(ROWS, "*")).thenReturn(WriteResult.NONE);
+
+        assertThatThrownBy(() -> syncService.syncRange(START, END, null, false).block())
+                .isInstanceOf(BundesbankServerException.class);
+        assertThat(registry.get("sync.range").tag("outcome", "failed").timer().count()).isEqualTo(1);
+
+        syncService.syncRange(START, END, null, false).block();
+        verify(dbWriter).saveBatch(ROWS, "*");
+    }
+
+    @Test
+    void invalidRangeIsRejected() {
+        assertThatThrownBy(() -> syncService.syncRange(END, START, null, false))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
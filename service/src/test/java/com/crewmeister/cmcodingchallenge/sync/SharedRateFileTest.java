@@ -0,0 +1,181 @@
+package com.crewmeister.cmcodingchallenge.sync;
+
+import com.crewmeister.cmcodingchallenge.model.ExchangeRateEntity;
+import com.crewmeister.cmcodingchallenge.model.ExchangeRateRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SharedRateFileTest {
+
+    private static final LocalDate FIRST_DATE = LocalDate.of(2026, 1, 1);
+    private static final LocalDate DAY_1 = LocalDate.of(2026, 2, 18);
+    private static final LocalDate DAY_2 = LocalDate.of(2026, 2, 19);
+    private static final LocalDate DAY_3 = LocalDate.of(2026, 2, 20);
+
+    @TempDir
+    private Path directory;
+
+    @Mock
+    private ExchangeRateRepository repo;
+
+    @Test
+    void storedRatesAreReadAsFixedPointWithoutTheService() throws IOException {
+        when(repo.findAll()).thenReturn(List.of(
+                new ExchangeRateEntity(DAY_1, "USD", new BigDecimal("1.0834")),
+                new ExchangeRateEntity(DAY_1, "JPY", new BigDecimal("162.87")),
+                new ExchangeRateEntity(DAY_2, "USD", new BigDecimal("1.08412345"))));
+
+        fileOf(365, 4);
+        SharedRateReader reader = SharedRateReader.open(path());
+
+        assertThat(reader.rate(DAY_1, "USD")).isEqualTo(108_340_000L);
+        assertThat(reader.rate(DAY_1, "JPY")).isEqualTo(16_287_000_000L);
+        assertThat(reader.rate(DAY_2.toEpochDay(), "USD")).isEqualTo(108_412_345L);
+        assertThat(reader.rate(DAY_2, "JPY")).isEqualTo(SharedRateReader.NO_RATE);
+        assertThat(reader.rate(DAY_1, "GBP")).isEqualTo(SharedRateReader.NO_RATE);
+        assertThat(reader.rate(FIRST_DATE.minusDays(1), "USD")).isEqualTo(SharedRateReader.NO_RATE);
+        assertThat(reader.rate(FIRST_DATE.plusDays(365), "USD")).isEqualTo(SharedRateReader.NO_RATE);
+        assertThat(reader.sequence()).isEqualTo(2);
+    }
+
+    @Test
+    void syncedDaysAreReplacedAsAWhole() throws IOException {
+        when(repo.findAll()).thenReturn(List.of(
+                new ExchangeRateEntity(DAY_1, "USD", new BigDecimal("1.10")),
+                new ExchangeRateEntity(DAY_1, "GBP", new BigDecimal("0.88")),
+                new ExchangeRateEntity(DAY_2, "USD", new BigDecimal("1.11"))));
+        SharedRateFile file = fileOf(365, 4);
+        SharedRateReader reader = SharedRateReader.open(path());
+        when(repo.findByIdDateIn(List.of(DAY_1))).thenReturn(List.of(
+                new ExchangeRateEntity(DAY_1, "USD", new BigDecimal("1.12"))));
+        when(repo.findByIdDateBetween(DAY_2, DAY_3)).thenReturn(List.of(
+                new ExchangeRateEntity(DAY_3, "CHF", new BigDecimal("0.94"))));
+
+        file.onRatesWritten(new RatesWrittenEvent(List.of(DAY_1), "*"));
+        file.onRemoteRatesWritten(new RemoteRatesWrittenEvent(DAY_2, DAY_3));
+
+        assertThat(reader.rate(DAY_1, "USD")).isEqualTo(112_000_000L);
+        assertThat(reader.rate(DAY_1, "GBP")).isEqualTo(SharedRateReader.NO_RATE);
+        // the remote range had no rates left for DAY_2
+        assertThat(reader.rate(DAY_2, "USD")).isEqualTo(SharedRateReader.NO_RATE);
+        assertThat(reader.rate(DAY_3, "CHF")).isEqualTo(94_000_000L);
+        assertThat(reader.sequence()).isEqualTo(6);
+    }
+
+    @Test
+    void currenciesBeyondTheCapacityAreSkipped() throws IOException {
+        when(repo.findAll()).thenReturn(List.of(
+                new ExchangeRateEntity(DAY_1, "USD", new BigDecimal("1.10")),
+                new ExchangeRateEntity(DAY_1, "GBP", new BigDecimal("0.88")),
+                new ExchangeRateEntity(DAY_1, "JPY", new BigDecimal("160"))));
+
+        fileOf(365, 2);
+        SharedRateReader reader = SharedRateReader.open(path());
+
+        assertThat(reader.rate(DAY_1, "USD")).isEqualTo(110_000_000L);
+        assertThat(reader.rate(DAY_1, "GBP")).isEqualTo(88_000_000L);
+        assertThat(reader.rate(DAY_1, "JPY")).isEqualTo(SharedRateReader.NO_RATE);
+    }
+
+    @Test
+    void restartKeepsAFileOfTheSameLayoutAndReplacesAnotherOne() throws IOException {
+        when(repo.findAll()).thenReturn(List.of(new ExchangeRateEntity(DAY_1, "USD", new BigDecimal("1.10"))));
+        fileOf(365, 4);
+        SharedRateReader before = SharedRateReader.open(path());
+
+        fileOf(365, 4);
+        assertThat(before.sequence()).isEqualTo(4);
+        assertThat(before.rate(DAY_1, "USD")).isEqualTo(110_000_000L);
+
+        fileOf(730, 4);
+        assertThat(Files.size(path())).isEqualTo(SharedRateReader.fileSize(730, 4));
+        assertThat(SharedRateReader.open(path()).rate(DAY_1, "USD")).isEqualTo(110_000_000L);
+        // the old mapping still points at the replaced file rather than faulting
+        assertThat(before.rate(DAY_1, "USD")).isEqualTo(110_000_000L);
+    }
+
+    @Test
+    void readersNeverSeeADayHalfRewritten() throws Exception {
+        when(repo.findAll()).thenReturn(List.of(
+                new ExchangeRateEntity(DAY_1, "USD", new BigDecimal("1.10")),
+                new ExchangeRateEntity(DAY_1, "GBP", new BigDecimal("0.88"))));
+        SharedRateFile file = fileOf(365, 4);
+        SharedRateReader reader = SharedRateReader.open(path());
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicLong missing = new AtomicLong();
+        AtomicLong reads = new AtomicLong();
+
+        List<Thread> readers = IntStream.range(0, 3).mapToObj(i -> Thread.ofPlatform().start(() -> {
+            while (writing.get()) {
+                // each rewrite clears the day before storing it again, which only a torn read would see
+                if (reader.rate(DAY_1, "GBP") == SharedRateReader.NO_RATE) {
+                    missing.incrementAndGet();
+                }
+                reads.incrementAndGet();
+            }
+        })).toList();
+        List<ExchangeRateEntity> day = List.of(
+                new ExchangeRateEntity(DAY_1, "USD", new BigDecimal("1.11")),
+                new ExchangeRateEntity(DAY_1, "GBP", new BigDecimal("0.89")));
+        for (int i = 0; i < 20_000; i++) {
+            file.replace(List.of(DAY_1), day);
+        }
+        writing.set(false);
+        for (Thread thread : readers) {
+            thread.join();
+        }
+
+        assertThat(reads.get()).isPositive();
+        assertThat(missing.get()).isZero();
+        assertThat(reader.sequence()).isEqualTo(40_002);
+    }
+
+    @Test
+    void lookupsAllocateNothing() throws IOException {
+        when(repo.findAll()).thenReturn(List.of(new ExchangeRateEntity(DAY_1, "USD", new BigDecimal("1.10"))));
+        fileOf(365, 4);
+        SharedRateReader reader = SharedRateReader.open(path());
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long epochDay = DAY_1.toEpochDay();
+        long sum = 0;
+        for (int i = 0; i < 200_000; i++) {
+            sum += reader.rate(epochDay, "USD");
+        }
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < 100_000; i++) {
+            sum += reader.rate(epochDay, "USD");
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        assertThat(sum).isEqualTo(300_000L * 110_000_000L);
+        // a single allocation per lookup would amount to megabytes
+        assertThat(allocated).isLessThan(1024);
+    }
+
+    private SharedRateFile fileOf(int days, int currencies) {
+        return new SharedRateFile(repo, new SharedRateProperties(true, path(), FIRST_DATE, days, currencies));
+    }
+
+    private Path path() {
+        return this.directory.resolve("rates.shm");
+    }
+}
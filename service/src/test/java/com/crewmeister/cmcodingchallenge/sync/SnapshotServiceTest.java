@@ -0,0 +1,122 @@
+package com.crewmeister.cmcodingchallenge.sync;
+
+import com.crewmeister.cmcodingchallenge.bank.ExchangeRateRow;
+import com.crewmeister.cmcodingchallenge.model.ExchangeRateEntity;
+import com.crewmeister.cmcodingchallenge.model.ExchangeRateRepository;
+import com.crewmeister.cmcodingchallenge.model.SyncCoverageEntity;
+import com.crewmeister.cmcodingchallenge.model.SyncCoverageRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = "fx.snapshot.import-on-startup=false")
+// the import commits, as it does at startup
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({DbWriter.class, SnapshotService.class})
+@EnableConfigurationProperties({DataVersionProperties.class, SnapshotProperties.class})
+class SnapshotServiceTest {
+
+    private static final LocalDate DAY_1 = LocalDate.of(2026, 2, 18);
+    private static final LocalDate DAY_2 = LocalDate.of(2026, 2, 19);
+
+    @TempDir
+    static Path directory;
+
+    @DynamicPropertySource
+    static void snapshotPath(DynamicPropertyRegistry registry) {
+        registry.add("fx.snapshot.path", () -> directory.resolve("rates.snapshot").toString());
+    }
+
+    @Autowired
+    private SnapshotService snapshotService;
+
+    @Autowired
+    private ExchangeRateRepository repo;
+
+    @Autowired
+    private SyncCoverageRepository coverageRepo;
+
+    @MockBean
+    private SyncService syncService;
+
+    @MockBean
+    private SyncLease lease;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        coverageRepo.deleteAll();
+        repo.deleteAll();
+        Files.deleteIfExists(directory.resolve("rates.snapshot"));
+        when(lease.owner()).thenReturn("node-a");
+        when(syncService.writeExclusively(any())).thenAnswer(call -> call.<Supplier<?>>getArgument(0).get());
+    }
+
+    @Test
+    void exportedSnapshotFillsAnEmptyDatabase() {
+        repo.saveAll(List.of(
+                new ExchangeRateEntity(DAY_1, "USD", new BigDecimal("1.0834")),
+                new ExchangeRateEntity(DAY_1, "GBP", new BigDecimal("0.85613")),
+                new ExchangeRateEntity(DAY_2, "USD", new BigDecimal("1.0841"))));
+        coverageRepo.saveAll(List.of(new SyncCoverageEntity(DAY_1, "*"), new SyncCoverageEntity(DAY_2, "*"),
+                new SyncCoverageEntity(DAY_2, "GBP")));
+
+        SnapshotService.Result exported = snapshotService.export();
+        coverageRepo.deleteAll();
+        repo.deleteAll();
+        SnapshotService.Result imported = snapshotService.importIfEmpty();
+
+        assertThat(exported.rates()).isEqualTo(3);
+        assertThat(exported.dates()).isEqualTo(2);
+        assertThat(imported).isNotNull();
+        assertThat(imported.rates()).isEqualTo(3);
+        assertThat(repo.findRates(null, null, null, 10, 0))
+                .extracting(e -> new ExchangeRateRow(e.getDate(), e.getCurrency(), e.getRate().stripTrailingZeros()))
+                .containsExactly(
+                        new ExchangeRateRow(DAY_1, "GBP", new BigDecimal("0.85613")),
+                        new ExchangeRateRow(DAY_1, "USD", new BigDecimal("1.0834")),
+                        new ExchangeRateRow(DAY_2, "USD", new BigDecimal("1.0841")));
+        // only coverage for all currencies is part of the snapshot
+        assertThat(coverageRepo.countCoveredDates(DAY_1, DAY_2, List.of("*"))).isEqualTo(2);
+        assertThat(coverageRepo.count()).isEqualTo(2);
+    }
+
+    @Test
+    void databaseWithRatesIsLeftAlone() {
+        repo.save(new ExchangeRateEntity(DAY_1, "USD", new BigDecimal("1.0834")));
+        snapshotService.export();
+        repo.save(new ExchangeRateEntity(DAY_2, "USD", new BigDecimal("1.0841")));
+
+        assertThat(snapshotService.importIfEmpty()).isNull();
+        assertThat(repo.count()).isEqualTo(2);
+    }
+
+    @Test
+    void missingOrCorruptSnapshotLeavesTheDatabaseEmpty() throws IOException {
+        assertThat(snapshotService.importIfEmpty()).isNull();
+
+        Files.writeString(directory.resolve("rates.snapshot"), "not a snapshot");
+        assertThat(snapshotService.importIfEmpty()).isNull();
+        assertThat(repo.count()).isZero();
+    }
+}
@@ -0,0 +1,227 @@
+package com.crewmeister.cmcodingchallenge.sync;
+
+import com.crewmeister.cmcodingchallenge.bank.Deadline;
+import com.crewmeister.cmcodingchallenge.bank.ExchangeRateRow;
+import com.crewmeister.cmcodingchallenge.model.CurrencyCatalogRepository;
+import com.crewmeister.cmcodingchallenge.model.DataVersionRepository;
+import com.crewmeister.cmcodingchallenge.model.ExchangeRateDayDigestRepository;
+import com.crewmeister.cmcodingchallenge.model.ExchangeRateRepository;
+import com.crewmeister.cmcodingchallenge.model.ExchangeRateStagingRepository;
+import com.crewmeister.cmcodingchallenge.model.SyncCoverageRepository;
+import com.crewmeister.cmcodingchallenge.model.SyncLeaseRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+// lease changes are committed, as the lease is shared through the database
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SyncLeaseTest {
+
+    @Autowired
+    private SyncLeaseRepository repo;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ExchangeRateRepository rateRepo;
+
+    @Autowired
+    private SyncCoverageRepository coverageRepo;
+
+    @Autowired
+    private ExchangeRateDayDigestRepository digestRepo;
+
+    @Autowired
+    private ExchangeRateStagingRepository stagingRepo;
+
+    @Autowired
+    private DataVersionRepository versionRepo;
+
+    @Autowired
+    private CurrencyCatalogRepository catalogRepo;
+
+    @Autowired
+    private ApplicationEventPublisher events;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        repo.deleteAll();
+    }
+
+    @Test
+    void releasedLeaseIsTakenAtOnceWithTheNextFencingToken() {
+        SyncLease nodeA = lease("node-a", Duration.ofMinutes(1));
+        SyncLease nodeB = lease("node-b", Duration.ofMinutes(1));
+
+        long first = nodeA.acquire(Deadline.after(Duration.ofSeconds(1)));
+        verifyInTransaction(nodeA);
+        nodeA.release();
+        long second = nodeB.acquire(Deadline.after(Duration.ofSeconds(1)));
+
+        assertThat(second).isEqualTo(first + 1);
+        assertThat(repo.findById(SyncLease.NAME)).hasValueSatisfying(l -> assertThat(l.getOwner()).isEqualTo("node-b"));
+        assertThat(registry.get("sync.lease.acquire").tag("outcome", "acquired").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void heldLeaseMakesOtherNodesWaitUntilTheDeadline() {
+        SyncLease nodeA = lease("node-a", Duration.ofMinutes(1));
+        SyncLease nodeB = lease("node-b", Duration.ofMinutes(1));
+        nodeA.acquire(Deadline.after(Duration.ofSeconds(1)));
+
+        long startedAt = System.nanoTime();
+        assertThatThrownBy(() -> nodeB.acquire(Deadline.after(Duration.ofMillis(300))))
+                .isInstanceOf(SyncInProgressException.class);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - startedAt)).isGreaterThanOrEqualTo(Duration.ofMillis(300));
+        assertThat(registry.get("sync.lease.acquire").tag("outcome", "timeout").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void waitingNodeTakesTheLeaseOnceReleased() throws Exception {
+        SyncLease nodeA = lease("node-a", Duration.ofMinutes(1));
+        SyncLease nodeB = lease("node-b", Duration.ofMinutes(1));
+        nodeA.acquire(Deadline.after(Duration.ofSeconds(1)));
+
+        Thread releaser = Thread.ofVirtual().start(() -> {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            nodeA.release();
+        });
+        nodeB.acquire(Deadline.after(Duration.ofSeconds(5)));
+        releaser.join();
+
+        assertThat(registry.get("sync.lease.acquire").tag("outcome", "waited").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void writesOfANodeWhoseLeaseExpiredAndWasTakenOverAreFenced() throws Exception {
+        SyncLease nodeA = lease("node-a", Duration.ofMillis(100));
+        SyncLease nodeB = lease("node-b", Duration.ofMinutes(1));
+        nodeA.acquire(Deadline.after(Duration.ofSeconds(1)));
+        Thread.sleep(150);
+        nodeB.acquire(Deadline.after(Duration.ofSeconds(1)));
+
+        assertThatThrownBy(() -> verifyInTransaction(nodeA)).isInstanceOf(SyncInProgressException.class);
+        assertThat(registry.get("sync.lease.fenced").counter().count()).isEqualTo(1.0);
+
+        // the stale holder's release leaves the new lease in place
+        nodeA.release();
+        verifyInTransaction(nodeB);
+        assertThatThrownBy(() -> lease("node-c", Duration.ofMinutes(1)).acquire(Deadline.after(Duration.ofMillis(50))))
+                .isInstanceOf(SyncInProgressException.class);
+    }
+
+    @Test
+    void everyWriteRenewsTheLeaseSoALongSyncOutlivesTheTtl() throws Exception {
+        SyncLease nodeA = lease("node-a", Duration.ofMillis(300));
+        SyncLease nodeB = lease("node-b", Duration.ofMinutes(1));
+        long token = nodeA.acquire(Deadline.after(Duration.ofSeconds(1)));
+
+        // batches written for twice the ttl
+        for (int batch = 0; batch < 6; batch++) {
+            Thread.sleep(100);
+            verifyInTransaction(nodeA);
+        }
+
+        assertThatThrownBy(() -> nodeB.acquire(Deadline.after(Duration.ofMillis(50))))
+                .isInstanceOf(SyncInProgressException.class);
+        verifyInTransaction(nodeA);
+        assertThat(repo.findById(SyncLease.NAME).orElseThrow().getToken()).isEqualTo(token);
+    }
+
+    @Test
+    void stagedBatchesRenewTheLeaseSoALongStagedSyncOutlivesTheTtl() throws Exception {
+        SyncLease nodeA = lease("node-a", Duration.ofMillis(300));
+        SyncLease nodeB = lease("node-b", Duration.ofMinutes(1));
+        DbWriter writer = writer(nodeA);
+        nodeA.acquire(Deadline.after(Duration.ofSeconds(1)));
+
+        // batches staged for twice the ttl, with no other write in between
+        List<LocalDate> dates = new ArrayList<>();
+        for (int batch = 0; batch < 6; batch++) {
+            Thread.sleep(100);
+            LocalDate date = LocalDate.of(2026, 1, 1).plusDays(batch);
+            dates.add(date);
+            inTransaction(() -> {
+                writer.stageBatch("staged-sync", List.of(new ExchangeRateRow(date, "USD", new BigDecimal("1.10"))));
+                return null;
+            });
+        }
+
+        assertThatThrownBy(() -> nodeB.acquire(Deadline.after(Duration.ofMillis(50))))
+                .isInstanceOf(SyncInProgressException.class);
+        assertThat(inTransaction(() -> writer.publishStaged("staged-sync", dates, "*")))
+                .isEqualTo(new WriteResult(6, 0, 0));
+        assertThat(registry.find("sync.lease.fenced").counter().count()).isZero();
+    }
+
+    @Test
+    void verifyWithoutHoldingTheLeaseFails() {
+        SyncLease nodeA = lease("node-a", Duration.ofMinutes(1));
+
+        assertThatThrownBy(() -> verifyInTransaction(nodeA)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void disabledLeaseNeverTouchesTheDatabase() {
+        SyncLease disabled = new SyncLease(repo, transactionManager,
+                new SyncLeaseProperties(false, Duration.ofMinutes(1), Duration.ofMillis(20), "node-a"), registry);
+
+        assertThat(disabled.acquire(Deadline.after(Duration.ofSeconds(1)))).isZero();
+        disabled.verify();
+        disabled.release();
+
+        assertThat(repo.count()).isZero();
+    }
+
+    @Test
+    void generatedOwnersAreUnique() {
+        SyncLeaseProperties properties = new SyncLeaseProperties(true, Duration.ofMinutes(1), Duration.ofMillis(20), "");
+
+        assertThat(new SyncLease(repo, transactionManager, properties, registry).owner())
+                .isNotEqualTo(new SyncLease(repo, transactionManager, properties, registry).owner());
+    }
+
+    private SyncLease lease(String owner, Duration ttl) {
+        return new SyncLease(repo, transactionManager,
+                new SyncLeaseProperties(true, ttl, Duration.ofMillis(20), owner), registry);
+    }
+
+    private void verifyInTransaction(SyncLease lease) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> lease.verify());
+    }
+
+    private <T> T inTransaction(Supplier<T> write) {
+        return new TransactionTemplate(transactionManager).execute(status -> write.get());
+    }
+
+    private DbWriter writer(SyncLease lease) {
+        return new DbWriter(rateRepo, coverageRepo, digestRepo, stagingRepo, versionRepo, catalogRepo, lease,
+                new DataVersionProperties(true, Duration.ofSeconds(1), 1000), events);
+    }
+}
@@ -0,0 +1,237 @@
+package com.crewmeister.cmcodingchallenge.sync;
+
+import com.crewmeister.cmcodingchallenge.bank.BankService;
+import com.crewmeister.cmcodingchallenge.bank.Deadline;
+import com.crewmeister.cmcodingchallenge.bank.ExchangeRateRow;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SyncPipelineTest {
+
+    private static final LocalDate START = LocalDate.of(2026, 1, 1);
+    private static final LocalDate END = LocalDate.of(2026, 1, 10);
+
+    @Mock
+    private BankService bankService;
+
+    @Mock
+    private DbWriter dbWriter;
+
+    private SyncPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(dbWriter.saveBatch(anyList(), anyString()))
+                .thenAnswer(invocation -> new WriteResult(invocation.<List<?>>getArgument(0).size(), 0, 0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (pipeline != null) {
+            pipeline.shutdown();
+        }
+    }
+
+    @Test
+    void writesInBatchesAndRecordsCoverageOnceAtTheEnd() {
+        pipeline = pipeline(3, 2);
+        when(bankService.streamRates(eq(START), eq(END), eq("USD"), any(), any())).thenAnswer(emitting(rows(7)));
+
+        WriteResult result = pipeline.run(START, END, "USD", Deadline.NONE);
+
+        assertThat(result).isEqualTo(new WriteResult(7, 0, 0));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ExchangeRateRow>> batches = ArgumentCaptor.forClass(List.class);
+        verify(dbWriter, times(3)).saveBatch(batches.capture(), eq("USD"));
+        assertThat(batches.getAllValues()).extracting(List::size).containsExactly(3, 3, 1);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<LocalDate>> dates = ArgumentCaptor.forClass(Collection.class);
+        verify(dbWriter).recordCoverage(dates.capture(), eq("USD"));
+        assertThat(dates.getValue()).hasSize(7);
+    }
+
+    @Test
+    void batchesAreOnlyCutBetweenDates() {
+        pipeline = pipeline(2, 10);
+        List<ExchangeRateRow> rows = List.of(
+                new ExchangeRateRow(START, "USD", BigDecimal.ONE),
+                new ExchangeRateRow(START, "GBP", BigDecimal.ONE),
+                new ExchangeRateRow(START, "JPY", BigDecimal.ONE),
+                new ExchangeRateRow(END, "USD", BigDecimal.ONE));
+        when(bankService.streamRates(any(), any(), any(), any(), any())).thenAnswer(emitting(rows));
+
+        pipeline.run(START, END, null, Deadline.NONE);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ExchangeRateRow>> batches = ArgumentCaptor.forClass(List.class);
+        verify(dbWriter, times(2)).saveBatch(batches.capture(), eq("*"));
+        assertThat(batches.getAllValues()).extracting(List::size).containsExactly(3, 1);
+    }
+
+    @Test
+    void writerCommitsBatchesWhileParsingIsStillRunning() {
+        pipeline = pipeline(2, 4);
+        CountDownLatch firstBatchWritten = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            firstBatchWritten.countDown();
+            return WriteResult.NONE;
+        }).when(dbWriter).saveBatch(anyList(), anyString());
+        when(bankService.streamRates(any(), any(), any(), any(), any())).thenAnswer(invocation -> {
+            Consumer<ExchangeRateRow> sink = invocation.getArgument(4);
+            List<ExchangeRateRow> rows = rows(4);
+            sink.accept(rows.get(0));
+            sink.accept(rows.get(1));
+            sink.accept(rows.get(2));
+            // parsing pauses mid-payload until the writer has committed the first full batch
+            assertThat(firstBatchWritten.await(5, TimeUnit.SECONDS)).isTrue();
+            sink.accept(rows.get(3));
+            return 4;
+        });
+
+        assertThat(pipeline.run(START, END, null, Deadline.NONE)).isEqualTo(WriteResult.NONE);
+        verify(dbWriter).recordCoverage(anyCollection(), eq("*"));
+    }
+
+    @Test
+    void boundedQueueAppliesBackpressureWithoutLosingRows() {
+        pipeline = pipeline(50, 1);
+        when(bankService.streamRates(any(), any(), any(), any(), any())).thenAnswer(emitting(rows(500)));
+
+        assertThat(pipeline.run(START, END, null, Deadline.NONE).inserted()).isEqualTo(500);
+        verify(dbWriter, times(10)).saveBatch(anyList(), anyString());
+    }
+
+    @Test
+    void writerFailureIsSurfacedAndNoCoverageIsRecorded() {
+        pipeline = pipeline(2, 1);
+        doThrow(new IllegalStateException("db down")).when(dbWriter).saveBatch(anyList(), anyString());
+        when(bankService.streamRates(any(), any(), any(), any(), any())).thenAnswer(emitting(rows(100)));
+
+        assertThatThrownBy(() -> pipeline.run(START, END, null, Deadline.NONE))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("db down");
+        verify(dbWriter, never()).recordCoverage(anyCollection(), anyString());
+    }
+
+    @Test
+    void fetchFailureStopsWriterAndRecordsNoCoverage() {
+        pipeline = pipeline(2, 10);
+        when(bankService.streamRates(any(), any(), any(), any(), any())).thenAnswer(invocation -> {
+            Consumer<ExchangeRateRow> sink = invocation.getArgument(4);
+            sink.accept(rows(1).get(0));
+            throw new IllegalArgumentException("broken payload");
+        });
+
+        assertThatThrownBy(() -> pipeline.run(START, END, null, Deadline.NONE))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("broken payload");
+        verify(dbWriter, never()).recordCoverage(anyCollection(), anyString());
+    }
+
+    @Test
+    void longRangeIsStagedAndPublishedOnce() {
+        pipeline = pipeline(3, 10);
+        LocalDate longEnd = START.plusDays(89);
+        WriteResult published = new WriteResult(5, 1, 1);
+        when(bankService.streamRates(any(), any(), any(), any(), any())).thenAnswer(emitting(rows(7)));
+        when(dbWriter.publishStaged(anyString(), anyCollection(), eq("*"))).thenReturn(published);
+
+        assertThat(pipeline.run(START, longEnd, null, Deadline.NONE)).isEqualTo(published);
+
+        ArgumentCaptor<String> syncId = ArgumentCaptor.forClass(String.class);
+        verify(dbWriter, times(3)).stageBatch(syncId.capture(), anyList());
+        assertThat(syncId.getAllValues()).containsOnly(syncId.getValue());
+        verify(dbWriter).publishStaged(eq(syncId.getValue()), anyCollection(), eq("*"));
+        verify(dbWriter, never()).saveBatch(anyList(), anyString());
+        verify(dbWriter, never()).recordCoverage(anyCollection(), anyString());
+    }
+
+    @Test
+    void routineWindowIsWrittenDirectlySoDayDigestsSurvive() {
+        pipeline = pipeline(3, 10);
+        LocalDate routineEnd = START.plusDays(SyncService.DEFAULT_DAYS);
+        when(bankService.streamRates(any(), any(), any(), any(), any())).thenAnswer(emitting(rows(7)));
+
+        pipeline.run(START, routineEnd, null, Deadline.NONE);
+
+        verify(dbWriter, times(3)).saveBatch(anyList(), eq("*"));
+        verify(dbWriter, never()).stageBatch(anyString(), anyList());
+        verify(dbWriter, never()).publishStaged(anyString(), anyCollection(), anyString());
+    }
+
+    @Test
+    void rowsLeftInStagingByACrashedSyncAreDiscardedBeforeWriting() {
+        pipeline = pipeline(3, 10);
+        when(bankService.streamRates(any(), any(), any(), any(), any())).thenAnswer(emitting(rows(7)));
+
+        // also before a routine sync, so staging never holds rows for long
+        pipeline.run(START, END, null, Deadline.NONE);
+
+        InOrder order = inOrder(dbWriter);
+        order.verify(dbWriter).discardAbandonedStaged();
+        order.verify(dbWriter, times(3)).saveBatch(anyList(), eq("*"));
+    }
+
+    @Test
+    void failedStagedSyncDiscardsItsStagedRows() {
+        pipeline = pipeline(2, 10);
+        LocalDate longEnd = START.plusDays(89);
+        when(bankService.streamRates(any(), any(), any(), any(), any())).thenAnswer(invocation -> {
+            Consumer<ExchangeRateRow> sink = invocation.getArgument(4);
+            rows(5).forEach(sink);
+            throw new IllegalArgumentException("broken payload");
+        });
+
+        assertThatThrownBy(() -> pipeline.run(START, longEnd, null, Deadline.NONE))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(dbWriter).discardStaged(anyString());
+        verify(dbWriter, never()).publishStaged(anyString(), anyCollection(), anyString());
+    }
+
+    private SyncPipeline pipeline(int batchSize, int queueCapacity) {
+        return new SyncPipeline(bankService, dbWriter,
+                new SyncProperties(Duration.ofSeconds(20), batchSize, queueCapacity, 60), new SimpleMeterRegistry());
+    }
+
+    private static Answer<Integer> emitting(List<ExchangeRateRow> rows) {
+        return invocation -> {
+            Consumer<ExchangeRateRow> sink = invocation.getArgument(4);
+            rows.forEach(sink);
+            return rows.size();
+        };
+    }
+
+    private static List<ExchangeRateRow> rows(int count) {
+        return java.util.stream.IntStream.range(0, count)
+                .mapToObj(i -> new ExchangeRateRow(START.plusDays(i), "USD", new BigDecimal("1.10")))
+                .toList();
+    }
+}
@@ -1,69 +1,207 @@
 package com.crewmeister.cmcodingchallenge.sync;
 
-import com.crewmeister.cmcodingchallenge.bank.BankService;
-import com.crewmeister.cmcodingchallenge.bank.ExchangeRateRow;
-import com.crewmeister.cmcodingchallenge.model.ExchangeRateRepository;
+import com.crewmeister.cmcodingchallenge.bank.Deadline;
+import com.crewmeister.cmcodingchallenge.model.SyncCoverageRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
-import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class SyncServiceTest {
 
+    private static final Set<String> ALL = Set.of("*");
+
     @Mock
-    private BankService bankService;
+    private SyncCoverageRepository coverageRepo;
 
     @Mock
-    private ExchangeRateRepository repo;
+    private SyncPipeline pipeline;
 
     @Mock
-    private DbWriter dbWriter;
+    private SyncLease lease;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
 
     private SyncService syncService;
 
     @BeforeEach
     void setUp() {
-        syncService = new SyncService(bankService, repo, dbWriter);
+        syncService = new SyncService(coverageRepo, pipeline, lease, new SyncProperties(Duration.ofSeconds(20), 500, 1000, 60), registry);
+        lenient().when(pipeline.run(any(), any(), any(), any())).thenReturn(WriteResult.NONE);
+        // the re-check under the lock delegates to the stubbed query
+        // the primary answers like the replica unless a test says otherwise
+        lenient().when(coverageRepo.countCoveredDatesOnPrimary(any(), any(), any())).thenAnswer(call ->
+                coverageRepo.countCoveredDates(call.getArgument(0), call.getArgument(1), call.getArgument(2)));
     }
 
     @Test
     void syncRangeSkipsWhenAlreadyCoveredAndNotForced() {
         LocalDate start = LocalDate.of(2026, 1, 1);
         LocalDate end = LocalDate.of(2026, 1, 3);
-        when(repo.countDistinctDates(start, end)).thenReturn(3L);
+        when(coverageRepo.countCoveredDates(start, end, ALL)).thenReturn(3L);
 
         syncService.syncRange(start, end, false);
 
-        verify(repo).countDistinctDates(start, end);
-        verify(bankService, never()).retrieveRates(start, end);
-        verify(dbWriter, never()).saveToDb(org.mockito.ArgumentMatchers.anyList());
+        verify(coverageRepo).countCoveredDates(start, end, ALL);
+        verify(pipeline, never()).run(any(), any(), any(), any());
+        assertEquals(1.0, registry.get("sync.coverage").tag("result", "hit").counter().count());
+        assertEquals(1L, registry.get("sync.range").tag("outcome", "covered").timer().count());
     }
 
     @Test
     void syncRangeForcedIgnoresCoverageAndFetchesFromBank() {
         LocalDate start = LocalDate.of(2026, 1, 1);
         LocalDate end = LocalDate.of(2026, 1, 3);
-        List<ExchangeRateRow> rows = List.of(
-                new ExchangeRateRow(LocalDate.of(2026, 1, 1), "USD", new BigDecimal("1.10"))
-        );
-        when(bankService.retrieveRates(start, end)).thenReturn(rows);
+        WriteResult result = new WriteResult(1, 2, 3);
+        when(pipeline.run(eq(start), eq(end), isNull(), any(Deadline.class))).thenReturn(result);
+
+        assertEquals(result, syncService.syncRange(start, end, true));
+
+        verify(coverageRepo, never()).countCoveredDates(any(), any(), any());
+        verify(pipeline).run(eq(start), eq(end), isNull(), any(Deadline.class));
+    }
+
+    @Test
+    void singleCurrencySyncRunsPipelineForThatCurrency() {
+        LocalDate date = LocalDate.of(2026, 2, 18);
+        when(coverageRepo.countCoveredDates(date, date, Set.of("*", "USD"))).thenReturn(0L);
+
+        syncService.syncDay(date, "USD");
+
+        verify(pipeline).run(eq(date), eq(date), eq("USD"), any(Deadline.class));
+    }
+
+    @Test
+    void singleCurrencySyncIsSkippedWhenCoveredByCurrencyOrFullSync() {
+        LocalDate date = LocalDate.of(2026, 2, 18);
+        when(coverageRepo.countCoveredDates(date, date, Set.of("*", "USD"))).thenReturn(1L);
+
+        syncService.syncDay(date, "USD");
+
+        verifyNoInteractions(pipeline);
+    }
+
+    @Test
+    void concurrentSyncIsRejectedAndCountedAsLockContention() throws Exception {
+        LocalDate date = LocalDate.of(2026, 2, 1);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(pipeline.run(any(), any(), any(), any())).thenAnswer(invocation -> {
+            running.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return WriteResult.NONE;
+        });
+        Thread first = Thread.ofVirtual().start(() -> syncService.syncRange(date, date, true));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+
+        assertThrows(SyncInProgressException.class, () -> syncService.syncRange(date, date, true));
+        release.countDown();
+        first.join();
+
+        assertEquals(1.0, registry.get("sync.lock.rejected").counter().count());
+        assertEquals(1L, registry.get("sync.range").tag("outcome", "rejected").timer().count());
+        assertEquals(1L, registry.get("sync.range").tag("outcome", "synced").timer().count());
+    }
+
+    @Test
+    void coveredRangeIsServedWhileAnotherSyncHoldsTheLock() throws Exception {
+        LocalDate date = LocalDate.of(2026, 2, 1);
+        LocalDate covered = LocalDate.of(2026, 1, 15);
+        when(coverageRepo.countCoveredDates(covered, covered, ALL)).thenReturn(1L);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(pipeline.run(any(), any(), any(), any())).thenAnswer(invocation -> {
+            running.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return WriteResult.NONE;
+        });
+        Thread first = Thread.ofVirtual().start(() -> syncService.syncRange(date, date, true));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+
+        assertEquals(WriteResult.NONE, syncService.syncRange(covered, covered, false));
+        release.countDown();
+        first.join();
+
+        assertEquals(0.0, registry.get("sync.lock.rejected").counter().count());
+        assertEquals(1L, registry.get("sync.range").tag("outcome", "covered").timer().count());
+    }
+
+    @Test
+    void coverageIsCheckedAgainOnceTheLockIsHeld() {
+        LocalDate start = LocalDate.of(2026, 1, 1);
+        LocalDate end = LocalDate.of(2026, 1, 3);
+        // a sync that finished in between covered the range
+        when(coverageRepo.countCoveredDates(start, end, ALL)).thenReturn(0L, 3L);
+
+        syncService.syncRange(start, end, false);
+
+        verify(coverageRepo, times(2)).countCoveredDates(start, end, ALL);
+        verifyNoInteractions(pipeline);
+        assertEquals(1.0, registry.get("sync.coverage").tag("result", "hit").counter().count());
+        assertEquals(0.0, registry.get("sync.coverage").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void leaseIsTakenBeforeTheSecondCoverageCheckAndReleasedAfterTheSync() {
+        LocalDate start = LocalDate.of(2026, 1, 1);
+        LocalDate end = LocalDate.of(2026, 1, 3);
+        when(coverageRepo.countCoveredDates(start, end, ALL)).thenReturn(0L);
+        when(pipeline.run(any(), any(), any(), any())).thenThrow(new IllegalStateException("bank down"));
+
+        assertThrows(IllegalStateException.class, () -> syncService.syncRange(start, end, false));
+
+        InOrder order = inOrder(coverageRepo, lease, pipeline);
+        order.verify(coverageRepo).countCoveredDates(start, end, ALL);
+        order.verify(lease).acquire(any(Deadline.class));
+        order.verify(coverageRepo).countCoveredDates(start, end, ALL);
+        order.verify(pipeline).run(eq(start), eq(end), isNull(), any(Deadline.class));
+        order.verify(lease).release();
+    }
+
+    @Test
+    void rangeSyncedByAnotherNodeWhileWaitingForTheLeaseIsNotFetchedAgain() {
+        LocalDate start = LocalDate.of(2026, 1, 1);
+        LocalDate end = LocalDate.of(2026, 1, 3);
+        when(coverageRepo.countCoveredDates(start, end, ALL)).thenReturn(0L, 3L);
+
+        assertEquals(WriteResult.NONE, syncService.syncRange(start, end, false));
+
+        verify(lease).acquire(any(Deadline.class));
+        verify(lease).release();
+        verifyNoInteractions(pipeline);
+    }
+
+    @Test
+    void leaseHeldByAnotherNodeRejectsTheSyncAndFreesTheLock() {
+        LocalDate date = LocalDate.of(2026, 2, 1);
+        when(lease.acquire(any(Deadline.class)))
+                .thenThrow(new SyncInProgressException("sync in progress on another node, retry"))
+                .thenReturn(7L);
 
-        syncService.syncRange(start, end, true);
+        assertThrows(SyncInProgressException.class, () -> syncService.syncRange(date, date, true));
+        syncService.syncRange(date, date, true);
 
-        verify(repo, never()).countDistinctDates(start, end);
-        verify(bankService).retrieveRates(start, end);
-        verify(dbWriter).saveToDb(rows);
+        verify(pipeline).run(eq(date), eq(date), isNull(), any(Deadline.class));
+        assertEquals(1L, registry.get("sync.range").tag("outcome", "failed").timer().count());
     }
 
     @Test
@@ -90,25 +228,22 @@ class SyncServiceTest {
     @Test
     void syncDayUsesSameStartAndEndDate() {
         LocalDate date = LocalDate.of(2026, 2, 1);
-        when(repo.countDistinctDates(date, date)).thenReturn(0L);
-        when(bankService.retrieveRates(date, date)).thenReturn(List.of());
+        when(coverageRepo.countCoveredDates(date, date, ALL)).thenReturn(0L);
 
         syncService.syncDay(date);
 
-        verify(bankService).retrieveRates(date, date);
-        verify(dbWriter).saveToDb(List.of());
+        verify(pipeline).run(eq(date), eq(date), isNull(), any(Deadline.class));
     }
 
     @Test
     void syncLastDaysUsesThirtyDayWindow() {
-        when(repo.countDistinctDates(org.mockito.ArgumentMatchers.any(), org.mockito.ArgumentMatchers.any())).thenReturn(0L);
-        when(bankService.retrieveRates(org.mockito.ArgumentMatchers.any(), org.mockito.ArgumentMatchers.any())).thenReturn(List.of());
+        when(coverageRepo.countCoveredDates(any(), any(), any())).thenReturn(0L);
 
         syncService.syncLastDays();
 
         ArgumentCaptor<LocalDate> startCaptor = ArgumentCaptor.forClass(LocalDate.class);
         ArgumentCaptor<LocalDate> endCaptor = ArgumentCaptor.forClass(LocalDate.class);
-        verify(bankService).retrieveRates(startCaptor.capture(), endCaptor.capture());
+        verify(pipeline).run(startCaptor.capture(), endCaptor.capture(), isNull(), any(Deadline.class));
 
         LocalDate start = startCaptor.getValue();
         LocalDate end = endCaptor.getValue();
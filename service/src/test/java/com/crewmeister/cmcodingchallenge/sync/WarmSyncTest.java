@@ -0,0 +1,166 @@
+package com.crewmeister.cmcodingchallenge.sync;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WarmSyncTest {
+
+    @Mock
+    private SyncService syncService;
+
+    @Mock
+    private CurrencyCatalog catalog;
+
+    @Test
+    void outOfServiceUntilStartedAndWhileSyncing() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(syncService).syncLastDays();
+        WarmSync warmSync = warmSync(true, Duration.ofMinutes(1));
+        assertThat(warmSync.health().getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+
+        warmSync.start();
+        assertThat(warmSync.health().getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+
+        release.countDown();
+        await().atMost(Duration.ofSeconds(5)).until(() -> warmSync.state() == WarmSync.State.SYNCED);
+        assertThat(warmSync.health().getStatus()).isEqualTo(Status.UP);
+    }
+
+    @Test
+    void startReturnsBeforeTheSyncFinishes() {
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(syncService).syncLastDays();
+        WarmSync warmSync = warmSync(true, Duration.ofMinutes(1));
+
+        warmSync.start();
+
+        assertThat(warmSync.state()).isEqualTo(WarmSync.State.RUNNING);
+        release.countDown();
+        await().atMost(Duration.ofSeconds(5)).until(() -> warmSync.state() == WarmSync.State.SYNCED);
+    }
+
+    @Test
+    void failedSyncStaysOutOfServiceUntilTimeout() {
+        doThrow(new IllegalStateException("bank down")).when(syncService).syncLastDays();
+        WarmSync warmSync = warmSync(true, Duration.ofSeconds(2));
+
+        warmSync.start();
+        await().atMost(Duration.ofSeconds(5)).until(() -> warmSync.state() == WarmSync.State.FAILED);
+        Health failed = warmSync.health();
+        assertThat(failed.getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+        assertThat(failed.getDetails()).containsEntry("failure", "bank down");
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> warmSync.health().getStatus().equals(Status.UP));
+        assertThat(warmSync.health().getDetails()).containsEntry("timedOut", true);
+    }
+
+    @Test
+    void retriesWhenAnOnDemandSyncHoldsTheLock() {
+        doThrow(new SyncInProgressException("busy"))
+                .doThrow(new SyncInProgressException("busy"))
+                .doNothing()
+                .when(syncService).syncLastDays();
+        WarmSync warmSync = warmSync(true, Duration.ofMinutes(1));
+
+        warmSync.start();
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> warmSync.state() == WarmSync.State.SYNCED);
+        verify(syncService, times(3)).syncLastDays();
+    }
+
+    @Test
+    void disabledWarmSyncIsReadyWithoutSyncing() {
+        WarmSync warmSync = warmSync(false, Duration.ofMinutes(1));
+
+        warmSync.start();
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> warmSync.state() == WarmSync.State.DISABLED);
+        assertThat(warmSync.health().getStatus()).isEqualTo(Status.UP);
+        verify(catalog).backfill();
+        verifyNoInteractions(syncService);
+    }
+
+    @Test
+    void catalogIsBackfilledBeforeTheSync() {
+        WarmSync warmSync = warmSync(true, Duration.ofMinutes(1));
+
+        warmSync.start();
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> warmSync.state() == WarmSync.State.SYNCED);
+        InOrder order = inOrder(catalog, syncService);
+        order.verify(catalog).backfill();
+        order.verify(syncService).syncLastDays();
+    }
+
+    @Test
+    void backfillRetriesWhenASyncHoldsTheLock() {
+        doThrow(new SyncInProgressException("busy"))
+                .doNothing()
+                .when(catalog).backfill();
+        WarmSync warmSync = warmSync(true, Duration.ofMinutes(1));
+
+        warmSync.start();
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> warmSync.state() == WarmSync.State.SYNCED);
+        verify(catalog, times(2)).backfill();
+        verify(syncService).syncLastDays();
+    }
+
+    @Test
+    void awaitFinishedReturnsOnceTheSyncEndsEvenIfItFailed() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            throw new IllegalStateException("bank down");
+        }).when(syncService).syncLastDays();
+        WarmSync warmSync = warmSync(true, Duration.ofMinutes(1));
+
+        warmSync.start();
+        assertThat(warmSync.awaitFinished(Duration.ofMillis(50))).isFalse();
+
+        release.countDown();
+        assertThat(warmSync.awaitFinished(Duration.ofSeconds(5))).isTrue();
+        assertThat(warmSync.state()).isEqualTo(WarmSync.State.FAILED);
+    }
+
+    @Test
+    void awaitFinishedOnlyWaitsForTheBackfillWhenDisabled() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(catalog).backfill();
+        WarmSync warmSync = warmSync(false, Duration.ofMinutes(1));
+
+        warmSync.start();
+        assertThat(warmSync.awaitFinished(Duration.ofMillis(50))).isFalse();
+
+        release.countDown();
+        assertThat(warmSync.awaitFinished(Duration.ofSeconds(5))).isTrue();
+        assertThat(warmSync.state()).isEqualTo(WarmSync.State.DISABLED);
+    }
+
+    private WarmSync warmSync(boolean enabled, Duration readinessTimeout) {
+        return new WarmSync(syncService, catalog, new WarmSyncProperties(enabled, readinessTimeout));
+    }
+}